@@ -0,0 +1,36 @@
+package com.dk.dermokometicapi.cache;
+
+import com.dk.dermokometicapi.models.dto.AnswerResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * First pages of top level answers per question, see {@link ThreadPageCache}.
+ */
+@Component
+public class AnswerPageCache extends ThreadPageCache<AnswerResponseDTO> {
+
+    public AnswerPageCache(@Value("${dk.cache.threads.enabled:true}") boolean enabled,
+                           @Value("${dk.cache.threads.max-entries:10000}") int maxEntries,
+                           @Value("${dk.cache.threads.ttl-ms:30000}") long ttlMillis) {
+        super(enabled, maxEntries, ttlMillis);
+    }
+
+    @Override
+    protected Long idOf(AnswerResponseDTO answer) {
+        return answer.getId();
+    }
+
+    @Override
+    protected long likesOf(AnswerResponseDTO answer) {
+        return answer.getLikes();
+    }
+
+    // cached pages are shared, so counts change on a copy
+    @Override
+    protected AnswerResponseDTO withCounts(AnswerResponseDTO answer, long likesDelta, long responsesDelta) {
+        return new AnswerResponseDTO(answer.getId(), answer.getContent(), answer.getPublicationDate(),
+                answer.getParentAnswerId(), answer.getQuestionId(), answer.getUserId(),
+                answer.getLikes() + likesDelta, answer.getResponses() + responsesDelta);
+    }
+}
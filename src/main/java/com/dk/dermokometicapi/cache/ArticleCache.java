@@ -0,0 +1,153 @@
+package com.dk.dermokometicapi.cache;
+
+import com.dk.dermokometicapi.models.dto.ArticleResponseDTO;
+import com.dk.dermokometicapi.models.dto.CacheStatsResponseDTO;
+import com.dk.dermokometicapi.utils.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through cache of full articles keyed by id, with a title index on top.
+ * Entries are weighted by their approximate size (mostly the detail content) and
+ * the least recently read ones are evicted once the total weight exceeds the bound.
+ * Every write to an article stamps it with the next tick of a clock; a loader takes a {@link #ticket()} before
+ * it reads, and its entry is refused when the article was stamped since, as what it read may predate the write.
+ */
+@Component
+public class ArticleCache {
+    // rough per entry cost of the DTO, its map nodes and the non text fields
+    private static final long ENTRY_OVERHEAD = 256;
+
+    private final long maxWeight;
+    private final LinkedHashMap<Long, Entry> byId = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> idByTitle = new HashMap<>();
+    // tick of the last write per article, one small entry for each article ever written
+    private final Map<Long, Long> changedAt = new HashMap<>();
+    private long clock;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ArticleCache(@Value("${dk.cache.articles.max-weight:33554432}") long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    public synchronized Optional<ArticleResponseDTO> getById(Long id) {
+        return record(byId.get(id));
+    }
+
+    public synchronized Optional<ArticleResponseDTO> getByTitle(String title) {
+        Long id = idByTitle.get(title);
+        return record(id == null ? null : byId.get(id));
+    }
+
+    // taken before loading an article, and handed back to put with what was loaded
+    public synchronized long ticket() {
+        return clock;
+    }
+
+    public synchronized void put(ArticleResponseDTO article, long ticket) {
+        if (changedAt.getOrDefault(article.getId(), 0L) > ticket) return;
+        long entryWeight = weigh(article);
+        if (entryWeight > maxWeight) return;
+        remove(article.getId());
+        byId.put(article.getId(), new Entry(article, ticket));
+        idByTitle.put(article.getTitle(), article.getId());
+        weight += entryWeight;
+        Iterator<Entry> eldest = byId.values().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            ArticleResponseDTO evicted = eldest.next().article();
+            eldest.remove();
+            idByTitle.remove(evicted.getTitle());
+            weight -= weigh(evicted);
+            evictions++;
+        }
+    }
+
+    // stamps and evicts right away and once more after commit, so a load that read before the commit is refused
+    public void evict(Long id) {
+        synchronized (this) {
+            stamp(id);
+            remove(id);
+        }
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                stamp(id);
+                remove(id);
+            }
+        });
+    }
+
+    // counters are only applied once the like or comment is committed, and only to an entry loaded before the
+    // write began; one loaded in between may or may not count it already, so it is dropped instead
+    public void adjustCounts(Long id, long likesDelta, long commentsDelta) {
+        long writeStarted;
+        synchronized (this) {
+            writeStarted = stamp(id);
+        }
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                stamp(id);
+                Entry cached = byId.get(id);
+                if (cached == null) return;
+                if (cached.ticket() >= writeStarted) {
+                    remove(id);
+                    return;
+                }
+                ArticleResponseDTO updated = copy(cached.article());
+                updated.setLikes(updated.getLikes() + likesDelta);
+                updated.setComments(updated.getComments() + commentsDelta);
+                byId.put(id, new Entry(updated, cached.ticket()));
+            }
+        });
+    }
+
+    public synchronized CacheStatsResponseDTO getStats() {
+        return new CacheStatsResponseDTO(hits, misses, evictions, byId.size(), weight, maxWeight);
+    }
+
+    private Optional<ArticleResponseDTO> record(Entry entry) {
+        if (entry == null) misses++;
+        else hits++;
+        return Optional.ofNullable(entry).map(Entry::article);
+    }
+
+    private long stamp(Long id) {
+        changedAt.put(id, ++clock);
+        return clock;
+    }
+
+    private void remove(Long id) {
+        Entry removed = byId.remove(id);
+        if (removed == null) return;
+        idByTitle.remove(removed.article().getTitle(), id);
+        weight -= weigh(removed.article());
+    }
+
+    private static long weigh(ArticleResponseDTO article) {
+        return ENTRY_OVERHEAD
+                + 2L * (length(article.getContent()) + length(article.getTitle())
+                + length(article.getDescription()) + length(article.getMainImg()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static ArticleResponseDTO copy(ArticleResponseDTO article) {
+        return new ArticleResponseDTO(article.getId(), article.getTitle(), article.getDescription(), article.getType(),
+                article.getMainImg(), article.getPublicationDate(), article.getLastUpdateDate(), article.getLikes(),
+                article.getComments(), article.getWriterIds(), article.getContent(), article.getContentVersion());
+    }
+
+    // ticket is the clock when the article was read from the database
+    private record Entry(ArticleResponseDTO article, long ticket) {
+    }
+}
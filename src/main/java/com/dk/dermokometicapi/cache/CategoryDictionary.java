@@ -0,0 +1,81 @@
+package com.dk.dermokometicapi.cache;
+
+import com.dk.dermokometicapi.models.dto.CategoryResponseDTO;
+import com.dk.dermokometicapi.models.projections.TypeCountProjection;
+import com.dk.dermokometicapi.utils.TransactionHooks;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Article and question types with how many of each use them, kept in memory so listing
+ * categories or filtering by "all of them" never scans the tables. Loaded once at startup
+ * and adjusted by the services after each committed create, update or delete.
+ */
+@Component
+public class CategoryDictionary {
+
+    private static class Counts {
+        long articles;
+        long questions;
+    }
+
+    private final Map<String, Counts> counts = new TreeMap<>();
+
+    public synchronized void load(List<TypeCountProjection> articleTypes, List<TypeCountProjection> questionTypes) {
+        counts.clear();
+        for (TypeCountProjection row : articleTypes) {
+            counts.computeIfAbsent(row.getType(), type -> new Counts()).articles = row.getTotal();
+        }
+        for (TypeCountProjection row : questionTypes) {
+            counts.computeIfAbsent(row.getType(), type -> new Counts()).questions = row.getTotal();
+        }
+    }
+
+    public void addArticle(String type) {
+        TransactionHooks.afterCommit(() -> adjust(type, 1, 0));
+    }
+
+    public void removeArticle(String type) {
+        TransactionHooks.afterCommit(() -> adjust(type, -1, 0));
+    }
+
+    public void moveArticle(String from, String to) {
+        if (Objects.equals(from, to)) return;
+        TransactionHooks.afterCommit(() -> {
+            adjust(from, -1, 0);
+            adjust(to, 1, 0);
+        });
+    }
+
+    public void addQuestion(String type) {
+        TransactionHooks.afterCommit(() -> adjust(type, 0, 1));
+    }
+
+    public void removeQuestion(String type) {
+        TransactionHooks.afterCommit(() -> adjust(type, 0, -1));
+    }
+
+    public synchronized List<String> getArticleTypes() {
+        return counts.entrySet().stream()
+                .filter(entry -> entry.getValue().articles > 0)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    public synchronized List<CategoryResponseDTO> getCategories() {
+        return counts.entrySet().stream()
+                .map(entry -> new CategoryResponseDTO(entry.getKey(), entry.getValue().articles, entry.getValue().questions))
+                .toList();
+    }
+
+    private synchronized void adjust(String type, long articles, long questions) {
+        Counts entry = counts.computeIfAbsent(type, t -> new Counts());
+        entry.articles = Math.max(0, entry.articles + articles);
+        entry.questions = Math.max(0, entry.questions + questions);
+        if (entry.articles == 0 && entry.questions == 0) counts.remove(type);
+    }
+}
@@ -0,0 +1,36 @@
+package com.dk.dermokometicapi.cache;
+
+import com.dk.dermokometicapi.models.dto.CommentResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * First pages of top level comments per article, see {@link ThreadPageCache}.
+ */
+@Component
+public class CommentPageCache extends ThreadPageCache<CommentResponseDTO> {
+
+    public CommentPageCache(@Value("${dk.cache.threads.enabled:true}") boolean enabled,
+                            @Value("${dk.cache.threads.max-entries:10000}") int maxEntries,
+                            @Value("${dk.cache.threads.ttl-ms:30000}") long ttlMillis) {
+        super(enabled, maxEntries, ttlMillis);
+    }
+
+    @Override
+    protected Long idOf(CommentResponseDTO comment) {
+        return comment.getId();
+    }
+
+    @Override
+    protected long likesOf(CommentResponseDTO comment) {
+        return comment.getLikeNumber();
+    }
+
+    // cached pages are shared, so counts change on a copy
+    @Override
+    protected CommentResponseDTO withCounts(CommentResponseDTO comment, long likesDelta, long responsesDelta) {
+        return new CommentResponseDTO(comment.getId(), comment.getContent(), comment.getPublicationDate(),
+                comment.getParentCommentId(), comment.getArticleId(), comment.getUserId(),
+                comment.getLikeNumber() + likesDelta, comment.getResponseNumber() + responsesDelta);
+    }
+}
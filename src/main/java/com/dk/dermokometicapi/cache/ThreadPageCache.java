@@ -0,0 +1,244 @@
+package com.dk.dermokometicapi.cache;
+
+import com.dk.dermokometicapi.utils.TransactionHooks;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * First page of the top level comments or answers under one article or question, kept per ordering and page size.
+ * New posts, replies and likes are applied to the cached pages in place once committed instead of dropping them,
+ * and a missing page is loaded by one caller while concurrent readers of the same page wait for its result.
+ * What cannot be placed in memory (a like lifting an item from a later page, likes flushed by the write-behind
+ * buffer, the parent itself being deleted) shows up once the entry is older than the ttl.
+ */
+public abstract class ThreadPageCache<T> {
+    // larger pages go straight to the database
+    static final int MAX_PAGE_SIZE = 50;
+
+    public enum Ordering { RECENT, LIKES }
+
+    private record Key(Long parentId, Ordering ordering, int pageSize) {
+    }
+
+    private record Entry<T>(List<T> content, long total, long loadedAt) {
+    }
+
+    private static final class Load<T> {
+        private final CompletableFuture<Entry<T>> result = new CompletableFuture<>();
+        // the parent changed while the page was read, the result is handed out but not kept
+        private boolean stale;
+    }
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<Key, Entry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, Set<Key>> keysByParent = new HashMap<>();
+    private final Map<Long, Long> parentByItem = new HashMap<>();
+    private final Map<Key, Load<T>> loading = new HashMap<>();
+
+    protected ThreadPageCache(boolean enabled, int maxEntries, long ttlMillis) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    protected abstract Long idOf(T item);
+
+    protected abstract long likesOf(T item);
+
+    protected abstract T withCounts(T item, long likesDelta, long responsesDelta);
+
+    // ordering is null for orderings that are not cached
+    public Page<T> get(Long parentId, Ordering ordering, Pageable pageable, Supplier<Page<T>> loader) {
+        if (!enabled || ordering == null || pageable.getPageNumber() != 0 || pageable.getPageSize() > MAX_PAGE_SIZE) {
+            return loader.get();
+        }
+        Key key = new Key(parentId, ordering, pageable.getPageSize());
+        Load<T> load;
+        boolean loads = false;
+        synchronized (this) {
+            Entry<T> entry = entries.get(key);
+            if (entry != null && !isExpired(entry)) return toPage(entry, pageable);
+            load = loading.get(key);
+            if (load == null) {
+                load = new Load<>();
+                loading.put(key, load);
+                loads = true;
+            }
+        }
+        if (loads) return load(key, load, loader);
+        try {
+            return toPage(load.result.join(), pageable);
+        } catch (CompletionException e) {
+            // the loading caller got the error, this one tries on its own
+            return loader.get();
+        }
+    }
+
+    // a new top level post
+    public void added(Long parentId, T item) {
+        if (!enabled) return;
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                markStale(parentId);
+                for (Key key : List.copyOf(keysByParent.getOrDefault(parentId, Set.of()))) {
+                    Entry<T> entry = entries.get(key);
+                    List<T> content = new ArrayList<>(entry.content());
+                    if (key.ordering() == Ordering.RECENT) {
+                        content.add(0, item);
+                        if (content.size() > key.pageSize()) content.remove(content.size() - 1);
+                    } else if (content.size() < key.pageSize()) {
+                        // no likes yet, so it goes last
+                        content.add(item);
+                    }
+                    replace(key, new Entry<>(List.copyOf(content), entry.total() + 1, entry.loadedAt()));
+                }
+            }
+        });
+    }
+
+    // a reply to a top level post, which only changes that post's reply count
+    public void replied(Long itemId) {
+        if (!enabled) return;
+        TransactionHooks.afterCommit(() -> adjust(itemId, 0, 1));
+    }
+
+    public void liked(Long itemId, long delta) {
+        if (!enabled) return;
+        TransactionHooks.afterCommit(() -> adjust(itemId, delta, 0));
+    }
+
+    // deletes can take replies and their counts with them, so the parent's pages are dropped
+    public void removed(Long parentId) {
+        if (!enabled) return;
+        synchronized (this) {
+            evict(parentId);
+        }
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                evict(parentId);
+            }
+        });
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    protected long now() {
+        return System.currentTimeMillis();
+    }
+
+    // runs in the caller that registered the load, outside the lock
+    private Page<T> load(Key key, Load<T> load, Supplier<Page<T>> loader) {
+        Page<T> page;
+        try {
+            page = loader.get();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                loading.remove(key);
+            }
+            load.result.completeExceptionally(e);
+            throw e;
+        }
+        Entry<T> entry = new Entry<>(List.copyOf(page.getContent()), page.getTotalElements(), now());
+        synchronized (this) {
+            loading.remove(key);
+            if (!load.stale) replace(key, entry);
+        }
+        load.result.complete(entry);
+        return page;
+    }
+
+    private synchronized void adjust(Long itemId, long likesDelta, long responsesDelta) {
+        Long parentId = parentByItem.get(itemId);
+        if (parentId == null) return;
+        markStale(parentId);
+        for (Key key : List.copyOf(keysByParent.getOrDefault(parentId, Set.of()))) {
+            Entry<T> entry = entries.get(key);
+            int index = indexOf(entry.content(), itemId);
+            if (index < 0) continue;
+            List<T> content = new ArrayList<>(entry.content());
+            content.set(index, withCounts(content.get(index), likesDelta, responsesDelta));
+            if (key.ordering() == Ordering.LIKES && likesDelta != 0) {
+                content.sort(Comparator.<T>comparingLong(this::likesOf).reversed());
+                // an item that sank to the bottom of a full page may now belong below one on the next page
+                if (likesDelta < 0 && content.size() == key.pageSize() && idOf(content.get(content.size() - 1)).equals(itemId)) {
+                    remove(key);
+                    continue;
+                }
+            }
+            entries.put(key, new Entry<>(List.copyOf(content), entry.total(), entry.loadedAt()));
+        }
+    }
+
+    private void replace(Key key, Entry<T> entry) {
+        remove(key);
+        entries.put(key, entry);
+        keysByParent.computeIfAbsent(key.parentId(), id -> new HashSet<>()).add(key);
+        entry.content().forEach(item -> parentByItem.put(idOf(item), key.parentId()));
+        // least recently read first
+        while (entries.size() > maxEntries) {
+            remove(entries.keySet().iterator().next());
+        }
+    }
+
+    private void remove(Key key) {
+        Entry<T> removed = entries.remove(key);
+        if (removed != null) forget(key, removed);
+    }
+
+    // drops the bookkeeping of an entry that already left the map; items still on another page of the parent stay
+    private void forget(Key key, Entry<T> removed) {
+        Set<Key> keys = keysByParent.get(key.parentId());
+        keys.remove(key);
+        if (keys.isEmpty()) keysByParent.remove(key.parentId());
+        for (T item : removed.content()) {
+            Long itemId = idOf(item);
+            boolean stillCached = keys.stream().anyMatch(other -> indexOf(entries.get(other).content(), itemId) >= 0);
+            if (!stillCached) parentByItem.remove(itemId);
+        }
+    }
+
+    private void evict(Long parentId) {
+        markStale(parentId);
+        for (Key key : List.copyOf(keysByParent.getOrDefault(parentId, Set.of()))) {
+            remove(key);
+        }
+    }
+
+    private void markStale(Long parentId) {
+        loading.forEach((key, load) -> {
+            if (key.parentId().equals(parentId)) load.stale = true;
+        });
+    }
+
+    private boolean isExpired(Entry<T> entry) {
+        return now() - entry.loadedAt() >= ttlMillis;
+    }
+
+    private int indexOf(List<T> content, Long itemId) {
+        for (int i = 0; i < content.size(); i++) {
+            if (idOf(content.get(i)).equals(itemId)) return i;
+        }
+        return -1;
+    }
+
+    private static <T> Page<T> toPage(Entry<T> entry, Pageable pageable) {
+        return new PageImpl<>(entry.content(), pageable, entry.total());
+    }
+}
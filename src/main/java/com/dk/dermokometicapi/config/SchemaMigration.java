@@ -0,0 +1,130 @@
+package com.dk.dermokometicapi.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schema changes that ddl-auto=update cannot make safely on tables that already hold rows. They run before
+ * Hibernate looks at the schema, which then finds them done and leaves them alone. On an empty database there
+ * is nothing to migrate and Hibernate creates the tables as mapped. Hibernate only logs DDL that fails, so the
+ * constraints likes rely on are checked once it is done, and startup fails without them.
+ */
+@Slf4j
+@Configuration
+public class SchemaMigration {
+    // table to the date its rows were posted or liked on
+    static final Map<String, String> CREATED_AT_SOURCES = new LinkedHashMap<>();
+
+    static {
+        CREATED_AT_SOURCES.put("articles", "publication_date");
+        CREATED_AT_SOURCES.put("comments", "publication_date");
+        CREATED_AT_SOURCES.put("questions", "publication_date");
+        CREATED_AT_SOURCES.put("answers", "publication_date");
+        CREATED_AT_SOURCES.put("article_likes", "like_date");
+        CREATED_AT_SOURCES.put("comment_likes", "publication_date");
+        CREATED_AT_SOURCES.put("question_likes", "like_date");
+        CREATED_AT_SOURCES.put("answer_likes", "like_date");
+    }
+
+    // one like per user and target, which insert-if-absent and the like counters rely on
+    record LikeConstraint(String table, String targetColumn, String targetTable, String name) {
+    }
+
+    static final List<LikeConstraint> LIKE_CONSTRAINTS = List.of(
+            new LikeConstraint("article_likes", "article_id", "articles", "uk_article_likes_article_user"),
+            new LikeConstraint("comment_likes", "comment_id", "comments", "uk_comment_likes_comment_user"),
+            new LikeConstraint("question_likes", "question_id", "questions", "uk_question_likes_question_user"),
+            new LikeConstraint("answer_likes", "answer_id", "answers", "uk_answer_likes_answer_user"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaMigration(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    // the entity manager factory, and with it the schema update, waits for migrate
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor schemaMigrationFirst() {
+        return new EntityManagerFactoryDependsOnPostProcessor("schemaMigration");
+    }
+
+    // runs once every singleton, the entity manager factory included, is up and before the server takes requests
+    @Bean
+    SmartInitializingSingleton schemaVerification() {
+        return this::verify;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        CREATED_AT_SOURCES.forEach(this::addCreatedAt);
+        LIKE_CONSTRAINTS.forEach(this::addLikeConstraint);
+    }
+
+    public void verify() {
+        for (LikeConstraint constraint : LIKE_CONSTRAINTS) {
+            if (!hasConstraint(constraint)) {
+                throw new IllegalStateException("Unique constraint " + constraint.name() + " is missing on " + constraint.table() +
+                        "; remove duplicate likes and add it on (" + constraint.targetColumn() + ", user_id)");
+            }
+        }
+    }
+
+    // added by Hibernate, the column's default would stamp every existing row with the migration time and sort
+    // them all as the newest; they get midnight of the day they were posted instead, the id still breaks ties
+    void addCreatedAt(String table, String dateColumn) {
+        if (!hasTable(table) || hasColumn(table, "created_at")) return;
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD COLUMN created_at timestamp(6) with time zone");
+        int rows = jdbcTemplate.update("UPDATE " + table + " SET created_at = " +
+                "COALESCE(CAST(" + dateColumn + " AS timestamp(6) with time zone), current_timestamp)");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN created_at SET DEFAULT current_timestamp");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN created_at SET NOT NULL");
+        log.info("Added created_at to {} from {} of {} rows", table, dateColumn, rows);
+    }
+
+    // Hibernate would try to add the constraint and only log the failure while duplicates are left, so those go first:
+    // the oldest like per user and target is kept, and counters that included the others are recounted
+    void addLikeConstraint(LikeConstraint constraint) {
+        if (!hasTable(constraint.table()) || hasConstraint(constraint)) return;
+        int removed = jdbcTemplate.update("DELETE FROM " + constraint.table() + " d WHERE EXISTS (SELECT 1 FROM " +
+                constraint.table() + " k WHERE k." + constraint.targetColumn() + " = d." + constraint.targetColumn() +
+                " AND k.user_id = d.user_id AND k.id < d.id)");
+        jdbcTemplate.execute("ALTER TABLE " + constraint.table() + " ADD CONSTRAINT " + constraint.name() +
+                " UNIQUE (" + constraint.targetColumn() + ", user_id)");
+        if (removed > 0 && hasColumn(constraint.targetTable(), "like_count")) {
+            jdbcTemplate.update("UPDATE " + constraint.targetTable() + " SET like_count = (SELECT COUNT(*) FROM " +
+                    constraint.table() + " l WHERE l." + constraint.targetColumn() + " = " + constraint.targetTable() + ".id)");
+        }
+        log.info("Added {} to {} after removing {} duplicate likes", constraint.name(), constraint.table(), removed);
+    }
+
+    private boolean hasConstraint(LikeConstraint constraint) {
+        return count("SELECT COUNT(*) FROM information_schema.table_constraints WHERE LOWER(table_name) = ? " +
+                "AND LOWER(constraint_name) = ? AND constraint_type = 'UNIQUE' AND table_schema = current_schema()",
+                constraint.table(), constraint.name()) > 0;
+    }
+
+    private boolean hasTable(String table) {
+        return count("SELECT COUNT(*) FROM information_schema.tables " +
+                "WHERE LOWER(table_name) = ? AND table_schema = current_schema()", table) > 0;
+    }
+
+    private boolean hasColumn(String table, String column) {
+        return count("SELECT COUNT(*) FROM information_schema.columns " +
+                "WHERE LOWER(table_name) = ? AND LOWER(column_name) = ? AND table_schema = current_schema()", table, column) > 0;
+    }
+
+    private int count(String sql, Object... args) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, args);
+        return count == null ? 0 : count;
+    }
+}
@@ -1,13 +1,17 @@
 package com.dk.dermokometicapi.controllers;
 
+import com.dk.dermokometicapi.export.NdjsonExporter;
 import com.dk.dermokometicapi.models.dto.*;
 import com.dk.dermokometicapi.services.AnswerService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -16,6 +20,7 @@ import java.util.List;
 @AllArgsConstructor
 public class AnswerController {
     public final AnswerService answerService;
+    private final NdjsonExporter ndjsonExporter;
 
     // get all answers
     @GetMapping()
@@ -23,6 +28,12 @@ public class AnswerController {
         return new ResponseEntity<>(answerService.getAllAnswers(), HttpStatus.OK);
     }
 
+    // same list as newline-delimited JSON, streamed from a database cursor for exports of any size
+    @GetMapping(produces = NdjsonExporter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportAllAnswers(){
+        return ndjsonExporter.export(answerService::streamAllAnswers);
+    }
+
     // get answer by id
     @GetMapping("/{id}")
     public ResponseEntity<AnswerResponseDTO> getAnswerById(@PathVariable Long id){
@@ -41,6 +52,18 @@ public class AnswerController {
         return new ResponseEntity<>(answerService.getAnswersByQuestionId(id, listRequestDTO), HttpStatus.OK);
     }
 
+    // live stream of new answers and like counts under the question, instead of polling the first page
+    @GetMapping(value = "/question/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamByQuestionId(@PathVariable Long id){
+        return answerService.streamByQuestionId(id);
+    }
+
+    // get answers by question id using a cursor instead of a page number
+    @GetMapping("/question/{id}/cursor")
+    public ResponseEntity<CursorPageResponseDTO<AnswerResponseDTO>> getAnswersByQuestionIdCursor(@PathVariable Long id, @RequestBody @Valid ListRequestDTO listRequestDTO){
+        return new ResponseEntity<>(answerService.getAnswersByQuestionIdCursor(id, listRequestDTO), HttpStatus.OK);
+    }
+
     // get answers by parent id
     @GetMapping("/parent/{id}")
     public ResponseEntity<Page<AnswerResponseDTO>> getAnswersByParentId(@PathVariable Long id, @RequestBody @Valid ListRequestDTO listRequestDTO){
@@ -57,7 +80,14 @@ public class AnswerController {
     // like answer
     @PostMapping("/like")
     public ResponseEntity<AnswerLikeResponseDTO> likeAnswer(@RequestBody @Valid AnswerLikeRequestDTO answerLikeRequestDTO){
-        return new ResponseEntity<>(answerService.likeAnswer(answerLikeRequestDTO), HttpStatus.CREATED);
+        AnswerLikeResponseDTO like = answerService.likeAnswer(answerLikeRequestDTO);
+        return new ResponseEntity<>(like, like.isAlreadyLiked() ? HttpStatus.OK : HttpStatus.CREATED);
+    }
+
+    // which of a page of answers the user liked
+    @PostMapping("/liked")
+    public ResponseEntity<List<Long>> getLikedIds(@RequestBody @Valid LikedByMeRequestDTO likedByMeRequestDTO){
+        return new ResponseEntity<>(answerService.getLikedIds(likedByMeRequestDTO), HttpStatus.OK);
     }
 
     // unlike answer
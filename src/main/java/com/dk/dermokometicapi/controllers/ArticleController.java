@@ -1,12 +1,17 @@
 package com.dk.dermokometicapi.controllers;
 
+import com.dk.dermokometicapi.export.NdjsonExporter;
 import com.dk.dermokometicapi.models.dto.*;
 import com.dk.dermokometicapi.services.ArticleService;
+import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -15,20 +20,33 @@ import java.util.List;
 @AllArgsConstructor
 public class ArticleController {
     private final ArticleService articleService;
+    private final NdjsonExporter ndjsonExporter;
 
     @GetMapping
     public ResponseEntity<List<ArticleSummaryResponseDTO>> getAllArticles() {
         return new ResponseEntity<>(articleService.getAllArticles(), HttpStatus.OK);
     }
 
+    // same list as newline-delimited JSON, streamed from a database cursor for exports of any size
+    @GetMapping(produces = NdjsonExporter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportAllArticles() {
+        return ndjsonExporter.export(articleService::streamAllArticles);
+    }
+
+    // checkNotModified answers 304 and sets the ETag, a null body ends the request there;
+    // the ETag is taken from the article about to be served, so a cached body never goes out under a newer one
     @GetMapping("/id/{id}")
-    public ResponseEntity<ArticleResponseDTO> getFullArticleById(@PathVariable Long id) {
-        return new ResponseEntity<>(articleService.getFullArticleById(id), HttpStatus.OK);
+    public ResponseEntity<ArticleResponseDTO> getFullArticleById(@PathVariable Long id, WebRequest request) {
+        ArticleResponseDTO article = articleService.getFullArticleById(id);
+        if (request.checkNotModified(articleService.getVersion(article).getEtag())) return null;
+        return new ResponseEntity<>(article, HttpStatus.OK);
     }
 
     @GetMapping("/title/{title}")
-    public ResponseEntity<ArticleResponseDTO> getFullArticleByTitle(@PathVariable String title) {
-        return new ResponseEntity<>(articleService.getFullArticleByTitle(title), HttpStatus.OK);
+    public ResponseEntity<ArticleResponseDTO> getFullArticleByTitle(@PathVariable String title, WebRequest request) {
+        ArticleResponseDTO article = articleService.getFullArticleByTitle(title);
+        if (request.checkNotModified(articleService.getVersion(article).getEtag())) return null;
+        return new ResponseEntity<>(article, HttpStatus.OK);
     }
 
     @PostMapping("/filter")
@@ -36,14 +54,26 @@ public class ArticleController {
         return new ResponseEntity<>(articleService.getFilteredList(filterRequestDTO), HttpStatus.OK);
     }
 
+    @PostMapping("/filter/cursor")
+    public ResponseEntity<CursorPageResponseDTO<ArticleSummaryResponseDTO>> searchArticlesByCursor(@RequestBody FilterRequestDTO filterRequestDTO) {
+        return new ResponseEntity<>(articleService.getCursorList(filterRequestDTO), HttpStatus.OK);
+    }
+
     @PostMapping
     public ResponseEntity<ArticleResponseDTO> createArticle(@RequestBody ArticleRequestDTO articleRequestDTO) {
         return new ResponseEntity<>(articleService.createArticle(articleRequestDTO), HttpStatus.CREATED);
     }
 
+    // raw image bytes, the format is read from the file itself
+    @PutMapping(value = "/id/{id}/main-img", consumes = {"image/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ArticleResponseDTO> putMainImg(@PathVariable Long id, @RequestBody byte[] image){
+        return new ResponseEntity<>(articleService.updateMainImg(id, image), HttpStatus.OK);
+    }
+
     @PostMapping("/like")
     public ResponseEntity<ArticleLikeResponseDTO> likeArticle(@RequestBody ArticleLikeRequestDTO articleLikeRequestDTO) {
-        return new ResponseEntity<>(articleService.createLike(articleLikeRequestDTO), HttpStatus.CREATED);
+        ArticleLikeResponseDTO like = articleService.createLike(articleLikeRequestDTO);
+        return new ResponseEntity<>(like, like.isAlreadyLiked() ? HttpStatus.OK : HttpStatus.CREATED);
     }
 
     @DeleteMapping("/id/{id}")
@@ -63,6 +93,17 @@ public class ArticleController {
         return new ResponseEntity<>(articleService.getLike(articleId, userId), HttpStatus.OK);
     }
 
+    // which of a page of articles the user liked, instead of one /like call per card
+    @PostMapping("/liked")
+    public ResponseEntity<List<Long>> getLikedIds(@RequestBody @Valid LikedByMeRequestDTO likedByMeRequestDTO) {
+        return new ResponseEntity<>(articleService.getLikedIds(likedByMeRequestDTO), HttpStatus.OK);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStatsResponseDTO> getCacheStats() {
+        return new ResponseEntity<>(articleService.getCacheStats(), HttpStatus.OK);
+    }
+
     @GetMapping("/types")
     public ResponseEntity<List<String>> getDistinctTypes() {
         return new ResponseEntity<>(articleService.getTypes(), HttpStatus.OK);
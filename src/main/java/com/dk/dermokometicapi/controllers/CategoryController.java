@@ -0,0 +1,26 @@
+package com.dk.dermokometicapi.controllers;
+
+import com.dk.dermokometicapi.models.dto.CategoryResponseDTO;
+import com.dk.dermokometicapi.services.CategoryService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/categories")
+@AllArgsConstructor
+public class CategoryController {
+
+    private final CategoryService categoryService;
+
+    // every article and question type with how many of each use it
+    @GetMapping
+    public ResponseEntity<List<CategoryResponseDTO>> getCategories() {
+        return new ResponseEntity<>(categoryService.getCategories(), HttpStatus.OK);
+    }
+}
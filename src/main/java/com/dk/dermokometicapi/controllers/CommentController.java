@@ -1,14 +1,18 @@
 package com.dk.dermokometicapi.controllers;
 
 
+import com.dk.dermokometicapi.export.NdjsonExporter;
 import com.dk.dermokometicapi.models.dto.*;
 import com.dk.dermokometicapi.services.CommentService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,6 +21,7 @@ import java.util.List;
 @AllArgsConstructor
 public class CommentController {
     private final CommentService commentService;
+    private final NdjsonExporter ndjsonExporter;
 
     // get all comments
     @GetMapping()
@@ -25,6 +30,12 @@ public class CommentController {
         return new ResponseEntity<>(comments, HttpStatus.OK);
     }
 
+    // same list as newline-delimited JSON, streamed from a database cursor for exports of any size
+    @GetMapping(produces = NdjsonExporter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportAllComments(){
+        return ndjsonExporter.export(commentService::streamAllComments);
+    }
+
     // get comment by id
     @GetMapping("/{id}")
     public ResponseEntity<CommentResponseDTO> getCommentById(@PathVariable Long id){
@@ -46,6 +57,19 @@ public class CommentController {
         return new ResponseEntity<>(comments, HttpStatus.OK);
     }
 
+    // live stream of new comments and like counts under the article, instead of polling the first page
+    @GetMapping(value = "/article/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamByArticleId(@PathVariable Long id){
+        return commentService.streamByArticleId(id);
+    }
+
+    // get comments by article id using a cursor instead of a page number
+    @GetMapping("/article/{id}/cursor")
+    public ResponseEntity<CursorPageResponseDTO<CommentResponseDTO>> getCommentsByArticleIdCursor(@PathVariable Long id, @RequestBody @Valid ListRequestDTO listRequestDTO){
+        CursorPageResponseDTO<CommentResponseDTO> comments = commentService.getCommentsByArticleIdCursor(id, listRequestDTO);
+        return new ResponseEntity<>(comments, HttpStatus.OK);
+    }
+
     // get comments by parent id
     @GetMapping("/parent/{id}")
     public ResponseEntity<Page<CommentResponseDTO>> getCommentsByParentId(@PathVariable Long id, @RequestBody @Valid ListRequestDTO listRequestDTO){
@@ -53,6 +77,20 @@ public class CommentController {
         return new ResponseEntity<>(comments, HttpStatus.OK);
     }
 
+    // whole comment tree of an article, e.g. /comments/article/1/thread?depth=3&breadth=10
+    @GetMapping("/article/{id}/thread")
+    public ResponseEntity<List<CommentThreadResponseDTO>> getThreadByArticleId(@PathVariable Long id, @RequestParam(defaultValue = "3") int depth,
+                                                                             @RequestParam(defaultValue = "10") int breadth){
+        return new ResponseEntity<>(commentService.getThreadByArticleId(id, depth, breadth), HttpStatus.OK);
+    }
+
+    // the replies below one comment as a tree
+    @GetMapping("/parent/{id}/thread")
+    public ResponseEntity<List<CommentThreadResponseDTO>> getThreadByParentId(@PathVariable Long id, @RequestParam(defaultValue = "3") int depth,
+                                                                            @RequestParam(defaultValue = "10") int breadth){
+        return new ResponseEntity<>(commentService.getThreadByParentId(id, depth, breadth), HttpStatus.OK);
+    }
+
     // delete comment
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteComment(@PathVariable Long id){
@@ -66,6 +104,12 @@ public class CommentController {
         return new ResponseEntity<>(commentService.addLike(commentLikeRequestDTO), HttpStatus.OK);
     }
 
+    // which of a page of comments the user liked
+    @PostMapping("/liked")
+    public ResponseEntity<List<Long>> getLikedIds(@RequestBody @Valid LikedByMeRequestDTO likedByMeRequestDTO){
+        return new ResponseEntity<>(commentService.getLikedIds(likedByMeRequestDTO), HttpStatus.OK);
+    }
+
     // unlike comment
     @DeleteMapping("/like/{id}")
     public ResponseEntity<String> unlikeComment(@PathVariable Long id){
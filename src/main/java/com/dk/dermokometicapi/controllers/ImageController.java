@@ -0,0 +1,52 @@
+package com.dk.dermokometicapi.controllers;
+
+import com.dk.dermokometicapi.exceptions.ResourceNotFoundException;
+import com.dk.dermokometicapi.images.ImageStore;
+import com.dk.dermokometicapi.images.ImageVariants;
+import lombok.AllArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/images")
+@AllArgsConstructor
+public class ImageController {
+
+    private final ImageStore imageStore;
+    private final ImageVariants imageVariants;
+
+    // the key is the content hash, so the response never changes: a strong ETag and a year of caching.
+    // The file is streamed from disk, and Range requests are answered with 206 partial content
+    @GetMapping("/{key}")
+    public ResponseEntity<Resource> getImage(@PathVariable String key, WebRequest request) {
+        Path path = imageStore.find(key)
+                .orElseThrow(() -> new ResourceNotFoundException("Image not found: " + key));
+        if (request.checkNotModified("\"" + key + "\"")) return null;
+        return immutable(path);
+    }
+
+    // one of ImageVariants.WIDTHS; the first request for a width waits while it is rendered.
+    // A client holding the ETag already has the variant, so that is answered before anything is rendered
+    @GetMapping("/{key}/{width}")
+    public ResponseEntity<Resource> getImageVariant(@PathVariable String key, @PathVariable int width, WebRequest request) {
+        if (request.checkNotModified("\"" + key + "-" + width + "\"")) return null;
+        return immutable(imageVariants.get(key, width));
+    }
+
+    // the type follows the file served, since a variant may be PNG for a GIF, or the original itself
+    private ResponseEntity<Resource> immutable(Path path) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .contentType(MediaTypeFactory.getMediaType(path.getFileName().toString()).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .body(new FileSystemResource(path));
+    }
+}
@@ -0,0 +1,30 @@
+package com.dk.dermokometicapi.controllers;
+
+import com.dk.dermokometicapi.models.dto.LikeIndexStatsDTO;
+import com.dk.dermokometicapi.services.EngagementService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/likes")
+@AllArgsConstructor
+public class LikeController {
+
+    private final EngagementService engagementService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<LikeIndexStatsDTO>> getStats() {
+        return new ResponseEntity<>(engagementService.getStats(), HttpStatus.OK);
+    }
+
+    // users who liked both, e.g. /likes/article/common?firstId=1&secondId=2
+    @GetMapping("/{type}/common")
+    public ResponseEntity<List<Long>> getUsersWhoLikedBoth(@PathVariable String type, @RequestParam Long firstId,
+                                                           @RequestParam Long secondId) {
+        return new ResponseEntity<>(engagementService.getUsersWhoLikedBoth(type, firstId, secondId), HttpStatus.OK);
+    }
+}
@@ -1,16 +1,20 @@
 package com.dk.dermokometicapi.controllers;
 
 
+import com.dk.dermokometicapi.export.NdjsonExporter;
 import com.dk.dermokometicapi.models.dto.*;
 
 import com.dk.dermokometicapi.services.QuestionService;
 import jakarta.transaction.Transactional;
+import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -21,6 +25,7 @@ import java.util.List;
 public class QuestionController {
 
     private final QuestionService questionService;
+    private final NdjsonExporter ndjsonExporter;
 
 
     @GetMapping
@@ -28,6 +33,12 @@ public class QuestionController {
         return ResponseEntity.ok(questionService.getAllQuestions());
     }
 
+    // same list as newline-delimited JSON, streamed from a database cursor for exports of any size
+    @GetMapping(produces = NdjsonExporter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportAllQuestions() {
+        return ndjsonExporter.export(questionService::streamAllQuestions);
+    }
+
 
     @Transactional
     @PostMapping
@@ -38,14 +49,29 @@ public class QuestionController {
 
     @Transactional
     @GetMapping("/id/{id}")
-    public ResponseEntity<QuestionResponseDTO> getQuestionById(@PathVariable Long id) {
-        return ResponseEntity.ok(questionService.getQuestionById(id));
+    public ResponseEntity<QuestionResponseDTO> getQuestionById(@PathVariable Long id, WebRequest request) {
+        QuestionResponseDTO question = questionService.getQuestionById(id);
+        if (request.checkNotModified(questionService.getVersion(question).getEtag())) return null;
+        return ResponseEntity.ok(question);
     }
 
     @Transactional
     @GetMapping("/title/{title}")
-    public ResponseEntity<QuestionResponseDTO> getQuestionByTitle(@PathVariable String title) {
-        return ResponseEntity.ok(questionService.getQuestionByTitle(title));
+    public ResponseEntity<QuestionResponseDTO> getQuestionByTitle(@PathVariable String title, WebRequest request) {
+        QuestionResponseDTO question = questionService.getQuestionByTitle(title);
+        if (request.checkNotModified(questionService.getVersion(question).getEtag())) return null;
+        return ResponseEntity.ok(question);
+    }
+
+    @GetMapping("/id/{id}/similar")
+    public ResponseEntity<List<SimilarQuestionDTO>> getSimilarQuestions(@PathVariable Long id, @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(questionService.getSimilarQuestions(id, limit));
+    }
+
+    // checks a draft before it is posted
+    @PostMapping("/similar")
+    public ResponseEntity<List<SimilarQuestionDTO>> findSimilarQuestions(@RequestBody @Valid SimilarQuestionRequestDTO similarQuestionRequestDTO) {
+        return ResponseEntity.ok(questionService.findSimilarQuestions(similarQuestionRequestDTO));
     }
 
     @Transactional
@@ -61,6 +87,11 @@ public class QuestionController {
         return ResponseEntity.ok(questionService.createLike(questionLikeRequestDTO));
     }
 
+    @PostMapping("/liked")
+    public ResponseEntity<List<Long>> getLikedIds(@RequestBody @Valid LikedByMeRequestDTO likedByMeRequestDTO) {
+        return ResponseEntity.ok(questionService.getLikedIds(likedByMeRequestDTO));
+    }
+
     @Transactional
     @DeleteMapping("/like")
     public ResponseEntity<Void> deleteLikeQuestion(@RequestBody QuestionLikeRequestDTO questionLikeRequestDTO) {
@@ -73,4 +104,10 @@ public class QuestionController {
     public ResponseEntity<Page<QuestionResponseDTO>> searchQuestions(@RequestBody FilterRequestDTO filterRequestDTO) {
         return ResponseEntity.ok(questionService.getFilteredList(filterRequestDTO));
     }
+
+    @Transactional
+    @PostMapping("/filter/cursor")
+    public ResponseEntity<CursorPageResponseDTO<QuestionResponseDTO>> searchQuestionsByCursor(@RequestBody FilterRequestDTO filterRequestDTO) {
+        return ResponseEntity.ok(questionService.getCursorList(filterRequestDTO));
+    }
 }
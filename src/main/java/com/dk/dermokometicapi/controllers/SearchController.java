@@ -0,0 +1,24 @@
+package com.dk.dermokometicapi.controllers;
+
+import com.dk.dermokometicapi.models.dto.SearchRequestDTO;
+import com.dk.dermokometicapi.models.dto.SearchResultDTO;
+import com.dk.dermokometicapi.services.SearchService;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/search")
+@AllArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @PostMapping
+    public ResponseEntity<Page<SearchResultDTO>> search(@RequestBody @Valid SearchRequestDTO searchRequestDTO) {
+        return new ResponseEntity<>(searchService.search(searchRequestDTO), HttpStatus.OK);
+    }
+}
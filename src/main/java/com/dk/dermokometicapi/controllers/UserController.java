@@ -1,5 +1,6 @@
 package com.dk.dermokometicapi.controllers;
 
+import com.dk.dermokometicapi.export.NdjsonExporter;
 import com.dk.dermokometicapi.models.dto.UserRequestDTO;
 import com.dk.dermokometicapi.models.dto.UserResponseDTO;
 import com.dk.dermokometicapi.models.dto.UserUpdateDTO;
@@ -7,8 +8,10 @@ import com.dk.dermokometicapi.models.dto.UserValidationDTO;
 import com.dk.dermokometicapi.services.UserService;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -18,12 +21,19 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final NdjsonExporter ndjsonExporter;
 
     @GetMapping
     public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
         return ResponseEntity.ok(userService.getAllUser());
     }
 
+    // same list as newline-delimited JSON, streamed from a database cursor for exports of any size
+    @GetMapping(produces = NdjsonExporter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportAllUsers() {
+        return ndjsonExporter.export(userService::streamAllUsers);
+    }
+
     @Transactional
     @GetMapping("/username/{username}")
     public ResponseEntity<UserResponseDTO> getUserByUsername(@PathVariable String username) {
@@ -58,6 +68,12 @@ public class UserController {
         return ResponseEntity.ok(userService.updateUser(username, userRequestDTO));
     }
 
+    // raw image bytes, the format is read from the file itself
+    @PutMapping(value = "/username/{username}/profile-pic", consumes = {"image/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<UserResponseDTO> putProfilePic(@PathVariable String username, @RequestBody byte[] image) {
+        return ResponseEntity.ok(userService.updateProfilePic(username, image));
+    }
+
     @PatchMapping("/username/{username}")
     public ResponseEntity<UserResponseDTO> patchUser(@PathVariable String username, @RequestBody UserUpdateDTO userUpdateDTO) {
         return ResponseEntity.ok(userService.patchUser(username, userUpdateDTO));
@@ -4,8 +4,10 @@ import com.dk.dermokometicapi.models.dto.WriterResponseDTO;
 import com.dk.dermokometicapi.services.WriterService;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -23,8 +25,16 @@ public class WriterController {
 
     // get writer by id
     @GetMapping("/id/{id}")
-    public ResponseEntity<WriterResponseDTO> getWriterById(@PathVariable Long id){
-        return new ResponseEntity<>(writerService.getById(id), HttpStatus.OK);
+    public ResponseEntity<WriterResponseDTO> getWriterById(@PathVariable Long id, WebRequest request){
+        WriterResponseDTO writer = writerService.getById(id);
+        if (request.checkNotModified(writerService.getVersion(writer).getEtag())) return null;
+        return new ResponseEntity<>(writer, HttpStatus.OK);
+    }
+
+    // raw image bytes, the format is read from the file itself
+    @PutMapping(value = "/id/{id}/profile-pic", consumes = {"image/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<WriterResponseDTO> putProfilePic(@PathVariable Long id, @RequestBody byte[] image){
+        return new ResponseEntity<>(writerService.updateProfilePic(id, image), HttpStatus.OK);
     }
 
     @PostMapping("/id")
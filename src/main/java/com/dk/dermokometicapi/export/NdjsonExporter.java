@@ -0,0 +1,65 @@
+package com.dk.dermokometicapi.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes query results as newline-delimited JSON while they are read from a forward-only cursor.
+ * The rows never sit in a list, so the heap used by an export does not grow with the table.
+ */
+@Component
+public class NdjsonExporter {
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    // rows written between flushes, matches the fetch size of the streaming queries
+    static final int FLUSH_INTERVAL = 500;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public NdjsonExporter(PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> export(Supplier<Stream<T>> query) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MEDIA_TYPE))
+                .body(stream(query));
+    }
+
+    // the query runs on the async thread that writes the response, inside its own read-only transaction
+    <T> StreamingResponseBody stream(Supplier<Stream<T>> query) {
+        return out -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<T> rows = query.get()) {
+                write(rows, out);
+            }
+        });
+    }
+
+    private <T> void write(Stream<T> rows, OutputStream out) {
+        try {
+            int written = 0;
+            for (T row : (Iterable<T>) rows::iterator) {
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write('\n');
+                if (++written % FLUSH_INTERVAL == 0) out.flush();
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
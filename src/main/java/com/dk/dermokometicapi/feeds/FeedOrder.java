@@ -0,0 +1,20 @@
+package com.dk.dermokometicapi.feeds;
+
+import java.util.Locale;
+
+// the orderBy values of the filter endpoints; every one but recent sorts on a counter column, see FeedSource
+public enum FeedOrder {
+    RECENT,
+    LIKES,
+    COMMENTS,
+    ANSWERS;
+
+    // unknown orderings, and ones the source has no counter for, fall back to recent as the feeds always did
+    public static FeedOrder parse(FeedSource source, String orderBy) {
+        if (orderBy == null) return RECENT;
+        for (FeedOrder order : values()) {
+            if (order.name().equals(orderBy.toUpperCase(Locale.ROOT)) && source.supports(order)) return order;
+        }
+        return RECENT;
+    }
+}
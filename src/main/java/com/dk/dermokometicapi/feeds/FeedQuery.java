@@ -0,0 +1,138 @@
+package com.dk.dermokometicapi.feeds;
+
+import com.dk.dermokometicapi.exceptions.BadRequestException;
+import com.dk.dermokometicapi.models.dto.FilterRequestDTO;
+import com.dk.dermokometicapi.utils.KeysetCursor;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One feed page as a single statement: the filters that are set become AND-ed conditions, the ordering sorts on
+ * a denormalized counter or the creation time, and the counts come along as plain columns, so there is no
+ * grouping over the like or comment tables and no per-row count afterwards. The statements are recorded in
+ * feed-queries.sql under the test resources, any change in the generated SQL shows up there.
+ */
+public final class FeedQuery {
+    private final FeedSource source;
+    private final Set<String> types = new LinkedHashSet<>();
+    private LocalDate publishedFrom;
+    private LocalDate publishedTo;
+    private Long authorId;
+    private FeedOrder order = FeedOrder.RECENT;
+    private KeysetCursor after;
+
+    private FeedQuery(FeedSource source) {
+        this.source = source;
+    }
+
+    public static FeedQuery of(FeedSource source) {
+        return new FeedQuery(source);
+    }
+
+    // everything a filter request asks for but the page itself
+    public static FeedQuery filter(FeedSource source, FilterRequestDTO filterRequestDTO) {
+        return of(source)
+                .types(filterRequestDTO.getCategories())
+                .publishedBetween(filterRequestDTO.getPublishedFrom(), filterRequestDTO.getPublishedTo())
+                .author(filterRequestDTO.getAuthorId())
+                .orderBy(FeedOrder.parse(source, filterRequestDTO.getOrderBy()));
+    }
+
+    // no types means every type, so "all categories" does not expand into an IN list
+    public FeedQuery types(Collection<String> types) {
+        if (types != null) this.types.addAll(types);
+        return this;
+    }
+
+    // both ends inclusive, either may be open
+    public FeedQuery publishedBetween(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("Publication date range starts after it ends");
+        }
+        this.publishedFrom = from;
+        this.publishedTo = to;
+        return this;
+    }
+
+    // the writer of an article, the user who asked a question
+    public FeedQuery author(Long authorId) {
+        this.authorId = authorId;
+        return this;
+    }
+
+    public FeedQuery orderBy(FeedOrder order) {
+        if (!source.supports(order)) {
+            throw new IllegalArgumentException(source + " feeds cannot be ordered by " + order);
+        }
+        this.order = order;
+        return this;
+    }
+
+    // keyset position over (createdAt, id), which only the recent ordering follows
+    public FeedQuery after(KeysetCursor cursor) {
+        if (cursor != null && order != FeedOrder.RECENT) {
+            throw new BadRequestException("Cursor pagination only supports recent ordering");
+        }
+        this.after = cursor;
+        return this;
+    }
+
+    public FeedSource getSource() {
+        return source;
+    }
+
+    // offset page, bound with :limit and :offset
+    public String pageSql() {
+        return select() + " LIMIT :limit OFFSET :offset";
+    }
+
+    // keyset page, bound with :limit only
+    public String sliceSql() {
+        return select() + " LIMIT :limit";
+    }
+
+    public String countSql() {
+        return "SELECT COUNT(*) FROM " + source.from() + where();
+    }
+
+    // values of the named parameters in the where clause, the paging ones are added by FeedStore
+    public Map<String, Object> parameters() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (!types.isEmpty()) parameters.put("types", List.copyOf(types));
+        if (publishedFrom != null) parameters.put("publishedFrom", publishedFrom);
+        if (publishedTo != null) parameters.put("publishedTo", publishedTo);
+        if (authorId != null) parameters.put("authorId", authorId);
+        if (after != null) {
+            // drivers bind OffsetDateTime to timestamp with time zone, not every one takes an Instant
+            parameters.put("afterCreatedAt", OffsetDateTime.ofInstant(after.getCreatedAt(), ZoneOffset.UTC));
+            parameters.put("afterId", after.getId());
+        }
+        return parameters;
+    }
+
+    private String select() {
+        return "SELECT " + source.selectList() + " FROM " + source.from() + where() + " ORDER BY " + source.orderBy(order);
+    }
+
+    private String where() {
+        List<String> conditions = new ArrayList<>();
+        if (!types.isEmpty()) conditions.add(source.column("type") + " IN (:types)");
+        if (publishedFrom != null) conditions.add(source.column("publication_date") + " >= :publishedFrom");
+        if (publishedTo != null) conditions.add(source.column("publication_date") + " <= :publishedTo");
+        if (authorId != null) conditions.add(source.authorCondition());
+        if (after != null) {
+            conditions.add("(" + source.column("created_at") + " < :afterCreatedAt OR (" + source.column("created_at") +
+                    " = :afterCreatedAt AND " + source.column("id") + " < :afterId))");
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+}
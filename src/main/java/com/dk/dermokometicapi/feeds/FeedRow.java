@@ -0,0 +1,7 @@
+package com.dk.dermokometicapi.feeds;
+
+import com.dk.dermokometicapi.utils.KeysetCursor;
+
+// a mapped feed item and its keyset position, which the response DTOs do not carry
+public record FeedRow<T>(T item, KeysetCursor key) {
+}
@@ -0,0 +1,63 @@
+package com.dk.dermokometicapi.feeds;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The content tables a {@link FeedQuery} can page over: the columns a feed row reads, the denormalized counter
+ * behind each ordering and how the author filter reaches the table. A new sort is one counter column here.
+ */
+public enum FeedSource {
+    ARTICLE("articles", "a",
+            List.of("id", "title", "description", "type", "main_img", "main_image", "publication_date", "last_update_date",
+                    "created_at", "like_count", "comment_count"),
+            Map.of(FeedOrder.LIKES, "like_count", FeedOrder.COMMENTS, "comment_count"),
+            // writers, through the join table; the exists stops at the first match
+            "EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId)"),
+    QUESTION("questions", "q",
+            List.of("id", "title", "content", "type", "publication_date", "created_at", "user_id",
+                    "like_count", "answer_count"),
+            Map.of(FeedOrder.LIKES, "like_count", FeedOrder.ANSWERS, "answer_count"),
+            "q.user_id = :authorId");
+
+    private final String table;
+    private final String alias;
+    private final List<String> columns;
+    private final Map<FeedOrder, String> counters;
+    private final String authorCondition;
+
+    FeedSource(String table, String alias, List<String> columns, Map<FeedOrder, String> counters, String authorCondition) {
+        this.table = table;
+        this.alias = alias;
+        this.columns = columns;
+        this.counters = new EnumMap<>(counters);
+        this.authorCondition = authorCondition;
+    }
+
+    public boolean supports(FeedOrder order) {
+        return order == FeedOrder.RECENT || counters.containsKey(order);
+    }
+
+    String from() {
+        return table + " " + alias;
+    }
+
+    String column(String column) {
+        return alias + "." + column;
+    }
+
+    String selectList() {
+        return String.join(", ", columns.stream().map(this::column).toList());
+    }
+
+    // every ordering ends on the id, so rows with equal keys keep their place across pages
+    String orderBy(FeedOrder order) {
+        String key = order == FeedOrder.RECENT ? "created_at" : counters.get(order);
+        return column(key) + " DESC, " + column("id") + " DESC";
+    }
+
+    String authorCondition() {
+        return authorCondition;
+    }
+}
@@ -0,0 +1,60 @@
+package com.dk.dermokometicapi.feeds;
+
+import com.dk.dermokometicapi.utils.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Runs {@link FeedQuery} statements over plain JDBC. An offset page is one statement, plus the count only when
+ * the page itself cannot tell the total; a keyset page reads one extra row instead of counting.
+ * Entities still pending in the persistence context are flushed first to be visible here.
+ */
+@Component
+public class FeedStore {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    public FeedStore(NamedParameterJdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    public <T> Page<T> findPage(FeedQuery query, Pageable pageable, RowMapper<T> rowMapper) {
+        flushPersistenceContext();
+        MapSqlParameterSource parameters = new MapSqlParameterSource(query.parameters())
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+        List<T> content = jdbcTemplate.query(query.pageSql(), parameters, rowMapper);
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> jdbcTemplate.queryForObject(query.countSql(), parameters, Long.class));
+    }
+
+    // pageSize + 1 rows, see KeysetCursor.toPage
+    public <T> List<FeedRow<T>> findSlice(FeedQuery query, int limit, RowMapper<T> rowMapper) {
+        flushPersistenceContext();
+        MapSqlParameterSource parameters = new MapSqlParameterSource(query.parameters())
+                .addValue("limit", limit);
+        return jdbcTemplate.query(query.sliceSql(), parameters,
+                (resultSet, row) -> new FeedRow<>(rowMapper.mapRow(resultSet, row), keyOf(resultSet)));
+    }
+
+    private static KeysetCursor keyOf(ResultSet resultSet) throws SQLException {
+        return new KeysetCursor(resultSet.getObject("created_at", OffsetDateTime.class).toInstant(), resultSet.getLong("id"));
+    }
+
+    private void flushPersistenceContext() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) entityManager.flush();
+    }
+}
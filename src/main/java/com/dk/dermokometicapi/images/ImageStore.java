@@ -0,0 +1,133 @@
+package com.dk.dermokometicapi.images;
+
+import com.dk.dermokometicapi.exceptions.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed image files on the local disk. An image is named after the hex SHA-256 of its bytes plus
+ * the format found in them ({@code <digest>.png}) and kept in a directory per leading hash byte. That key is all
+ * an entity stores; the same picture uploaded twice is kept once, and a stored file never changes, so it can
+ * be served with a strong ETag and cached by clients for good.
+ */
+@Component
+public class ImageStore {
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}\\.(png|jpg|gif|webp)");
+
+    private final Path root;
+    private final int maxBytes;
+    private final String baseUrl;
+
+    public ImageStore(@Value("${dk.images.dir:data/images}") String dir,
+                      @Value("${dk.images.max-bytes:5242880}") int maxBytes,
+                      @Value("${dk.images.base-url:/api/v1/images}") String baseUrl) {
+        this.root = Path.of(dir);
+        this.maxBytes = maxBytes;
+        this.baseUrl = baseUrl;
+    }
+
+    // returns the key of the stored image
+    public String store(byte[] image) {
+        if (image == null || image.length == 0) throw new BadRequestException("Image is empty");
+        if (image.length > maxBytes) throw new BadRequestException("Image is larger than " + maxBytes + " bytes");
+        String extension = extensionOf(image);
+        if (extension == null) throw new BadRequestException("Image must be a PNG, JPEG, GIF or WebP file");
+
+        String key = sha256(image) + "." + extension;
+        Path path = pathOf(key);
+        if (Files.exists(path)) return key;
+        try {
+            Files.createDirectories(path.getParent());
+            // written aside and renamed, a reader never sees half a file
+            Path temporary = Files.createTempFile(path.getParent(), key, ".tmp");
+            try {
+                Files.write(temporary, image);
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store image " + key, e);
+        }
+        return key;
+    }
+
+    // a data URI or bare base64, as profile pictures used to be saved inline; returns the key of the stored image
+    public String storeInline(String data) {
+        byte[] image = decodeInline(data);
+        if (image == null) throw new BadRequestException("Image must be a URL, a base64 data URI or base64");
+        return store(image);
+    }
+
+    // an external http(s) URL, which is kept as it is instead of being stored
+    public static boolean isUrl(String value) {
+        return value.startsWith("http://") || value.startsWith("https://");
+    }
+
+    // empty for anything that is not the key of a stored image, so a key never reaches outside the store
+    public Optional<Path> find(String key) {
+        if (key == null || !KEY.matcher(key).matches()) return Optional.empty();
+        Path path = pathOf(key);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    public String urlOf(String key) {
+        return key == null ? null : baseUrl + "/" + key;
+    }
+
+    private Path pathOf(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    // the format from the leading bytes, whatever the upload claimed to be
+    static String extensionOf(byte[] image) {
+        if (startsWith(image, 0, 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n')) return "png";
+        if (startsWith(image, 0, 0xff, 0xd8, 0xff)) return "jpg";
+        if (startsWith(image, 0, 'G', 'I', 'F', '8')) return "gif";
+        if (startsWith(image, 0, 'R', 'I', 'F', 'F') && startsWith(image, 8, 'W', 'E', 'B', 'P')) return "webp";
+        return null;
+    }
+
+    static byte[] decodeInline(String data) {
+        String payload = data.strip();
+        if (payload.startsWith("data:")) {
+            int comma = payload.indexOf(',');
+            if (comma < 0 || !payload.substring(0, comma).endsWith(";base64")) return null;
+            payload = payload.substring(comma + 1);
+        }
+        try {
+            // the MIME decoder skips line breaks, which long payloads often carry
+            return Base64.getMimeDecoder().decode(payload);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean startsWith(byte[] bytes, int offset, int... prefix) {
+        if (bytes.length < offset + prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if ((bytes[offset + i] & 0xff) != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.dk.dermokometicapi.images;
+
+import com.dk.dermokometicapi.exceptions.BadRequestException;
+import com.dk.dermokometicapi.exceptions.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Downscaled copies of the images in the {@link ImageStore}, at a fixed set of widths for avatars and feed cards.
+ * A variant is rendered on its first request, or right after an upload, by a small bounded pool, and kept on disk
+ * as {@code <digest>-<width>.<format>}, so the hash of the source and the width are its whole cache key.
+ * Requests for a variant that is being rendered wait on that one render. Images that are no wider than the
+ * variant, too large or broken to decode, or in a format ImageIO cannot read (WebP) are served as they were stored;
+ * most of that shows in the header, read on the request thread, and a decode that fails on a worker leaves an empty
+ * {@code <digest>-<width>.<format>.original} marker, so serving the original never goes through the pool twice.
+ */
+@Slf4j
+@Component
+public class ImageVariants {
+    public static final List<Integer> WIDTHS = List.of(64, 160, 320, 640);
+    // decoding takes four bytes a pixel, so a 40 megapixel image already needs 160 MB of heap
+    private static final long MAX_PIXELS = 40_000_000L;
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final ImageStore imageStore;
+    private final Path root;
+    private final ExecutorService workers;
+    private final Map<Path, CompletableFuture<Path>> rendering = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ImageVariants(ImageStore imageStore,
+                         @Value("${dk.images.variants.dir:data/images/variants}") String dir,
+                         @Value("${dk.images.variants.threads:2}") int threads,
+                         @Value("${dk.images.variants.queue-size:200}") int queueSize) {
+        this(imageStore, dir, new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    ImageVariants(ImageStore imageStore, String dir, ExecutorService workers) {
+        this.imageStore = imageStore;
+        this.root = Path.of(dir);
+        this.workers = workers;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // the file to serve for the image at that width, rendered first when it is not on disk yet
+    public Path get(String key, int width) {
+        if (!WIDTHS.contains(width)) throw new BadRequestException("Image width must be one of " + WIDTHS);
+        Path original = imageStore.find(key)
+                .orElseThrow(() -> new ResourceNotFoundException("Image not found: " + key));
+        Path variant = pathOf(key, width);
+        if (Files.isRegularFile(variant)) return variant;
+        if (Files.exists(markerOf(variant)) || !needsResize(original, width)) return original;
+        try {
+            return render(original, variant, width).join();
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many images are being resized");
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    // renders every width of a new upload in the background; what the pool has no room for is left to the first request
+    public void prepare(String key) {
+        Path original = imageStore.find(key).orElse(null);
+        if (original == null) return;
+        for (int width : WIDTHS) {
+            Path variant = pathOf(key, width);
+            if (Files.isRegularFile(variant) || Files.exists(markerOf(variant))) continue;
+            try {
+                render(original, variant, width).exceptionally(e -> {
+                    log.warn("Could not resize image {} to {} px", key, width, e);
+                    return null;
+                });
+            } catch (RejectedExecutionException e) {
+                return;
+            }
+        }
+    }
+
+    // width to url of every variant, null when there is no stored image
+    public Map<Integer, String> urlsOf(String key) {
+        if (key == null) return null;
+        String url = imageStore.urlOf(key);
+        Map<Integer, String> urls = new LinkedHashMap<>();
+        for (int width : WIDTHS) {
+            urls.put(width, url + "/" + width);
+        }
+        return urls;
+    }
+
+    private CompletableFuture<Path> render(Path original, Path variant, int width) {
+        // the worker drops the entry itself; it never runs on the thread inside computeIfAbsent
+        return rendering.computeIfAbsent(variant, path -> CompletableFuture.supplyAsync(() -> {
+            try {
+                return resize(original, variant, width);
+            } finally {
+                rendering.remove(path);
+            }
+        }, workers));
+    }
+
+    // whether the header describes an image ImageIO can read, that is wider than the variant and small enough to decode
+    private static boolean needsResize(Path original, int width) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) return false;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return fits(reader, width);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean fits(ImageReader reader, int width) throws IOException {
+        // the header is enough to tell that there is nothing to do, without decoding a single pixel
+        int sourceWidth = reader.getWidth(0);
+        return sourceWidth > width && (long) sourceWidth * reader.getHeight(0) <= MAX_PIXELS;
+    }
+
+    private Path resize(Path original, Path variant, int width) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) return servedAsStored(original, variant);
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                if (!fits(reader, width)) return servedAsStored(original, variant);
+                int sourceWidth = reader.getWidth(0);
+                int height = Math.max(1, Math.round((float) reader.getHeight(0) * width / sourceWidth));
+                write(scale(reader.read(0), width, height, isJpeg(variant)), variant);
+                return variant;
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            // a file that passed the magic bytes but does not decode is still what was uploaded
+            log.warn("Could not resize image {}, serving it as stored", original.getFileName(), e);
+            return servedAsStored(original, variant);
+        }
+    }
+
+    // leaves the marker that sends later requests straight to the original
+    private static Path servedAsStored(Path original, Path variant) {
+        try {
+            Files.createDirectories(variant.getParent());
+            Files.createFile(markerOf(variant));
+        } catch (FileAlreadyExistsException ignored) {
+            // another render got there first
+        } catch (IOException e) {
+            log.warn("Could not record that {} is served as stored", variant.getFileName(), e);
+        }
+        return original;
+    }
+
+    // halves the image while that stays above the target, as a single bilinear step from far above it aliases
+    static BufferedImage scale(BufferedImage image, int width, int height, boolean opaque) {
+        BufferedImage scaled = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight,
+                    opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(scaled, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            scaled = step;
+        } while (currentWidth != width || currentHeight != height);
+        return scaled;
+    }
+
+    private static void write(BufferedImage image, Path variant) throws IOException {
+        Files.createDirectories(variant.getParent());
+        // written aside and renamed, like the originals, so a reader never sees half a file
+        Path temporary = Files.createTempFile(variant.getParent(), variant.getFileName().toString(), ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName(isJpeg(variant) ? "jpeg" : "png").next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temporary.toFile())) {
+                writer.setOutput(output);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if (isJpeg(variant)) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(JPEG_QUALITY);
+                }
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temporary, variant, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    // photos stay JPEG, anything that may have transparency becomes PNG
+    Path pathOf(String key, int width) {
+        String digest = key.substring(0, key.indexOf('.'));
+        String format = key.endsWith(".jpg") ? "jpg" : "png";
+        return root.resolve(digest.substring(0, 2)).resolve(digest + "-" + width + "." + format);
+    }
+
+    private static Path markerOf(Path variant) {
+        return variant.resolveSibling(variant.getFileName() + ".original");
+    }
+
+    private static boolean isJpeg(Path path) {
+        return path.getFileName().toString().endsWith(".jpg");
+    }
+}
@@ -0,0 +1,79 @@
+package com.dk.dermokometicapi.images;
+
+import com.dk.dermokometicapi.exceptions.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves profile pictures that were saved inline, as base64 or data URIs in the profile_pic column, into the
+ * {@link ImageStore} and keeps only their key on the row. Rows are walked by id in small batches since each one
+ * may carry megabytes; what does not decode to an image is left as it is, so after the first complete run
+ * only external URLs remain in the column.
+ */
+@Slf4j
+@Component
+public class ProfilePicBackfill {
+    private static final int BATCH_SIZE = 100;
+    private static final List<String> TABLES = List.of("users", "writers");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImageStore imageStore;
+    private final boolean enabled;
+
+    public ProfilePicBackfill(JdbcTemplate jdbcTemplate, ImageStore imageStore,
+                              @Value("${dk.images.backfill.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.imageStore = imageStore;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) return;
+        for (String table : TABLES) {
+            int rows = backfill(table);
+            if (rows > 0) log.info("Moved {} inline profile pictures of {} to the image store", rows, table);
+        }
+    }
+
+    // returns how many rows had their picture moved
+    public int backfill(String table) {
+        String select = "SELECT id, profile_pic FROM " + table + " WHERE profile_image IS NULL AND profile_pic IS NOT NULL " +
+                "AND profile_pic NOT LIKE 'http%' AND id > ? ORDER BY id LIMIT " + BATCH_SIZE;
+        // only while the row still holds what was read, so a picture changed in the meantime is not overwritten
+        String update = "UPDATE " + table + " SET profile_image = ?, profile_pic = NULL " +
+                "WHERE id = ? AND profile_image IS NULL AND profile_pic = ?";
+        int total = 0;
+        long lastId = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(select,
+                    (resultSet, row) -> new Object[]{resultSet.getLong(1), resultSet.getString(2)}, lastId);
+            if (rows.isEmpty()) return total;
+            List<Object[]> moved = new ArrayList<>();
+            for (Object[] row : rows) {
+                String key = store((String) row[1]);
+                if (key != null) moved.add(new Object[]{key, row[0], row[1]});
+            }
+            for (int updated : jdbcTemplate.batchUpdate(update, moved)) {
+                if (updated > 0) total++;
+            }
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+        }
+    }
+
+    // null when the column does not hold an image
+    private String store(String profilePic) {
+        try {
+            return imageStore.storeInline(profilePic);
+        } catch (BadRequestException e) {
+            return null;
+        }
+    }
+}
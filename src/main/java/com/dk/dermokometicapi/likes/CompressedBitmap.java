@@ -0,0 +1,285 @@
+package com.dk.dermokometicapi.likes;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Set of non-negative ids laid out like a Roaring bitmap. Ids are split on their low 16 bits and every
+ * high part owns a container: a sorted char array while it holds up to 4096 values, a 65536 bit bitmap
+ * above that. Sparse and dense like sets both stay close to two bytes per id.
+ * Not thread safe, {@link LikeIndex} guards every instance.
+ */
+final class CompressedBitmap {
+    static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    // object header plus array header, roughly, for the size estimates
+    private static final long OBJECT_OVERHEAD = 32;
+
+    private long[] keys = new long[1];
+    private Container[] containers = new Container[1];
+    private int size;
+    private long cardinality;
+
+    boolean add(long id) {
+        if (id < 0) throw new IllegalArgumentException("Negative id: " + id);
+        long high = id >>> 16;
+        char low = (char) id;
+        int i = find(high);
+        if (i < 0) {
+            i = -i - 1;
+            insert(i, high, new ArrayContainer());
+        }
+        Container container = containers[i];
+        if (container instanceof ArrayContainer array && array.size == ARRAY_MAX && !array.contains(low)) {
+            container = array.toBitmap();
+            containers[i] = container;
+        }
+        if (!container.add(low)) return false;
+        cardinality++;
+        return true;
+    }
+
+    boolean remove(long id) {
+        if (id < 0) return false;
+        int i = find(id >>> 16);
+        if (i < 0) return false;
+        Container container = containers[i];
+        if (!container.remove((char) id)) return false;
+        cardinality--;
+        if (container.cardinality() == 0) {
+            delete(i);
+        } else if (container instanceof BitmapContainer bitmap && bitmap.cardinality <= ARRAY_MAX) {
+            containers[i] = bitmap.toArray();
+        }
+        return true;
+    }
+
+    boolean contains(long id) {
+        if (id < 0) return false;
+        int i = find(id >>> 16);
+        return i >= 0 && containers[i].contains((char) id);
+    }
+
+    long cardinality() {
+        return cardinality;
+    }
+
+    boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    // ids present in both, walking the two sorted key lists once
+    CompressedBitmap and(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container container = containers[i].and(other.containers[j]);
+                if (container.cardinality() > 0) {
+                    result.insert(result.size, keys[i], container);
+                    result.cardinality += container.cardinality();
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // ascending
+    long[] toArray() {
+        long[] ids = new long[Math.toIntExact(cardinality)];
+        int[] next = {0};
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, id -> ids[next[0]++] = id);
+        }
+        return ids;
+    }
+
+    long sizeInBytes() {
+        long bytes = OBJECT_OVERHEAD + 2 * OBJECT_OVERHEAD + 8L * keys.length + 4L * containers.length;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    private int find(long high) {
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void insert(int index, long high, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = high;
+        containers[index] = container;
+        size++;
+    }
+
+    private void delete(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private abstract static class Container {
+        abstract boolean contains(char value);
+
+        abstract boolean add(char value);
+
+        abstract boolean remove(char value);
+
+        abstract int cardinality();
+
+        abstract Container and(Container other);
+
+        abstract void forEach(long base, LongConsumer consumer);
+
+        abstract long sizeInBytes();
+    }
+
+    private static final class ArrayContainer extends Container {
+        private char[] values = new char[4];
+        private int size;
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        boolean add(char value) {
+            int i = Arrays.binarySearch(values, 0, size, value);
+            if (i >= 0) return false;
+            i = -i - 1;
+            if (size == values.length) values = Arrays.copyOf(values, Math.min(size * 2, ARRAY_MAX));
+            System.arraycopy(values, i, values, i + 1, size - i);
+            values[i] = value;
+            size++;
+            return true;
+        }
+
+        @Override
+        boolean remove(char value) {
+            int i = Arrays.binarySearch(values, 0, size, value);
+            if (i < 0) return false;
+            System.arraycopy(values, i + 1, values, i, size - i - 1);
+            size--;
+            return true;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        // the result is never larger than this array, and values come out sorted
+        @Override
+        Container and(Container other) {
+            ArrayContainer result = new ArrayContainer();
+            result.values = new char[Math.max(size, 1)];
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i])) result.values[result.size++] = values[i];
+            }
+            return result;
+        }
+
+        @Override
+        void forEach(long base, LongConsumer consumer) {
+            for (int i = 0; i < size; i++) {
+                consumer.accept(base | values[i]);
+            }
+        }
+
+        @Override
+        long sizeInBytes() {
+            return OBJECT_OVERHEAD * 2 + 2L * values.length;
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words = new long[BITMAP_WORDS];
+        private int cardinality;
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        boolean add(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) != 0) return false;
+            words[value >>> 6] |= bit;
+            cardinality++;
+            return true;
+        }
+
+        @Override
+        boolean remove(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0) return false;
+            words[value >>> 6] &= ~bit;
+            cardinality--;
+            return true;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) return other.and(this);
+            BitmapContainer result = new BitmapContainer();
+            long[] otherWords = ((BitmapContainer) other).words;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                result.words[w] = words[w] & otherWords[w];
+                result.cardinality += Long.bitCount(result.words[w]);
+            }
+            return result.cardinality <= ARRAY_MAX ? result.toArray() : result;
+        }
+
+        @Override
+        void forEach(long base, LongConsumer consumer) {
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    consumer.accept(base | (w * 64L + Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        long sizeInBytes() {
+            return OBJECT_OVERHEAD * 2 + 8L * BITMAP_WORDS;
+        }
+
+        ArrayContainer toArray() {
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[Math.max(cardinality, 1)];
+            forEach(0, value -> array.values[array.size++] = (char) value);
+            return array;
+        }
+    }
+}
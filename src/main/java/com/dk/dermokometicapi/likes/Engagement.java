@@ -0,0 +1,11 @@
+package com.dk.dermokometicapi.likes;
+
+import java.time.LocalDate;
+
+// one like as the engagement API returns it; id is null while the like only sits in the write-behind buffer
+public record Engagement(Long id, LikeTarget target, Long targetId, Long userId, LocalDate date, boolean alreadyLiked) {
+
+    public Engagement withAlreadyLiked(boolean alreadyLiked) {
+        return new Engagement(id, target, targetId, userId, date, alreadyLiked);
+    }
+}
@@ -0,0 +1,160 @@
+package com.dk.dermokometicapi.likes;
+
+import com.dk.dermokometicapi.models.dto.LikeIndexStatsDTO;
+import com.dk.dermokometicapi.utils.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Who liked what, kept in memory as one {@link CompressedBitmap} of user ids per liked article, comment,
+ * answer or question, so membership checks, like counts and "liked both" intersections skip the database.
+ * It is filled from the like tables at startup and follows the like and unlike paths after commit.
+ * Until the warm-up is done {@link #isReady()} is false and callers go to the database; writes committed
+ * in the meantime are queued and applied on top of the loaded rows.
+ * Like rows written around the services (plain SQL, other processes) are not seen until the next start.
+ * That includes likes handled by another instance of this application: nothing invalidates the index across
+ * instances, so it assumes a single one. Deployments running several must set dk.likes.index.enabled=false.
+ */
+@Component
+public class LikeIndex {
+    // a HashMap entry with its boxed key, roughly
+    private static final long ENTRY_OVERHEAD = 64;
+
+    private final boolean enabled;
+    private final Map<LikeTarget, Map<Long, CompressedBitmap>> bitmaps = new EnumMap<>(LikeTarget.class);
+    private final Map<LikeTarget, ReadWriteLock> locks = new EnumMap<>(LikeTarget.class);
+    private final Object warmUpLock = new Object();
+    private List<Runnable> queued = new ArrayList<>();
+    private volatile boolean ready;
+
+    public LikeIndex(@Value("${dk.likes.index.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        for (LikeTarget target : LikeTarget.values()) {
+            bitmaps.put(target, new HashMap<>());
+            locks.put(target, new ReentrantReadWriteLock());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // warm-up only, rows straight from the like tables
+    public void load(LikeTarget target, long targetId, long userId) {
+        write(target, () -> bitmaps.get(target).computeIfAbsent(targetId, id -> new CompressedBitmap()).add(userId));
+    }
+
+    // ends the warm-up: writes committed while it ran go in after the loaded rows
+    public void markReady() {
+        synchronized (warmUpLock) {
+            queued.forEach(Runnable::run);
+            queued = null;
+            ready = true;
+        }
+    }
+
+    public void add(LikeTarget target, Long targetId, Long userId) {
+        TransactionHooks.afterCommit(() -> apply(() -> load(target, targetId, userId)));
+    }
+
+    public void remove(LikeTarget target, Long targetId, Long userId) {
+        TransactionHooks.afterCommit(() -> apply(() -> write(target, () -> {
+            Map<Long, CompressedBitmap> targets = bitmaps.get(target);
+            CompressedBitmap users = targets.get(targetId);
+            if (users != null && users.remove(userId) && users.isEmpty()) targets.remove(targetId);
+        })));
+    }
+
+    // the liked content itself was deleted
+    public void removeTarget(LikeTarget target, Long targetId) {
+        TransactionHooks.afterCommit(() -> apply(() -> write(target, () -> bitmaps.get(target).remove(targetId))));
+    }
+
+    public boolean contains(LikeTarget target, Long targetId, Long userId) {
+        return read(target, () -> {
+            CompressedBitmap users = bitmaps.get(target).get(targetId);
+            return users != null && users.contains(userId);
+        });
+    }
+
+    public long count(LikeTarget target, Long targetId) {
+        return read(target, () -> {
+            CompressedBitmap users = bitmaps.get(target).get(targetId);
+            return users == null ? 0L : users.cardinality();
+        });
+    }
+
+    // users who liked both, ascending
+    public List<Long> likedByBoth(LikeTarget target, Long firstId, Long secondId) {
+        long[] users = read(target, () -> {
+            CompressedBitmap first = bitmaps.get(target).get(firstId);
+            CompressedBitmap second = bitmaps.get(target).get(secondId);
+            return first == null || second == null ? new long[0] : first.and(second).toArray();
+        });
+        return Arrays.stream(users).boxed().toList();
+    }
+
+    public List<LikeIndexStatsDTO> getStats() {
+        List<LikeIndexStatsDTO> stats = new ArrayList<>();
+        for (LikeTarget target : LikeTarget.values()) {
+            stats.add(read(target, () -> {
+                long likes = 0;
+                long bytes = 0;
+                for (CompressedBitmap users : bitmaps.get(target).values()) {
+                    likes += users.cardinality();
+                    bytes += ENTRY_OVERHEAD + users.sizeInBytes();
+                }
+                return new LikeIndexStatsDTO(target.name().toLowerCase(Locale.ROOT), bitmaps.get(target).size(), likes, bytes);
+            }));
+        }
+        return stats;
+    }
+
+    private void apply(Runnable change) {
+        if (!enabled) return;
+        if (!ready) {
+            synchronized (warmUpLock) {
+                if (!ready) {
+                    queued.add(change);
+                    return;
+                }
+            }
+        }
+        change.run();
+    }
+
+    private void write(LikeTarget target, Runnable change) {
+        ReadWriteLock lock = locks.get(target);
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> T read(LikeTarget target, Supplier<T> query) {
+        ReadWriteLock lock = locks.get(target);
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.dk.dermokometicapi.likes;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only file of the operations held by the like buffer, one line each.
+ * A flush rotates the active file to a pending one and deletes it only after the batch
+ * has committed, so a crash at any point leaves every unwritten operation on disk.
+ * Replaying operations that did reach the database is harmless, likes are insert-if-absent.
+ * Appends are group-committed: a caller queues its line, then whichever caller gets to the file first writes
+ * every queued line with a single flush, so concurrent likes share one write instead of taking turns.
+ */
+class LikeJournal {
+    private final Path active;
+    private final Path pending;
+    private BufferedWriter writer;
+    // lines not yet written, in the order they were queued; guarded by itself
+    private final List<String> queued = new ArrayList<>();
+    private long enqueued;
+    // the last ticket written through, guarded by this
+    private long written;
+
+    LikeJournal(Path active) {
+        this.active = active;
+        this.pending = active.resolveSibling(active.getFileName() + ".pending");
+    }
+
+    // pending file first, it holds the older operations
+    synchronized List<LikeOperation> replay() {
+        List<LikeOperation> operations = new ArrayList<>();
+        read(pending, operations);
+        read(active, operations);
+        return operations;
+    }
+
+    // cheap enough for the caller's lock, so lines keep the order the caller holds; the ticket is for await
+    long enqueue(LikeOperation operation) {
+        synchronized (queued) {
+            queued.add(operation.toLine());
+            return ++enqueued;
+        }
+    }
+
+    // returns once the line of that ticket is written through to the OS, so it survives the process but not the machine
+    synchronized void await(long ticket) {
+        if (written < ticket) writeQueued();
+    }
+
+    // one flush for every line queued so far, including those of callers still waiting for the monitor
+    private void writeQueued() {
+        List<String> lines;
+        long last;
+        synchronized (queued) {
+            lines = new ArrayList<>(queued);
+            queued.clear();
+            last = enqueued;
+        }
+        if (lines.isEmpty()) return;
+        try {
+            if (writer == null) {
+                Path parent = active.toAbsolutePath().getParent();
+                if (parent != null) Files.createDirectories(parent);
+                writer = Files.newBufferedWriter(active, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+            writer.flush();
+            written = last;
+        } catch (IOException e) {
+            // back in front for the next attempt; lines that did reach the file are replayed twice, in order
+            synchronized (queued) {
+                queued.addAll(0, lines);
+            }
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // moves everything written so far behind the pending file; a pending file left by a failed flush is kept
+    synchronized void rotate() {
+        writeQueued();
+        try {
+            close();
+            if (!Files.exists(active)) return;
+            if (Files.exists(pending)) {
+                // a line cut short by a crash must not run into the first appended one
+                if (!endsWithNewline(pending)) {
+                    Files.write(pending, new byte[]{'\n'}, StandardOpenOption.APPEND);
+                }
+                Files.write(pending, Files.readAllBytes(active), StandardOpenOption.APPEND);
+                Files.delete(active);
+            } else {
+                Files.move(active, pending, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // the rotated operations are in the database
+    synchronized void commit() {
+        try {
+            Files.deleteIfExists(pending);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private static boolean endsWithNewline(Path file) throws IOException {
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            if (channel.size() == 0) return true;
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1).read(last);
+            return last.get(0) == '\n';
+        }
+    }
+
+    private static void read(Path file, List<LikeOperation> operations) {
+        if (!Files.exists(file)) return;
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                LikeOperation operation = LikeOperation.parse(line);
+                if (operation != null) operations.add(operation);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.dk.dermokometicapi.likes;
+
+// a like (liked = true) or unlike of one target by one user
+record LikeOperation(LikeTarget target, Long targetId, Long userId, boolean liked) {
+
+    // "A,12,7,1": target code, target id, user id, 1 for like and 0 for unlike
+    String toLine() {
+        return target.getCode() + "," + targetId + "," + userId + "," + (liked ? 1 : 0);
+    }
+
+    // null for a line that cannot be read, e.g. the last one cut short by a crash
+    static LikeOperation parse(String line) {
+        String[] parts = line.split(",");
+        if (parts.length != 4 || parts[0].length() != 1 || !parts[3].matches("[01]")) return null;
+        try {
+            return new LikeOperation(LikeTarget.fromCode(parts[0].charAt(0)),
+                    Long.parseLong(parts[1]), Long.parseLong(parts[2]), "1".equals(parts[3]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.dk.dermokometicapi.likes;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Storage for all four like types behind one set of statements, logically a single
+ * (target type, target id, user id, created at) table; {@link LikeTarget} maps each type to its physical table.
+ * Plain JDBC, so entities still pending in the persistence context are flushed first to be visible here.
+ */
+@Component
+public class LikeStore {
+    private static final int FETCH_SIZE = 1000;
+    // bind parameters per IN list, well below what the drivers accept
+    private static final int MAX_IN_IDS = 1000;
+
+    public interface LikeRowHandler {
+        void accept(long targetId, long userId);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    public LikeStore(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    // the like when this call created it, with its id and date from the same round trip;
+    // empty when it was already there or the target or user does not exist
+    public Optional<Engagement> insert(LikeTarget target, Long targetId, Long userId) {
+        flushPersistenceContext();
+        return jdbcTemplate.execute(connection -> connection.prepareStatement(target.insertSql(), target.insertedColumns()),
+                (PreparedStatement statement) -> {
+                    statement.setLong(1, targetId);
+                    statement.setLong(2, userId);
+                    if (statement.executeUpdate() == 0) return Optional.<Engagement>empty();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        keys.next();
+                        return Optional.of(new Engagement(keys.getLong(1), target, targetId, userId, keys.getObject(2, LocalDate.class), false));
+                    }
+                });
+    }
+
+    public boolean delete(LikeTarget target, Long targetId, Long userId) {
+        flushPersistenceContext();
+        return jdbcTemplate.update(target.deleteSql(), targetId, userId) == 1;
+    }
+
+    public int deleteAll(LikeTarget target, Long targetId) {
+        flushPersistenceContext();
+        return jdbcTemplate.update(target.deleteAllSql(), targetId);
+    }
+
+    // whole subtrees of comments or answers, one statement per MAX_IN_IDS targets
+    public int deleteAll(LikeTarget target, List<Long> targetIds) {
+        flushPersistenceContext();
+        int deleted = 0;
+        for (int from = 0; from < targetIds.size(); from += MAX_IN_IDS) {
+            List<Long> chunk = targetIds.subList(from, Math.min(from + MAX_IN_IDS, targetIds.size()));
+            deleted += jdbcTemplate.update(target.deleteAllInSql(chunk.size()), chunk.toArray());
+        }
+        return deleted;
+    }
+
+    public Optional<Engagement> find(LikeTarget target, Long targetId, Long userId) {
+        flushPersistenceContext();
+        return jdbcTemplate.query(target.findSql(), (resultSet, row) -> new Engagement(resultSet.getLong(1), target,
+                targetId, userId, resultSet.getObject(2, LocalDate.class), false), targetId, userId).stream().findFirst();
+    }
+
+    public boolean exists(LikeTarget target, Long targetId, Long userId) {
+        flushPersistenceContext();
+        return queryCount(target.existsSql(), targetId, userId) > 0;
+    }
+
+    public long count(LikeTarget target, Long targetId) {
+        flushPersistenceContext();
+        return queryCount(target.countSql(), targetId);
+    }
+
+    // like counts of a whole page, one grouped IN query; targets without likes are left out
+    public Map<Long, Long> countAll(LikeTarget target, Collection<Long> targetIds) {
+        flushPersistenceContext();
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query(target.countByTargetSql(targetIds.size()),
+                (RowCallbackHandler) resultSet -> counts.put(resultSet.getLong(1), resultSet.getLong(2)), targetIds.toArray());
+        return counts;
+    }
+
+    // which of the given targets the user liked, one IN query for a whole page
+    public List<Long> findLikedIds(LikeTarget target, Long userId, Collection<Long> targetIds) {
+        flushPersistenceContext();
+        List<Object> args = new ArrayList<>(targetIds.size() + 1);
+        args.add(userId);
+        args.addAll(targetIds);
+        return jdbcTemplate.queryForList(target.likedIdsSql(targetIds.size()), Long.class, args.toArray());
+    }
+
+    public boolean targetExists(LikeTarget target, Long targetId) {
+        flushPersistenceContext();
+        return queryCount(target.targetExistsSql(), targetId) > 0;
+    }
+
+    // the article of a comment, the question of an answer
+    public Optional<Long> findParentId(LikeTarget target, Long targetId) {
+        flushPersistenceContext();
+        return jdbcTemplate.queryForList(target.parentSql(), Long.class, targetId).stream().findFirst();
+    }
+
+    public boolean userExists(Long userId) {
+        flushPersistenceContext();
+        return queryCount("SELECT COUNT(*) FROM users WHERE id = ?", userId) > 0;
+    }
+
+    public List<Long> findUsersWhoLikedBoth(LikeTarget target, Long firstId, Long secondId) {
+        flushPersistenceContext();
+        return jdbcTemplate.queryForList(target.likedByBothSql(), Long.class, firstId, secondId);
+    }
+
+    // every like of this type, read through a cursor; the driver only streams inside a transaction
+    public void forEach(LikeTarget target, LikeRowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(target.selectAllSql());
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, resultSet -> {
+            handler.accept(resultSet.getLong(1), resultSet.getLong(2));
+        });
+    }
+
+    private long queryCount(String sql, Object... args) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, args);
+        return count == null ? 0 : count;
+    }
+
+    private void flushPersistenceContext() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) entityManager.flush();
+    }
+}
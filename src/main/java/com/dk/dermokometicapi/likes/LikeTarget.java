@@ -0,0 +1,124 @@
+package com.dk.dermokometicapi.likes;
+
+import java.util.Collections;
+import java.util.Locale;
+
+/**
+ * The four likeable kinds of content and the table each like lives in, so one {@link LikeStore}
+ * serves all of them. The code is the single character written to the like journal.
+ */
+public enum LikeTarget {
+    ARTICLE('A', "article_likes", "article_id", "like_date", "articles", null),
+    COMMENT('C', "comment_likes", "comment_id", "publication_date", "comments", "article_id"),
+    ANSWER('N', "answer_likes", "answer_id", "like_date", "answers", "question_id"),
+    QUESTION('Q', "question_likes", "question_id", "like_date", "questions", null);
+
+    private final char code;
+    private final String likeTable;
+    private final String targetColumn;
+    private final String dateColumn;
+    private final String targetTable;
+    // the article or question a comment or answer belongs to
+    private final String parentColumn;
+
+    LikeTarget(char code, String likeTable, String targetColumn, String dateColumn, String targetTable, String parentColumn) {
+        this.code = code;
+        this.likeTable = likeTable;
+        this.targetColumn = targetColumn;
+        this.dateColumn = dateColumn;
+        this.targetTable = targetTable;
+        this.parentColumn = parentColumn;
+    }
+
+    public char getCode() {
+        return code;
+    }
+
+    public static LikeTarget fromCode(char code) {
+        for (LikeTarget target : values()) {
+            if (target.code == code) return target;
+        }
+        throw new IllegalArgumentException("Unknown like target code: " + code);
+    }
+
+    // "Article", "Comment", ... for error messages
+    public String getLabel() {
+        return name().charAt(0) + name().substring(1).toLowerCase(Locale.ROOT);
+    }
+
+    // insert-if-absent in one statement: 1 when the like was created, 0 when it was already there or the
+    // target or user does not exist; the unique (target, user) constraint settles concurrent attempts.
+    // Parameters here and below are (target id, user id) unless said otherwise.
+    String insertSql() {
+        return "INSERT INTO " + likeTable + " (" + targetColumn + ", user_id, " + dateColumn + ", created_at) " +
+                "SELECT t.id, u.id, CURRENT_DATE, CURRENT_TIMESTAMP FROM " + targetTable + " t CROSS JOIN users u " +
+                "WHERE t.id = ? AND u.id = ? ON CONFLICT DO NOTHING";
+    }
+
+    // what a single insert hands back as generated keys, the PostgreSQL driver adds them as RETURNING to the statement;
+    // nothing comes back when the insert did nothing, the batched inserts of the write-behind buffer ask for none
+    String[] insertedColumns() {
+        return new String[]{"id", dateColumn};
+    }
+
+    String deleteSql() {
+        return "DELETE FROM " + likeTable + " WHERE " + targetColumn + " = ? AND user_id = ?";
+    }
+
+    // parameter is the target id
+    String deleteAllSql() {
+        return "DELETE FROM " + likeTable + " WHERE " + targetColumn + " = ?";
+    }
+
+    // one parameter per target id
+    String deleteAllInSql(int ids) {
+        return "DELETE FROM " + likeTable + " WHERE " + targetColumn + " IN (" + String.join(", ", Collections.nCopies(ids, "?")) + ")";
+    }
+
+    String findSql() {
+        return "SELECT id, " + dateColumn + " FROM " + likeTable + " WHERE " + targetColumn + " = ? AND user_id = ?";
+    }
+
+    String existsSql() {
+        return "SELECT COUNT(*) FROM " + likeTable + " WHERE " + targetColumn + " = ? AND user_id = ?";
+    }
+
+    // parameter is the target id
+    String countSql() {
+        return "SELECT COUNT(*) FROM " + likeTable + " WHERE " + targetColumn + " = ?";
+    }
+
+    // one parameter per target id, targets without likes have no row
+    String countByTargetSql(int ids) {
+        return "SELECT " + targetColumn + ", COUNT(*) FROM " + likeTable + " WHERE " + targetColumn +
+                " IN (" + String.join(", ", Collections.nCopies(ids, "?")) + ") GROUP BY " + targetColumn;
+    }
+
+    // parameters are the user id, then one per target id
+    String likedIdsSql(int ids) {
+        return "SELECT " + targetColumn + " FROM " + likeTable + " WHERE user_id = ? AND " + targetColumn +
+                " IN (" + String.join(", ", Collections.nCopies(ids, "?")) + ")";
+    }
+
+    // parameter is the target id
+    String targetExistsSql() {
+        return "SELECT COUNT(*) FROM " + targetTable + " WHERE id = ?";
+    }
+
+    // parameter is the target id, comments and answers only
+    String parentSql() {
+        if (parentColumn == null) throw new IllegalStateException(getLabel() + " has no parent");
+        return "SELECT " + parentColumn + " FROM " + targetTable + " WHERE id = ?";
+    }
+
+    // rows are (target id, user id), no parameters
+    String selectAllSql() {
+        return "SELECT " + targetColumn + ", user_id FROM " + likeTable;
+    }
+
+    // parameters are the two target ids, users come out ascending
+    String likedByBothSql() {
+        return "SELECT a.user_id FROM " + likeTable + " a JOIN " + likeTable + " b ON b.user_id = a.user_id " +
+                "WHERE a." + targetColumn + " = ? AND b." + targetColumn + " = ? ORDER BY a.user_id";
+    }
+}
@@ -0,0 +1,260 @@
+package com.dk.dermokometicapi.likes;
+
+import com.dk.dermokometicapi.cache.ArticleCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional write-behind mode for likes, off unless dk.likes.write-behind.enabled is set.
+ * Like and unlike calls only land in a striped map keyed by (target, user), where the last call wins,
+ * and in the journal. The map is flushed as JDBC batches once it holds batch-size entries or every
+ * flush-interval, so a burst of likes costs one transaction per batch instead of one per request.
+ * Until their flush, buffered likes are only visible through {@link #pending}.
+ */
+@Slf4j
+@Component
+public class LikeWriteBuffer {
+    private static final int STRIPES = 16;
+
+    private record LikeKey(LikeTarget target, Long targetId, Long userId) {
+    }
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ArticleCache articleCache;
+    private final LikeIndex likeIndex;
+    private final LikeJournal journal;
+
+    private final List<Map<LikeKey, Boolean>> stripes = new ArrayList<>(STRIPES);
+    // records share it, a drain takes it alone so the journal rotation and the drained maps line up
+    private final ReadWriteLock drainLock = new ReentrantReadWriteLock();
+    private final Object flushLock = new Object();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private ScheduledExecutorService scheduler;
+
+    public LikeWriteBuffer(@Value("${dk.likes.write-behind.enabled:false}") boolean enabled,
+                           @Value("${dk.likes.write-behind.batch-size:500}") int batchSize,
+                           @Value("${dk.likes.write-behind.flush-interval-ms:1000}") long flushIntervalMillis,
+                           @Value("${dk.likes.write-behind.journal:data/likes.journal}") String journalPath,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           ArticleCache articleCache,
+                           LikeIndex likeIndex) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.articleCache = articleCache;
+        this.likeIndex = likeIndex;
+        this.journal = new LikeJournal(Path.of(journalPath));
+        for (int i = 0; i < STRIPES; i++) {
+            stripes.add(new HashMap<>());
+        }
+        // operations left by the last run go back in the map, the first flush writes them
+        if (enabled) journal.replay().forEach(this::put);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void like(LikeTarget target, Long targetId, Long userId) {
+        record(new LikeOperation(target, targetId, userId, true));
+    }
+
+    public void unlike(LikeTarget target, Long targetId, Long userId) {
+        record(new LikeOperation(target, targetId, userId, false));
+    }
+
+    // the buffered state for this user and target, empty when the database has the latest one
+    public Optional<Boolean> pending(LikeTarget target, Long targetId, Long userId) {
+        LikeKey key = new LikeKey(target, targetId, userId);
+        Map<LikeKey, Boolean> stripe = stripe(key);
+        synchronized (stripe) {
+            return Optional.ofNullable(stripe.get(key));
+        }
+    }
+
+    // folds this user's buffered likes and unlikes into the ids read from the database
+    public void applyPending(LikeTarget target, Long userId, Collection<Long> ids, Set<Long> liked) {
+        if (!enabled) return;
+        for (Long id : ids) {
+            pending(target, id, userId).ifPresent(pendingLike -> {
+                if (pendingLike) liked.add(id);
+                else liked.remove(id);
+            });
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "like-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, 0, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (!enabled) return;
+        if (scheduler != null) scheduler.shutdown();
+        flushQuietly();
+        journal.close();
+    }
+
+    // writes everything buffered so far and returns how many operations went out
+    public int flush() {
+        synchronized (flushLock) {
+            Map<LikeKey, Boolean> batch = drain();
+            if (!batch.isEmpty()) {
+                try {
+                    write(batch);
+                } catch (RuntimeException e) {
+                    restore(batch);
+                    throw e;
+                }
+            }
+            journal.commit();
+            return batch.size();
+        }
+    }
+
+    private void record(LikeOperation operation) {
+        long ticket;
+        drainLock.readLock().lock();
+        try {
+            LikeKey key = new LikeKey(operation.target(), operation.targetId(), operation.userId());
+            Map<LikeKey, Boolean> stripe = stripe(key);
+            // journal and map under the same stripe lock, so both keep the same order for a key
+            synchronized (stripe) {
+                ticket = journal.enqueue(operation);
+                if (stripe.put(key, operation.liked()) == null) size.incrementAndGet();
+            }
+        } finally {
+            drainLock.readLock().unlock();
+        }
+        // outside both locks, so concurrent records share a write; a drain in between writes the line itself
+        journal.await(ticket);
+        if (size.get() >= batchSize && scheduler != null && flushQueued.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                flushQueued.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    private void put(LikeOperation operation) {
+        LikeKey key = new LikeKey(operation.target(), operation.targetId(), operation.userId());
+        Map<LikeKey, Boolean> stripe = stripe(key);
+        synchronized (stripe) {
+            if (stripe.put(key, operation.liked()) == null) size.incrementAndGet();
+        }
+    }
+
+    private Map<LikeKey, Boolean> drain() {
+        Map<LikeKey, Boolean> batch = new HashMap<>();
+        drainLock.writeLock().lock();
+        try {
+            journal.rotate();
+            for (Map<LikeKey, Boolean> stripe : stripes) {
+                synchronized (stripe) {
+                    batch.putAll(stripe);
+                    stripe.clear();
+                }
+            }
+            size.addAndGet(-batch.size());
+        } finally {
+            drainLock.writeLock().unlock();
+        }
+        return batch;
+    }
+
+    // a failed batch goes back behind anything recorded since, which is newer; the pending journal keeps it on disk
+    private void restore(Map<LikeKey, Boolean> batch) {
+        batch.forEach((key, liked) -> {
+            Map<LikeKey, Boolean> stripe = stripe(key);
+            synchronized (stripe) {
+                if (stripe.putIfAbsent(key, liked) == null) size.incrementAndGet();
+            }
+        });
+    }
+
+    private void write(Map<LikeKey, Boolean> batch) {
+        Map<LikeTarget, List<Object[]>> likes = new EnumMap<>(LikeTarget.class);
+        Map<LikeTarget, List<Object[]>> unlikes = new EnumMap<>(LikeTarget.class);
+        TreeSet<Long> articleIds = new TreeSet<>();
+        TreeSet<Long> questionIds = new TreeSet<>();
+        batch.forEach((key, liked) -> {
+            (liked ? likes : unlikes).computeIfAbsent(key.target(), t -> new ArrayList<>())
+                    .add(new Object[]{key.targetId(), key.userId()});
+            if (key.target() == LikeTarget.ARTICLE) articleIds.add(key.targetId());
+            if (key.target() == LikeTarget.QUESTION) questionIds.add(key.targetId());
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            likes.forEach((target, rows) -> jdbcTemplate.batchUpdate(target.insertSql(), rows));
+            unlikes.forEach((target, rows) -> jdbcTemplate.batchUpdate(target.deleteSql(), rows));
+            // the counters are recounted rather than moved by the batch's row counts, which not every driver reports
+            jdbcTemplate.batchUpdate("UPDATE articles SET like_count = " +
+                            "(SELECT COUNT(*) FROM article_likes l WHERE l.article_id = articles.id) WHERE id = ?",
+                    articleIds.stream().map(id -> new Object[]{id}).toList());
+            jdbcTemplate.batchUpdate("UPDATE questions SET like_count = " +
+                            "(SELECT COUNT(*) FROM question_likes l WHERE l.question_id = questions.id) WHERE id = ?",
+                    questionIds.stream().map(id -> new Object[]{id}).toList());
+            articleIds.forEach(articleCache::evict);
+            batch.forEach((key, liked) -> {
+                if (liked) likeIndex.add(key.target(), key.targetId(), key.userId());
+                else likeIndex.remove(key.target(), key.targetId(), key.userId());
+            });
+        });
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Like write-behind flush failed, the batch stays buffered", e);
+        }
+    }
+
+    private Map<LikeKey, Boolean> stripe(LikeKey key) {
+        return stripes.get(Math.floorMod(key.hashCode(), STRIPES));
+    }
+}
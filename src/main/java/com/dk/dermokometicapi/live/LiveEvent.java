@@ -0,0 +1,22 @@
+package com.dk.dermokometicapi.live;
+
+import com.dk.dermokometicapi.models.dto.AnswerResponseDTO;
+import com.dk.dermokometicapi.models.dto.CommentResponseDTO;
+import com.dk.dermokometicapi.models.dto.LikeDeltaDTO;
+
+// one server-sent event: the name is the SSE event field, a null name is sent as a comment line
+public record LiveEvent(String name, Object data) {
+    static final LiveEvent HEARTBEAT = new LiveEvent(null, "heartbeat");
+
+    public static LiveEvent comment(CommentResponseDTO comment) {
+        return new LiveEvent("comment", comment);
+    }
+
+    public static LiveEvent answer(AnswerResponseDTO answer) {
+        return new LiveEvent("answer", answer);
+    }
+
+    public static LiveEvent like(LikeDeltaDTO like) {
+        return new LiveEvent("like", like);
+    }
+}
@@ -0,0 +1,248 @@
+package com.dk.dermokometicapi.live;
+
+import com.dk.dermokometicapi.utils.TransactionHooks;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent event streams of new comments, answers and like count changes, one topic per article or question.
+ * Subscribers are async {@link SseEmitter}s, so no request thread waits on them. Publishing only queues the event
+ * on each subscriber of the topic; a small shared pool does the writes, one drain at a time per subscriber.
+ * A subscriber whose queue is full is disconnected rather than left behind, and so is one whose write has not
+ * returned within the write timeout, with its sender interrupted, so stalled peers cannot hold the pool; an
+ * EventSource client simply reconnects and reloads the first page. Events are published after commit and only reach this instance.
+ */
+@Slf4j
+@Component
+public class LiveStreamHub {
+
+    private static final class Subscriber {
+        private final LiveTopic topic;
+        private final SseEmitter emitter;
+        private final Queue<LiveEvent> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+        // set while a sender is inside emitter.send
+        private Thread sendingThread;
+        private long sendingSince;
+
+        private Subscriber(LiveTopic topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+        }
+    }
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final long heartbeatMillis;
+    private final long writeTimeoutMillis;
+    private final Executor sender;
+    private final Map<LiveTopic, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final Map<LiveTopic.Kind, AtomicInteger> subscribersByKind = new EnumMap<>(LiveTopic.Kind.class);
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private ScheduledExecutorService heartbeat;
+
+    @Autowired
+    public LiveStreamHub(@Value("${dk.live.buffer-size:64}") int bufferSize,
+                         @Value("${dk.live.max-subscribers:10000}") int maxSubscribers,
+                         @Value("${dk.live.timeout-ms:1800000}") long timeoutMillis,
+                         @Value("${dk.live.heartbeat-ms:15000}") long heartbeatMillis,
+                         @Value("${dk.live.write-timeout-ms:10000}") long writeTimeoutMillis,
+                         @Value("${dk.live.sender-threads:4}") int senderThreads) {
+        this(bufferSize, maxSubscribers, timeoutMillis, heartbeatMillis, writeTimeoutMillis, Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "live-stream-sender");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    LiveStreamHub(int bufferSize, int maxSubscribers, long timeoutMillis, long heartbeatMillis, long writeTimeoutMillis,
+                  Executor sender) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        this.writeTimeoutMillis = writeTimeoutMillis;
+        this.sender = sender;
+        for (LiveTopic.Kind kind : LiveTopic.Kind.values()) {
+            subscribersByKind.put(kind, new AtomicInteger());
+        }
+    }
+
+    public SseEmitter subscribe(LiveTopic topic) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live subscribers");
+        }
+        subscribersByKind.get(topic.kind()).incrementAndGet();
+        Subscriber subscriber = new Subscriber(topic, createEmitter());
+        subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.emitter.onTimeout(() -> close(subscriber));
+        subscriber.emitter.onError(error -> close(subscriber));
+        // add and remove run inside compute, so a topic emptied concurrently is never left holding a new subscriber
+        topics.compute(topic, (key, subscribersOfTopic) -> {
+            Set<Subscriber> joined = subscribersOfTopic == null ? ConcurrentHashMap.newKeySet() : subscribersOfTopic;
+            joined.add(subscriber);
+            return joined;
+        });
+        // first bytes out, so the client sees the stream open before anything happens on the topic
+        enqueue(subscriber, LiveEvent.HEARTBEAT);
+        return subscriber.emitter;
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    // comment and answer likes need a lookup for their topic, which is skipped while nobody follows that kind
+    public boolean hasSubscribers(LiveTopic.Kind kind) {
+        return subscribersByKind.get(kind).get() > 0;
+    }
+
+    public int subscriberCount() {
+        return subscribers.get();
+    }
+
+    public void publish(LiveTopic topic, LiveEvent event) {
+        if (!topics.containsKey(topic)) return;
+        TransactionHooks.afterCommit(() -> topics.getOrDefault(topic, Set.of()).forEach(subscriber -> enqueue(subscriber, event)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // keeps idle connections open through proxies and finds clients that went away
+        heartbeat.scheduleWithFixedDelay(() -> topics.values().forEach(topic -> topic.forEach(subscriber -> enqueue(subscriber, LiveEvent.HEARTBEAT))),
+                heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        heartbeat.scheduleWithFixedDelay(this::disconnectStalled, writeTimeoutMillis, writeTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // a client that stopped reading leaves its write blocked until the container gives up on the socket
+    private void disconnectStalled() {
+        long now = System.nanoTime();
+        topics.values().forEach(topic -> topic.forEach(subscriber -> {
+            synchronized (subscriber) {
+                if (subscriber.sendingThread == null
+                        || now - subscriber.sendingSince < TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis)) return;
+                log.debug("Disconnecting stalled live subscriber of {}", subscriber.topic);
+                closeLocked(subscriber);
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (heartbeat != null) heartbeat.shutdown();
+        topics.values().forEach(topic -> topic.forEach(this::close));
+        if (sender instanceof ExecutorService executor) executor.shutdown();
+    }
+
+    private void enqueue(Subscriber subscriber, LiveEvent event) {
+        synchronized (subscriber) {
+            if (subscriber.closed) return;
+            if (subscriber.queue.size() >= bufferSize) {
+                log.debug("Disconnecting slow live subscriber of {}", subscriber.topic);
+                closeLocked(subscriber);
+                return;
+            }
+            subscriber.queue.add(event);
+            if (subscriber.draining) return;
+            subscriber.draining = true;
+        }
+        sender.execute(() -> drain(subscriber));
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            LiveEvent event;
+            synchronized (subscriber) {
+                event = subscriber.closed ? null : subscriber.queue.poll();
+                if (event == null) {
+                    subscriber.draining = false;
+                    return;
+                }
+                subscriber.sendingThread = Thread.currentThread();
+                subscriber.sendingSince = System.nanoTime();
+            }
+            boolean failed = false;
+            try {
+                subscriber.emitter.send(event.name() == null
+                        ? SseEmitter.event().comment(String.valueOf(event.data()))
+                        : SseEmitter.event().name(event.name()).data(event.data()));
+            } catch (IOException | IllegalStateException e) {
+                failed = true;
+            }
+            boolean closedWhileSending;
+            synchronized (subscriber) {
+                subscriber.sendingThread = null;
+                closedWhileSending = subscriber.closed;
+            }
+            // an interrupt from closeLocked was meant for that write, not for the next subscriber on this thread
+            Thread.interrupted();
+            if (closedWhileSending) {
+                subscriber.emitter.complete();
+            } else if (failed) {
+                close(subscriber);
+            }
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        synchronized (subscriber) {
+            closeLocked(subscriber);
+        }
+    }
+
+    // completing waits on the emitter, which a blocked write holds, so that is left to the sender once it is back
+    private void closeLocked(Subscriber subscriber) {
+        if (subscriber.closed) return;
+        subscriber.closed = true;
+        subscriber.queue.clear();
+        unsubscribe(subscriber);
+        if (subscriber.sendingThread == null) {
+            subscriber.emitter.complete();
+        } else {
+            subscriber.sendingThread.interrupt();
+        }
+    }
+
+    // runs at most once per subscriber, whichever of close and the completion callback comes first
+    private void unsubscribe(Subscriber subscriber) {
+        AtomicBoolean removed = new AtomicBoolean();
+        topics.computeIfPresent(subscriber.topic, (key, subscribersOfTopic) -> {
+            removed.set(subscribersOfTopic.remove(subscriber));
+            return subscribersOfTopic.isEmpty() ? null : subscribersOfTopic;
+        });
+        if (!removed.get()) return;
+        subscribers.decrementAndGet();
+        subscribersByKind.get(subscriber.topic.kind()).decrementAndGet();
+    }
+}
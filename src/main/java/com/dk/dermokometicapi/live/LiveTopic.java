@@ -0,0 +1,15 @@
+package com.dk.dermokometicapi.live;
+
+// the article or question a live stream follows
+public record LiveTopic(Kind kind, Long id) {
+
+    public enum Kind { ARTICLE, QUESTION }
+
+    public static LiveTopic article(Long articleId) {
+        return new LiveTopic(Kind.ARTICLE, articleId);
+    }
+
+    public static LiveTopic question(Long questionId) {
+        return new LiveTopic(Kind.QUESTION, questionId);
+    }
+}
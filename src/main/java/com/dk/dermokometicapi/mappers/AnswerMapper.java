@@ -9,6 +9,7 @@ import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Component
@@ -24,6 +25,7 @@ public class AnswerMapper {
         answer.setQuestion(question);
         answer.setParentAnswer(parentAnswer);
         answer.setPublicationDate(LocalDate.now());
+        answer.setCreatedAt(Instant.now());
         return answer;
     }
 
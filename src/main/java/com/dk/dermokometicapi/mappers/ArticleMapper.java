@@ -1,5 +1,7 @@
 package com.dk.dermokometicapi.mappers;
 
+import com.dk.dermokometicapi.images.ImageStore;
+import com.dk.dermokometicapi.images.ImageVariants;
 import com.dk.dermokometicapi.models.dto.ArticleRequestDTO;
 import com.dk.dermokometicapi.models.dto.ArticleResponseDTO;
 import com.dk.dermokometicapi.models.dto.ArticleSummaryResponseDTO;
@@ -10,6 +12,9 @@ import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.List;
 
 @Component
@@ -17,6 +22,8 @@ import java.util.List;
 public class ArticleMapper {
 
     private final ModelMapper modelMapper;
+    private final ImageStore imageStore;
+    private final ImageVariants imageVariants;
 
     public Article convertToEntity(ArticleRequestDTO articleRequestDTO, List<Writer> writers) {
         Article article = modelMapper.map(articleRequestDTO, Article.class);
@@ -32,15 +39,41 @@ public class ArticleMapper {
         ArticleSummaryResponseDTO articleSummaryResponseDTO = modelMapper.map(article, ArticleSummaryResponseDTO.class);
         articleSummaryResponseDTO.setLikes(likes);
         articleSummaryResponseDTO.setComments(comments);
+        setMainImage(articleSummaryResponseDTO, article.getMainImage());
         return articleSummaryResponseDTO;
     }
 
+    // a feed row, see FeedSource for the columns
+    public ArticleSummaryResponseDTO convertToSummaryDTO(ResultSet resultSet) throws SQLException {
+        ArticleSummaryResponseDTO articleSummaryResponseDTO = new ArticleSummaryResponseDTO(
+                resultSet.getLong("id"),
+                resultSet.getString("title"),
+                resultSet.getString("description"),
+                resultSet.getString("type"),
+                resultSet.getString("main_img"),
+                resultSet.getObject("publication_date", LocalDate.class).toString(),
+                resultSet.getObject("last_update_date", LocalDate.class).toString(),
+                resultSet.getLong("like_count"),
+                resultSet.getLong("comment_count")
+        );
+        setMainImage(articleSummaryResponseDTO, resultSet.getString("main_image"));
+        return articleSummaryResponseDTO;
+    }
+
+    // an uploaded image takes the place of the external URL
+    private void setMainImage(ArticleSummaryResponseDTO articleSummaryResponseDTO, String mainImage) {
+        if (mainImage == null) return;
+        articleSummaryResponseDTO.setMainImg(imageStore.urlOf(mainImage));
+        articleSummaryResponseDTO.setMainImgSizes(imageVariants.urlsOf(mainImage));
+    }
+
     public ArticleResponseDTO convertToDTO(Article article, ArticleDetail articleDetail, Long likes, Long comments, List<Long> writerIds) {
         ArticleResponseDTO articleResponseDTO = modelMapper.map(article, ArticleResponseDTO.class);
         modelMapper.map(articleDetail, articleResponseDTO);
         articleResponseDTO.setLikes(likes);
         articleResponseDTO.setComments(comments);
         articleResponseDTO.setWriterIds(writerIds);
+        if (article.getMainImage() != null) articleResponseDTO.setMainImg(imageStore.urlOf(article.getMainImage()));
         return articleResponseDTO;
     }
 }
@@ -2,13 +2,16 @@ package com.dk.dermokometicapi.mappers;
 
 import com.dk.dermokometicapi.models.dto.CommentRequestDTO;
 import com.dk.dermokometicapi.models.dto.CommentResponseDTO;
+import com.dk.dermokometicapi.models.dto.CommentThreadResponseDTO;
 import com.dk.dermokometicapi.models.entities.Article;
 import com.dk.dermokometicapi.models.entities.Comment;
 import com.dk.dermokometicapi.models.entities.User;
+import com.dk.dermokometicapi.models.projections.CommentThreadProjection;
 import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Component
@@ -23,6 +26,7 @@ public class CommentMapper {
         comment.setParentComment(parentComment);
         comment.setUser(user);
         comment.setPublicationDate(LocalDate.now());
+        comment.setCreatedAt(Instant.now());
         return comment;
     }
 
@@ -33,4 +37,18 @@ public class CommentMapper {
         return commentResponseDTO;
     }
 
+    // replies are attached by the service while it assembles the tree
+    public CommentThreadResponseDTO convertToThreadDTO(CommentThreadProjection row, Long likeNumber, Long responseNumber) {
+        CommentThreadResponseDTO commentThreadResponseDTO = new CommentThreadResponseDTO();
+        commentThreadResponseDTO.setId(row.getId());
+        commentThreadResponseDTO.setContent(row.getContent());
+        commentThreadResponseDTO.setPublicationDate(row.getPublicationDate());
+        commentThreadResponseDTO.setParentCommentId(row.getParentCommentId());
+        commentThreadResponseDTO.setArticleId(row.getArticleId());
+        commentThreadResponseDTO.setUserId(row.getUserId());
+        commentThreadResponseDTO.setLikeNumber(likeNumber);
+        commentThreadResponseDTO.setResponseNumber(responseNumber);
+        return commentThreadResponseDTO;
+    }
+
 }
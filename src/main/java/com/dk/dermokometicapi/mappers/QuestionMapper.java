@@ -10,6 +10,10 @@ import org.modelmapper.ModelMapper;
 import org.modelmapper.TypeMap;
 import org.springframework.stereotype.Component;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
 @Component
 @AllArgsConstructor
 public class QuestionMapper {
@@ -23,6 +27,7 @@ public class QuestionMapper {
             // Ignorar los campos "likes" y "answers"
             mapper.skip(QuestionResponseDTO::setLikes);
             mapper.skip(QuestionResponseDTO::setAnswers);
+            mapper.skip(QuestionResponseDTO::setLikedByMe);
         });
     }
 
@@ -38,4 +43,18 @@ public class QuestionMapper {
         questionResponseDTO.setAnswers(answers);
         return questionResponseDTO;
     }
+
+    // a feed row, see FeedSource for the columns
+    public QuestionResponseDTO convertToDTO(ResultSet resultSet) throws SQLException {
+        return new QuestionResponseDTO(
+                resultSet.getLong("id"),
+                resultSet.getString("title"),
+                resultSet.getString("content"),
+                resultSet.getObject("publication_date", LocalDate.class).toString(),
+                resultSet.getString("type"),
+                resultSet.getLong("user_id"),
+                resultSet.getLong("like_count"),
+                resultSet.getLong("answer_count")
+        );
+    }
 }
@@ -1,5 +1,7 @@
 package com.dk.dermokometicapi.mappers;
 
+import com.dk.dermokometicapi.images.ImageStore;
+import com.dk.dermokometicapi.images.ImageVariants;
 import com.dk.dermokometicapi.models.dto.UserRequestDTO;
 import com.dk.dermokometicapi.models.dto.UserResponseDTO;
 import com.dk.dermokometicapi.models.entities.User;
@@ -14,13 +16,35 @@ import java.util.List;
 public class UserMapper {
 
     private final ModelMapper modelMapper;
+    private final ImageStore imageStore;
+    private final ImageVariants imageVariants;
 
     public User convertToEntity(UserRequestDTO userRequestDTO) {
-        return modelMapper.map(userRequestDTO, User.class);
+        User user = modelMapper.map(userRequestDTO, User.class);
+        if (userRequestDTO.getProfilePic() != null) setProfilePic(user, userRequestDTO.getProfilePic());
+        return user;
     }
 
+    // only external URLs are kept in profile_pic; an inline picture goes to the image store like an upload,
+    // and anything else is rejected
+    public void setProfilePic(User user, String profilePic) {
+        if (ImageStore.isUrl(profilePic)) {
+            user.setProfilePic(profilePic);
+            user.setProfileImage(null);
+        } else {
+            user.setProfileImage(imageStore.storeInline(profilePic));
+            user.setProfilePic(null);
+        }
+    }
+
+    // an uploaded picture takes the place of the external URL
     public UserResponseDTO convertToDTO(User user) {
-        return modelMapper.map(user, UserResponseDTO.class);
+        UserResponseDTO userResponseDTO = modelMapper.map(user, UserResponseDTO.class);
+        if (user.getProfileImage() != null) {
+            userResponseDTO.setProfilePic(imageStore.urlOf(user.getProfileImage()));
+            userResponseDTO.setProfilePicSizes(imageVariants.urlsOf(user.getProfileImage()));
+        }
+        return userResponseDTO;
     }
 
     public List<UserResponseDTO> convertToDTO(List<User> users) {
@@ -1,5 +1,7 @@
 package com.dk.dermokometicapi.mappers;
 
+import com.dk.dermokometicapi.images.ImageStore;
+import com.dk.dermokometicapi.images.ImageVariants;
 import com.dk.dermokometicapi.models.dto.WriterRequestDTO;
 import com.dk.dermokometicapi.models.dto.WriterResponseDTO;
 import com.dk.dermokometicapi.models.entities.Writer;
@@ -11,12 +13,34 @@ import org.springframework.stereotype.Component;
 @AllArgsConstructor
 public class WriterMapper {
     private final ModelMapper modelMapper;
+    private final ImageStore imageStore;
+    private final ImageVariants imageVariants;
 
     public Writer convertToEntity(WriterRequestDTO writerRequestDTO) {
-        return modelMapper.map(writerRequestDTO, Writer.class);
+        Writer writer = modelMapper.map(writerRequestDTO, Writer.class);
+        if (writerRequestDTO.getProfilePic() != null) setProfilePic(writer, writerRequestDTO.getProfilePic());
+        return writer;
     }
 
+    // only external URLs are kept in profile_pic; an inline picture goes to the image store like an upload,
+    // and anything else is rejected
+    public void setProfilePic(Writer writer, String profilePic) {
+        if (ImageStore.isUrl(profilePic)) {
+            writer.setProfilePic(profilePic);
+            writer.setProfileImage(null);
+        } else {
+            writer.setProfileImage(imageStore.storeInline(profilePic));
+            writer.setProfilePic(null);
+        }
+    }
+
+    // an uploaded picture takes the place of the external URL
     public WriterResponseDTO convertToDTO(Writer writer) {
-        return modelMapper.map(writer, WriterResponseDTO.class);
+        WriterResponseDTO writerResponseDTO = modelMapper.map(writer, WriterResponseDTO.class);
+        if (writer.getProfileImage() != null) {
+            writerResponseDTO.setProfilePic(imageStore.urlOf(writer.getProfileImage()));
+            writerResponseDTO.setProfilePicSizes(imageVariants.urlsOf(writer.getProfileImage()));
+        }
+        return writerResponseDTO;
     }
 }
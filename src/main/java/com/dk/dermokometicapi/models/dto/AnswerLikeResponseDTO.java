@@ -12,4 +12,7 @@ public class AnswerLikeResponseDTO {
     private Long answerId;
     private Long userId;
     private String likeDate;
+
+    // true when the user had already liked it and nothing was written
+    private boolean alreadyLiked;
 }
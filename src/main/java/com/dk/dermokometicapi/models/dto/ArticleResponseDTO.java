@@ -1,5 +1,6 @@
 package com.dk.dermokometicapi.models.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -21,4 +22,7 @@ public class ArticleResponseDTO {
     private Long comments;
     private List<Long> writerIds;
     private String content;
+    // with the counters above it versions the article for its ETag, it is not part of the body
+    @JsonIgnore
+    private Long contentVersion;
 }
@@ -1,12 +1,13 @@
 package com.dk.dermokometicapi.models.dto;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class ArticleSummaryResponseDTO {
     private Long id;
     private String title;
@@ -17,4 +18,23 @@ public class ArticleSummaryResponseDTO {
     private String lastUpdateDate;
     private Long likes;
     private Long comments;
+    // only set when the feed was requested for a user
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean likedByMe;
+    // width to thumbnail url, only for an uploaded main image
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<Integer, String> mainImgSizes;
+
+    public ArticleSummaryResponseDTO(Long id, String title, String description, String type, String mainImg,
+                                     String publicationDate, String lastUpdateDate, Long likes, Long comments) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.type = type;
+        this.mainImg = mainImg;
+        this.publicationDate = publicationDate;
+        this.lastUpdateDate = lastUpdateDate;
+        this.likes = likes;
+        this.comments = comments;
+    }
 }
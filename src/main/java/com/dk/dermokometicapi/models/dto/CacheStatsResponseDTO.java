@@ -0,0 +1,17 @@
+package com.dk.dermokometicapi.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsResponseDTO {
+    private long hits;
+    private long misses;
+    private long evictions;
+    private int size;
+    private long weight;
+    private long maxWeight;
+}
@@ -0,0 +1,14 @@
+package com.dk.dermokometicapi.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryResponseDTO {
+    private String type;
+    private long articles;
+    private long questions;
+}
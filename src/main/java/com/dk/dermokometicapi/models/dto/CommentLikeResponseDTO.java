@@ -12,4 +12,7 @@ public class CommentLikeResponseDTO {
     private Long commentId;
     private Long userId;
     private String publicationDate;
+
+    // true when the user had already liked it and nothing was written
+    private boolean alreadyLiked;
 }
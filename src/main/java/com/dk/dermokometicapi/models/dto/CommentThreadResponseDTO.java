@@ -0,0 +1,28 @@
+package com.dk.dermokometicapi.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentThreadResponseDTO {
+    public static final int MAX_DEPTH = 10;
+    public static final int MAX_BREADTH = 50;
+
+    private Long id;
+    private String content;
+    private String publicationDate;
+    private Long parentCommentId;
+    private Long articleId;
+    private Long userId;
+    private Long likeNumber;
+
+    // all direct replies, also when fewer are loaded below because of the breadth limit
+    private Long responseNumber;
+    private List<CommentThreadResponseDTO> replies = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package com.dk.dermokometicapi.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponseDTO<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,4 +21,17 @@ public class FilterRequestDTO {
 
     @NotNull(message = "Page Number is mandatory")
     private int pageNum;
+
+    // publication date range, both ends inclusive and optional
+    private LocalDate publishedFrom;
+    private LocalDate publishedTo;
+
+    // writer of an article, user who asked a question
+    private Long authorId;
+
+    // opaque position returned as nextCursor by the cursor endpoints, null for the first page
+    private String cursor;
+
+    // when set, every item says whether this user liked it
+    private Long userId;
 }
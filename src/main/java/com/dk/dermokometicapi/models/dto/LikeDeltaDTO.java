@@ -0,0 +1,14 @@
+package com.dk.dermokometicapi.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikeDeltaDTO {
+    private String type;
+    private Long id;
+    private Long delta;
+}
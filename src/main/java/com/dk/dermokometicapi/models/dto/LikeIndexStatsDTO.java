@@ -0,0 +1,15 @@
+package com.dk.dermokometicapi.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikeIndexStatsDTO {
+    private String type;
+    private long targets;
+    private long likes;
+    private long bytes;
+}
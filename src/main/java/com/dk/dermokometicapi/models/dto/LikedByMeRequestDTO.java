@@ -0,0 +1,25 @@
+package com.dk.dermokometicapi.models.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LikedByMeRequestDTO {
+    public static final int MAX_IDS = 100;
+
+    @NotNull(message = "User Id is mandatory")
+    private Long userId;
+
+    // the ids shown on one page, answered with a single query
+    @NotNull(message = "Ids are mandatory")
+    @Size(max = MAX_IDS, message = "At most 100 ids per request")
+    private List<Long> ids = new ArrayList<>();
+}
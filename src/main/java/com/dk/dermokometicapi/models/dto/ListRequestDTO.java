@@ -18,4 +18,7 @@ public class ListRequestDTO {
 
     @NotNull(message = "Page Number is mandatory")
     private int pageNum;
+
+    // opaque position returned as nextCursor by the cursor endpoints, null for the first page
+    private String cursor;
 }
@@ -12,4 +12,7 @@ public class QuestionLikeResponseDTO {
     private Long questionId;
     private Long userId;
     private String likeDate;
+
+    // true when the user had already liked it and nothing was written
+    private boolean alreadyLiked;
 }
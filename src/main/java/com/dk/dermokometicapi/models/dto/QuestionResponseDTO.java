@@ -1,12 +1,13 @@
 package com.dk.dermokometicapi.models.dto;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class QuestionResponseDTO {
     private Long id;
     private String title;
@@ -16,4 +17,22 @@ public class QuestionResponseDTO {
     private Long userId;
     private Long likes;
     private Long answers;
+    // only set when the feed was requested for a user
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean likedByMe;
+    // only set on a newly created question: near duplicates that were not close enough to reject it
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<SimilarQuestionDTO> similarQuestions;
+
+    public QuestionResponseDTO(Long id, String title, String content, String publicationDate, String type,
+                               Long userId, Long likes, Long answers) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.publicationDate = publicationDate;
+        this.type = type;
+        this.userId = userId;
+        this.likes = likes;
+        this.answers = answers;
+    }
 }
@@ -0,0 +1,29 @@
+package com.dk.dermokometicapi.models.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchRequestDTO {
+    @NotBlank(message = "Query is mandatory")
+    private String query;
+
+    // "article" and/or "question", empty searches both
+    private List<String> kinds = new ArrayList<>();
+
+    private List<String> categories = new ArrayList<>();
+
+    @NotNull(message = "Page Size is mandatory")
+    private int pageSize;
+
+    @NotNull(message = "Page Number is mandatory")
+    private int pageNum;
+}
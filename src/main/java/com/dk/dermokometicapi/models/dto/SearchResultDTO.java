@@ -0,0 +1,17 @@
+package com.dk.dermokometicapi.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDTO {
+    private String kind;
+    private Long id;
+    private String title;
+    private String description;
+    private String type;
+    private double score;
+}
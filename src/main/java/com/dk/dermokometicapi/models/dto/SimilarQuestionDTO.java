@@ -0,0 +1,16 @@
+package com.dk.dermokometicapi.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarQuestionDTO {
+    private Long id;
+    private String title;
+    private String type;
+    // estimated share of the text the two questions have in common, 0 to 1
+    private double similarity;
+}
@@ -0,0 +1,25 @@
+package com.dk.dermokometicapi.models.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SimilarQuestionRequestDTO {
+    public static final int MAX_LIMIT = 20;
+
+    @NotBlank(message = "Title is mandatory")
+    private String title;
+
+    // a draft may not have content yet
+    private String content;
+
+    @Min(value = 1, message = "Limit must be between 1 and 20")
+    @Max(value = MAX_LIMIT, message = "Limit must be between 1 and 20")
+    private int limit = 5;
+}
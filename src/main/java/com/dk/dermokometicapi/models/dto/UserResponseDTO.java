@@ -1,15 +1,26 @@
 package com.dk.dermokometicapi.models.dto;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class UserResponseDTO {
     private Long id;
     private String username;
     private String email;
     private String profilePic;
+    // width to thumbnail url, only for an uploaded picture
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<Integer, String> profilePicSizes;
+
+    public UserResponseDTO(Long id, String username, String email, String profilePic) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.profilePic = profilePic;
+    }
 }
@@ -1,9 +1,12 @@
 package com.dk.dermokometicapi.models.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,4 +16,7 @@ public class WriterResponseDTO {
     private String lastName;
     private String profilePic;
     private String description;
+    // width to thumbnail url, only for an uploaded picture
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<Integer, String> profilePicSizes;
 }
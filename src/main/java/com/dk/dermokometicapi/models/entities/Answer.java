@@ -1,16 +1,22 @@
 package com.dk.dermokometicapi.models.entities;
+import com.dk.dermokometicapi.threads.ThreadPath;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "answers")
+@Table(name = "answers", indexes = {
+        @Index(name = "idx_answers_question_created_at", columnList = "question_id, created_at, id"),
+        @Index(name = "idx_answers_parent_created_at", columnList = "parent_id, created_at, id"),
+        @Index(name = "idx_answers_path", columnList = "path")
+})
 public class Answer {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,6 +28,21 @@ public class Answer {
     @Column(nullable = false)
     private LocalDate publicationDate;
 
+    @Column(nullable = false, columnDefinition = "timestamp(6) with time zone default current_timestamp")
+    private Instant createdAt;
+
+    // ancestors' ids and then its own, see ThreadPath; null only until ThreadPathBackfill reaches old rows
+    @Column(length = ThreadPath.MAX_LENGTH)
+    private String path;
+
+    // 0 for top level
+    private Integer depth;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) createdAt = Instant.now();
+    }
+
     @ManyToOne
     @JoinColumn(
             name = "parent_id",
@@ -3,7 +3,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -11,7 +13,12 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "articles")
+@Table(name = "articles", indexes = {
+        @Index(name = "idx_articles_type_created_at", columnList = "type, created_at, id"),
+        @Index(name = "idx_articles_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_articles_like_count", columnList = "like_count, id"),
+        @Index(name = "idx_articles_comment_count", columnList = "comment_count, id")
+})
 public class Article {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,16 +33,42 @@ public class Article {
     @Column(nullable = false, length = 20)
     private String type;
 
+    // an external URL; an uploaded image is kept in the ImageStore and only its key is set below
     @Column(nullable = true, length = 1000)
     private String mainImg;
 
+    @Column(length = 72)
+    private String mainImage;
+
     @Column(nullable = false)
     private LocalDate publicationDate;
 
+    @Column(nullable = false, columnDefinition = "timestamp(6) with time zone default current_timestamp")
+    private Instant createdAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) createdAt = Instant.now();
+    }
+
     @Column(nullable = false)
     private LocalDate lastUpdateDate;
 
-    @ManyToOne
+    // the counters and the version only move through the increments in ArticleRepository, never by saving the
+    // entity, so a save cannot write back the value it read over a concurrent increment
+    @Column(nullable = false, updatable = false, columnDefinition = "bigint default 0")
+    private Long likeCount = 0L;
+
+    @Column(nullable = false, updatable = false, columnDefinition = "bigint default 0")
+    private Long commentCount = 0L;
+
+    // bumped on every edit of the article or its detail, the counters above version the rest
+    @Column(nullable = false, updatable = false, columnDefinition = "bigint default 0")
+    private Long contentVersion = 0L;
+
+    // the detail holds the full content, only the full-article reads fetch it (see ArticleRepository)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     @JoinColumn(
             name = "detail_id",
             referencedColumnName = "id",
@@ -47,7 +80,9 @@ public class Article {
     @JoinTable(
             name = "article_writers",
             joinColumns = @JoinColumn(name = "article_id"),
-            inverseJoinColumns = @JoinColumn(name = "writer_id")
+            inverseJoinColumns = @JoinColumn(name = "writer_id"),
+            // the author filter of the feeds looks articles up by writer
+            indexes = @Index(name = "idx_article_writers_writer_id", columnList = "writer_id, article_id")
     )
     private List<Writer> writers;
 }
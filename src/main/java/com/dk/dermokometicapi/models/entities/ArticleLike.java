@@ -3,13 +3,16 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "article_likes")
+@Table(name = "article_likes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_article_likes_article_user", columnNames = {"article_id", "user_id"})
+})
 public class ArticleLike {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,6 +21,14 @@ public class ArticleLike {
     @Column(nullable = false)
     private LocalDate likeDate;
 
+    @Column(nullable = false, columnDefinition = "timestamp(6) with time zone default current_timestamp")
+    private Instant createdAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) createdAt = Instant.now();
+    }
+
     @ManyToOne
     @JoinColumn(
             name = "article_id",
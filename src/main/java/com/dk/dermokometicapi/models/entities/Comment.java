@@ -1,9 +1,11 @@
 package com.dk.dermokometicapi.models.entities;
+import com.dk.dermokometicapi.threads.ThreadPath;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -11,7 +13,11 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_article_created_at", columnList = "article_id, created_at, id"),
+        @Index(name = "idx_comments_parent_created_at", columnList = "parent_id, created_at, id"),
+        @Index(name = "idx_comments_path", columnList = "path")
+})
 public class Comment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,6 +29,21 @@ public class Comment {
     @Column(nullable = false)
     private LocalDate publicationDate;
 
+    @Column(nullable = false, columnDefinition = "timestamp(6) with time zone default current_timestamp")
+    private Instant createdAt;
+
+    // ancestors' ids and then its own, see ThreadPath; null only until ThreadPathBackfill reaches old rows
+    @Column(length = ThreadPath.MAX_LENGTH)
+    private String path;
+
+    // 0 for top level
+    private Integer depth;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) createdAt = Instant.now();
+    }
+
     @ManyToOne
     @JoinColumn(
             name = "parent_id",
@@ -3,15 +3,22 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
+import java.time.Instant;
 import java.time.LocalDate;
-import java.util.List;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "questions")
+@Table(name = "questions", indexes = {
+        @Index(name = "idx_questions_type_created_at", columnList = "type, created_at, id"),
+        @Index(name = "idx_questions_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_questions_like_count", columnList = "like_count, id"),
+        @Index(name = "idx_questions_answer_count", columnList = "answer_count, id"),
+        @Index(name = "idx_questions_user_id", columnList = "user_id, created_at, id")
+})
 public class Question {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -29,27 +36,27 @@ public class Question {
     @Column(nullable = false)
     private LocalDate publicationDate;
 
-    @ManyToOne
+    @Column(nullable = false, columnDefinition = "timestamp(6) with time zone default current_timestamp")
+    private Instant createdAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) createdAt = Instant.now();
+    }
+
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long likeCount = 0L;
+
+    // every answer under the question, replies included
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long answerCount = 0L;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     @JoinColumn(
             name = "user_id",
             referencedColumnName = "id",
             nullable = false
     )
     private User user;
-
-    @OneToMany
-    @JoinColumn(
-            name = "answer_id",
-            referencedColumnName = "id",
-            nullable = true
-    )
-    private List<Answer> answers;
-
-    @OneToMany
-    @JoinColumn(
-            name = "like_id",
-            referencedColumnName = "id",
-            nullable = true
-    )
-    private List<QuestionLike> likes;
 }
@@ -3,13 +3,16 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "question_likes")
+@Table(name = "question_likes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_question_likes_question_user", columnNames = {"question_id", "user_id"})
+})
 public class QuestionLike {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,6 +21,14 @@ public class QuestionLike {
     @Column(nullable = false)
     private LocalDate likeDate;
 
+    @Column(nullable = false, columnDefinition = "timestamp(6) with time zone default current_timestamp")
+    private Instant createdAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) createdAt = Instant.now();
+    }
+
     @ManyToOne
     @JoinColumn(
             name = "question_id",
@@ -23,7 +23,11 @@ public class User {
     @Column(nullable = false, length = 50)
     private String email;
 
+    // an external picture URL; uploaded pictures live in the ImageStore and only their key is kept here
     @Column(columnDefinition = "TEXT")
     private String profilePic;
 
+    @Column(length = 72)
+    private String profileImage;
+
 }
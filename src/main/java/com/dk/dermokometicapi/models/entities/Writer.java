@@ -23,6 +23,10 @@ public class Writer {
     @Column(nullable = true, length = 500)
     private String description;
 
+    // an external picture URL; uploaded pictures live in the ImageStore and only their key is kept here
     @Column(columnDefinition = "TEXT")
     private String profilePic;
+
+    @Column(length = 72)
+    private String profileImage;
 }
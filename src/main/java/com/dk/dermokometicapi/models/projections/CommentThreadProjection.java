@@ -0,0 +1,10 @@
+package com.dk.dermokometicapi.models.projections;
+
+public interface CommentThreadProjection {
+    Long getId();
+    String getContent();
+    String getPublicationDate();
+    Long getParentCommentId();
+    Long getArticleId();
+    Long getUserId();
+}
@@ -0,0 +1,6 @@
+package com.dk.dermokometicapi.models.projections;
+
+public interface IdCountProjection {
+    Long getId();
+    Long getTotal();
+}
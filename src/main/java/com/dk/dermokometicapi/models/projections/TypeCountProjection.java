@@ -0,0 +1,6 @@
+package com.dk.dermokometicapi.models.projections;
+
+public interface TypeCountProjection {
+    String getType();
+    Long getTotal();
+}
@@ -1,13 +1,23 @@
 package com.dk.dermokometicapi.repositories;
 
+import com.dk.dermokometicapi.models.dto.AnswerResponseDTO;
 import com.dk.dermokometicapi.models.entities.Answer;
+import com.dk.dermokometicapi.models.projections.IdCountProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AnswerRepository extends JpaRepository<Answer, Long> {
     // CRUD operations
@@ -17,10 +27,31 @@ public interface AnswerRepository extends JpaRepository<Answer, Long> {
     List<Answer> getByQuestion_Id(Long articleId);
     long countByParentAnswer(Answer parentAnswer);
 
+    // Reply counts of a whole page in one grouped query; answers without replies have no row
+    @Query("SELECT a.parentAnswer.id AS id, COUNT(a) AS total FROM Answer a WHERE a.parentAnswer.id IN :ids GROUP BY a.parentAnswer.id")
+    List<IdCountProjection> countRepliesByParentIds(@Param("ids") Collection<Long> ids);
+
+    // Export, one row per answer with its counts, read through a forward-only cursor
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.dk.dermokometicapi.models.dto.AnswerResponseDTO(a.id, a.content, CAST(a.publicationDate AS String), p.id, a.question.id, a.user.id, " +
+            "(SELECT COUNT(l) FROM AnswerLike l WHERE l.answer = a), (SELECT COUNT(r) FROM Answer r WHERE r.parentAnswer = a)) " +
+            "FROM Answer a LEFT JOIN a.parentAnswer p ORDER BY a.id")
+    Stream<AnswerResponseDTO> streamAllAnswers();
+
     // Find comments by question id ordered by publication date
-    @Query("SELECT a FROM Answer a WHERE a.question.id = :question_id AND a.parentAnswer IS NULL ORDER BY a.publicationDate DESC")
+    @Query("SELECT a FROM Answer a WHERE a.question.id = :question_id AND a.parentAnswer IS NULL ORDER BY a.createdAt DESC, a.id DESC")
     Page<Answer> findRecentByQuestionId(Long question_id, Pageable pageable);
 
+    // Keyset pagination of top level answers over (createdAt, id)
+    @Query("SELECT a FROM Answer a WHERE a.question.id = :question_id AND a.parentAnswer IS NULL ORDER BY a.createdAt DESC, a.id DESC")
+    List<Answer> findRecentByQuestionIdFirst(@Param("question_id") Long question_id, Pageable pageable);
+
+    @Query("SELECT a FROM Answer a WHERE a.question.id = :question_id AND a.parentAnswer IS NULL AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) ORDER BY a.createdAt DESC, a.id DESC")
+    List<Answer> findRecentByQuestionIdAfter(@Param("question_id") Long question_id, @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
     // Find comments by question id ordered by like number
     @Query(value = "SELECT a.* FROM answers a LEFT JOIN answer_likes al ON a.id = al.answer_id WHERE a.question_id = :question_id AND a.parent_id IS NULL GROUP BY a.id ORDER BY COUNT(al.id) DESC", nativeQuery = true)
     Page<Answer> findLikedByQuestionId(Long question_id, Pageable pageable);
@@ -30,7 +61,7 @@ public interface AnswerRepository extends JpaRepository<Answer, Long> {
     Page<Answer> findAnsweredByQuestionId(Long question_id, Pageable pageable);
 
     // Find answers by parent answer id ordered by publication date
-    @Query("SELECT a FROM Answer a WHERE a.parentAnswer.id = :parent_answer_id ORDER BY a.publicationDate DESC")
+    @Query("SELECT a FROM Answer a WHERE a.parentAnswer.id = :parent_answer_id ORDER BY a.createdAt DESC, a.id DESC")
     Page<Answer> findRecentByParentCommentId(Long parent_answer_id, Pageable pageable);
 
     // Find answers by parent answer id ordered by like number
@@ -40,4 +71,17 @@ public interface AnswerRepository extends JpaRepository<Answer, Long> {
     // Find answers by parent answer id ordered by response number
     @Query(value = "SELECT a.* FROM answers a LEFT JOIN answers a2 ON a.id = a2.parent_id WHERE a.parent_id = :parent_answer_id GROUP BY a.id ORDER BY COUNT(a2.id) DESC", nativeQuery = true)
     Page<Answer> findCommentedByParentAnswerId(Long parent_answer_id, Pageable pageable);
+
+    // Subtrees by materialized path, each one range over the path index; see ThreadPath for the bounds
+    @Query("SELECT a.id FROM Answer a WHERE a.path >= :from AND a.path < :to")
+    List<Long> findSubtreeIds(@Param("from") String from, @Param("to") String to);
+
+    // replies lose their parent first, so the delete does not depend on the order rows go in
+    @Modifying
+    @Query("UPDATE Answer a SET a.parentAnswer = NULL WHERE a.path >= :from AND a.path < :to")
+    void detachSubtree(@Param("from") String from, @Param("to") String to);
+
+    @Modifying
+    @Query("DELETE FROM Answer a WHERE a.path >= :from AND a.path < :to")
+    int deleteSubtree(@Param("from") String from, @Param("to") String to);
 }
@@ -1,14 +1,20 @@
 package com.dk.dermokometicapi.repositories;
 
+import com.dk.dermokometicapi.models.dto.ArticleSummaryResponseDTO;
 import com.dk.dermokometicapi.models.entities.Article;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.dk.dermokometicapi.models.projections.TypeCountProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 public interface ArticleRepository extends JpaRepository<Article, Long>{
@@ -22,21 +28,60 @@ public interface ArticleRepository extends JpaRepository<Article, Long>{
 
     void deleteByTitle(String title);
 
+    // Full article reads, the only ones that join the detail content and writers
+
+    @EntityGraph(attributePaths = {"articleDetail", "writers"})
+    Optional<Article> findWithDetailById(Long id);
+
+    @EntityGraph(attributePaths = {"articleDetail", "writers"})
+    Optional<Article> findWithDetailByTitle(String title);
+
+    // Search index rebuild
+
+    @EntityGraph(attributePaths = {"articleDetail"})
+    @Query("SELECT a FROM Article a")
+    List<Article> findAllWithDetail();
+
+    // Export of the summaries through a forward-only cursor
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    // imageUrl is the ImageStore URL prefix of uploaded images
+    @Query("SELECT new com.dk.dermokometicapi.models.dto.ArticleSummaryResponseDTO(a.id, a.title, a.description, a.type, " +
+            "CASE WHEN a.mainImage IS NULL THEN a.mainImg ELSE CONCAT(:imageUrl, a.mainImage) END, " +
+            "CAST(a.publicationDate AS String), CAST(a.lastUpdateDate AS String), a.likeCount, a.commentCount) FROM Article a ORDER BY a.id")
+    Stream<ArticleSummaryResponseDTO> streamAllSummaries(@Param("imageUrl") String imageUrl);
+
     List<Article> findByTitleContaining(String title);
 
     boolean existsByTitle(String title);
 
-    // Filtering and ordering articles
+    // Filtered and paged feeds are composed by FeedQuery, see the feeds package
+
+    // Category dictionary load
+
+    @Query("SELECT a.type AS type, COUNT(a) AS total FROM Article a GROUP BY a.type")
+    List<TypeCountProjection> findTypeCounts();
+
+    // Denormalized like and comment counters
+
+    @Modifying
+    @Query("UPDATE Article a SET a.likeCount = a.likeCount + :delta WHERE a.id = :id")
+    void addToLikeCount(@Param("id") Long id, @Param("delta") long delta);
 
-    @Query("SELECT a FROM Article a WHERE a.type IN :types ORDER BY a.publicationDate DESC")
-    Page<Article> findRecentArticleByType(@Param("types") List<String> types, Pageable pageable);
+    @Modifying
+    @Query("UPDATE Article a SET a.commentCount = a.commentCount + :delta WHERE a.id = :id")
+    void addToCommentCount(@Param("id") Long id, @Param("delta") long delta);
 
-    @Query(value = "SELECT a.* FROM articles a LEFT JOIN article_likes al ON a.id = al.article_id WHERE a.type IN :types GROUP BY a.id ORDER BY COUNT(al.id) DESC", nativeQuery = true)
-    Page<Article> findLikedArticleByType(@Param("types") List<String> types, Pageable pageable);
+    @Modifying
+    @Query(value = "UPDATE articles a SET like_count = (SELECT COUNT(*) FROM article_likes al WHERE al.article_id = a.id), comment_count = (SELECT COUNT(*) FROM comments c WHERE c.article_id = a.id)", nativeQuery = true)
+    void recountCounters();
 
-    @Query(value = "SELECT a.* FROM articles a LEFT JOIN comments c ON a.id = c.article_id WHERE a.type IN :types GROUP BY a.id ORDER BY COUNT(c.id) DESC", nativeQuery = true)
-    Page<Article> findCommentedArticleByType(@Param("types") List<String> types, Pageable pageable);
+    // Content version, part of the ETag of full article reads
 
-    @Query("SELECT DISTINCT a.type FROM Article a")
-    List<String> findDistinctTypes();
+    @Modifying
+    @Query("UPDATE Article a SET a.contentVersion = a.contentVersion + 1 WHERE a.id = :id")
+    void bumpContentVersion(@Param("id") Long id);
 }
@@ -1,14 +1,25 @@
 package com.dk.dermokometicapi.repositories;
 
+import com.dk.dermokometicapi.models.dto.CommentResponseDTO;
 import com.dk.dermokometicapi.models.entities.Article;
 import com.dk.dermokometicapi.models.entities.Comment;
+import com.dk.dermokometicapi.models.projections.CommentThreadProjection;
+import com.dk.dermokometicapi.models.projections.IdCountProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
@@ -19,10 +30,31 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> getByArticle_Id(Long articleId);
     long countByParentComment(Comment parentComment);
 
+    // Reply counts of a whole page in one grouped query; comments without replies have no row
+    @Query("SELECT c.parentComment.id AS id, COUNT(c) AS total FROM Comment c WHERE c.parentComment.id IN :ids GROUP BY c.parentComment.id")
+    List<IdCountProjection> countRepliesByParentIds(@Param("ids") Collection<Long> ids);
+
+    // Export, one row per comment with its counts, read through a forward-only cursor
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.dk.dermokometicapi.models.dto.CommentResponseDTO(c.id, c.content, CAST(c.publicationDate AS String), p.id, c.article.id, c.user.id, " +
+            "(SELECT COUNT(l) FROM CommentLike l WHERE l.comment = c), (SELECT COUNT(r) FROM Comment r WHERE r.parentComment = c)) " +
+            "FROM Comment c LEFT JOIN c.parentComment p ORDER BY c.id")
+    Stream<CommentResponseDTO> streamAllComments();
+
     // Find comments by article id ordered by publication date
-    @Query("SELECT c FROM Comment c WHERE c.article.id = :article_id AND c.parentComment IS NULL ORDER BY c.publicationDate DESC")
+    @Query("SELECT c FROM Comment c WHERE c.article.id = :article_id AND c.parentComment IS NULL ORDER BY c.createdAt DESC, c.id DESC")
     Page<Comment> findRecentCommentsByArticle_id(Long article_id, Pageable pageable);
 
+    // Keyset pagination of top level comments over (createdAt, id)
+    @Query("SELECT c FROM Comment c WHERE c.article.id = :article_id AND c.parentComment IS NULL ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findRecentCommentsByArticle_idFirst(@Param("article_id") Long article_id, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c WHERE c.article.id = :article_id AND c.parentComment IS NULL AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findRecentCommentsByArticle_idAfter(@Param("article_id") Long article_id, @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
     // Find comments by article id ordered by like number
     @Query(value = "SELECT c.* FROM comments c LEFT JOIN comment_likes cl ON c.id = cl.comment_id WHERE c.article_id = :article_id AND c.parent_id IS NULL GROUP BY c.id ORDER BY COUNT(cl.id) DESC", nativeQuery = true)
     Page<Comment> findLikedCommentsByArticle_id(Long article_id, Pageable pageable);
@@ -32,7 +64,7 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     Page<Comment> findCommentedCommentsByArticle_id(Long article_id, Pageable pageable);
 
     // Find comments by parent comment id ordered by publication date
-    @Query("SELECT c FROM Comment c WHERE c.parentComment.id = :parent_comment_id ORDER BY c.publicationDate DESC")
+    @Query("SELECT c FROM Comment c WHERE c.parentComment.id = :parent_comment_id ORDER BY c.createdAt DESC, c.id DESC")
     Page<Comment> findRecentCommentsByParentComment_id(Long parent_comment_id, Pageable pageable);
 
     // Find comments by parent comment id ordered by like number
@@ -43,10 +75,54 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     @Query(value = "SELECT c.* FROM comments c LEFT JOIN comments c2 ON c.id = c2.parent_id WHERE c.parent_id = :parent_comment_id GROUP BY c.id ORDER BY COUNT(c2.id) DESC", nativeQuery = true)
     Page<Comment> findCommentedCommentsByParentComment_id(Long parent_comment_id, Pageable pageable);
 
+    // Shared recursive member and select of the thread queries below. Every step takes the newest :breadth replies
+    // of each comment one level up, each one a range over the parent index, until :depth levels are reached; rows
+    // come out level by level so parents precede their replies. Counts come from CommentService in one query each.
+    String THREAD_SELECT = " UNION ALL " +
+            "SELECT r.id, t.depth + 1 FROM thread t CROSS JOIN LATERAL (" +
+            "SELECT c.id FROM comments c WHERE c.parent_id = t.id AND t.depth < :depth " +
+            "ORDER BY c.created_at DESC, c.id DESC LIMIT :breadth) r" +
+            ") " +
+            "SELECT c.id AS \"id\", c.content AS \"content\", CAST(c.publication_date AS VARCHAR) AS \"publicationDate\", " +
+            "c.parent_id AS \"parentCommentId\", c.article_id AS \"articleId\", c.user_id AS \"userId\" " +
+            "FROM thread t JOIN comments c ON c.id = t.id ORDER BY t.depth, c.created_at DESC, c.id DESC";
+
+    // Whole threads of an article in one round trip, the newest :breadth top-level comments first
+    @Query(value = "WITH RECURSIVE thread (id, depth) AS (" +
+            "SELECT r.id, 1 FROM (SELECT c.id FROM comments c WHERE c.article_id = :article_id AND c.parent_id IS NULL " +
+            "ORDER BY c.created_at DESC, c.id DESC LIMIT :breadth) r" +
+            THREAD_SELECT, nativeQuery = true)
+    List<CommentThreadProjection> findThreadByArticle_id(@Param("article_id") Long article_id, @Param("depth") int depth,
+                                                         @Param("breadth") int breadth);
+
+    // Same as above for the replies below one comment
+    @Query(value = "WITH RECURSIVE thread (id, depth) AS (" +
+            "SELECT r.id, 1 FROM (SELECT c.id FROM comments c WHERE c.parent_id = :parent_comment_id " +
+            "ORDER BY c.created_at DESC, c.id DESC LIMIT :breadth) r" +
+            THREAD_SELECT, nativeQuery = true)
+    List<CommentThreadProjection> findThreadByParentComment_id(@Param("parent_comment_id") Long parent_comment_id, @Param("depth") int depth,
+                                                               @Param("breadth") int breadth);
+
+    // Subtrees by materialized path, each one range over the path index; see ThreadPath for the bounds
+    @Query("SELECT c.id FROM Comment c WHERE c.path >= :from AND c.path < :to")
+    List<Long> findSubtreeIds(@Param("from") String from, @Param("to") String to);
+
+    // replies lose their parent first, so the delete does not depend on the order rows go in
+    @Modifying
+    @Query("UPDATE Comment c SET c.parentComment = NULL WHERE c.path >= :from AND c.path < :to")
+    void detachSubtree(@Param("from") String from, @Param("to") String to);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.path >= :from AND c.path < :to")
+    int deleteSubtree(@Param("from") String from, @Param("to") String to);
+
     Long countByArticle(Article article);
 
     void deleteByArticle(Article article);
 
+    @Query("SELECT c.id FROM Comment c WHERE c.article = :article")
+    List<Long> findIdsByArticle(@Param("article") Article article);
+
     /*
     *     @Query("SELECT a FROM Article a ORDER BY a.publicationDate DESC")
     Page<Article> findRecentArticles(Pageable pageable);
@@ -1,15 +1,20 @@
 package com.dk.dermokometicapi.repositories;
 
+import com.dk.dermokometicapi.models.dto.QuestionResponseDTO;
 import com.dk.dermokometicapi.models.entities.Question;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.dk.dermokometicapi.models.projections.TypeCountProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface QuestionRepository extends JpaRepository<Question, Long> {
     @Query("SELECT q FROM Question q")
@@ -17,6 +22,23 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
 
     Optional<Question> findByTitle(String title);
 
+    @Query("SELECT q.type FROM Question q WHERE q.id = :id")
+    Optional<String> findTypeById(@Param("id") Long id);
+
+    // Category dictionary load
+    @Query("SELECT q.type AS type, COUNT(q) AS total FROM Question q GROUP BY q.type")
+    List<TypeCountProjection> findTypeCounts();
+
+    // Export, one row per question with its counts, read through a forward-only cursor
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.dk.dermokometicapi.models.dto.QuestionResponseDTO(q.id, q.title, q.content, CAST(q.publicationDate AS String), q.type, q.user.id, " +
+            "q.likeCount, q.answerCount) " +
+            "FROM Question q ORDER BY q.id")
+    Stream<QuestionResponseDTO> streamAllQuestions();
+
     void deleteByTitle(String title);
 
     boolean existsByTitle(String title);
@@ -25,37 +47,22 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
 
     List<Question> findByPublicationDate(LocalDate publicationDate);
 
-    @Query(value = "SELECT COUNT(*) FROM questions q LEFT JOIN question_likes ql ON q.id = ql.question_id WHERE ql.question_id = :questionId", nativeQuery = true)
-    Long findQuestionLikesById(@Param("questionId") Long id);
-
-    @Query(value = "SELECT COUNT(*) FROM questions q LEFT JOIN answers a ON q.id = a.question_id WHERE a.question_id = :questionId", nativeQuery = true)
-    Long findQuestionAnswersById(@Param("questionId") Long id);
-
-    @Query("SELECT COUNT(a) FROM Question q JOIN q.answers a WHERE q = :question")
-    Long countAnswersByQuestion(@Param("question") Question question);
-
-    // Filtering and ordering questions
-    @Query("SELECT q FROM Question q ORDER BY q.publicationDate DESC")
-    Page<Question> findRecentQuestions(Pageable pageable);
+    // Filtered and paged feeds are composed by FeedQuery, see the feeds package
 
-    @Query(value = "SELECT q.* FROM questions q LEFT JOIN question_likes ql ON q.id = ql.question_id GROUP BY q.id ORDER BY COUNT(ql.id) DESC", nativeQuery = true)
-    Page<Question> findLikedQuestions(Pageable pageable);
-
-    @Query(value = "SELECT q.* FROM questions q LEFT JOIN answers a ON q.id = a.question_id GROUP BY q.id ORDER BY COUNT(a.id) DESC", nativeQuery = true)
-    Page<Question> findAnsweredQuestions(Pageable pageable);
-
-    @Query("SELECT q FROM Question q WHERE q.type IN :types")
-    Page<Question> findByType(@Param("types") List<String> types, Pageable pageable);
+    @Query("SELECT u.id FROM Question q LEFT JOIN q.user u WHERE q.id = :questionId")
+    List<Long> findUserByQuestionId(@Param("questionId") Long questionId);
 
-    @Query("SELECT q FROM Question q WHERE q.type IN :types ORDER BY q.publicationDate DESC")
-    Page<Question> findRecentQuestionByType(@Param("types") List<String> types, Pageable pageable);
+    // Denormalized like and answer counters
 
-    @Query(value = "SELECT q.* FROM questions q LEFT JOIN question_likes ql ON q.id = ql.question_id WHERE q.type IN :types GROUP BY q.id ORDER BY COUNT(ql.id) DESC", nativeQuery = true)
-    Page<Question> findLikedQuestionByType(@Param("types") List<String> types, Pageable pageable);
+    @Modifying
+    @Query("UPDATE Question q SET q.likeCount = q.likeCount + :delta WHERE q.id = :id")
+    void addToLikeCount(@Param("id") Long id, @Param("delta") long delta);
 
-    @Query(value = "SELECT q.* FROM questions q LEFT JOIN answers a ON q.id = a.question_id WHERE q.type IN :types GROUP BY q.id ORDER BY COUNT(a.id) DESC", nativeQuery = true)
-    Page<Question> findAnsweredQuestionByType(@Param("types") List<String> types, Pageable pageable);
+    @Modifying
+    @Query("UPDATE Question q SET q.answerCount = q.answerCount + :delta WHERE q.id = :id")
+    void addToAnswerCount(@Param("id") Long id, @Param("delta") long delta);
 
-    @Query("SELECT u.id FROM Question q LEFT JOIN q.user u WHERE q.id = :questionId")
-    List<Long> findUserByQuestionId(@Param("questionId") Long questionId);
+    @Modifying
+    @Query(value = "UPDATE questions q SET like_count = (SELECT COUNT(*) FROM question_likes ql WHERE ql.question_id = q.id), answer_count = (SELECT COUNT(*) FROM answers a WHERE a.question_id = q.id)", nativeQuery = true)
+    void recountCounters();
 }
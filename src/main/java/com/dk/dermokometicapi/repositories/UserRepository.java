@@ -1,9 +1,16 @@
 package com.dk.dermokometicapi.repositories;
 
+import com.dk.dermokometicapi.models.dto.UserResponseDTO;
 import com.dk.dermokometicapi.models.entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long>{
     Optional<User> findByUsername(String username);
@@ -18,4 +25,14 @@ public interface UserRepository extends JpaRepository<User, Long>{
     Optional<User> findByemail(String email);
 
     void deleteByEmail(String email);
+
+    // Export through a forward-only cursor, the password never leaves the query
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    // imageUrl is the ImageStore URL prefix of uploaded pictures
+    @Query("SELECT new com.dk.dermokometicapi.models.dto.UserResponseDTO(u.id, u.username, u.email, " +
+            "CASE WHEN u.profileImage IS NULL THEN u.profilePic ELSE CONCAT(:imageUrl, u.profileImage) END) FROM User u ORDER BY u.id")
+    Stream<UserResponseDTO> streamAllUsers(@Param("imageUrl") String imageUrl);
 }
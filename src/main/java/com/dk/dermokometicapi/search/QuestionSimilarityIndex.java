@@ -0,0 +1,202 @@
+package com.dk.dermokometicapi.search;
+
+import com.dk.dermokometicapi.utils.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Near-duplicate lookup over question titles and content with MinHash signatures and LSH banding.
+ * A question is reduced to the set of character shingles of its normalized text and summarized by the
+ * minimum of each of {@value #HASHES} hash functions over that set; two signatures agree on a position with
+ * the probability of the Jaccard similarity of the sets. Signatures are cut into {@value #BANDS} bands, and only
+ * questions sharing a whole band with the query are compared, so a lookup touches a handful of buckets however
+ * many questions there are. Writes are applied after commit and the index is rebuilt from the database at startup.
+ */
+@Component
+public class QuestionSimilarityIndex {
+    static final int SHINGLE_LENGTH = 4;
+    static final int BANDS = 16;
+    static final int ROWS = 4;
+    static final int HASHES = BANDS * ROWS;
+    // the start of a long question says what it is about, the rest only costs hashing time
+    static final int MAX_TEXT_LENGTH = 2000;
+
+    // fixed so that signatures do not depend on the run
+    private static final long[] SEEDS = new SplittableRandom(0x6d696e68617368L).longs(HASHES).toArray();
+
+    private record IndexedQuestion(Long id, String type, String title, int[] signature) {
+    }
+
+    private final double minSimilarity;
+    private final double blockSimilarity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedQuestion> questions = new HashMap<>();
+    // band key to the ids of the questions in that bucket, most buckets hold one
+    private final Map<Long, long[]> buckets = new HashMap<>();
+
+    public QuestionSimilarityIndex(@Value("${dk.questions.similar.min-similarity:0.5}") double minSimilarity,
+                                   @Value("${dk.questions.similar.block-similarity:0.9}") double blockSimilarity) {
+        this.minSimilarity = minSimilarity;
+        this.blockSimilarity = blockSimilarity;
+    }
+
+    public void index(Long id, String type, String title, String content) {
+        int[] signature = signature(title, content);
+        if (signature == null) return;
+        IndexedQuestion question = new IndexedQuestion(id, type, title, signature);
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeQuestion(id);
+                questions.put(id, question);
+                for (int band = 0; band < BANDS; band++) {
+                    buckets.merge(bandKey(signature, band), new long[]{id}, QuestionSimilarityIndex::append);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long id) {
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeQuestion(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // questions at least min-similarity alike, best first; excludeId leaves out the question itself
+    public List<SimilarQuestion> findSimilar(String title, String content, Long excludeId, int limit) {
+        List<SimilarQuestion> similar = new ArrayList<>();
+        int[] signature = signature(title, content);
+        if (signature == null) return similar;
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = new HashSet<>();
+            for (int band = 0; band < BANDS; band++) {
+                long[] bucket = buckets.get(bandKey(signature, band));
+                if (bucket == null) continue;
+                for (long id : bucket) candidates.add(id);
+            }
+            candidates.remove(excludeId);
+            for (Long id : candidates) {
+                IndexedQuestion question = questions.get(id);
+                double similarity = similarity(signature, question.signature());
+                if (similarity >= minSimilarity) {
+                    similar.add(new SimilarQuestion(id, question.type(), question.title(), similarity));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        similar.sort(Comparator.comparingDouble(SimilarQuestion::getSimilarity).reversed()
+                .thenComparing(SimilarQuestion::getId, Comparator.reverseOrder()));
+        return similar.size() > limit ? new ArrayList<>(similar.subList(0, limit)) : similar;
+    }
+
+    // close enough to be the same question asked again
+    public boolean isDuplicate(SimilarQuestion question) {
+        return question.getSimilarity() >= blockSimilarity;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return questions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            questions.clear();
+            buckets.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // null when the text has no letters or digits to compare
+    static int[] signature(String title, String content) {
+        List<String> tokens = SearchIndex.tokenize(title);
+        tokens.addAll(SearchIndex.tokenize(content));
+        if (tokens.isEmpty()) return null;
+        String text = String.join(" ", tokens);
+        if (text.length() > MAX_TEXT_LENGTH) text = text.substring(0, MAX_TEXT_LENGTH);
+
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = Math.max(1, text.length() - SHINGLE_LENGTH + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = text.substring(start, Math.min(text.length(), start + SHINGLE_LENGTH)).hashCode();
+            for (int i = 0; i < HASHES; i++) {
+                int hash = (int) (mix(shingle ^ SEEDS[i]) >>> 32);
+                if (hash < signature[i]) signature[i] = hash;
+            }
+        }
+        return signature;
+    }
+
+    static double similarity(int[] first, int[] second) {
+        int equal = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (first[i] == second[i]) equal++;
+        }
+        return (double) equal / HASHES;
+    }
+
+    private void removeQuestion(Long id) {
+        IndexedQuestion removed = questions.remove(id);
+        if (removed == null) return;
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(removed.signature(), band);
+            long[] bucket = buckets.get(key);
+            long[] rest = Arrays.stream(bucket).filter(member -> member != id).toArray();
+            if (rest.length == 0) buckets.remove(key);
+            else buckets.put(key, rest);
+        }
+    }
+
+    // the band number is part of the key, equal rows in different bands are not a match
+    private static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = key * 0x9E3779B97F4A7C15L + signature[row];
+        }
+        return mix(key);
+    }
+
+    private static long[] append(long[] bucket, long[] added) {
+        long[] merged = Arrays.copyOf(bucket, bucket.length + added.length);
+        System.arraycopy(added, 0, merged, bucket.length, added.length);
+        return merged;
+    }
+
+    // murmur3 finalizer
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb93e5c4ba6bbL;
+        value ^= value >>> 33;
+        return value;
+    }
+}
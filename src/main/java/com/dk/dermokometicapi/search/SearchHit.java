@@ -0,0 +1,15 @@
+package com.dk.dermokometicapi.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SearchHit {
+    private final SearchIndex.Kind kind;
+    private final Long id;
+    private final String type;
+    private final String title;
+    private final String description;
+    private final double score;
+}
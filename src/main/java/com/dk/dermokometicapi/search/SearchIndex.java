@@ -0,0 +1,182 @@
+package com.dk.dermokometicapi.search;
+
+import com.dk.dermokometicapi.utils.TransactionHooks;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over articles and questions, ranked with BM25.
+ * Each field adds its terms with a weight (title over description over content), so a
+ * match in the title counts as several in the body. Writes are applied after commit and
+ * the whole index can be rebuilt from the database at startup.
+ */
+@Component
+public class SearchIndex {
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    public enum Kind { ARTICLE, QUESTION }
+
+    private record DocKey(Kind kind, Long id) {
+    }
+
+    private record IndexedDocument(DocKey key, String type, String title, String description,
+                                   Map<String, Integer> terms, int length) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<DocKey, Integer>> postings = new HashMap<>();
+    private final Map<DocKey, IndexedDocument> documents = new HashMap<>();
+    private long totalLength;
+
+    public void indexArticle(Long id, String type, String title, String description, String content) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, title, TITLE_WEIGHT);
+        addTerms(terms, description, DESCRIPTION_WEIGHT);
+        addTerms(terms, content, CONTENT_WEIGHT);
+        IndexedDocument document = new IndexedDocument(new DocKey(Kind.ARTICLE, id), type, title, description, terms, length(terms));
+        TransactionHooks.afterCommit(() -> put(document));
+    }
+
+    public void indexQuestion(Long id, String type, String title, String content) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, title, TITLE_WEIGHT);
+        addTerms(terms, content, CONTENT_WEIGHT);
+        IndexedDocument document = new IndexedDocument(new DocKey(Kind.QUESTION, id), type, title, content, terms, length(terms));
+        TransactionHooks.afterCommit(() -> put(document));
+    }
+
+    public void remove(Kind kind, Long id) {
+        DocKey key = new DocKey(kind, id);
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeDocument(key);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // every match for the query, best first; empty kinds or types mean no filter
+    public List<SearchHit> search(String query, Collection<Kind> kinds, Collection<String> types) {
+        Set<String> queryTerms = new LinkedHashSet<>(tokenize(query));
+        List<SearchHit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty() || queryTerms.isEmpty()) return hits;
+            double averageLength = (double) totalLength / documents.size();
+            Map<DocKey, Double> scores = new HashMap<>();
+            for (String term : queryTerms) {
+                Map<DocKey, Integer> posting = postings.get(term);
+                if (posting == null) continue;
+                double idf = Math.log(1 + (documents.size() - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<DocKey, Integer> entry : posting.entrySet()) {
+                    IndexedDocument document = documents.get(entry.getKey());
+                    if (!matches(document, kinds, types)) continue;
+                    double frequency = entry.getValue();
+                    double norm = K1 * (1 - B + B * document.length() / averageLength);
+                    scores.merge(entry.getKey(), idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+                }
+            }
+            for (Map.Entry<DocKey, Double> entry : scores.entrySet()) {
+                IndexedDocument document = documents.get(entry.getKey());
+                hits.add(new SearchHit(document.key().kind(), document.key().id(), document.type(),
+                        document.title(), document.description(), entry.getValue()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(Comparator.comparingDouble(SearchHit::getScore).reversed()
+                .thenComparing(SearchHit::getKind)
+                .thenComparing(SearchHit::getId, Comparator.reverseOrder()));
+        return hits;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // lower case, accents stripped, split on anything that is not a letter or digit
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) return tokens;
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        for (String token : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() > 1) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private void put(IndexedDocument document) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(document.key());
+            documents.put(document.key(), document);
+            totalLength += document.length();
+            document.terms().forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.key(), frequency));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeDocument(DocKey key) {
+        IndexedDocument removed = documents.remove(key);
+        if (removed == null) return;
+        totalLength -= removed.length();
+        for (String term : removed.terms().keySet()) {
+            Map<DocKey, Integer> posting = postings.get(term);
+            posting.remove(key);
+            if (posting.isEmpty()) postings.remove(term);
+        }
+    }
+
+    private static boolean matches(IndexedDocument document, Collection<Kind> kinds, Collection<String> types) {
+        return (kinds.isEmpty() || kinds.contains(document.key().kind()))
+                && (types.isEmpty() || types.contains(document.type()));
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private static int length(Map<String, Integer> terms) {
+        return terms.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -0,0 +1,14 @@
+package com.dk.dermokometicapi.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SimilarQuestion {
+    private final Long id;
+    private final String type;
+    private final String title;
+    // estimated Jaccard similarity of the shingle sets, 0 to 1
+    private final double similarity;
+}
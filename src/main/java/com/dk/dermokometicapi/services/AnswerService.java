@@ -1,53 +1,87 @@
 package com.dk.dermokometicapi.services;
 
+import com.dk.dermokometicapi.cache.AnswerPageCache;
+import com.dk.dermokometicapi.cache.ThreadPageCache;
 import com.dk.dermokometicapi.exceptions.BadRequestException;
 import com.dk.dermokometicapi.exceptions.ResourceNotFoundException;
+import com.dk.dermokometicapi.likes.Engagement;
+import com.dk.dermokometicapi.likes.LikeTarget;
+import com.dk.dermokometicapi.live.LiveEvent;
+import com.dk.dermokometicapi.live.LiveStreamHub;
+import com.dk.dermokometicapi.live.LiveTopic;
 import com.dk.dermokometicapi.models.dto.*;
 import com.dk.dermokometicapi.models.entities.Answer;
-import com.dk.dermokometicapi.models.entities.AnswerLike;
 import com.dk.dermokometicapi.models.entities.Question;
 import com.dk.dermokometicapi.models.entities.User;
-import com.dk.dermokometicapi.mappers.AnswerLikeMapper;
+import com.dk.dermokometicapi.models.projections.IdCountProjection;
 import com.dk.dermokometicapi.mappers.AnswerMapper;
-import com.dk.dermokometicapi.repositories.AnswerLikeRepository;
 import com.dk.dermokometicapi.repositories.AnswerRepository;
 import com.dk.dermokometicapi.repositories.QuestionRepository;
 import com.dk.dermokometicapi.repositories.UserRepository;
+import com.dk.dermokometicapi.threads.ThreadPath;
+import com.dk.dermokometicapi.utils.KeysetCursor;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
 public class AnswerService {
     private final AnswerRepository answerRepository;
-    private final AnswerLikeRepository answerLikeRepository;
     private final AnswerMapper answerMapper;
     private final UserRepository userRepository;
     private final QuestionRepository questionRepository;
-    private final AnswerLikeMapper answerLikeMapper;
+    private final EngagementService engagementService;
+    private final AnswerPageCache answerPageCache;
+    private final LiveStreamHub liveStreamHub;
 
     public AnswerResponseDTO convertToDTO(Answer answer){
-        long likes = answerLikeRepository.countByAnswer(answer);
+        long likes = engagementService.count(LikeTarget.ANSWER, answer.getId());
         long answersCount = answerRepository.countByParentAnswer(answer);
         return answerMapper.convertToDTO(answer, likes, answersCount);
     }
 
+    // like and reply counts of a whole page in one query each, instead of two per answer
+    private Function<Answer, AnswerResponseDTO> pageConverter(List<Answer> answers) {
+        List<Long> ids = answers.stream().map(Answer::getId).toList();
+        Map<Long, Long> likes = engagementService.counts(LikeTarget.ANSWER, ids);
+        Map<Long, Long> responses = ids.isEmpty() ? Map.of() : answerRepository.countRepliesByParentIds(ids).stream()
+                .collect(Collectors.toMap(IdCountProjection::getId, IdCountProjection::getTotal));
+        return answer -> answerMapper.convertToDTO(answer,
+                likes.getOrDefault(answer.getId(), 0L), responses.getOrDefault(answer.getId(), 0L));
+    }
+
+    private Page<AnswerResponseDTO> convertPage(Page<Answer> answers) {
+        return answers.map(pageConverter(answers.getContent()));
+    }
+
     public List<AnswerResponseDTO> getAllAnswers(){
         return answerRepository.findAll().stream().map(this::convertToDTO).toList();
     }
 
+    // must be consumed inside a transaction, see NdjsonExporter
+    public Stream<AnswerResponseDTO> streamAllAnswers(){
+        return answerRepository.streamAllAnswers();
+    }
+
     public AnswerResponseDTO getAnswerById(Long id){
         Answer answer = answerRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Answer not found with id: " + id));
         return convertToDTO(answer);
     }
 
+    @Transactional
     public AnswerResponseDTO addAnswer(AnswerRequestDTO answerRequestDTO){
         User user = userRepository.findById(answerRequestDTO.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + answerRequestDTO.getUserId()));
@@ -64,67 +98,103 @@ public class AnswerService {
 
         Answer answer = answerMapper.convertToEntity(answerRequestDTO, user, question, parentAnswer);
         answerRepository.save(answer);
-        return convertToDTO(answer);
+        // the path needs the generated id; below a parent without one yet ThreadPathBackfill fills it later
+        if (parentAnswer == null || parentAnswer.getPath() != null) {
+            answer.setPath(ThreadPath.child(parentAnswer == null ? null : parentAnswer.getPath(), answer.getId()));
+            answer.setDepth(ThreadPath.depth(answer.getPath()));
+        }
+        questionRepository.addToAnswerCount(question.getId(), 1);
+        AnswerResponseDTO answerResponseDTO = answerMapper.convertToDTO(answer, 0L, 0L);
+        if (parentAnswer == null) answerPageCache.added(question.getId(), answerResponseDTO);
+        else answerPageCache.replied(parentAnswer.getId());
+        liveStreamHub.publish(LiveTopic.question(question.getId()), LiveEvent.answer(answerResponseDTO));
+        return answerResponseDTO;
+    }
+
+    // new answers, replies included, and like count changes under the question as server-sent events
+    public SseEmitter streamByQuestionId(Long questionId) {
+        if (!questionRepository.existsById(questionId)) {
+            throw new ResourceNotFoundException("Question not found with id: " + questionId);
+        }
+        return liveStreamHub.subscribe(LiveTopic.question(questionId));
     }
 
     // get answers by question id
     public Page<AnswerResponseDTO> getAnswersByQuestionId(Long questionId, ListRequestDTO listRequestDTO){
         Pageable pageable = Pageable.ofSize(listRequestDTO.getPageSize()).withPage(listRequestDTO.getPageNum());
+        // first pages in recent and likes order are served from memory
         return switch (listRequestDTO.getOrderBy()) {
-            case "likes" -> answerRepository.findLikedByQuestionId(questionId, pageable).map(this::convertToDTO);
-            case "responses" -> answerRepository.findAnsweredByQuestionId(questionId, pageable).map(this::convertToDTO);
-            default -> answerRepository.findRecentByQuestionId(questionId, pageable).map(this::convertToDTO);
+            case "likes" -> answerPageCache.get(questionId, ThreadPageCache.Ordering.LIKES, pageable,
+                    () -> convertPage(answerRepository.findLikedByQuestionId(questionId, pageable)));
+            case "responses" -> convertPage(answerRepository.findAnsweredByQuestionId(questionId, pageable));
+            default -> answerPageCache.get(questionId, ThreadPageCache.Ordering.RECENT, pageable,
+                    () -> convertPage(answerRepository.findRecentByQuestionId(questionId, pageable)));
         };
     }
 
+    // get answers by question id with keyset pagination, ordered by recency
+    public CursorPageResponseDTO<AnswerResponseDTO> getAnswersByQuestionIdCursor(Long questionId, ListRequestDTO listRequestDTO){
+        if(listRequestDTO.getOrderBy() != null && !listRequestDTO.getOrderBy().equals("recent")) {
+            throw new BadRequestException("Cursor pagination only supports recent ordering");
+        }
+        Pageable pageable = KeysetCursor.pageable(listRequestDTO.getPageSize());
+        KeysetCursor cursor = KeysetCursor.decode(listRequestDTO.getCursor());
+        List<Answer> rows = cursor == null
+                ? answerRepository.findRecentByQuestionIdFirst(questionId, pageable)
+                : answerRepository.findRecentByQuestionIdAfter(questionId, cursor.getCreatedAt(), cursor.getId(), pageable);
+        return KeysetCursor.toPage(rows, listRequestDTO.getPageSize(),
+                answer -> new KeysetCursor(answer.getCreatedAt(), answer.getId()),
+                pageConverter(rows));
+    }
+
     // get answers by parent answer id
     public Page<AnswerResponseDTO> getAnswersByParentId(Long parentAnswerId, ListRequestDTO listRequestDTO){
         Pageable pageable = Pageable.ofSize(listRequestDTO.getPageSize()).withPage(listRequestDTO.getPageNum());
-        return switch (listRequestDTO.getOrderBy()) {
-            case "likes" -> answerRepository.findLikedByParentAnswerId(parentAnswerId, pageable).map(this::convertToDTO);
-            case "responses" -> answerRepository.findCommentedByParentAnswerId(parentAnswerId, pageable).map(this::convertToDTO);
-            default -> answerRepository.findRecentByParentCommentId(parentAnswerId, pageable).map(this::convertToDTO);
-        };
+        return convertPage(switch (listRequestDTO.getOrderBy()) {
+            case "likes" -> answerRepository.findLikedByParentAnswerId(parentAnswerId, pageable);
+            case "responses" -> answerRepository.findCommentedByParentAnswerId(parentAnswerId, pageable);
+            default -> answerRepository.findRecentByParentCommentId(parentAnswerId, pageable);
+        });
     }
 
+    // deletes the answer together with all its replies, each step one range over the path
+    @Transactional
     public void deleteAnswer(Long id){
-        if(!answerRepository.existsById(id)){
-            throw new ResourceNotFoundException("Answer not found with id: " + id);
+        Answer answer = answerRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Answer not found with id: " + id));
+        String path = answer.getPath();
+        if (path == null) {
+            // not backfilled yet, only the row itself as before
+            engagementService.removeTargets(LikeTarget.ANSWER, List.of(id));
+            answerRepository.deleteById(id);
+            adjustAnswerCount(answer, -1);
+            return;
         }
-        answerRepository.deleteById(id);
+        String upperBound = ThreadPath.upperBound(path);
+        engagementService.removeTargets(LikeTarget.ANSWER, answerRepository.findSubtreeIds(path, upperBound));
+        answerRepository.detachSubtree(path, upperBound);
+        adjustAnswerCount(answer, -answerRepository.deleteSubtree(path, upperBound));
+    }
+
+    private void adjustAnswerCount(Answer answer, long delta) {
+        questionRepository.addToAnswerCount(answer.getQuestion().getId(), delta);
+        answerPageCache.removed(answer.getQuestion().getId());
     }
 
     // like answer
     public AnswerLikeResponseDTO likeAnswer(AnswerLikeRequestDTO answerLikeRequestDTO){
-        Long answerId = answerLikeRequestDTO.getAnswerId();
-        Long userId = answerLikeRequestDTO.getUserId();
-        Answer answer = answerRepository.findById(answerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Answer not found with id: " + answerId));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-        if(answerLikeRepository.existsByAnswerAndUser(answer, user)){
-            throw new BadRequestException("User already liked this answer");
-        }
-        AnswerLike answerLike = new AnswerLike();
-        answerLike.setAnswer(answer);
-        answerLike.setUser(user);
-        answerLike.setLikeDate(LocalDate.now());
-        answerLikeRepository.save(answerLike);
-        return answerLikeMapper.convertToDTO(answerLike);
+        Engagement like = engagementService.like(LikeTarget.ANSWER, answerLikeRequestDTO.getAnswerId(), answerLikeRequestDTO.getUserId());
+        return new AnswerLikeResponseDTO(like.id(), like.targetId(), like.userId(), Objects.toString(like.date(), null), like.alreadyLiked());
+    }
+
+    // liked by me, for a whole page of answers at once
+    public List<Long> getLikedIds(LikedByMeRequestDTO likedByMeRequestDTO) {
+        Set<Long> liked = engagementService.likedIds(LikeTarget.ANSWER, likedByMeRequestDTO.getUserId(), likedByMeRequestDTO.getIds());
+        return likedByMeRequestDTO.getIds().stream().filter(liked::contains).distinct().toList();
     }
 
     // unlike answer
-    @Transactional
     public void unlikeAnswer(AnswerLikeRequestDTO answerLikeRequestDTO){
-        Long answerId = answerLikeRequestDTO.getAnswerId();
-        Long userId = answerLikeRequestDTO.getUserId();
-        Answer answer = answerRepository.findById(answerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Answer not found with id: " + answerId));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-        if(!answerLikeRepository.existsByAnswerAndUser(answer, user)){
-            throw new BadRequestException("User did not like this answer");
-        }
-        answerLikeRepository.deleteByAnswerAndUser(answer, user);
+        engagementService.unlike(LikeTarget.ANSWER, answerLikeRequestDTO.getAnswerId(), answerLikeRequestDTO.getUserId());
     }
 }
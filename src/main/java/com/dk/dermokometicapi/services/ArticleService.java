@@ -1,22 +1,38 @@
 package com.dk.dermokometicapi.services;
 
+import com.dk.dermokometicapi.cache.ArticleCache;
+import com.dk.dermokometicapi.cache.CategoryDictionary;
 import com.dk.dermokometicapi.exceptions.BadRequestException;
 import com.dk.dermokometicapi.exceptions.ResourceNotFoundException;
+import com.dk.dermokometicapi.feeds.FeedQuery;
+import com.dk.dermokometicapi.feeds.FeedRow;
+import com.dk.dermokometicapi.feeds.FeedSource;
+import com.dk.dermokometicapi.feeds.FeedStore;
+import com.dk.dermokometicapi.images.ImageStore;
+import com.dk.dermokometicapi.images.ImageVariants;
+import com.dk.dermokometicapi.likes.Engagement;
+import com.dk.dermokometicapi.likes.LikeTarget;
 import com.dk.dermokometicapi.models.dto.*;
 import com.dk.dermokometicapi.models.entities.*;
-import com.dk.dermokometicapi.mappers.ArticleLikeMapper;
 import com.dk.dermokometicapi.mappers.ArticleMapper;
 import com.dk.dermokometicapi.repositories.*;
+import com.dk.dermokometicapi.search.SearchIndex;
+import com.dk.dermokometicapi.utils.KeysetCursor;
+import com.dk.dermokometicapi.utils.ResourceVersion;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.lang.module.ResolutionException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
@@ -24,26 +40,31 @@ public class ArticleService {
     private final ArticleRepository articleRepository;
     private final ArticleMapper articleMapper;
     private final WriterService writerService;
-    private final ArticleLikeRepository articleLikeRepository;
-    private final UserService userService;
-    private final ArticleLikeMapper articleLikeMapper;
     private final ArticleDetailRepository articleDetailRepository;
     private final CommentRepository commentRepository;
-    private final CommentLikeRepository commentLikeRepository;
+    private final ArticleCache articleCache;
+    private final SearchIndex searchIndex;
+    private final CategoryDictionary categoryDictionary;
+    private final EngagementService engagementService;
+    private final FeedStore feedStore;
+    private final ImageStore imageStore;
+    private final ImageVariants imageVariants;
 
     // functions
 
     private ArticleSummaryResponseDTO getSummaryDTO(Article article){
-        Long likes = articleLikeRepository.countByArticle(article);
-        Long comments = commentRepository.countByArticle(article);
-        return articleMapper.convertToSummaryDTO(article, likes, comments);
+        return articleMapper.convertToSummaryDTO(article, article.getLikeCount(), article.getCommentCount());
     }
 
     private ArticleResponseDTO getFullDTO(Article article){
-        Long likes = articleLikeRepository.countByArticle(article);
-        Long comments = commentRepository.countByArticle(article);
+        return getFullDTO(article, article.getArticleDetail());
+    }
+
+    private ArticleResponseDTO getFullDTO(Article article, ArticleDetail articleDetail){
+        Long likes = article.getLikeCount();
+        Long comments = article.getCommentCount();
         List<Long> ids = article.getWriters().stream().map(Writer::getId).toList();
-        return articleMapper.convertToDTO(article, article.getArticleDetail(), likes, comments, ids);
+        return articleMapper.convertToDTO(article, articleDetail, likes, comments, ids);
     }
 
     // Regular CRUD operations
@@ -52,17 +73,26 @@ public class ArticleService {
         return articleRepository.getAll().stream().map(this::getSummaryDTO).toList();
     }
 
+    // must be consumed inside a transaction, see NdjsonExporter
+    public Stream<ArticleSummaryResponseDTO> streamAllArticles() {
+        return articleRepository.streamAllSummaries(imageStore.urlOf(""));
+    }
+
     @Transactional
     public void deleteById(Long id) {
         Article article = articleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Article not found with id: " + id));
         ArticleDetail articleDetail = article.getArticleDetail();
 
-        commentLikeRepository.deleteByComment_Article(article);
+        // through the engagement service, so the like index drops the comments too
+        engagementService.removeTargets(LikeTarget.COMMENT, commentRepository.findIdsByArticle(article));
         commentRepository.deleteByArticle(article);
-        articleLikeRepository.deleteByArticle(article);
+        engagementService.removeTarget(LikeTarget.ARTICLE, id);
         articleRepository.deleteById(id);
         articleDetailRepository.delete(articleDetail);
+        articleCache.evict(id);
+        searchIndex.remove(SearchIndex.Kind.ARTICLE, id);
+        categoryDictionary.removeArticle(article.getType());
     }
 
     @Transactional
@@ -71,11 +101,14 @@ public class ArticleService {
                 .orElseThrow(() -> new ResourceNotFoundException("Article not found with title: " + title));
         ArticleDetail articleDetail = article.getArticleDetail();
 
-        commentLikeRepository.deleteByComment_Article(article);
+        engagementService.removeTargets(LikeTarget.COMMENT, commentRepository.findIdsByArticle(article));
         commentRepository.deleteByArticle(article);
-        articleLikeRepository.deleteByArticle(article);
+        engagementService.removeTarget(LikeTarget.ARTICLE, article.getId());
         articleRepository.deleteByTitle(title);
         articleDetailRepository.delete(articleDetail);
+        articleCache.evict(article.getId());
+        searchIndex.remove(SearchIndex.Kind.ARTICLE, article.getId());
+        categoryDictionary.removeArticle(article.getType());
     }
 
     public boolean existsByTitle(String title) {
@@ -91,32 +124,69 @@ public class ArticleService {
     // get filtered and/or ordered lists
 
     public Page<ArticleSummaryResponseDTO> getFilteredList(FilterRequestDTO filterRequestDTO){
-        if(filterRequestDTO.getOrderBy() == null) filterRequestDTO.setOrderBy("recent");
+        Page<ArticleSummaryResponseDTO> page = findFilteredList(filterRequestDTO);
+        markLikedByMe(page.getContent(), filterRequestDTO.getUserId());
+        return page;
+    }
+
+    private Page<ArticleSummaryResponseDTO> findFilteredList(FilterRequestDTO filterRequestDTO){
         Pageable pageable = Pageable.ofSize(filterRequestDTO.getPageSize()).withPage(filterRequestDTO.getPageNum());
-        List<String> types = filterRequestDTO.getCategories();
-        if(types.isEmpty()) types = articleRepository.findDistinctTypes();
-        return switch (filterRequestDTO.getOrderBy()) {
-            case "likes" ->
-                    articleRepository.findLikedArticleByType(types, pageable).map(this::getSummaryDTO);
-            case "comments" ->
-                    articleRepository.findCommentedArticleByType(types, pageable).map(this::getSummaryDTO);
-            default ->
-                    articleRepository.findRecentArticleByType(types, pageable).map(this::getSummaryDTO);
-        };
+        return feedStore.findPage(FeedQuery.filter(FeedSource.ARTICLE, filterRequestDTO), pageable,
+                (resultSet, row) -> articleMapper.convertToSummaryDTO(resultSet));
+    }
+
+    // keyset pagination by recency, stable while new articles are published
+
+    public CursorPageResponseDTO<ArticleSummaryResponseDTO> getCursorList(FilterRequestDTO filterRequestDTO){
+        CursorPageResponseDTO<ArticleSummaryResponseDTO> page = findCursorList(filterRequestDTO);
+        markLikedByMe(page.getContent(), filterRequestDTO.getUserId());
+        return page;
+    }
+
+    private CursorPageResponseDTO<ArticleSummaryResponseDTO> findCursorList(FilterRequestDTO filterRequestDTO){
+        if(filterRequestDTO.getOrderBy() != null && !filterRequestDTO.getOrderBy().equals("recent")) {
+            throw new BadRequestException("Cursor pagination only supports recent ordering");
+        }
+        FeedQuery query = FeedQuery.filter(FeedSource.ARTICLE, filterRequestDTO)
+                .after(KeysetCursor.decode(filterRequestDTO.getCursor()));
+        List<FeedRow<ArticleSummaryResponseDTO>> rows = feedStore.findSlice(query,
+                KeysetCursor.pageable(filterRequestDTO.getPageSize()).getPageSize(),
+                (resultSet, row) -> articleMapper.convertToSummaryDTO(resultSet));
+        return KeysetCursor.toPage(rows, filterRequestDTO.getPageSize(), FeedRow::key, FeedRow::item);
     }
 
     // get full article
 
     public ArticleResponseDTO getFullArticleById(Long id) {
-        Article article = articleRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Article not found with id: " + id));
-        return getFullDTO(article);
+        return articleCache.getById(id).orElseGet(() -> {
+            long ticket = articleCache.ticket();
+            Article article = articleRepository.findWithDetailById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Article not found with id: " + id));
+            ArticleResponseDTO articleResponseDTO = getFullDTO(article);
+            articleCache.put(articleResponseDTO, ticket);
+            return articleResponseDTO;
+        });
     }
 
     public ArticleResponseDTO getFullArticleByTitle(String title) {
-        Article article = articleRepository.findByTitle(title)
-                .orElseThrow(() -> new ResourceNotFoundException("Article not found with title: " + title));
-        return getFullDTO(article);
+        return articleCache.getByTitle(title).orElseGet(() -> {
+            long ticket = articleCache.ticket();
+            Article article = articleRepository.findWithDetailByTitle(title)
+                    .orElseThrow(() -> new ResourceNotFoundException("Article not found with title: " + title));
+            ArticleResponseDTO articleResponseDTO = getFullDTO(article);
+            articleCache.put(articleResponseDTO, ticket);
+            return articleResponseDTO;
+        });
+    }
+
+    // validator for conditional GETs, from the article as served; the cache follows counter changes in place
+    public ResourceVersion getVersion(ArticleResponseDTO article) {
+        return ResourceVersion.of("article", article.getId(),
+                article.getContentVersion(), article.getLikes(), article.getComments());
+    }
+
+    public CacheStatsResponseDTO getCacheStats() {
+        return articleCache.getStats();
     }
 
     // create article
@@ -134,49 +204,37 @@ public class ArticleService {
 
         newArticle.setLastUpdateDate(LocalDate.now());
         newArticle.setPublicationDate(LocalDate.now());
+        newArticle.setCreatedAt(Instant.now());
         newArticle.setArticleDetail(newArticleDetail);
         articleRepository.save(newArticle);
+        searchIndex.indexArticle(newArticle.getId(), newArticle.getType(), newArticle.getTitle(),
+                newArticle.getDescription(), newArticleDetail.getContent());
+        categoryDictionary.addArticle(newArticle.getType());
 
         return getFullDTO(newArticle);
     }
 
+    // rebuild the denormalized counters from the like and comment tables
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void recountCounters() {
+        articleRepository.recountCounters();
+    }
+
     // likes
 
     public ArticleLikeResponseDTO createLike(ArticleLikeRequestDTO articleLikeRequestDTO) {
-        Long articleId = articleLikeRequestDTO.getArticleId();
-        Long userId = articleLikeRequestDTO.getUserId();
-        Article article = articleRepository.findById(articleId)
-                .orElseThrow(() -> new ResourceNotFoundException("Article not found with id: " + articleId));
-
-        User user = userService.getEntityById(userId);
-
-        if(articleLikeRepository.existsByArticleAndUser(article, user)){
-            throw new BadRequestException("User already liked this article");
-        }
-        ArticleLike newLike = new ArticleLike();
-        newLike.setArticle(article);
-        newLike.setUser(user);
-        newLike.setLikeDate(LocalDate.now());
-        articleLikeRepository.save(newLike);
-
-        return articleLikeMapper.convertToResponseDTO(newLike);
+        Engagement like = engagementService.like(LikeTarget.ARTICLE, articleLikeRequestDTO.getArticleId(), articleLikeRequestDTO.getUserId());
+        return new ArticleLikeResponseDTO(like.id(), like.targetId(), like.userId(), Objects.toString(like.date(), null), like.alreadyLiked());
     }
 
-    @Transactional
     public void deleteLike(Long articleId, Long userId) {
-        Article article = articleRepository.findById(articleId)
-                .orElseThrow(() -> new ResourceNotFoundException("Article not found with id: " + articleId));
-
-        User user = userService.getEntityById(userId);
-
-        if (!articleLikeRepository.existsByArticleAndUser(article, user)) {
-            throw new BadRequestException("User did not like this article");
-        }
-        articleLikeRepository.deleteByArticleAndUser(article, user);
+        engagementService.unlike(LikeTarget.ARTICLE, articleId, userId);
     }
 
     // update article
 
+    @Transactional
     public ArticleResponseDTO updateArticle(Long id, ArticleRequestDTO articleRequestDTO) {
         Article article = articleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Article not found with id: " + id));
@@ -185,31 +243,69 @@ public class ArticleService {
                 .orElseThrow(() -> new ResourceNotFoundException("Article detail not found with id: " + article.getArticleDetail().getId()));
 
         List<Writer> writers = writerService.getEntities(articleRequestDTO.getWriterIds());
+        String previousType = article.getType();
 
         article.setTitle(articleRequestDTO.getTitle());
         article.setDescription(articleRequestDTO.getDescription());
         article.setType(articleRequestDTO.getType());
         article.setMainImg(articleRequestDTO.getMainImg());
+        // a new external URL replaces an uploaded image, leaving it out keeps the upload
+        if (articleRequestDTO.getMainImg() != null) article.setMainImage(null);
         article.setWriters(writers);
         article.setLastUpdateDate(LocalDate.now());
         articleRepository.save(article);
+        articleRepository.bumpContentVersion(id);
 
         articleDetail.setContent(articleRequestDTO.getContent());
         articleDetailRepository.save(articleDetail);
+        articleCache.evict(id);
+        searchIndex.indexArticle(id, article.getType(), article.getTitle(), article.getDescription(), articleDetail.getContent());
+        categoryDictionary.moveArticle(previousType, article.getType());
+
+        return getFullDTO(article, articleDetail);
+    }
+
+    @Transactional
+    public ArticleResponseDTO updateMainImg(Long id, byte[] image) {
+        Article article = articleRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Article not found with id: " + id));
+        ArticleDetail articleDetail = articleDetailRepository.findById(article.getArticleDetail().getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Article detail not found with id: " + article.getArticleDetail().getId()));
+
+        String key = imageStore.store(image);
+        article.setMainImage(key);
+        article.setMainImg(null);
+        articleRepository.save(article);
+        articleRepository.bumpContentVersion(id);
+        articleCache.evict(id);
+        imageVariants.prepare(key);
 
-        return getFullDTO(article);
+        return getFullDTO(article, articleDetail);
     }
 
     // get Types
     public List<String> getTypes() {
-        return articleRepository.findDistinctTypes();
+        return categoryDictionary.getArticleTypes();
+    }
+
+    // liked by me, for a whole page of articles at once
+    public List<Long> getLikedIds(LikedByMeRequestDTO likedByMeRequestDTO) {
+        Set<Long> liked = likedIds(likedByMeRequestDTO.getUserId(), likedByMeRequestDTO.getIds());
+        return likedByMeRequestDTO.getIds().stream().filter(liked::contains).distinct().toList();
+    }
+
+    private Set<Long> likedIds(Long userId, List<Long> articleIds) {
+        return engagementService.likedIds(LikeTarget.ARTICLE, userId, articleIds);
+    }
+
+    private void markLikedByMe(List<ArticleSummaryResponseDTO> articles, Long userId) {
+        if (userId == null) return;
+        Set<Long> liked = likedIds(userId, articles.stream().map(ArticleSummaryResponseDTO::getId).toList());
+        articles.forEach(article -> article.setLikedByMe(liked.contains(article.getId())));
     }
 
     // get like
     public Boolean getLike(Long articleId, Long userId) {
-        Article article = articleRepository.findById(articleId)
-                .orElseThrow(() -> new ResourceNotFoundException("Article not found with id: " + articleId));
-        User user = userService.getEntityById(userId);
-        return articleLikeRepository.existsByArticleAndUser(article, user);
+        return engagementService.exists(LikeTarget.ARTICLE, articleId, userId);
     }
 }
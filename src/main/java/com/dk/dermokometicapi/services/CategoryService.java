@@ -0,0 +1,31 @@
+package com.dk.dermokometicapi.services;
+
+import com.dk.dermokometicapi.cache.CategoryDictionary;
+import com.dk.dermokometicapi.models.dto.CategoryResponseDTO;
+import com.dk.dermokometicapi.repositories.ArticleRepository;
+import com.dk.dermokometicapi.repositories.QuestionRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@AllArgsConstructor
+public class CategoryService {
+
+    private final CategoryDictionary categoryDictionary;
+    private final ArticleRepository articleRepository;
+    private final QuestionRepository questionRepository;
+
+    public List<CategoryResponseDTO> getCategories() {
+        return categoryDictionary.getCategories();
+    }
+
+    // the only full scan of the type columns, the services keep the counts current afterwards
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCategories() {
+        categoryDictionary.load(articleRepository.findTypeCounts(), questionRepository.findTypeCounts());
+    }
+}
@@ -1,27 +1,47 @@
 package com.dk.dermokometicapi.services;
 
 
+import com.dk.dermokometicapi.cache.ArticleCache;
+import com.dk.dermokometicapi.cache.CommentPageCache;
+import com.dk.dermokometicapi.cache.ThreadPageCache;
 import com.dk.dermokometicapi.exceptions.BadRequestException;
 import com.dk.dermokometicapi.exceptions.ResourceNotFoundException;
+import com.dk.dermokometicapi.likes.Engagement;
+import com.dk.dermokometicapi.likes.LikeTarget;
+import com.dk.dermokometicapi.live.LiveEvent;
+import com.dk.dermokometicapi.live.LiveStreamHub;
+import com.dk.dermokometicapi.live.LiveTopic;
 import com.dk.dermokometicapi.models.dto.*;
 import com.dk.dermokometicapi.models.entities.Article;
 import com.dk.dermokometicapi.models.entities.Comment;
 
 import com.dk.dermokometicapi.models.entities.CommentLike;
 import com.dk.dermokometicapi.models.entities.User;
-import com.dk.dermokometicapi.mappers.CommentLikeMapper;
+import com.dk.dermokometicapi.models.projections.CommentThreadProjection;
+import com.dk.dermokometicapi.models.projections.IdCountProjection;
 import com.dk.dermokometicapi.mappers.CommentMapper;
 import com.dk.dermokometicapi.repositories.ArticleRepository;
 import com.dk.dermokometicapi.repositories.CommentLikeRepository;
 import com.dk.dermokometicapi.repositories.CommentRepository;
 import com.dk.dermokometicapi.repositories.UserRepository;
+import com.dk.dermokometicapi.threads.ThreadPath;
+import com.dk.dermokometicapi.utils.KeysetCursor;
+import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Service
@@ -33,31 +53,63 @@ public class CommentService {
     private final ArticleRepository articleRepository;
     private final CommentMapper commentMapper;
     private final UserRepository userRepository;
-    private final CommentLikeMapper commentLikeMapper;
+    private final ArticleCache articleCache;
+    private final EngagementService engagementService;
+    private final CommentPageCache commentPageCache;
+    private final LiveStreamHub liveStreamHub;
 
     public CommentResponseDTO convertToDTO(Comment comment) {
-        long likes = commentLikeRepository.countByComment(comment);
+        long likes = countLikes(comment);
         long commentsCount = commentRepository.countByParentComment(comment);
         return commentMapper.convertToDTO(comment, likes, commentsCount);
     }
 
+    private long countLikes(Comment comment) {
+        return engagementService.count(LikeTarget.COMMENT, comment.getId());
+    }
+
+    // like and reply counts of a whole page in one query each, instead of two per comment
+    private Function<Comment, CommentResponseDTO> pageConverter(List<Comment> comments) {
+        List<Long> ids = comments.stream().map(Comment::getId).toList();
+        Map<Long, Long> likes = engagementService.counts(LikeTarget.COMMENT, ids);
+        Map<Long, Long> responses = countReplies(ids);
+        return comment -> commentMapper.convertToDTO(comment,
+                likes.getOrDefault(comment.getId(), 0L), responses.getOrDefault(comment.getId(), 0L));
+    }
+
+    // reply counts of many comments in one grouped query
+    private Map<Long, Long> countReplies(List<Long> ids) {
+        return ids.isEmpty() ? Map.of() : commentRepository.countRepliesByParentIds(ids).stream()
+                .collect(Collectors.toMap(IdCountProjection::getId, IdCountProjection::getTotal));
+    }
+
+    private Page<CommentResponseDTO> convertPage(Page<Comment> comments) {
+        return comments.map(pageConverter(comments.getContent()));
+    }
+
     // get all comments
 
     public List<CommentResponseDTO> getAllComments(){
         return commentRepository.findAll().stream().map(this::convertToDTO).toList();
     }
 
+    // must be consumed inside a transaction, see NdjsonExporter
+    public Stream<CommentResponseDTO> streamAllComments(){
+        return commentRepository.streamAllComments();
+    }
+
     // get comment by id
     public CommentResponseDTO getCommentById(Long id){
         Comment comment = commentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id: " + id));
-        long likes = commentLikeRepository.countByComment(comment);
+        long likes = countLikes(comment);
         long commentsCount = commentRepository.countByParentComment(comment);
         return commentMapper.convertToDTO(comment, likes, commentsCount);
     }
 
 
     // create comment
+    @Transactional
     public CommentResponseDTO addComment(CommentRequestDTO commentRequestDTO){
         User user = userRepository.findById(commentRequestDTO.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + commentRequestDTO.getUserId()));
@@ -74,71 +126,151 @@ public class CommentService {
 
         Comment comment = commentMapper.convertToEntity(commentRequestDTO, article, parentComment, user);
         commentRepository.save(comment);
-        return commentMapper.convertToDTO(comment, 0L, 0L);
+        // the path needs the generated id; below a parent without one yet ThreadPathBackfill fills it later
+        if (parentComment == null || parentComment.getPath() != null) {
+            comment.setPath(ThreadPath.child(parentComment == null ? null : parentComment.getPath(), comment.getId()));
+            comment.setDepth(ThreadPath.depth(comment.getPath()));
+        }
+        articleRepository.addToCommentCount(article.getId(), 1);
+        articleCache.adjustCounts(article.getId(), 0, 1);
+        CommentResponseDTO commentResponseDTO = commentMapper.convertToDTO(comment, 0L, 0L);
+        if (parentComment == null) commentPageCache.added(article.getId(), commentResponseDTO);
+        else commentPageCache.replied(parentComment.getId());
+        liveStreamHub.publish(LiveTopic.article(article.getId()), LiveEvent.comment(commentResponseDTO));
+        return commentResponseDTO;
+    }
+
+    // new comments, replies included, and like count changes under the article as server-sent events
+    public SseEmitter streamByArticleId(Long articleId) {
+        if (!articleRepository.existsById(articleId)) {
+            throw new ResourceNotFoundException("Article not found with id: " + articleId);
+        }
+        return liveStreamHub.subscribe(LiveTopic.article(articleId));
     }
 
     // get comments by article id
     public Page<CommentResponseDTO> getCommentsByArticleId(Long articleId, ListRequestDTO listRequestDTO){
         Pageable pageable = Pageable.ofSize(listRequestDTO.getPageSize()).withPage(listRequestDTO.getPageNum());
+        // first pages in recent and likes order are served from memory
         return switch (listRequestDTO.getOrderBy()) {
-            case "likes" -> commentRepository.findLikedCommentsByArticle_id(articleId, pageable)
-                    .map(this::convertToDTO);
-            case "comments" -> commentRepository.findCommentedCommentsByArticle_id(articleId, pageable)
-                    .map(this::convertToDTO);
-            default -> commentRepository.findRecentCommentsByArticle_id(articleId, pageable)
-                    .map(this::convertToDTO);
+            case "likes" -> commentPageCache.get(articleId, ThreadPageCache.Ordering.LIKES, pageable,
+                    () -> convertPage(commentRepository.findLikedCommentsByArticle_id(articleId, pageable)));
+            case "comments" -> convertPage(commentRepository.findCommentedCommentsByArticle_id(articleId, pageable));
+            default -> commentPageCache.get(articleId, ThreadPageCache.Ordering.RECENT, pageable,
+                    () -> convertPage(commentRepository.findRecentCommentsByArticle_id(articleId, pageable)));
         };
     }
 
+    // get comments by article id with keyset pagination, ordered by recency
+    public CursorPageResponseDTO<CommentResponseDTO> getCommentsByArticleIdCursor(Long articleId, ListRequestDTO listRequestDTO){
+        if(listRequestDTO.getOrderBy() != null && !listRequestDTO.getOrderBy().equals("recent")) {
+            throw new BadRequestException("Cursor pagination only supports recent ordering");
+        }
+        Pageable pageable = KeysetCursor.pageable(listRequestDTO.getPageSize());
+        KeysetCursor cursor = KeysetCursor.decode(listRequestDTO.getCursor());
+        List<Comment> rows = cursor == null
+                ? commentRepository.findRecentCommentsByArticle_idFirst(articleId, pageable)
+                : commentRepository.findRecentCommentsByArticle_idAfter(articleId, cursor.getCreatedAt(), cursor.getId(), pageable);
+        return KeysetCursor.toPage(rows, listRequestDTO.getPageSize(),
+                comment -> new KeysetCursor(comment.getCreatedAt(), comment.getId()),
+                pageConverter(rows));
+    }
+
     // get comments by parent id
     public Page<CommentResponseDTO> getCommentsByParentId(Long parentId, ListRequestDTO listRequestDTO) {
         Pageable pageable = Pageable.ofSize(listRequestDTO.getPageSize()).withPage(listRequestDTO.getPageNum());
-        return switch (listRequestDTO.getOrderBy()) {
-            case "likes" -> commentRepository.findLikedCommentsByParentComment_id(parentId, pageable)
-                    .map(this::convertToDTO);
-            case "comments" -> commentRepository.findCommentedCommentsByParentComment_id(parentId, pageable)
-                    .map(this::convertToDTO);
-            default -> commentRepository.findRecentCommentsByParentComment_id(parentId, pageable)
-                    .map(this::convertToDTO);
-        };
+        return convertPage(switch (listRequestDTO.getOrderBy()) {
+            case "likes" -> commentRepository.findLikedCommentsByParentComment_id(parentId, pageable);
+            case "comments" -> commentRepository.findCommentedCommentsByParentComment_id(parentId, pageable);
+            default -> commentRepository.findRecentCommentsByParentComment_id(parentId, pageable);
+        });
     }
 
-        // delete comment
+    // whole comment tree of an article in one query, newest first on every level
+    public List<CommentThreadResponseDTO> getThreadByArticleId(Long articleId, int depth, int breadth) {
+        checkThreadLimits(depth, breadth);
+        return assembleThread(commentRepository.findThreadByArticle_id(articleId, depth, breadth), null);
+    }
+
+    // the replies below one comment, as a tree
+    public List<CommentThreadResponseDTO> getThreadByParentId(Long parentId, int depth, int breadth) {
+        checkThreadLimits(depth, breadth);
+        return assembleThread(commentRepository.findThreadByParentComment_id(parentId, depth, breadth), parentId);
+    }
+
+    // rows arrive level by level, so every parent is already in the map when its replies show up; the top level
+    // hangs from rootId (null for an article). Like and reply counts of all nodes take one grouped query each
+    private List<CommentThreadResponseDTO> assembleThread(List<CommentThreadProjection> rows, Long rootId) {
+        List<Long> ids = rows.stream().map(CommentThreadProjection::getId).toList();
+        Map<Long, Long> likes = engagementService.counts(LikeTarget.COMMENT, ids);
+        Map<Long, Long> responses = countReplies(ids);
+        Map<Long, CommentThreadResponseDTO> nodes = new HashMap<>();
+        List<CommentThreadResponseDTO> roots = new ArrayList<>();
+        for (CommentThreadProjection row : rows) {
+            CommentThreadResponseDTO node = commentMapper.convertToThreadDTO(row,
+                    likes.getOrDefault(row.getId(), 0L), responses.getOrDefault(row.getId(), 0L));
+            nodes.put(node.getId(), node);
+            if (Objects.equals(row.getParentCommentId(), rootId)) roots.add(node);
+            else nodes.get(row.getParentCommentId()).getReplies().add(node);
+        }
+        return roots;
+    }
+
+    private void checkThreadLimits(int depth, int breadth) {
+        if (depth < 1 || depth > CommentThreadResponseDTO.MAX_DEPTH) {
+            throw new BadRequestException("Depth must be between 1 and " + CommentThreadResponseDTO.MAX_DEPTH);
+        }
+        if (breadth < 1 || breadth > CommentThreadResponseDTO.MAX_BREADTH) {
+            throw new BadRequestException("Breadth must be between 1 and " + CommentThreadResponseDTO.MAX_BREADTH);
+        }
+    }
+
+    // delete comment together with all its replies, each step one range over the path
+    @Transactional
     public void deleteComment(Long id){
-        commentRepository.findById(id)
+        Comment comment = commentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id: " + id));
-        commentRepository.deleteById(id);
+        String path = comment.getPath();
+        if (path == null) {
+            // not backfilled yet, only the row itself as before
+            engagementService.removeTargets(LikeTarget.COMMENT, List.of(id));
+            commentRepository.deleteById(id);
+            adjustCommentCount(comment, -1);
+            return;
+        }
+        String upperBound = ThreadPath.upperBound(path);
+        engagementService.removeTargets(LikeTarget.COMMENT, commentRepository.findSubtreeIds(path, upperBound));
+        commentRepository.detachSubtree(path, upperBound);
+        adjustCommentCount(comment, -commentRepository.deleteSubtree(path, upperBound));
+    }
+
+    private void adjustCommentCount(Comment comment, long delta) {
+        articleRepository.addToCommentCount(comment.getArticle().getId(), delta);
+        articleCache.adjustCounts(comment.getArticle().getId(), 0, delta);
+        commentPageCache.removed(comment.getArticle().getId());
     }
 
     // create like
     public CommentLikeResponseDTO addLike(CommentLikeRequestDTO commentLikeRequestDTO) {
-        Comment comment = commentRepository.findById(commentLikeRequestDTO.getCommentId())
-                .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id: " + commentLikeRequestDTO.getCommentId()));
-        User user = userRepository.findById(commentLikeRequestDTO.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + commentLikeRequestDTO.getUserId()));
-        if(commentLikeRepository.existsByCommentAndUser(comment, user) ){
-            throw new BadRequestException("Comment like already exists with comment id: " + commentLikeRequestDTO.getCommentId() + " and user id: " + commentLikeRequestDTO.getUserId());
-        }
-        CommentLike commentLike = new CommentLike();
-        commentLike.setComment(comment);
-        commentLike.setUser(user);
-        commentLike.setPublicationDate(LocalDate.now());
-        commentLikeRepository.save(commentLike);
-        return commentLikeMapper.convertToDTO(commentLike);
+        Engagement like = engagementService.like(LikeTarget.COMMENT, commentLikeRequestDTO.getCommentId(), commentLikeRequestDTO.getUserId());
+        return new CommentLikeResponseDTO(like.id(), like.targetId(), like.userId(), Objects.toString(like.date(), null), like.alreadyLiked());
+    }
+
+    // liked by me, for a whole page of comments at once
+    public List<Long> getLikedIds(LikedByMeRequestDTO likedByMeRequestDTO) {
+        Set<Long> liked = engagementService.likedIds(LikeTarget.COMMENT, likedByMeRequestDTO.getUserId(), likedByMeRequestDTO.getIds());
+        return likedByMeRequestDTO.getIds().stream().filter(liked::contains).distinct().toList();
     }
 
     // delete like
     public void deleteLike(Long id) {
-        commentLikeRepository.findById(id)
+        CommentLike commentLike = commentLikeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment like not found with id: " + id));
-        commentLikeRepository.deleteById(id);
+        engagementService.unlike(LikeTarget.COMMENT, commentLike.getComment().getId(), commentLike.getUser().getId());
     }
 
     // delete like with DTO
     public void deleteLike(CommentLikeRequestDTO commentLikeRequestDTO) {
-        CommentLike commentLike = commentLikeRepository.findByComment_IdAndUser_Id(commentLikeRequestDTO.getCommentId(), commentLikeRequestDTO.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("Comment like not found with comment id: " + commentLikeRequestDTO.getCommentId() + " and user id: " + commentLikeRequestDTO.getUserId()));
-        commentLikeRepository.delete(commentLike);
+        engagementService.unlike(LikeTarget.COMMENT, commentLikeRequestDTO.getCommentId(), commentLikeRequestDTO.getUserId());
     }
 }
-
@@ -0,0 +1,216 @@
+package com.dk.dermokometicapi.services;
+
+import com.dk.dermokometicapi.cache.AnswerPageCache;
+import com.dk.dermokometicapi.cache.ArticleCache;
+import com.dk.dermokometicapi.cache.CommentPageCache;
+import com.dk.dermokometicapi.exceptions.BadRequestException;
+import com.dk.dermokometicapi.exceptions.ResourceNotFoundException;
+import com.dk.dermokometicapi.likes.Engagement;
+import com.dk.dermokometicapi.likes.LikeIndex;
+import com.dk.dermokometicapi.likes.LikeStore;
+import com.dk.dermokometicapi.likes.LikeTarget;
+import com.dk.dermokometicapi.likes.LikeWriteBuffer;
+import com.dk.dermokometicapi.live.LiveEvent;
+import com.dk.dermokometicapi.live.LiveStreamHub;
+import com.dk.dermokometicapi.live.LiveTopic;
+import com.dk.dermokometicapi.models.dto.LikeDeltaDTO;
+import com.dk.dermokometicapi.models.dto.LikeIndexStatsDTO;
+import com.dk.dermokometicapi.repositories.ArticleRepository;
+import com.dk.dermokometicapi.repositories.QuestionRepository;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// likes of every content type go through here; the article, comment, answer and question services only map the results
+@Service
+@AllArgsConstructor
+public class EngagementService {
+    private final LikeStore likeStore;
+    private final LikeWriteBuffer likeWriteBuffer;
+    private final LikeIndex likeIndex;
+    private final ArticleRepository articleRepository;
+    private final QuestionRepository questionRepository;
+    private final ArticleCache articleCache;
+    private final CommentPageCache commentPageCache;
+    private final AnswerPageCache answerPageCache;
+    private final LiveStreamHub liveStreamHub;
+
+    // one insert-if-absent round trip; liking twice is not an error, the result tells it was already there
+    @Transactional
+    public Engagement like(LikeTarget target, Long targetId, Long userId) {
+        if (likeWriteBuffer.isEnabled()) {
+            // buffered likes skip the insert, the ids are still checked so a bad request is not accepted
+            checkTargetAndUser(target, targetId, userId);
+            boolean alreadyLiked = likedBeforeBuffering(target, targetId, userId);
+            likeWriteBuffer.like(target, targetId, userId);
+            return new Engagement(null, target, targetId, userId, LocalDate.now(), alreadyLiked);
+        }
+        Optional<Engagement> created = likeStore.insert(target, targetId, userId);
+        if (created.isPresent()) {
+            adjustCounters(target, targetId, 1);
+            publishLike(target, targetId, 1);
+            likeIndex.add(target, targetId, userId);
+            return created.get();
+        }
+        // nothing inserted: the like was already there, or the target or the user does not exist
+        return likeStore.find(target, targetId, userId).orElseThrow(() -> {
+            checkTargetAndUser(target, targetId, userId);
+            return new ResourceNotFoundException(target.getLabel() + " not found with id: " + targetId);
+        }).withAlreadyLiked(true);
+    }
+
+    @Transactional
+    public void unlike(LikeTarget target, Long targetId, Long userId) {
+        if (likeWriteBuffer.isEnabled()) {
+            // buffered unlikes are idempotent, a like that is not there is simply not written
+            checkTargetAndUser(target, targetId, userId);
+            likeWriteBuffer.unlike(target, targetId, userId);
+            return;
+        }
+        if (!likeStore.delete(target, targetId, userId)) {
+            checkTargetAndUser(target, targetId, userId);
+            throw new BadRequestException("User did not like this " + target.getLabel().toLowerCase(Locale.ROOT));
+        }
+        adjustCounters(target, targetId, -1);
+        publishLike(target, targetId, -1);
+        likeIndex.remove(target, targetId, userId);
+    }
+
+    // once the like index is warm this is a lookup in memory, where unknown ids simply read as not liked
+    public boolean exists(LikeTarget target, Long targetId, Long userId) {
+        return likeWriteBuffer.pending(target, targetId, userId).orElseGet(() -> {
+            if (likeIndex.isReady()) return likeIndex.contains(target, targetId, userId);
+            checkTargetAndUser(target, targetId, userId);
+            return likeStore.exists(target, targetId, userId);
+        });
+    }
+
+    // from the like index once it is warm, one count query before that
+    public long count(LikeTarget target, Long targetId) {
+        return likeIndex.isReady() ? likeIndex.count(target, targetId) : likeStore.count(target, targetId);
+    }
+
+    // like counts for a whole page at once, ids without likes are left out
+    public Map<Long, Long> counts(LikeTarget target, List<Long> targetIds) {
+        if (targetIds.isEmpty()) return new HashMap<>();
+        if (!likeIndex.isReady()) return likeStore.countAll(target, targetIds);
+        Map<Long, Long> counts = new HashMap<>();
+        targetIds.forEach(id -> counts.put(id, likeIndex.count(target, id)));
+        return counts;
+    }
+
+    // liked by me, for a whole page at once, buffered likes and unlikes included
+    public Set<Long> likedIds(LikeTarget target, Long userId, List<Long> targetIds) {
+        Set<Long> liked = new HashSet<>();
+        if (targetIds.isEmpty()) return liked;
+        if (likeIndex.isReady()) {
+            targetIds.stream().filter(id -> likeIndex.contains(target, id, userId)).forEach(liked::add);
+        } else {
+            liked.addAll(likeStore.findLikedIds(target, userId, targetIds));
+        }
+        likeWriteBuffer.applyPending(target, userId, targetIds, liked);
+        return liked;
+    }
+
+    // the liked content is being deleted, its likes go with it
+    public void removeTarget(LikeTarget target, Long targetId) {
+        likeStore.deleteAll(target, targetId);
+        likeIndex.removeTarget(target, targetId);
+    }
+
+    // a whole subtree of comments or answers is being deleted
+    public void removeTargets(LikeTarget target, List<Long> targetIds) {
+        likeStore.deleteAll(target, targetIds);
+        targetIds.forEach(targetId -> likeIndex.removeTarget(target, targetId));
+    }
+
+    public List<LikeIndexStatsDTO> getStats() {
+        return likeIndex.getStats();
+    }
+
+    public List<Long> getUsersWhoLikedBoth(String type, Long firstId, Long secondId) {
+        LikeTarget target = parseTarget(type);
+        if (likeIndex.isReady()) {
+            return likeIndex.likedByBoth(target, firstId, secondId);
+        }
+        return likeStore.findUsersWhoLikedBoth(target, firstId, secondId);
+    }
+
+    // the index only lives in memory, so the like tables are streamed into it on every start
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmLikeIndex() {
+        if (!likeIndex.isEnabled()) return;
+        for (LikeTarget target : LikeTarget.values()) {
+            likeStore.forEach(target, (targetId, userId) -> likeIndex.load(target, targetId, userId));
+        }
+        likeIndex.markReady();
+    }
+
+    // articles and questions keep a denormalized like counter; cached comment and answer pages follow in memory
+    private void adjustCounters(LikeTarget target, Long targetId, long delta) {
+        switch (target) {
+            case ARTICLE -> {
+                articleRepository.addToLikeCount(targetId, delta);
+                articleCache.adjustCounts(targetId, delta, 0);
+            }
+            case QUESTION -> questionRepository.addToLikeCount(targetId, delta);
+            case COMMENT -> commentPageCache.liked(targetId, delta);
+            case ANSWER -> answerPageCache.liked(targetId, delta);
+        }
+    }
+
+    // like count changes for live streams; buffered likes are not announced, they reach the database later
+    private void publishLike(LikeTarget target, Long targetId, long delta) {
+        LiveEvent event = LiveEvent.like(new LikeDeltaDTO(target.name().toLowerCase(Locale.ROOT), targetId, delta));
+        switch (target) {
+            case ARTICLE -> liveStreamHub.publish(LiveTopic.article(targetId), event);
+            case QUESTION -> liveStreamHub.publish(LiveTopic.question(targetId), event);
+            case COMMENT -> {
+                if (liveStreamHub.hasSubscribers(LiveTopic.Kind.ARTICLE)) {
+                    likeStore.findParentId(target, targetId).ifPresent(articleId -> liveStreamHub.publish(LiveTopic.article(articleId), event));
+                }
+            }
+            case ANSWER -> {
+                if (liveStreamHub.hasSubscribers(LiveTopic.Kind.QUESTION)) {
+                    likeStore.findParentId(target, targetId).ifPresent(questionId -> liveStreamHub.publish(LiveTopic.question(questionId), event));
+                }
+            }
+        }
+    }
+
+    // a like or unlike still in the buffer wins, then the like index; the like table only while the index is off or warming up
+    private boolean likedBeforeBuffering(LikeTarget target, Long targetId, Long userId) {
+        return likeWriteBuffer.pending(target, targetId, userId).orElseGet(() -> likeIndex.isReady()
+                ? likeIndex.contains(target, targetId, userId)
+                : likeStore.exists(target, targetId, userId));
+    }
+
+    private void checkTargetAndUser(LikeTarget target, Long targetId, Long userId) {
+        if (!likeStore.targetExists(target, targetId)) {
+            throw new ResourceNotFoundException(target.getLabel() + " not found with id: " + targetId);
+        }
+        if (!likeStore.userExists(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+    }
+
+    private static LikeTarget parseTarget(String type) {
+        try {
+            return LikeTarget.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown like type: " + type);
+        }
+    }
+}
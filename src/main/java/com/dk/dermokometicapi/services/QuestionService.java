@@ -1,47 +1,66 @@
 package com.dk.dermokometicapi.services;
 
+import com.dk.dermokometicapi.cache.CategoryDictionary;
 import com.dk.dermokometicapi.exceptions.BadRequestException;
 import com.dk.dermokometicapi.exceptions.ResourceNotFoundException;
-import com.dk.dermokometicapi.mappers.QuestionLikeMapper;
+import com.dk.dermokometicapi.feeds.FeedQuery;
+import com.dk.dermokometicapi.feeds.FeedRow;
+import com.dk.dermokometicapi.feeds.FeedSource;
+import com.dk.dermokometicapi.feeds.FeedStore;
+import com.dk.dermokometicapi.likes.Engagement;
+import com.dk.dermokometicapi.likes.LikeTarget;
 import com.dk.dermokometicapi.models.dto.*;
 import com.dk.dermokometicapi.models.entities.Question;
-import com.dk.dermokometicapi.models.entities.QuestionLike;
 import com.dk.dermokometicapi.models.entities.User;
 
 import com.dk.dermokometicapi.mappers.ArticleMapper;
 import com.dk.dermokometicapi.mappers.QuestionMapper;
 import com.dk.dermokometicapi.repositories.ArticleRepository;
-import com.dk.dermokometicapi.repositories.QuestionLikeRepository;
 import com.dk.dermokometicapi.repositories.QuestionRepository;
-import com.dk.dermokometicapi.repositories.UserRepository;
+import com.dk.dermokometicapi.search.QuestionSimilarityIndex;
+import com.dk.dermokometicapi.search.SearchIndex;
+import com.dk.dermokometicapi.search.SimilarQuestion;
+import com.dk.dermokometicapi.utils.KeysetCursor;
+import com.dk.dermokometicapi.utils.ResourceVersion;
+import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Service
 @AllArgsConstructor
 public class QuestionService {
 
+    // near duplicates listed with a new question
+    private static final int SIMILAR_ON_CREATE = 5;
+
     private final QuestionRepository questionRepository;
     private final QuestionMapper questionMapper;
-    private final QuestionLikeRepository questionLikeRepository;
     private final UserService userService;
-    private final UserRepository userRepository;
-    private final QuestionLikeMapper questionLikeMapper;
+    private final SearchIndex searchIndex;
+    private final CategoryDictionary categoryDictionary;
+    private final EngagementService engagementService;
+    private final FeedStore feedStore;
+    private final QuestionSimilarityIndex similarityIndex;
 
 
+    // the counters live on the row, so a page of questions is the one query that loaded it
     private QuestionResponseDTO getDTO(Question question){
-        Long likes = questionLikeRepository.countByQuestion(question);
-        Long answers = questionRepository.countAnswersByQuestion(question);
-        return questionMapper.convertToDTO(question, likes, answers);
+        return questionMapper.convertToDTO(question, question.getLikeCount(), question.getAnswerCount());
     }
 
 
@@ -50,12 +69,45 @@ public class QuestionService {
         if (questionRepository.existsByTitle(questionRequestDTO.getTitle())) {
             throw new BadRequestException("Question with title: " + questionRequestDTO.getTitle() + " already exists");
         }
+        List<SimilarQuestion> similar = similarityIndex.findSimilar(questionRequestDTO.getTitle(), questionRequestDTO.getContent(), null, SIMILAR_ON_CREATE);
+        if (!similar.isEmpty() && similarityIndex.isDuplicate(similar.get(0))) {
+            throw new BadRequestException("Question is a near duplicate of question with id: " + similar.get(0).getId());
+        }
         User user = userService.getEntityById(questionRequestDTO.getUserId());
         Question newQuestion = questionMapper.convertToEntity(questionRequestDTO);
         newQuestion.setUser(user);
         newQuestion.setPublicationDate(LocalDate.now());
+        newQuestion.setCreatedAt(Instant.now());
         questionRepository.save(newQuestion);
-        return questionMapper.convertToDTO(newQuestion, 0L, 0L);
+        searchIndex.indexQuestion(newQuestion.getId(), newQuestion.getType(), newQuestion.getTitle(), newQuestion.getContent());
+        similarityIndex.index(newQuestion.getId(), newQuestion.getType(), newQuestion.getTitle(), newQuestion.getContent());
+        categoryDictionary.addQuestion(newQuestion.getType());
+        QuestionResponseDTO questionResponseDTO = questionMapper.convertToDTO(newQuestion, 0L, 0L);
+        questionResponseDTO.setSimilarQuestions(convertToDTOs(similar));
+        return questionResponseDTO;
+    }
+
+    // similar questions, from the in-memory index only
+
+    public List<SimilarQuestionDTO> getSimilarQuestions(Long id, int limit) {
+        if (limit < 1 || limit > SimilarQuestionRequestDTO.MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + SimilarQuestionRequestDTO.MAX_LIMIT);
+        }
+        Question question = questionRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Question with id: " + id + " not found"));
+        return convertToDTOs(similarityIndex.findSimilar(question.getTitle(), question.getContent(), id, limit));
+    }
+
+    // for a question that is still being written
+    public List<SimilarQuestionDTO> findSimilarQuestions(SimilarQuestionRequestDTO similarQuestionRequestDTO) {
+        return convertToDTOs(similarityIndex.findSimilar(similarQuestionRequestDTO.getTitle(),
+                similarQuestionRequestDTO.getContent(), null, similarQuestionRequestDTO.getLimit()));
+    }
+
+    private static List<SimilarQuestionDTO> convertToDTOs(List<SimilarQuestion> similar) {
+        return similar.stream()
+                .map(question -> new SimilarQuestionDTO(question.getId(), question.getTitle(), question.getType(), question.getSimilarity()))
+                .toList();
     }
 
     //get all articles
@@ -63,6 +115,11 @@ public class QuestionService {
         return questionRepository.findAll().stream().map(this::getDTO).toList();
     }
 
+    // must be consumed inside a transaction, see NdjsonExporter
+    public Stream<QuestionResponseDTO> streamAllQuestions() {
+        return questionRepository.streamAllQuestions();
+    }
+
     public QuestionResponseDTO getQuestionById(Long id) {
         Question question = questionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Question with id: " + id + " not found"));
@@ -75,77 +132,87 @@ public class QuestionService {
         return getDTO(question);
     }
 
+    // questions are not editable, so the counters are all that can change
+    public ResourceVersion getVersion(QuestionResponseDTO question) {
+        return ResourceVersion.of("question", question.getId(), question.getLikes(), question.getAnswers());
+    }
+
+    // rebuild the denormalized counters from the like and answer tables
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void recountCounters() {
+        questionRepository.recountCounters();
+    }
+
     // delete by id
     public void deleteQuestionById(Long id) {
-        if (!questionRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Question with id: " + id + " not found");
-        }
+        String type = questionRepository.findTypeById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Question with id: " + id + " not found"));
+        engagementService.removeTarget(LikeTarget.QUESTION, id);
         questionRepository.deleteById(id);
+        searchIndex.remove(SearchIndex.Kind.QUESTION, id);
+        similarityIndex.remove(id);
+        categoryDictionary.removeQuestion(type);
     }
 
     // like
     public QuestionLikeResponseDTO createLike(QuestionLikeRequestDTO questionLikeRequestDTO) {
-        Long questionId = questionLikeRequestDTO.getQuestionId();
-        Long userId = questionLikeRequestDTO.getUserId();
-        Question question = questionRepository.findById(questionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Question not found with id: " + questionId));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-
-        if (questionLikeRepository.existsByQuestionAndUser(question, user)) {
-            throw new BadRequestException("User already liked this question");
-        }
+        Engagement like = engagementService.like(LikeTarget.QUESTION, questionLikeRequestDTO.getQuestionId(), questionLikeRequestDTO.getUserId());
+        return new QuestionLikeResponseDTO(like.id(), like.targetId(), like.userId(), Objects.toString(like.date(), null), like.alreadyLiked());
+    }
 
-        QuestionLike newLike = new QuestionLike();
-        newLike.setQuestion(question);
-        newLike.setUser(user);
-        newLike.setLikeDate(LocalDate.now());
-        questionLikeRepository.save(newLike);
+    // liked by me, for a whole page of questions at once
+    public List<Long> getLikedIds(LikedByMeRequestDTO likedByMeRequestDTO) {
+        Set<Long> liked = likedIds(likedByMeRequestDTO.getUserId(), likedByMeRequestDTO.getIds());
+        return likedByMeRequestDTO.getIds().stream().filter(liked::contains).distinct().toList();
+    }
+
+    private Set<Long> likedIds(Long userId, List<Long> questionIds) {
+        return engagementService.likedIds(LikeTarget.QUESTION, userId, questionIds);
+    }
 
-        return questionLikeMapper.convertToResponseDTO(newLike);
+    private void markLikedByMe(List<QuestionResponseDTO> questions, Long userId) {
+        if (userId == null) return;
+        Set<Long> liked = likedIds(userId, questions.stream().map(QuestionResponseDTO::getId).toList());
+        questions.forEach(question -> question.setLikedByMe(liked.contains(question.getId())));
     }
 
     //dislike
     public void deleteLike(QuestionLikeRequestDTO questionLikeRequestDTO) {
-        Long questionId = questionLikeRequestDTO.getQuestionId();
-        Long userId = questionLikeRequestDTO.getUserId();
-        Question question = questionRepository.findById(questionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Article not found with id: " + questionId));
-        User user = userService.getEntityById(userId);
-        if (!questionLikeRepository.existsByQuestionAndUser(question, user)) {
-            throw new BadRequestException("User did not like this article");
-        }
-        questionLikeRepository.deleteByQuestionAndUser(question, user);
+        engagementService.unlike(LikeTarget.QUESTION, questionLikeRequestDTO.getQuestionId(), questionLikeRequestDTO.getUserId());
     }
 
     //filters
 
 
 
-    public Page<QuestionResponseDTO> getFilteredList(FilterRequestDTO filterRequestDTO){
-        if(filterRequestDTO.getOrderBy() == null) filterRequestDTO.setOrderBy("recent");
-        Pageable pageable = PageRequest.of(filterRequestDTO.getPageNum(), filterRequestDTO.getPageSize());
-        List<String> types = filterRequestDTO.getCategories();
-        if(filterRequestDTO.getCategories().isEmpty()){
-            return switch (filterRequestDTO.getOrderBy()) {
-                case "likes" -> questionRepository.findLikedQuestions(pageable)
-                        .map(this::getDTO);
-                case "answers" -> questionRepository.findAnsweredQuestions(pageable)
-                                .map(this::getDTO);
-                default -> questionRepository.findRecentQuestions(pageable)
-                        .map(this::getDTO);
-            };
-        }else{
-            return switch (filterRequestDTO.getOrderBy()) {
-                case "likes" -> questionRepository.findLikedQuestionByType(types, pageable)
-                        .map(this::getDTO);
-                case "answers" -> questionRepository.findAnsweredQuestionByType(types, pageable)
-                        .map(this::getDTO);
-                default -> questionRepository.findRecentQuestionByType(types, pageable)
-                        .map(this::getDTO);
-            };
+    public CursorPageResponseDTO<QuestionResponseDTO> getCursorList(FilterRequestDTO filterRequestDTO){
+        CursorPageResponseDTO<QuestionResponseDTO> page = findCursorList(filterRequestDTO);
+        markLikedByMe(page.getContent(), filterRequestDTO.getUserId());
+        return page;
+    }
+
+    private CursorPageResponseDTO<QuestionResponseDTO> findCursorList(FilterRequestDTO filterRequestDTO){
+        if(filterRequestDTO.getOrderBy() != null && !filterRequestDTO.getOrderBy().equals("recent")) {
+            throw new BadRequestException("Cursor pagination only supports recent ordering");
         }
+        FeedQuery query = FeedQuery.filter(FeedSource.QUESTION, filterRequestDTO)
+                .after(KeysetCursor.decode(filterRequestDTO.getCursor()));
+        List<FeedRow<QuestionResponseDTO>> rows = feedStore.findSlice(query,
+                KeysetCursor.pageable(filterRequestDTO.getPageSize()).getPageSize(),
+                (resultSet, row) -> questionMapper.convertToDTO(resultSet));
+        return KeysetCursor.toPage(rows, filterRequestDTO.getPageSize(), FeedRow::key, FeedRow::item);
     }
 
+    public Page<QuestionResponseDTO> getFilteredList(FilterRequestDTO filterRequestDTO){
+        Page<QuestionResponseDTO> page = findFilteredList(filterRequestDTO);
+        markLikedByMe(page.getContent(), filterRequestDTO.getUserId());
+        return page;
+    }
 
+    private Page<QuestionResponseDTO> findFilteredList(FilterRequestDTO filterRequestDTO){
+        Pageable pageable = PageRequest.of(filterRequestDTO.getPageNum(), filterRequestDTO.getPageSize());
+        return feedStore.findPage(FeedQuery.filter(FeedSource.QUESTION, filterRequestDTO), pageable,
+                (resultSet, row) -> questionMapper.convertToDTO(resultSet));
+    }
 }
@@ -0,0 +1,78 @@
+package com.dk.dermokometicapi.services;
+
+import com.dk.dermokometicapi.exceptions.BadRequestException;
+import com.dk.dermokometicapi.models.dto.SearchRequestDTO;
+import com.dk.dermokometicapi.models.dto.SearchResultDTO;
+import com.dk.dermokometicapi.models.entities.Article;
+import com.dk.dermokometicapi.models.entities.Question;
+import com.dk.dermokometicapi.repositories.ArticleRepository;
+import com.dk.dermokometicapi.repositories.QuestionRepository;
+import com.dk.dermokometicapi.search.QuestionSimilarityIndex;
+import com.dk.dermokometicapi.search.SearchHit;
+import com.dk.dermokometicapi.search.SearchIndex;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+
+@Service
+@AllArgsConstructor
+public class SearchService {
+
+    private final SearchIndex searchIndex;
+    private final ArticleRepository articleRepository;
+    private final QuestionRepository questionRepository;
+    private final QuestionSimilarityIndex similarityIndex;
+
+    public Page<SearchResultDTO> search(SearchRequestDTO searchRequestDTO) {
+        if (searchRequestDTO.getQuery() == null || searchRequestDTO.getQuery().isBlank()) {
+            throw new BadRequestException("Query is mandatory");
+        }
+        if (searchRequestDTO.getPageSize() < 1 || searchRequestDTO.getPageNum() < 0) {
+            throw new BadRequestException("Invalid page: " + searchRequestDTO.getPageNum() + " of size " + searchRequestDTO.getPageSize());
+        }
+        List<SearchIndex.Kind> kinds = searchRequestDTO.getKinds().stream().map(SearchService::parseKind).toList();
+        List<SearchHit> hits = searchIndex.search(searchRequestDTO.getQuery(), kinds, searchRequestDTO.getCategories());
+
+        Pageable pageable = PageRequest.of(searchRequestDTO.getPageNum(), searchRequestDTO.getPageSize());
+        int from = (int) Math.min(pageable.getOffset(), hits.size());
+        int to = Math.min(from + pageable.getPageSize(), hits.size());
+        List<SearchResultDTO> content = hits.subList(from, to).stream().map(SearchService::convertToDTO).toList();
+        return new PageImpl<>(content, pageable, hits.size());
+    }
+
+    // the indexes only live in memory, so they are filled from the database on every start
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        searchIndex.clear();
+        similarityIndex.clear();
+        for (Article article : articleRepository.findAllWithDetail()) {
+            searchIndex.indexArticle(article.getId(), article.getType(), article.getTitle(),
+                    article.getDescription(), article.getArticleDetail().getContent());
+        }
+        for (Question question : questionRepository.findAll()) {
+            searchIndex.indexQuestion(question.getId(), question.getType(), question.getTitle(), question.getContent());
+            similarityIndex.index(question.getId(), question.getType(), question.getTitle(), question.getContent());
+        }
+    }
+
+    private static SearchIndex.Kind parseKind(String kind) {
+        try {
+            return SearchIndex.Kind.valueOf(kind.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown search kind: " + kind);
+        }
+    }
+
+    private static SearchResultDTO convertToDTO(SearchHit hit) {
+        return new SearchResultDTO(hit.getKind().name().toLowerCase(Locale.ROOT), hit.getId(), hit.getTitle(),
+                hit.getDescription(), hit.getType(), hit.getScore());
+    }
+}
@@ -2,6 +2,8 @@ package com.dk.dermokometicapi.services;
 
 import com.dk.dermokometicapi.exceptions.BadRequestException;
 import com.dk.dermokometicapi.exceptions.ResourceNotFoundException;
+import com.dk.dermokometicapi.images.ImageStore;
+import com.dk.dermokometicapi.images.ImageVariants;
 import com.dk.dermokometicapi.models.dto.UserRequestDTO;
 import com.dk.dermokometicapi.models.dto.UserResponseDTO;
 import com.dk.dermokometicapi.models.dto.UserUpdateDTO;
@@ -13,6 +15,7 @@ import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
@@ -20,12 +23,19 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ImageStore imageStore;
+    private final ImageVariants imageVariants;
 
     public List<UserResponseDTO> getAllUser () {
         List<User> users = userRepository.findAll();
         return userMapper.convertToDTO(users);
     }
 
+    // must be consumed inside a transaction, see NdjsonExporter
+    public Stream<UserResponseDTO> streamAllUsers() {
+        return userRepository.streamAllUsers(imageStore.urlOf(""));
+    }
+
     public UserResponseDTO createUser(UserRequestDTO user) {
         if (userRepository.existsByUsername(user.getUsername())) {
             throw new BadRequestException("Username is already taken!");
@@ -37,6 +47,7 @@ public class UserService {
         User newUser = userMapper.convertToEntity(user);
 
         userRepository.save(newUser);
+        prepareVariants(newUser);
         return userMapper.convertToDTO(newUser);
     }
 
@@ -93,6 +104,7 @@ public class UserService {
         User updatedUser = userMapper.convertToEntity(userRequestDTO);
         updatedUser.setId(user.getId());
         userRepository.save(updatedUser);
+        prepareVariants(updatedUser);
         return userMapper.convertToDTO(updatedUser);
     }
 
@@ -109,9 +121,27 @@ public class UserService {
             user.setPassword(updatedUser.getPassword());
         }
         if (updatedUser.getProfilePic() != null) {
-            user.setProfilePic(updatedUser.getProfilePic());
+            userMapper.setProfilePic(user, updatedUser.getProfilePic());
         }
         userRepository.save(user);
+        prepareVariants(user);
+        return userMapper.convertToDTO(user);
+    }
+
+    // an inline picture sent with the user was stored by the mapper; its variants are rendered like an upload's
+    private void prepareVariants(User user) {
+        if (user.getProfileImage() != null) imageVariants.prepare(user.getProfileImage());
+    }
+
+    // the picture goes to the image store, the row keeps only its key
+    public UserResponseDTO updateProfilePic(String username, byte[] image) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
+        String key = imageStore.store(image);
+        user.setProfileImage(key);
+        user.setProfilePic(null);
+        userRepository.save(user);
+        imageVariants.prepare(key);
         return userMapper.convertToDTO(user);
     }
 
@@ -1,9 +1,13 @@
 package com.dk.dermokometicapi.services;
 
+import com.dk.dermokometicapi.exceptions.ResourceNotFoundException;
+import com.dk.dermokometicapi.images.ImageStore;
+import com.dk.dermokometicapi.images.ImageVariants;
 import com.dk.dermokometicapi.models.dto.WriterResponseDTO;
 import com.dk.dermokometicapi.models.entities.Writer;
 import com.dk.dermokometicapi.mappers.WriterMapper;
 import com.dk.dermokometicapi.repositories.WriterRepository;
+import com.dk.dermokometicapi.utils.ResourceVersion;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -14,6 +18,8 @@ import java.util.List;
 public class WriterService {
     private final WriterRepository writerRepository;
     private final WriterMapper writerMapper;
+    private final ImageStore imageStore;
+    private final ImageVariants imageVariants;
 
     // Regular CRUD operations
     public List<Writer> getEntities(List<Long> ids) {
@@ -30,6 +36,23 @@ public class WriterService {
         return writerMapper.convertToDTO(writer);
     }
 
+    // the picture goes to the image store, the row keeps only its key
+    public WriterResponseDTO updateProfilePic(Long id, byte[] image) {
+        Writer writer = writerRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Writer not found with id: " + id));
+        String key = imageStore.store(image);
+        writer.setProfileImage(key);
+        writer.setProfilePic(null);
+        writerRepository.save(writer);
+        imageVariants.prepare(key);
+        return writerMapper.convertToDTO(writer);
+    }
+
+    public ResourceVersion getVersion(WriterResponseDTO writer) {
+        return ResourceVersion.of("writer", writer.getId(), writer.getName(), writer.getLastName(),
+                writer.getDescription(), writer.getProfilePic());
+    }
+
     public List<WriterResponseDTO> getByIds(List<Long> ids) {
         return writerRepository.FindByIdList(ids).stream().map(writerMapper::convertToDTO).toList();
     }
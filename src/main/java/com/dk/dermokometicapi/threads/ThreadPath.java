@@ -0,0 +1,40 @@
+package com.dk.dermokometicapi.threads;
+
+/**
+ * Materialized path of a comment or answer: the ids of its ancestors and then its own, each as a fixed-width
+ * base 36 segment, so "0000000000001" is top-level comment 1 and "00000000000010000000000005" its reply 5.
+ * Everything below a node sorts in [{@code path}, {@link #upperBound(String)}), which makes subtree reads and
+ * deletes one range over the path index. Only digits and lowercase letters appear, so the range holds under
+ * any database collation, not just the C one a LIKE prefix index would need.
+ */
+public final class ThreadPath {
+    static final int SEGMENT_LENGTH = 13;
+    // 13 base 36 digits cover every positive long; 100 levels before the column overflows
+    public static final int MAX_LENGTH = SEGMENT_LENGTH * 100;
+
+    private ThreadPath() {
+    }
+
+    // parentPath is null for a top level node
+    public static String child(String parentPath, long id) {
+        String segment = segment(id);
+        return parentPath == null ? segment : parentPath + segment;
+    }
+
+    // 0 for top level nodes
+    public static int depth(String path) {
+        return path.length() / SEGMENT_LENGTH - 1;
+    }
+
+    // first path past the subtree: the next sibling's, which no descendant can reach
+    public static String upperBound(String path) {
+        int last = path.length() - SEGMENT_LENGTH;
+        return path.substring(0, last) + segment(Long.parseLong(path.substring(last), Character.MAX_RADIX) + 1);
+    }
+
+    private static String segment(long id) {
+        if (id < 0) throw new IllegalArgumentException("Negative id: " + id);
+        String digits = Long.toString(id, Character.MAX_RADIX);
+        return "0".repeat(SEGMENT_LENGTH - digits.length()) + digits;
+    }
+}
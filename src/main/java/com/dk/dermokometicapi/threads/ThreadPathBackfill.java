@@ -0,0 +1,57 @@
+package com.dk.dermokometicapi.threads;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills {@link ThreadPath} and depth for comments and answers written before those columns existed.
+ * Works top down in batches: a row is picked up once its parent has a path, so every pass extends the
+ * finished part of the tree by one more level at least. New rows get their path when they are created,
+ * so after the first complete run this finds nothing to do.
+ */
+@Slf4j
+@Component
+public class ThreadPathBackfill {
+    private static final int BATCH_SIZE = 1000;
+    private static final List<String> TABLES = List.of("comments", "answers");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public ThreadPathBackfill(JdbcTemplate jdbcTemplate, @Value("${dk.threads.path-backfill.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) return;
+        for (String table : TABLES) {
+            int rows = backfill(table);
+            if (rows > 0) log.info("Backfilled thread paths of {} {}", rows, table);
+        }
+    }
+
+    // returns how many rows got a path
+    public int backfill(String table) {
+        String select = "SELECT c.id, p.path FROM " + table + " c LEFT JOIN " + table + " p ON p.id = c.parent_id " +
+                "WHERE c.path IS NULL AND (c.parent_id IS NULL OR p.path IS NOT NULL) ORDER BY c.id LIMIT " + BATCH_SIZE;
+        String update = "UPDATE " + table + " SET path = ?, depth = ? WHERE id = ?";
+        int total = 0;
+        while (true) {
+            List<Object[]> batch = jdbcTemplate.query(select, (resultSet, row) -> {
+                String path = ThreadPath.child(resultSet.getString(2), resultSet.getLong(1));
+                return new Object[]{path, ThreadPath.depth(path), resultSet.getLong(1)};
+            });
+            if (batch.isEmpty()) return total;
+            jdbcTemplate.batchUpdate(update, batch);
+            total += batch.size();
+        }
+    }
+}
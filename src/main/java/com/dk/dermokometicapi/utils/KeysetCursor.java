@@ -0,0 +1,58 @@
+package com.dk.dermokometicapi.utils;
+
+import com.dk.dermokometicapi.exceptions.BadRequestException;
+import com.dk.dermokometicapi.models.dto.CursorPageResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Position of the last row of a "recent" page, ordered by (createdAt DESC, id DESC).
+ * Clients only ever see the encoded form, so the key can change without breaking them.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+    private final Instant createdAt;
+    private final Long id;
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // returns null for the first page
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) throw new BadRequestException("Invalid cursor: " + cursor);
+            return new KeysetCursor(Instant.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    // one extra row is fetched to know whether there is a next page without a count query
+    public static Pageable pageable(int pageSize) {
+        if (pageSize < 1) throw new BadRequestException("Page Size must be greater than 0");
+        return Pageable.ofSize(pageSize + 1);
+    }
+
+    public static <E, T> CursorPageResponseDTO<T> toPage(List<E> rows, int pageSize,
+                                                        Function<E, KeysetCursor> keyOf,
+                                                        Function<E, T> mapper) {
+        boolean hasNext = rows.size() > pageSize;
+        List<E> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? keyOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPageResponseDTO<>(page.stream().map(mapper).toList(), page.size(), nextCursor);
+    }
+}
@@ -0,0 +1,36 @@
+package com.dk.dermokometicapi.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Validator for conditional GETs: a strong ETag built from whatever identifies the current representation.
+ * There is no Last-Modified, since no date kept on the entities moves with every change an ETag part does.
+ */
+@Getter
+@AllArgsConstructor
+public class ResourceVersion {
+    private final String etag;
+
+    public static ResourceVersion of(Object... parts) {
+        return new ResourceVersion(etag(parts));
+    }
+
+    private static String etag(Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.dk.dermokometicapi.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers side effects on in-memory structures until the surrounding transaction commits,
+ * so a rolled back write never shows up in them. Without a transaction the action runs right away.
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,128 @@
+package com.dk.dermokometicapi.cache;
+
+import com.dk.dermokometicapi.models.dto.ArticleResponseDTO;
+import com.dk.dermokometicapi.models.dto.CacheStatsResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArticleCacheTest {
+
+    private ArticleResponseDTO createArticle(Long id, String title, String content) {
+        return new ArticleResponseDTO(id, title, "Description", "Type", null, "2024-01-01", "2024-01-01", 0L, 0L, List.of(1L), content, 0L);
+    }
+
+    @Test
+    public void testGetByIdAndTitle() {
+        ArticleCache articleCache = new ArticleCache(1_000_000);
+        ArticleResponseDTO article = createArticle(1L, "Title1", "Content");
+
+        assertTrue(articleCache.getById(1L).isEmpty());
+        articleCache.put(article, articleCache.ticket());
+
+        assertEquals(article, articleCache.getById(1L).orElseThrow());
+        assertEquals(article, articleCache.getByTitle("Title1").orElseThrow());
+
+        CacheStatsResponseDTO stats = articleCache.getStats();
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    public void testEvict() {
+        ArticleCache articleCache = new ArticleCache(1_000_000);
+        articleCache.put(createArticle(1L, "Title1", "Content"), articleCache.ticket());
+
+        articleCache.evict(1L);
+
+        assertTrue(articleCache.getById(1L).isEmpty());
+        assertTrue(articleCache.getByTitle("Title1").isEmpty());
+        assertEquals(0, articleCache.getStats().getWeight());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyReadWhenOverWeight() {
+        String content = "x".repeat(1000);
+        ArticleCache articleCache = new ArticleCache(5000);
+        articleCache.put(createArticle(1L, "Title1", content), articleCache.ticket());
+        articleCache.put(createArticle(2L, "Title2", content), articleCache.ticket());
+        articleCache.getById(1L);
+
+        articleCache.put(createArticle(3L, "Title3", content), articleCache.ticket());
+
+        assertTrue(articleCache.getById(1L).isPresent());
+        assertTrue(articleCache.getById(2L).isEmpty());
+        assertTrue(articleCache.getById(3L).isPresent());
+        assertEquals(1, articleCache.getStats().getEvictions());
+        assertTrue(articleCache.getStats().getWeight() <= 5000);
+    }
+
+    @Test
+    public void testSkipsEntriesHeavierThanTheBound() {
+        ArticleCache articleCache = new ArticleCache(100);
+        articleCache.put(createArticle(1L, "Title1", "x".repeat(1000)), articleCache.ticket());
+
+        assertTrue(articleCache.getById(1L).isEmpty());
+    }
+
+    @Test
+    public void testAdjustCounts() {
+        ArticleCache articleCache = new ArticleCache(1_000_000);
+        articleCache.put(createArticle(1L, "Title1", "Content"), articleCache.ticket());
+
+        articleCache.adjustCounts(1L, 1, 2);
+
+        ArticleResponseDTO cached = articleCache.getById(1L).orElseThrow();
+        assertEquals(1L, cached.getLikes());
+        assertEquals(2L, cached.getComments());
+    }
+
+    @Test
+    public void testRefusesLoadsThatReadBeforeAWrite() {
+        ArticleCache articleCache = new ArticleCache(1_000_000);
+        long ticket = articleCache.ticket();
+
+        // the load reads, an edit commits, then the load puts what it read
+        articleCache.evict(1L);
+        articleCache.put(createArticle(1L, "Title1", "Old content"), ticket);
+
+        assertTrue(articleCache.getById(1L).isEmpty());
+        articleCache.put(createArticle(1L, "Title1", "New content"), articleCache.ticket());
+        assertEquals("New content", articleCache.getById(1L).orElseThrow().getContent());
+    }
+
+    // runs the write inside a synchronized "transaction" and commits it after the load
+    private void commitAfter(Runnable write, Runnable load) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            write.run();
+            load.run();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testAdjustCounts_OnlyEntriesLoadedBeforeTheWrite() {
+        ArticleCache articleCache = new ArticleCache(1_000_000);
+        articleCache.put(createArticle(1L, "Title1", "Content"), articleCache.ticket());
+
+        // loaded before the like, the entry misses it and gets it added
+        commitAfter(() -> articleCache.adjustCounts(1L, 1, 0), () -> { });
+        assertEquals(1L, articleCache.getById(1L).orElseThrow().getLikes());
+
+        // reloaded while the like commits, the entry may already count it, so it is dropped rather than counted twice
+        commitAfter(() -> articleCache.adjustCounts(1L, 1, 0), () -> {
+            ArticleResponseDTO loaded = createArticle(1L, "Title1", "Content");
+            loaded.setLikes(2L);
+            articleCache.put(loaded, articleCache.ticket());
+        });
+        assertTrue(articleCache.getById(1L).isEmpty());
+    }
+}
@@ -0,0 +1,73 @@
+package com.dk.dermokometicapi.cache;
+
+import com.dk.dermokometicapi.models.dto.CategoryResponseDTO;
+import com.dk.dermokometicapi.models.projections.TypeCountProjection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CategoryDictionaryTest {
+
+    private TypeCountProjection createTypeCount(String type, long total) {
+        return new TypeCountProjection() {
+            @Override
+            public String getType() {
+                return type;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+
+    private CategoryDictionary createDictionary() {
+        CategoryDictionary categoryDictionary = new CategoryDictionary();
+        categoryDictionary.load(
+                List.of(createTypeCount("Sun", 2), createTypeCount("Acne", 1)),
+                List.of(createTypeCount("Acne", 3), createTypeCount("Hair", 1)));
+        return categoryDictionary;
+    }
+
+    @Test
+    public void testLoad() {
+        CategoryDictionary categoryDictionary = createDictionary();
+
+        assertEquals(List.of("Acne", "Sun"), categoryDictionary.getArticleTypes());
+        assertEquals(List.of(
+                new CategoryResponseDTO("Acne", 1, 3),
+                new CategoryResponseDTO("Hair", 0, 1),
+                new CategoryResponseDTO("Sun", 2, 0)), categoryDictionary.getCategories());
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        CategoryDictionary categoryDictionary = createDictionary();
+
+        categoryDictionary.addArticle("Hair");
+        categoryDictionary.removeArticle("Acne");
+        categoryDictionary.removeQuestion("Hair");
+        categoryDictionary.addQuestion("Nails");
+
+        assertEquals(List.of("Hair", "Sun"), categoryDictionary.getArticleTypes());
+        assertEquals(List.of(
+                new CategoryResponseDTO("Acne", 0, 3),
+                new CategoryResponseDTO("Hair", 1, 0),
+                new CategoryResponseDTO("Nails", 0, 1),
+                new CategoryResponseDTO("Sun", 2, 0)), categoryDictionary.getCategories());
+    }
+
+    @Test
+    public void testMoveArticle() {
+        CategoryDictionary categoryDictionary = createDictionary();
+
+        categoryDictionary.moveArticle("Acne", "Sun");
+        categoryDictionary.moveArticle("Sun", "Sun");
+
+        assertEquals(List.of("Sun"), categoryDictionary.getArticleTypes());
+        assertEquals(new CategoryResponseDTO("Sun", 3, 0), categoryDictionary.getCategories().get(2));
+    }
+}
@@ -0,0 +1,165 @@
+package com.dk.dermokometicapi.cache;
+
+import com.dk.dermokometicapi.models.dto.CommentResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThreadPageCacheTest {
+
+    private final Pageable firstPage = Pageable.ofSize(2).withPage(0);
+
+    private CommentResponseDTO createComment(Long id, long likes, long responses) {
+        return new CommentResponseDTO(id, "Content " + id, "2024-01-01", null, 1L, 1L, likes, responses);
+    }
+
+    private Page<CommentResponseDTO> page(CommentResponseDTO... comments) {
+        return new PageImpl<>(List.of(comments), firstPage, 3);
+    }
+
+    private List<Long> ids(Page<CommentResponseDTO> page) {
+        return page.getContent().stream().map(CommentResponseDTO::getId).toList();
+    }
+
+    @Test
+    public void testServesFirstPageFromMemory() {
+        CommentPageCache cache = new CommentPageCache(true, 100, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        Page<CommentResponseDTO> first = cache.get(1L, ThreadPageCache.Ordering.RECENT, firstPage, () -> {
+            loads.incrementAndGet();
+            return page(createComment(2L, 0, 0), createComment(1L, 0, 0));
+        });
+        Page<CommentResponseDTO> second = cache.get(1L, ThreadPageCache.Ordering.RECENT, firstPage, () -> fail("loaded twice"));
+
+        assertEquals(1, loads.get());
+        assertEquals(first.getContent(), second.getContent());
+        assertEquals(3, second.getTotalElements());
+    }
+
+    @Test
+    public void testLaterPagesAndUncachedOrderingsAreNotKept() {
+        CommentPageCache cache = new CommentPageCache(true, 100, 60_000);
+
+        cache.get(1L, ThreadPageCache.Ordering.RECENT, Pageable.ofSize(2).withPage(1), () -> page());
+        cache.get(1L, null, firstPage, () -> page());
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testAddedGoesFirstInRecentOrder() {
+        CommentPageCache cache = new CommentPageCache(true, 100, 60_000);
+        cache.get(1L, ThreadPageCache.Ordering.RECENT, firstPage, () -> page(createComment(2L, 0, 0), createComment(1L, 0, 0)));
+
+        cache.added(1L, createComment(4L, 0, 0));
+
+        Page<CommentResponseDTO> result = cache.get(1L, ThreadPageCache.Ordering.RECENT, firstPage, () -> fail("reloaded"));
+        assertEquals(List.of(4L, 2L), ids(result));
+        assertEquals(4, result.getTotalElements());
+    }
+
+    @Test
+    public void testLikesReorderAndRepliesCount() {
+        CommentPageCache cache = new CommentPageCache(true, 100, 60_000);
+        cache.get(1L, ThreadPageCache.Ordering.LIKES, firstPage, () -> page(createComment(2L, 3, 0), createComment(1L, 3, 0)));
+
+        cache.liked(1L, 1);
+        cache.replied(2L);
+        // not on any cached page
+        cache.liked(9L, 1);
+
+        Page<CommentResponseDTO> result = cache.get(1L, ThreadPageCache.Ordering.LIKES, firstPage, () -> fail("reloaded"));
+        assertEquals(List.of(1L, 2L), ids(result));
+        assertEquals(4L, result.getContent().get(0).getLikeNumber());
+        assertEquals(1L, result.getContent().get(1).getResponseNumber());
+    }
+
+    @Test
+    public void testUnlikeToBottomOfFullLikesPageDropsIt() {
+        CommentPageCache cache = new CommentPageCache(true, 100, 60_000);
+        cache.get(1L, ThreadPageCache.Ordering.LIKES, firstPage, () -> page(createComment(2L, 3, 0), createComment(1L, 2, 0)));
+
+        cache.liked(2L, -2);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testRemovedAndExpired() {
+        CommentPageCache cache = new CommentPageCache(true, 100, 60_000);
+        cache.get(1L, ThreadPageCache.Ordering.RECENT, firstPage, () -> page(createComment(1L, 0, 0)));
+        cache.get(1L, ThreadPageCache.Ordering.LIKES, firstPage, () -> page(createComment(1L, 0, 0)));
+
+        cache.removed(1L);
+        assertEquals(0, cache.size());
+
+        CommentPageCache expiring = new CommentPageCache(true, 100, 0);
+        AtomicInteger loads = new AtomicInteger();
+        expiring.get(1L, ThreadPageCache.Ordering.RECENT, firstPage, () -> page(createComment(loads.incrementAndGet() + 0L, 0, 0)));
+        expiring.get(1L, ThreadPageCache.Ordering.RECENT, firstPage, () -> page(createComment(loads.incrementAndGet() + 0L, 0, 0)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyRead() {
+        CommentPageCache cache = new CommentPageCache(true, 2, 60_000);
+        cache.get(1L, ThreadPageCache.Ordering.RECENT, firstPage, () -> page(createComment(1L, 0, 0)));
+        cache.get(2L, ThreadPageCache.Ordering.RECENT, firstPage, () -> page(createComment(2L, 0, 0)));
+        cache.get(1L, ThreadPageCache.Ordering.RECENT, firstPage, () -> fail("reloaded"));
+        cache.get(3L, ThreadPageCache.Ordering.RECENT, firstPage, () -> page(createComment(3L, 0, 0)));
+
+        assertEquals(2, cache.size());
+        assertDoesNotThrow(() -> cache.get(1L, ThreadPageCache.Ordering.RECENT, firstPage, () -> fail("reloaded")));
+    }
+
+    @Test
+    public void testConcurrentMissesLoadOnce() throws Exception {
+        CommentPageCache cache = new CommentPageCache(true, 100, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<Page<CommentResponseDTO>> owner = executor.submit(() -> cache.get(1L, ThreadPageCache.Ordering.RECENT, firstPage, () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return page(createComment(1L, 0, 0));
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            List<Future<Page<CommentResponseDTO>>> waiters = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                waiters.add(executor.submit(() -> cache.get(1L, ThreadPageCache.Ordering.RECENT, firstPage, () -> {
+                    loads.incrementAndGet();
+                    return page(createComment(1L, 0, 0));
+                })));
+            }
+            release.countDown();
+
+            assertEquals(List.of(1L), ids(owner.get(5, TimeUnit.SECONDS)));
+            for (Future<Page<CommentResponseDTO>> waiter : waiters) {
+                assertEquals(List.of(1L), ids(waiter.get(5, TimeUnit.SECONDS)));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
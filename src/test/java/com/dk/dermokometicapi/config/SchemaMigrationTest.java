@@ -0,0 +1,81 @@
+package com.dk.dermokometicapi.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemaMigrationTest {
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:schema-migration;DB_CLOSE_DELAY=-1;MODE=PostgreSQL", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @AfterEach
+    public void dropAll() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void testAddCreatedAt_FromThePublicationDate() {
+        jdbcTemplate.execute("CREATE TABLE articles (id bigint PRIMARY KEY, publication_date date NOT NULL)");
+        jdbcTemplate.update("INSERT INTO articles VALUES (1, DATE '2023-03-01'), (2, DATE '2024-05-06')");
+
+        new SchemaMigration(dataSource).migrate();
+
+        List<OffsetDateTime> createdAt = jdbcTemplate.queryForList("SELECT created_at FROM articles ORDER BY id", OffsetDateTime.class);
+        assertEquals(LocalDate.of(2023, 3, 1), createdAt.get(0).atZoneSameInstant(ZoneId.systemDefault()).toLocalDate());
+        assertEquals(LocalDate.of(2024, 5, 6), createdAt.get(1).atZoneSameInstant(ZoneId.systemDefault()).toLocalDate());
+        // new rows still get the default, and nothing can leave the sort key empty
+        jdbcTemplate.update("INSERT INTO articles (id, publication_date) VALUES (3, CURRENT_DATE)");
+        assertNotNull(jdbcTemplate.queryForObject("SELECT created_at FROM articles WHERE id = 3", OffsetDateTime.class));
+        assertThrows(Exception.class, () -> jdbcTemplate.update("UPDATE articles SET created_at = NULL WHERE id = 3"));
+    }
+
+    @Test
+    public void testAddCreatedAt_LeavesExistingColumnsAndMissingTables() {
+        jdbcTemplate.execute("CREATE TABLE article_likes (id bigint PRIMARY KEY, article_id bigint, user_id bigint, " +
+                "like_date date, created_at timestamp(6) with time zone)");
+        jdbcTemplate.update("INSERT INTO article_likes VALUES (1, 1, 7, DATE '2023-03-01', TIMESTAMP WITH TIME ZONE '2024-01-02 10:00:00+00')");
+
+        new SchemaMigration(dataSource).migrate();
+
+        assertEquals(OffsetDateTime.parse("2024-01-02T10:00:00Z").toInstant(),
+                jdbcTemplate.queryForObject("SELECT created_at FROM article_likes", OffsetDateTime.class).toInstant());
+    }
+
+    @Test
+    public void testAddLikeConstraint_RemovesDuplicatesFirst() {
+        jdbcTemplate.execute("CREATE TABLE articles (id bigint PRIMARY KEY, publication_date date, like_count bigint)");
+        jdbcTemplate.execute("CREATE TABLE article_likes (id bigint PRIMARY KEY, article_id bigint, user_id bigint, like_date date)");
+        jdbcTemplate.update("INSERT INTO articles VALUES (1, CURRENT_DATE, 3)");
+        jdbcTemplate.update("INSERT INTO article_likes VALUES (1, 1, 7, CURRENT_DATE), (2, 1, 7, CURRENT_DATE), (3, 1, 8, CURRENT_DATE)");
+
+        new SchemaMigration(dataSource).migrate();
+
+        assertEquals(List.of(1L, 3L), jdbcTemplate.queryForList("SELECT id FROM article_likes ORDER BY id", Long.class));
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT like_count FROM articles", Long.class));
+        assertThrows(Exception.class, () -> jdbcTemplate.update("INSERT INTO article_likes VALUES (4, 1, 8, CURRENT_DATE)"));
+    }
+
+    @Test
+    public void testVerify_FailsWithoutTheConstraint() {
+        SchemaMigration schemaMigration = new SchemaMigration(dataSource);
+        for (SchemaMigration.LikeConstraint constraint : SchemaMigration.LIKE_CONSTRAINTS) {
+            jdbcTemplate.execute("CREATE TABLE " + constraint.table() + " (id bigint PRIMARY KEY, " +
+                    constraint.targetColumn() + " bigint, user_id bigint, created_at timestamp(6) with time zone)");
+        }
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, schemaMigration::verify);
+        assertTrue(exception.getMessage().contains("uk_article_likes_article_user"));
+        schemaMigration.migrate();
+        assertDoesNotThrow(schemaMigration::verify);
+    }
+}
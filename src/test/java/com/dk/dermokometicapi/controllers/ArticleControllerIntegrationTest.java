@@ -3,6 +3,7 @@ package com.dk.dermokometicapi.controllers;
 import com.dk.dermokometicapi.models.dto.ArticleLikeRequestDTO;
 import com.dk.dermokometicapi.models.dto.ArticleRequestDTO;
 import com.dk.dermokometicapi.models.dto.FilterRequestDTO;
+import com.dk.dermokometicapi.models.dto.LikedByMeRequestDTO;
 import com.dk.dermokometicapi.models.entities.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
@@ -21,6 +22,7 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.LongStream;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -111,6 +113,39 @@ public class ArticleControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
 
+    @Test
+    public void testGetFullArticleById_NotModified() throws Exception {
+        List<Writer> writers = getWriters();
+        for(Writer writer : writers) {
+            entityManager.persist(writer);
+        }
+
+        ArticleDetail articleDetail = createTestArticleDetail();
+        entityManager.persist(articleDetail);
+
+        Article article = createTestArticle();
+        article.setArticleDetail(articleDetail);
+        article.setWriters(writers);
+        entityManager.persist(article);
+        entityManager.flush();
+
+        Long articleId = article.getId();
+
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/articles/id/{id}", articleId))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/articles/id/{id}", articleId)
+                        .header("If-None-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        // a date alone says nothing about likes or same-day edits, so it never earns a 304
+        mockMvc.perform(MockMvcRequestBuilders.get("/articles/id/{id}", articleId)
+                        .header("If-Modified-Since", "Fri, 31 Dec 2100 00:00:00 GMT"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
     @Test
     public void testGetFullArticleByTitle() throws Exception {
         List<Writer> writers = getWriters();
@@ -149,6 +184,19 @@ public class ArticleControllerIntegrationTest {
 
     }
 
+    @Test
+    public void testSearchArticlesByCursor() throws Exception {
+        FilterRequestDTO requestDTO = new FilterRequestDTO();
+
+        requestDTO.setPageSize(5);
+        requestDTO.setCategories(Arrays.asList("Type1", "Type2"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/articles/filter/cursor")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(requestDTO)))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
     @Test
     public void testCreateArticle() throws Exception {
         ArticleRequestDTO articleRequestDTO = createTestArticleRequestDTO();
@@ -186,6 +234,82 @@ public class ArticleControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.status().isCreated());
     }
 
+    @Test
+    public void testLikeArticle_Twice() throws Exception {
+        ArticleDetail articleDetail = createTestArticleDetail();
+        entityManager.persist(articleDetail);
+
+        Article article = createTestArticle();
+        article.setArticleDetail(articleDetail);
+        entityManager.persist(article);
+
+        User user = createTestUser();
+        entityManager.persist(user);
+
+        entityManager.flush();
+
+        ArticleLikeRequestDTO likeRequestDTO = new ArticleLikeRequestDTO();
+        likeRequestDTO.setArticleId(article.getId());
+        likeRequestDTO.setUserId(user.getId());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/articles/like")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(likeRequestDTO)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.alreadyLiked").value(false));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/articles/like")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(likeRequestDTO)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.alreadyLiked").value(true));
+    }
+
+    @Test
+    public void testGetLikedIds() throws Exception {
+        ArticleDetail articleDetail = createTestArticleDetail();
+        entityManager.persist(articleDetail);
+
+        Article liked = createTestArticle();
+        liked.setArticleDetail(articleDetail);
+        entityManager.persist(liked);
+
+        Article notLiked = createTestArticle();
+        notLiked.setTitle("Title Y");
+        notLiked.setArticleDetail(articleDetail);
+        entityManager.persist(notLiked);
+
+        User user = createTestUser();
+        entityManager.persist(user);
+
+        ArticleLike articleLike = new ArticleLike();
+        articleLike.setArticle(liked);
+        articleLike.setUser(user);
+        articleLike.setLikeDate(LocalDate.now());
+        entityManager.persist(articleLike);
+
+        entityManager.flush();
+
+        LikedByMeRequestDTO requestDTO = new LikedByMeRequestDTO(user.getId(), List.of(notLiked.getId(), liked.getId()));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/articles/liked")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(requestDTO)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0]").value(liked.getId()));
+    }
+
+    @Test
+    public void testGetLikedIds_TooManyIds() throws Exception {
+        List<Long> ids = LongStream.rangeClosed(1, LikedByMeRequestDTO.MAX_IDS + 1).boxed().toList();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/articles/liked")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(new LikedByMeRequestDTO(1L, ids))))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     @Test
     public void testDislikeArticle() throws Exception {
         ArticleDetail articleDetail = createTestArticleDetail();
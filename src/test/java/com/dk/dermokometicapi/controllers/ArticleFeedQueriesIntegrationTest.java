@@ -0,0 +1,131 @@
+package com.dk.dermokometicapi.controllers;
+
+import com.dk.dermokometicapi.models.dto.FilterRequestDTO;
+import com.dk.dermokometicapi.models.entities.Article;
+import com.dk.dermokometicapi.models.entities.ArticleDetail;
+import com.dk.dermokometicapi.models.entities.Writer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Records every statement Hibernate sends, feed endpoints must never read the article_detail table
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.dk.dermokometicapi.controllers.ArticleFeedQueriesIntegrationTest$SqlRecorder")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@Transactional
+public class ArticleFeedQueriesIntegrationTest {
+
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql.toLowerCase());
+            return sql;
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Article article;
+
+    @BeforeEach
+    public void setUp() {
+        Writer writer = new Writer();
+        writer.setName("Writer");
+        writer.setLastName("Surname");
+        writer.setDescription("Description");
+        writer.setProfilePic("Pic");
+        entityManager.persist(writer);
+
+        ArticleDetail articleDetail = new ArticleDetail();
+        articleDetail.setContent("Content X");
+        entityManager.persist(articleDetail);
+
+        article = new Article();
+        article.setTitle("Title X");
+        article.setDescription("Description X");
+        article.setMainImg("Img X");
+        article.setType("Type X");
+        article.setPublicationDate(LocalDate.now());
+        article.setLastUpdateDate(LocalDate.now());
+        article.setArticleDetail(articleDetail);
+        article.setWriters(List.of(writer));
+        entityManager.persist(article);
+        entityManager.flush();
+        entityManager.clear();
+
+        SqlRecorder.statements.clear();
+    }
+
+    private FilterRequestDTO createFilterRequestDTO(String orderBy) {
+        FilterRequestDTO requestDTO = new FilterRequestDTO();
+        requestDTO.setPageSize(5);
+        requestDTO.setOrderBy(orderBy);
+        return requestDTO;
+    }
+
+    private boolean readsArticleDetail() {
+        return SqlRecorder.statements.stream().anyMatch(sql -> sql.contains("article_detail"));
+    }
+
+    @Test
+    public void testFeedQueries_DoNotReadArticleDetail() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/articles"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        for (String orderBy : List.of("recent", "likes", "comments")) {
+            mockMvc.perform(MockMvcRequestBuilders.post("/articles/filter")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(createFilterRequestDTO(orderBy))))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+        }
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/articles/filter/cursor")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(createFilterRequestDTO("recent"))))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        assertFalse(SqlRecorder.statements.isEmpty());
+        assertFalse(readsArticleDetail(), () -> "Feed queries read article_detail: " + SqlRecorder.statements);
+    }
+
+    @Test
+    public void testFullArticle_ReadsArticleDetail() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/articles/id/{id}", article.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content").value("Content X"));
+
+        assertTrue(readsArticleDetail());
+    }
+
+    private static String asJsonString(final Object obj) {
+        try {
+            return new ObjectMapper().writeValueAsString(obj);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
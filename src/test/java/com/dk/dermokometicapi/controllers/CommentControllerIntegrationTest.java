@@ -2,6 +2,7 @@ package com.dk.dermokometicapi.controllers;
 
 import com.dk.dermokometicapi.models.dto.*;
 import com.dk.dermokometicapi.models.entities.*;
+import com.dk.dermokometicapi.threads.ThreadPath;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,12 +14,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.time.LocalDate;
 import java.util.*;
 
+import static org.junit.jupiter.api.Assertions.assertNull;
+
 @SpringBootTest
 @ActiveProfiles("test")
 @AutoConfigureMockMvc
@@ -114,6 +118,17 @@ public class CommentControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
 
+    @Test
+    public void testExportAllComments() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/comments").accept("application/x-ndjson"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/x-ndjson"));
+    }
+
     @Test
     public void testGetCommentById() throws Exception {
 
@@ -174,6 +189,26 @@ public class CommentControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.status().isCreated());
     }
 
+    @Test
+    public void testStreamByArticleId() throws Exception {
+
+        ArticleDetail articleDetail = createTestArticleDetail();
+        entityManager.persist(articleDetail);
+
+        Article article = createTestArticle();
+        article.setArticleDetail(articleDetail);
+        article.setWriters(getWriters());
+        article.getWriters().forEach(entityManager::persist);
+        entityManager.persist(article);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/comments/article/" + article.getId() + "/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/comments/article/" + (article.getId() + 1) + "/stream"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
     @Test
     public void testGetCommentsByArticleId() throws Exception {
 
@@ -249,6 +284,13 @@ public class CommentControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
 
+    @Test
+    public void testGetThread_BreadthTooLarge() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/comments/article/{id}/thread", 1L)
+                        .param("breadth", String.valueOf(CommentThreadResponseDTO.MAX_BREADTH + 1)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     @Test
     public void testDeleteComment() throws Exception {
 
@@ -280,6 +322,43 @@ public class CommentControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
 
+    @Test
+    public void testDeleteComment_WithReplies() throws Exception {
+
+        User user = createTestUser();
+        entityManager.persist(user);
+
+        ArticleDetail articleDetail = createTestArticleDetail();
+        entityManager.persist(articleDetail);
+
+        Article article = createTestArticle();
+        article.setArticleDetail(articleDetail);
+        entityManager.persist(article);
+
+        Comment comment = createTestComment();
+        comment.setArticle(article);
+        comment.setUser(user);
+        entityManager.persist(comment);
+        entityManager.flush();
+        comment.setPath(ThreadPath.child(null, comment.getId()));
+
+        Comment reply = createTestComment();
+        reply.setArticle(article);
+        reply.setUser(user);
+        reply.setParentComment(comment);
+        entityManager.persist(reply);
+        entityManager.flush();
+        reply.setPath(ThreadPath.child(comment.getPath(), reply.getId()));
+        entityManager.flush();
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/comments/{id}", comment.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        entityManager.clear();
+        assertNull(entityManager.find(Comment.class, comment.getId()));
+        assertNull(entityManager.find(Comment.class, reply.getId()));
+    }
+
     @Test
     public void testLikeComment() throws Exception {
 
@@ -0,0 +1,138 @@
+package com.dk.dermokometicapi.controllers;
+
+import com.dk.dermokometicapi.models.entities.*;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.LocalDate;
+
+// The thread queries use LATERAL, which H2 lacks; they run against a scratch PostgreSQL database given by
+// DK_TEST_POSTGRES_URL (with DK_TEST_POSTGRES_USER and DK_TEST_POSTGRES_PASSWORD), whose tables are dropped afterwards
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@Transactional
+@EnabledIfEnvironmentVariable(named = "DK_TEST_POSTGRES_URL", matches = ".+")
+public class CommentThreadPostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("DK_TEST_POSTGRES_URL"));
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("DK_TEST_POSTGRES_USER", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("DK_TEST_POSTGRES_PASSWORD", ""));
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    private Article createTestArticle() {
+        Article article = new Article();
+        article.setTitle("Title X");
+        article.setDescription("Description X");
+        article.setMainImg("Img X");
+        article.setType("Type X");
+        article.setPublicationDate(LocalDate.now());
+        article.setLastUpdateDate(LocalDate.now());
+        return article;
+    }
+
+    private ArticleDetail createTestArticleDetail() {
+        ArticleDetail articleDetail = new ArticleDetail();
+        articleDetail.setContent("Content X");
+        return articleDetail;
+    }
+
+    private User createTestUser() {
+        User user = new User();
+        user.setUsername("Username X");
+        user.setEmail("Email X");
+        user.setPassword("Password X");
+        user.setProfilePic("Pic X");
+        return user;
+    }
+
+    private Comment createTestComment(Article article, User user, Comment parentComment) {
+        Comment comment = new Comment();
+        comment.setContent("Content X");
+        comment.setPublicationDate(LocalDate.now());
+        comment.setArticle(article);
+        comment.setUser(user);
+        comment.setParentComment(parentComment);
+        entityManager.persist(comment);
+        return comment;
+    }
+
+    @Test
+    public void testGetThread() throws Exception {
+
+        User user = createTestUser();
+        entityManager.persist(user);
+
+        ArticleDetail articleDetail = createTestArticleDetail();
+        entityManager.persist(articleDetail);
+
+        Article article = createTestArticle();
+        article.setArticleDetail(articleDetail);
+        entityManager.persist(article);
+
+        Comment root = createTestComment(article, user, null);
+        Comment olderReply = createTestComment(article, user, root);
+        Comment newerReply = createTestComment(article, user, root);
+        Comment nestedReply = createTestComment(article, user, newerReply);
+        Comment olderNestedReply = createTestComment(article, user, olderReply);
+
+        CommentLike commentLike = new CommentLike();
+        commentLike.setComment(root);
+        commentLike.setUser(user);
+        commentLike.setPublicationDate(LocalDate.now());
+        entityManager.persist(commentLike);
+        entityManager.flush();
+
+        // two levels, one reply per parent: the newest reply only, without its own reply; the counts are all replies
+        mockMvc.perform(MockMvcRequestBuilders.get("/comments/article/{id}/thread", article.getId())
+                        .param("depth", "2")
+                        .param("breadth", "1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(root.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].likeNumber").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].responseNumber").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].replies.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].replies[0].id").value(newerReply.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].replies[0].responseNumber").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].replies[0].replies.length()").value(0));
+
+        // the reply below the older reply goes with it
+        mockMvc.perform(MockMvcRequestBuilders.get("/comments/article/{id}/thread", article.getId())
+                        .param("depth", "3")
+                        .param("breadth", "1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].replies.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].replies[0].replies.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].replies[0].replies[0].id").value(nestedReply.getId()));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/comments/parent/{id}/thread", root.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(newerReply.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].replies[0].id").value(nestedReply.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].id").value(olderReply.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].replies[0].id").value(olderNestedReply.getId()));
+    }
+}
@@ -0,0 +1,266 @@
+package com.dk.dermokometicapi.controllers;
+
+import com.dk.dermokometicapi.images.ProfilePicBackfill;
+import com.dk.dermokometicapi.models.entities.Article;
+import com.dk.dermokometicapi.models.entities.ArticleDetail;
+import com.dk.dermokometicapi.models.entities.User;
+import com.dk.dermokometicapi.models.entities.Writer;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@Transactional
+public class ImageControllerIntegrationTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProfilePicBackfill profilePicBackfill;
+
+    private User createTestUser() {
+        User user = new User();
+        user.setUsername("Username X");
+        user.setEmail("Email X");
+        user.setPassword("Password X");
+        entityManager.persist(user);
+        entityManager.flush();
+        return user;
+    }
+
+    private Article createTestArticle() {
+        ArticleDetail articleDetail = new ArticleDetail();
+        articleDetail.setContent("Content X");
+        entityManager.persist(articleDetail);
+        Article article = new Article();
+        article.setTitle("Title X");
+        article.setDescription("Description X");
+        article.setMainImg("https://example.com/main.png");
+        article.setType("Type Img");
+        article.setPublicationDate(LocalDate.now());
+        article.setLastUpdateDate(LocalDate.now());
+        article.setArticleDetail(articleDetail);
+        article.setWriters(new ArrayList<>());
+        entityManager.persist(article);
+        entityManager.flush();
+        return article;
+    }
+
+    private static byte[] createImage(int width, int height, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, out);
+        return out.toByteArray();
+    }
+
+    // uploads the test picture for a new user and returns its key
+    private String uploadProfilePic() throws Exception {
+        return uploadProfilePic(PNG);
+    }
+
+    private String uploadProfilePic(byte[] image) throws Exception {
+        User user = createTestUser();
+        String response = mockMvc.perform(MockMvcRequestBuilders.put("/users/username/{username}/profile-pic", user.getUsername())
+                        .contentType("image/png")
+                        .content(image))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.profilePic", startsWith("/api/v1/images/")))
+                .andReturn().getResponse().getContentAsString();
+        String url = JsonPath.read(response, "$.profilePic");
+        return url.substring(url.lastIndexOf('/') + 1);
+    }
+
+    @Test
+    public void testGetImage() throws Exception {
+        String key = uploadProfilePic();
+
+        byte[] content = mockMvc.perform(MockMvcRequestBuilders.get("/images/{key}", key))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("image/png"))
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"" + key + "\""))
+                .andExpect(MockMvcResultMatchers.header().string("Cache-Control", containsString("immutable")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertArrayEquals(PNG, content);
+    }
+
+    @Test
+    public void testGetImage_NotModifiedAndRange() throws Exception {
+        String key = uploadProfilePic();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/images/{key}", key)
+                        .header("If-None-Match", "\"" + key + "\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        byte[] range = mockMvc.perform(MockMvcRequestBuilders.get("/images/{key}", key)
+                        .header("Range", "bytes=8-11"))
+                .andExpect(MockMvcResultMatchers.status().isPartialContent())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Range", "bytes 8-11/" + PNG.length))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertArrayEquals(Arrays.copyOfRange(PNG, 8, 12), range);
+    }
+
+    @Test
+    public void testGetImage_NotFound() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/images/{key}", "0".repeat(64) + ".png"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.get("/images/{key}", "profile.png"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void testGetImageVariant() throws Exception {
+        String key = uploadProfilePic(createImage(200, 100, "png"));
+
+        byte[] content = mockMvc.perform(MockMvcRequestBuilders.get("/images/{key}/{width}", key, 64))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("image/png"))
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"" + key + "-64\""))
+                .andExpect(MockMvcResultMatchers.header().string("Cache-Control", containsString("immutable")))
+                .andReturn().getResponse().getContentAsByteArray();
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(content));
+        assertEquals(64, image.getWidth());
+        assertEquals(32, image.getHeight());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/images/{key}/{width}", key, 64)
+                        .header("If-None-Match", "\"" + key + "-64\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+        // wider than the upload, the original is served
+        mockMvc.perform(MockMvcRequestBuilders.get("/images/{key}/{width}", key, 640))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().longValue("Content-Length", createImage(200, 100, "png").length));
+    }
+
+    @Test
+    public void testGetImageVariant_InvalidWidthOrKey() throws Exception {
+        String key = uploadProfilePic();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/images/{key}/{width}", key, 100))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.get("/images/{key}/{width}", "0".repeat(64) + ".png", 64))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void testPutProfilePic_Sizes() throws Exception {
+        User user = createTestUser();
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/users/username/{username}/profile-pic", user.getUsername())
+                        .contentType("image/png")
+                        .content(PNG))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.profilePicSizes['64']", startsWith("/api/v1/images/")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.profilePicSizes['640']", endsWith(".png/640")));
+    }
+
+    @Test
+    public void testPutMainImg() throws Exception {
+        Article article = createTestArticle();
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/articles/id/{id}/main-img", article.getId())
+                        .contentType("image/jpeg")
+                        .content(createImage(800, 400, "jpeg")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.mainImg", endsWith(".jpg")));
+        entityManager.flush();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/articles/filter")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"categories\": [\"Type Img\"], \"pageSize\": 5}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].mainImg", startsWith("/api/v1/images/")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].mainImgSizes['320']", endsWith(".jpg/320")));
+    }
+
+    @Test
+    public void testPutMainImg_ChangesTheArticleETag() throws Exception {
+        Article article = createTestArticle();
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/articles/id/{id}", article.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        // now served from the article cache, under the same ETag
+        mockMvc.perform(MockMvcRequestBuilders.get("/articles/id/{id}", article.getId())
+                        .header("If-None-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/articles/id/{id}/main-img", article.getId())
+                        .contentType("image/jpeg")
+                        .content(createImage(800, 400, "jpeg")))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        // the version is incremented in the database, the test transaction still holds the entity read before
+        entityManager.flush();
+        entityManager.clear();
+
+        String updated = mockMvc.perform(MockMvcRequestBuilders.get("/articles/id/{id}", article.getId())
+                        .header("If-None-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.contentVersion").doesNotExist())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, updated);
+    }
+
+    @Test
+    public void testPutProfilePic_NotAnImage() throws Exception {
+        User user = createTestUser();
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/users/username/{username}/profile-pic", user.getUsername())
+                        .contentType("image/png")
+                        .content("not a picture"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void testBackfillMovesInlinePictures() throws Exception {
+        Writer inline = new Writer();
+        inline.setName("Name X");
+        inline.setLastName("Last Name X");
+        inline.setProfilePic("data:image/png;base64," + Base64.getEncoder().encodeToString(PNG));
+        entityManager.persist(inline);
+        Writer linked = new Writer();
+        linked.setName("Name Y");
+        linked.setLastName("Last Name Y");
+        linked.setProfilePic("https://example.com/profile.png");
+        entityManager.persist(linked);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(1, profilePicBackfill.backfill("writers"));
+        assertEquals(0, profilePicBackfill.backfill("writers"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/writers/id/{id}", inline.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.profilePic", startsWith("/api/v1/images/")));
+        mockMvc.perform(MockMvcRequestBuilders.get("/writers/id/{id}", linked.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.profilePic").value("https://example.com/profile.png"));
+    }
+}
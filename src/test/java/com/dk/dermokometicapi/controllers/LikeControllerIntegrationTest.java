@@ -0,0 +1,99 @@
+package com.dk.dermokometicapi.controllers;
+
+import com.dk.dermokometicapi.models.entities.*;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.LocalDate;
+
+// the like index is off in the test profile, so these go through the SQL fallback
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@Transactional
+public class LikeControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Article createTestArticle(String title, ArticleDetail articleDetail) {
+        Article article = new Article();
+        article.setTitle(title);
+        article.setDescription("Description X");
+        article.setMainImg("Img X");
+        article.setType("Type X");
+        article.setPublicationDate(LocalDate.now());
+        article.setLastUpdateDate(LocalDate.now());
+        article.setArticleDetail(articleDetail);
+        entityManager.persist(article);
+        return article;
+    }
+
+    private User createTestUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@mail.com");
+        user.setPassword("Password X");
+        user.setProfilePic("Pic X");
+        entityManager.persist(user);
+        return user;
+    }
+
+    private void like(Article article, User user) {
+        ArticleLike articleLike = new ArticleLike();
+        articleLike.setArticle(article);
+        articleLike.setUser(user);
+        articleLike.setLikeDate(LocalDate.now());
+        entityManager.persist(articleLike);
+    }
+
+    @Test
+    public void testGetStats() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/likes/stats"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(4))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].type").value("article"));
+    }
+
+    @Test
+    public void testGetUsersWhoLikedBoth() throws Exception {
+        ArticleDetail articleDetail = new ArticleDetail();
+        articleDetail.setContent("Content X");
+        entityManager.persist(articleDetail);
+        Article first = createTestArticle("Title X", articleDetail);
+        Article second = createTestArticle("Title Y", articleDetail);
+
+        User both = createTestUser("Username X");
+        User firstOnly = createTestUser("Username Y");
+        like(first, both);
+        like(second, both);
+        like(first, firstOnly);
+        entityManager.flush();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/likes/article/common")
+                        .param("firstId", first.getId().toString())
+                        .param("secondId", second.getId().toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0]").value(both.getId()));
+    }
+
+    @Test
+    public void testGetUsersWhoLikedBoth_UnknownType() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/likes/writer/common")
+                        .param("firstId", "1")
+                        .param("secondId", "2"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
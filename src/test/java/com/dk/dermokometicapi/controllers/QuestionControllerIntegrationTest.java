@@ -3,6 +3,7 @@ package com.dk.dermokometicapi.controllers;
 import com.dk.dermokometicapi.models.dto.FilterRequestDTO;
 import com.dk.dermokometicapi.models.dto.QuestionLikeRequestDTO;
 import com.dk.dermokometicapi.models.dto.QuestionRequestDTO;
+import com.dk.dermokometicapi.models.dto.SimilarQuestionRequestDTO;
 import com.dk.dermokometicapi.models.entities.Question;
 import com.dk.dermokometicapi.models.entities.QuestionLike;
 import com.dk.dermokometicapi.models.entities.User;
@@ -114,6 +115,36 @@ public class QuestionControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
 
+    @Test
+    public void testGetSimilarQuestions() throws Exception {
+        User user = createTestUser();
+        entityManager.persist(user);
+
+        Question question = createTestQuestion();
+        question.setUser(user);
+        entityManager.persist(question);
+        entityManager.flush();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/questions/id/{id}/similar", question.getId()).param("limit", "3"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$").isArray());
+        mockMvc.perform(MockMvcRequestBuilders.get("/questions/id/{id}/similar", question.getId() + 1000))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void testFindSimilarQuestions() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/questions/similar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(new SimilarQuestionRequestDTO("Title X", null, 5))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$").isArray());
+        mockMvc.perform(MockMvcRequestBuilders.post("/questions/similar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(new SimilarQuestionRequestDTO(" ", null, 50))))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     @Test
     public void testDeleteQuestionById() throws Exception {
         User user = createTestUser();
@@ -0,0 +1,90 @@
+package com.dk.dermokometicapi.controllers;
+
+import com.dk.dermokometicapi.models.dto.SearchRequestDTO;
+import com.dk.dermokometicapi.search.SearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+// not transactional: index writes wait for a commit, the documents are put in the index directly instead
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class SearchControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @BeforeEach
+    public void setUp() {
+        searchIndex.indexArticle(-1L, "Type X", "Hyaluronic acid serum", "Description X", "Content X");
+        searchIndex.indexQuestion(-2L, "Type X", "Question X", "Is hyaluronic acid safe?");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        searchIndex.remove(SearchIndex.Kind.ARTICLE, -1L);
+        searchIndex.remove(SearchIndex.Kind.QUESTION, -2L);
+    }
+
+    private SearchRequestDTO createSearchRequestDTO(String query) {
+        SearchRequestDTO searchRequestDTO = new SearchRequestDTO();
+        searchRequestDTO.setQuery(query);
+        searchRequestDTO.setPageSize(10);
+        return searchRequestDTO;
+    }
+
+    @Test
+    public void testSearch() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(createSearchRequestDTO("hyaluronic"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].kind").value("article"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id").value(-1));
+    }
+
+    @Test
+    public void testSearch_ByKind() throws Exception {
+        SearchRequestDTO searchRequestDTO = createSearchRequestDTO("hyaluronic");
+        searchRequestDTO.setKinds(List.of("question"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(searchRequestDTO)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id").value(-2));
+    }
+
+    @Test
+    public void testSearch_BlankQuery() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(createSearchRequestDTO(""))))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private static String asJsonString(final Object obj) {
+        try {
+            return new ObjectMapper().writeValueAsString(obj);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
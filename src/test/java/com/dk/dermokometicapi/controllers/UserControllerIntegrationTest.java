@@ -17,6 +17,8 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.util.*;
 
+import static org.hamcrest.Matchers.startsWith;
+
 @SpringBootTest
 @ActiveProfiles("test")
 @AutoConfigureMockMvc
@@ -56,7 +58,7 @@ public class UserControllerIntegrationTest {
         userRequestDTO.setUsername("Username X");
         userRequestDTO.setEmail("Email X");
         userRequestDTO.setPassword("Password X");
-        userRequestDTO.setProfilePic("Pic X");
+        userRequestDTO.setProfilePic("https://example.com/pic-x.png");
         return userRequestDTO;
     }
 
@@ -115,6 +117,30 @@ public class UserControllerIntegrationTest {
 
     }
 
+    @Test
+    public void testPostUser_InlinePictureIsStored() throws Exception {
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+        UserRequestDTO userRequestDTO = createTestUserRequestDTO();
+        userRequestDTO.setProfilePic("data:image/png;base64," + Base64.getEncoder().encodeToString(png));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(userRequestDTO)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.profilePic", startsWith("/api/v1/images/")));
+    }
+
+    @Test
+    public void testPostUser_PictureMustBeAUrlOrAnImage() throws Exception {
+        UserRequestDTO userRequestDTO = createTestUserRequestDTO();
+        userRequestDTO.setProfilePic("Pic X");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(userRequestDTO)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     @Test
     public void testValidateUser() throws Exception {
 
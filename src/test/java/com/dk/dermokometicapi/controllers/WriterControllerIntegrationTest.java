@@ -48,6 +48,22 @@ public class WriterControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
 
+    @Test
+    public void testGetWriterById_NotModified() throws Exception {
+        Writer writer = createTestWriter();
+        entityManager.persist(writer);
+        entityManager.flush();
+
+        Long writerId = writer.getId();
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/writers/id/{id}", writerId))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/writers/id/{id}", writerId)
+                        .header("If-None-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+    }
+
     @Test
     public void testGetWritersByIds() throws Exception {
         Writer writer1 = createTestWriter();
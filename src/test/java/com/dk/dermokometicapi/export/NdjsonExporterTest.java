@@ -0,0 +1,56 @@
+package com.dk.dermokometicapi.export;
+
+import com.dk.dermokometicapi.models.dto.UserResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class NdjsonExporterTest {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final NdjsonExporter ndjsonExporter = new NdjsonExporter(transactionManager, new ObjectMapper());
+
+    @Test
+    public void testStream_WritesOneLinePerRow() throws Exception {
+        when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(new SimpleTransactionStatus());
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<UserResponseDTO> rows = Stream.of(
+                new UserResponseDTO(1L, "user1", "user1@mail.com", "pic1"),
+                new UserResponseDTO(2L, "user2", "user2@mail.com", null)
+        ).onClose(() -> closed.set(true));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ndjsonExporter.stream(() -> rows).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(new UserResponseDTO(1L, "user1", "user1@mail.com", "pic1"), new ObjectMapper().readValue(lines[0], UserResponseDTO.class));
+        assertTrue(lines[1].contains("\"id\":2"));
+        assertTrue(closed.get());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void testStream_LargeExport() throws Exception {
+        when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(new SimpleTransactionStatus());
+        int rows = NdjsonExporter.FLUSH_INTERVAL * 3 + 7;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ndjsonExporter.stream(() -> LongStream.rangeClosed(1, rows)
+                .mapToObj(id -> new UserResponseDTO(id, "user" + id, null, null))).writeTo(out);
+
+        assertEquals(rows, out.toString(StandardCharsets.UTF_8).lines().count());
+    }
+}
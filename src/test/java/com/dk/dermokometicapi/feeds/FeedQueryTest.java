@@ -0,0 +1,111 @@
+package com.dk.dermokometicapi.feeds;
+
+import com.dk.dermokometicapi.exceptions.BadRequestException;
+import com.dk.dermokometicapi.utils.KeysetCursor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeedQueryTest {
+
+    // the statements every feed can send, one entry per source, ordering and combination of filters
+    static final String RECORDED_QUERIES = "/feeds/feed-queries.sql";
+
+    private static final String[] FILTERS = {"types", "published-from", "published-to", "author", "cursor"};
+
+    static Map<String, FeedQuery> combinations() {
+        Map<String, FeedQuery> combinations = new LinkedHashMap<>();
+        for (FeedSource source : FeedSource.values()) {
+            for (FeedOrder order : FeedOrder.values()) {
+                if (!source.supports(order)) continue;
+                // only the recent ordering takes a cursor
+                int filters = order == FeedOrder.RECENT ? FILTERS.length : FILTERS.length - 1;
+                for (int mask = 0; mask < 1 << filters; mask++) {
+                    StringBuilder label = new StringBuilder(source + " " + order);
+                    for (int i = 0; i < filters; i++) {
+                        if ((mask & 1 << i) != 0) label.append(' ').append(FILTERS[i]);
+                    }
+                    FeedQuery query = FeedQuery.of(source).orderBy(order);
+                    if ((mask & 1) != 0) query.types(List.of("Type1", "Type2"));
+                    query.publishedBetween((mask & 2) != 0 ? LocalDate.of(2024, 1, 1) : null,
+                            (mask & 4) != 0 ? LocalDate.of(2024, 12, 31) : null);
+                    if ((mask & 8) != 0) query.author(1L);
+                    if ((mask & 16) != 0) query.after(new KeysetCursor(Instant.parse("2024-06-01T00:00:00Z"), 10L));
+                    combinations.put(label.toString(), query);
+                }
+            }
+        }
+        return combinations;
+    }
+
+    static String render() {
+        StringBuilder out = new StringBuilder();
+        combinations().forEach((label, query) -> {
+            out.append("-- ").append(label).append('\n');
+            if (query.parameters().containsKey("afterId")) {
+                out.append(query.sliceSql()).append(";\n");
+            } else {
+                out.append(query.pageSql()).append(";\n");
+                out.append(query.countSql()).append(";\n");
+            }
+            out.append('\n');
+        });
+        return out.toString();
+    }
+
+    private static String recorded() throws IOException {
+        try (InputStream in = FeedQueryTest.class.getResourceAsStream(RECORDED_QUERIES)) {
+            assertNotNull(in, RECORDED_QUERIES + " is missing");
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testGeneratedSqlMatchesRecorded() throws IOException {
+        assertEquals(recorded(), render(),
+                "Feed SQL changed, check the new statements against the indexes and update " + RECORDED_QUERIES);
+    }
+
+    @Test
+    public void testEveryCombinationRecorded() {
+        // 2^4 filter combinations per counter ordering, 2^5 for recent with its cursor
+        assertEquals(2 * (32 + 16 + 16), combinations().size());
+    }
+
+    @Test
+    public void testOnlySetFiltersAreBound() {
+        FeedQuery query = FeedQuery.of(FeedSource.QUESTION)
+                .types(List.of("Type1", "Type1", "Type2"))
+                .publishedBetween(null, LocalDate.of(2024, 12, 31));
+
+        assertEquals(Map.of("types", List.of("Type1", "Type2"), "publishedTo", LocalDate.of(2024, 12, 31)), query.parameters());
+        assertEquals("SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date <= :publishedTo", query.countSql());
+    }
+
+    @Test
+    public void testParseFallsBackToRecent() {
+        assertEquals(FeedOrder.COMMENTS, FeedOrder.parse(FeedSource.ARTICLE, "comments"));
+        assertEquals(FeedOrder.ANSWERS, FeedOrder.parse(FeedSource.QUESTION, "answers"));
+        assertEquals(FeedOrder.RECENT, FeedOrder.parse(FeedSource.QUESTION, "comments"));
+        assertEquals(FeedOrder.RECENT, FeedOrder.parse(FeedSource.ARTICLE, "unknown"));
+        assertEquals(FeedOrder.RECENT, FeedOrder.parse(FeedSource.ARTICLE, null));
+    }
+
+    @Test
+    public void testInvalidCombinations() {
+        assertThrows(BadRequestException.class, () -> FeedQuery.of(FeedSource.ARTICLE)
+                .publishedBetween(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1)));
+        assertThrows(BadRequestException.class, () -> FeedQuery.of(FeedSource.ARTICLE).orderBy(FeedOrder.LIKES)
+                .after(new KeysetCursor(Instant.now(), 1L)));
+        assertThrows(IllegalArgumentException.class, () -> FeedQuery.of(FeedSource.QUESTION).orderBy(FeedOrder.COMMENTS));
+    }
+}
@@ -0,0 +1,143 @@
+package com.dk.dermokometicapi.feeds;
+
+import com.dk.dermokometicapi.models.entities.Article;
+import com.dk.dermokometicapi.models.entities.ArticleDetail;
+import com.dk.dermokometicapi.models.entities.Question;
+import com.dk.dermokometicapi.models.entities.User;
+import com.dk.dermokometicapi.models.entities.Writer;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs every recorded feed statement against the database, and checks what the filters select
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class FeedStoreIntegrationTest {
+
+    private final RowMapper<Long> ids = (resultSet, row) -> resultSet.getLong("id");
+
+    @Autowired
+    private FeedStore feedStore;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Writer firstWriter;
+    private Article march;
+    private Article september;
+    private User asker;
+    private Question answered;
+
+    private Writer createWriter(String name) {
+        Writer writer = new Writer();
+        writer.setName(name);
+        writer.setLastName("Surname");
+        writer.setDescription("Description");
+        writer.setProfilePic("Pic");
+        entityManager.persist(writer);
+        return writer;
+    }
+
+    private Article createArticle(String title, String type, LocalDate publicationDate, Writer writer, long likes) {
+        ArticleDetail articleDetail = new ArticleDetail();
+        articleDetail.setContent("Content");
+        entityManager.persist(articleDetail);
+
+        Article article = new Article();
+        article.setTitle(title);
+        article.setDescription("Description");
+        article.setMainImg("Img");
+        article.setType(type);
+        article.setPublicationDate(publicationDate);
+        article.setLastUpdateDate(publicationDate);
+        article.setLikeCount(likes);
+        article.setArticleDetail(articleDetail);
+        article.setWriters(List.of(writer));
+        entityManager.persist(article);
+        return article;
+    }
+
+    private User createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@mail.com");
+        user.setPassword("Password");
+        user.setProfilePic("Pic");
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Question createQuestion(String title, User user, long answers) {
+        Question question = new Question();
+        question.setTitle(title);
+        question.setContent("Content");
+        question.setType("Type1");
+        question.setPublicationDate(LocalDate.of(2024, 5, 1));
+        question.setAnswerCount(answers);
+        question.setUser(user);
+        entityManager.persist(question);
+        return question;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        firstWriter = createWriter("First");
+        march = createArticle("March", "Type1", LocalDate.of(2024, 3, 1), firstWriter, 1);
+        september = createArticle("September", "Type2", LocalDate.of(2024, 9, 1), createWriter("Second"), 5);
+
+        asker = createUser("asker");
+        answered = createQuestion("Answered", asker, 3);
+        createQuestion("Unanswered", createUser("other"), 0);
+    }
+
+    @Test
+    public void testEveryCombinationRuns() {
+        FeedQueryTest.combinations().forEach((label, query) -> assertDoesNotThrow(() -> {
+            if (query.parameters().containsKey("afterId")) feedStore.findSlice(query, 3, ids);
+            else feedStore.findPage(query, Pageable.ofSize(1), ids);
+        }, label));
+    }
+
+    @Test
+    public void testArticleFilters() {
+        Page<Long> byType = feedStore.findPage(FeedQuery.of(FeedSource.ARTICLE).types(List.of("Type2")), Pageable.ofSize(5), ids);
+        Page<Long> byWriter = feedStore.findPage(FeedQuery.of(FeedSource.ARTICLE).author(firstWriter.getId()), Pageable.ofSize(5), ids);
+        Page<Long> byDate = feedStore.findPage(FeedQuery.of(FeedSource.ARTICLE)
+                .publishedBetween(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1)), Pageable.ofSize(5), ids);
+        Page<Long> byLikes = feedStore.findPage(FeedQuery.of(FeedSource.ARTICLE).orderBy(FeedOrder.LIKES), Pageable.ofSize(1), ids);
+
+        assertEquals(List.of(september.getId()), byType.getContent());
+        assertEquals(List.of(march.getId()), byWriter.getContent());
+        assertEquals(List.of(march.getId()), byDate.getContent());
+        assertEquals(List.of(september.getId()), byLikes.getContent());
+        assertEquals(2, byLikes.getTotalElements());
+    }
+
+    @Test
+    public void testQuestionFiltersAndCursor() {
+        Page<Long> byAsker = feedStore.findPage(FeedQuery.of(FeedSource.QUESTION).author(asker.getId()), Pageable.ofSize(5), ids);
+        Page<Long> byAnswers = feedStore.findPage(FeedQuery.of(FeedSource.QUESTION).orderBy(FeedOrder.ANSWERS), Pageable.ofSize(1), ids);
+        List<FeedRow<Long>> all = feedStore.findSlice(FeedQuery.of(FeedSource.QUESTION), 5, ids);
+        List<FeedRow<Long>> afterFirst = feedStore.findSlice(FeedQuery.of(FeedSource.QUESTION).after(all.get(0).key()), 5, ids);
+
+        assertEquals(List.of(answered.getId()), byAsker.getContent());
+        assertEquals(List.of(answered.getId()), byAnswers.getContent());
+        assertEquals(2, all.size());
+        assertTrue(all.get(0).key().getCreatedAt().isBefore(Instant.now().plusSeconds(60)));
+        assertEquals(List.of(all.get(1).item()), afterFirst.stream().map(FeedRow::item).toList());
+    }
+}
@@ -0,0 +1,91 @@
+package com.dk.dermokometicapi.images;
+
+import com.dk.dermokometicapi.exceptions.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageStoreTest {
+
+    static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+
+    @TempDir
+    Path dir;
+
+    private ImageStore createStore() {
+        return new ImageStore(dir.toString(), 64, "/api/v1/images");
+    }
+
+    @Test
+    public void testStore_ContentAddressed() throws IOException {
+        ImageStore imageStore = createStore();
+
+        String key = imageStore.store(PNG);
+
+        assertTrue(key.matches("[0-9a-f]{64}\\.png"));
+        assertEquals(key, imageStore.store(PNG.clone()));
+        Path path = imageStore.find(key).orElseThrow();
+        assertEquals(dir.resolve(key.substring(0, 2)).resolve(key), path);
+        assertArrayEquals(PNG, Files.readAllBytes(path));
+        try (var files = Files.list(path.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void testStore_RejectsWhatIsNotAnImage() {
+        ImageStore imageStore = createStore();
+
+        assertThrows(BadRequestException.class, () -> imageStore.store(new byte[0]));
+        assertThrows(BadRequestException.class, () -> imageStore.store("<svg></svg>".getBytes()));
+        assertThrows(BadRequestException.class, () -> imageStore.store(new byte[65]));
+    }
+
+    @Test
+    public void testFind_OnlyStoredKeys() {
+        ImageStore imageStore = createStore();
+        String key = imageStore.store(PNG);
+
+        assertEquals(Optional.empty(), imageStore.find("../" + key));
+        assertEquals(Optional.empty(), imageStore.find(key.replace(".png", ".jpg")));
+        assertEquals(Optional.empty(), imageStore.find(null));
+        assertEquals("/api/v1/images/" + key, imageStore.urlOf(key));
+        assertNull(imageStore.urlOf(null));
+    }
+
+    @Test
+    public void testExtensionOf() {
+        assertEquals("png", ImageStore.extensionOf(PNG));
+        assertEquals("jpg", ImageStore.extensionOf(new byte[]{(byte) 0xff, (byte) 0xd8, (byte) 0xff, (byte) 0xe0}));
+        assertEquals("gif", ImageStore.extensionOf("GIF89a".getBytes()));
+        assertEquals("webp", ImageStore.extensionOf("RIFF\0\0\0\0WEBPVP8 ".getBytes()));
+        assertNull(ImageStore.extensionOf("RIFF\0\0\0\0WAVE".getBytes()));
+    }
+
+    @Test
+    public void testDecodeInline() {
+        String base64 = Base64.getEncoder().encodeToString(PNG);
+
+        assertArrayEquals(PNG, ImageStore.decodeInline("data:image/png;base64," + base64));
+        assertArrayEquals(PNG, ImageStore.decodeInline(base64.substring(0, 10) + "\r\n" + base64.substring(10)));
+        assertNull(ImageStore.decodeInline("data:image/svg+xml,<svg/>"));
+    }
+
+    @Test
+    public void testStoreInline() {
+        ImageStore imageStore = createStore();
+
+        String key = imageStore.storeInline("data:image/png;base64," + Base64.getEncoder().encodeToString(PNG));
+
+        assertTrue(imageStore.find(key).isPresent());
+        assertThrows(BadRequestException.class, () -> imageStore.storeInline("data:image/svg+xml,<svg/>"));
+        assertThrows(BadRequestException.class, () -> imageStore.storeInline("Pic X"));
+    }
+}
@@ -0,0 +1,168 @@
+package com.dk.dermokometicapi.images;
+
+import com.dk.dermokometicapi.exceptions.BadRequestException;
+import com.dk.dermokometicapi.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageVariantsTest {
+
+    @TempDir
+    Path dir;
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(2);
+
+    private ImageStore imageStore;
+
+    @AfterEach
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private ImageVariants createVariants(ExecutorService executor) {
+        imageStore = new ImageStore(dir.resolve("originals").toString(), 1 << 22, "/api/v1/images");
+        return new ImageVariants(imageStore, dir.resolve("variants").toString(), executor);
+    }
+
+    private static byte[] createImage(int width, int height, String format) throws IOException {
+        boolean jpeg = format.equals("jpg");
+        BufferedImage image = new BufferedImage(width, height, jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, jpeg ? "jpeg" : "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testGet_ResizesOnceAndKeepsTheFile() throws IOException {
+        ImageVariants imageVariants = createVariants(workers);
+        String key = imageStore.store(createImage(800, 400, "jpg"));
+
+        Path variant = imageVariants.get(key, 160);
+
+        assertEquals(dir.resolve("variants").resolve(key.substring(0, 2)).resolve(key.replace(".jpg", "-160.jpg")), variant);
+        BufferedImage image = ImageIO.read(variant.toFile());
+        assertEquals(160, image.getWidth());
+        assertEquals(80, image.getHeight());
+        long modified = Files.getLastModifiedTime(variant).toMillis();
+        assertEquals(variant, imageVariants.get(key, 160));
+        assertEquals(modified, Files.getLastModifiedTime(variant).toMillis());
+    }
+
+    @Test
+    public void testGet_TransparentImagesStayPng() throws IOException {
+        ImageVariants imageVariants = createVariants(workers);
+        String key = imageStore.store(createImage(100, 50, "png"));
+
+        BufferedImage image = ImageIO.read(imageVariants.get(key, 64).toFile());
+
+        assertEquals(64, image.getWidth());
+        assertEquals(32, image.getHeight());
+        assertEquals(0, image.getRGB(63, 0) >>> 24);
+        // never upscaled, the original is served instead
+        assertEquals(imageStore.find(key).orElseThrow(), imageVariants.get(key, 160));
+    }
+
+    @Test
+    public void testGet_ServesWhatItCannotDecodeAsStored() {
+        ImageVariants imageVariants = createVariants(workers);
+        String key = imageStore.store(ImageStoreTest.PNG);
+
+        assertEquals(imageStore.find(key).orElseThrow(), imageVariants.get(key, 64));
+    }
+
+    @Test
+    public void testGet_FallbacksNeverWaitOnThePool() throws IOException {
+        ExecutorService stopped = Executors.newSingleThreadExecutor();
+        stopped.shutdown();
+        ImageVariants imageVariants = createVariants(stopped);
+        String narrow = imageStore.store(createImage(100, 50, "png"));
+        String undecodable = imageStore.store(ImageStoreTest.PNG);
+
+        assertEquals(imageStore.find(narrow).orElseThrow(), imageVariants.get(narrow, 160));
+        assertEquals(imageStore.find(undecodable).orElseThrow(), imageVariants.get(undecodable, 64));
+    }
+
+    @Test
+    public void testGet_RemembersDecodeFailures() throws IOException {
+        ImageVariants imageVariants = createVariants(workers);
+        byte[] image = createImage(400, 200, "png");
+        // the header survives, the pixel data does not
+        String key = imageStore.store(Arrays.copyOf(image, image.length / 2));
+        Path original = imageStore.find(key).orElseThrow();
+
+        assertEquals(original, imageVariants.get(key, 64));
+        assertFalse(Files.exists(imageVariants.pathOf(key, 64)));
+
+        ExecutorService stopped = Executors.newSingleThreadExecutor();
+        stopped.shutdown();
+        assertEquals(original, createVariants(stopped).get(key, 64));
+    }
+
+    @Test
+    public void testGet_InvalidRequests() throws IOException {
+        ImageVariants imageVariants = createVariants(workers);
+        String key = imageStore.store(createImage(100, 50, "png"));
+
+        assertThrows(BadRequestException.class, () -> imageVariants.get(key, 100));
+        assertThrows(ResourceNotFoundException.class, () -> imageVariants.get(key.replace(".png", ".jpg"), 64));
+    }
+
+    @Test
+    public void testGet_SaturatedPool() throws IOException {
+        ExecutorService stopped = Executors.newSingleThreadExecutor();
+        stopped.shutdown();
+        ImageVariants imageVariants = createVariants(stopped);
+        String key = imageStore.store(createImage(100, 50, "png"));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> imageVariants.get(key, 64));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+    }
+
+    @Test
+    public void testPrepare_RendersEveryWidthBelowTheImage() throws Exception {
+        ImageVariants imageVariants = createVariants(workers);
+        String key = imageStore.store(createImage(400, 400, "jpg"));
+
+        imageVariants.prepare(key);
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(10, TimeUnit.SECONDS));
+
+        for (int width : ImageVariants.WIDTHS) {
+            assertEquals(width < 400, Files.exists(imageVariants.pathOf(key, width)), "width " + width);
+        }
+    }
+
+    @Test
+    public void testUrlsOf() {
+        ImageVariants imageVariants = createVariants(workers);
+
+        Map<Integer, String> urls = imageVariants.urlsOf("key.png");
+
+        assertEquals(ImageVariants.WIDTHS, urls.keySet().stream().toList());
+        assertEquals("/api/v1/images/key.png/160", urls.get(160));
+        assertNull(imageVariants.urlsOf(null));
+    }
+}
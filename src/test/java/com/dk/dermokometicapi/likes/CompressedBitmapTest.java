@@ -0,0 +1,71 @@
+package com.dk.dermokometicapi.likes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedBitmapTest {
+
+    @Test
+    public void testAddRemoveContains() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+
+        assertTrue(bitmap.add(7));
+        assertFalse(bitmap.add(7));
+        assertTrue(bitmap.add(70_000));
+        assertTrue(bitmap.add(3L << 40));
+
+        assertTrue(bitmap.contains(7));
+        assertTrue(bitmap.contains(70_000));
+        assertTrue(bitmap.contains(3L << 40));
+        assertFalse(bitmap.contains(8));
+        assertEquals(3, bitmap.cardinality());
+        assertArrayEquals(new long[]{7, 70_000, 3L << 40}, bitmap.toArray());
+
+        assertTrue(bitmap.remove(70_000));
+        assertFalse(bitmap.remove(70_000));
+        assertFalse(bitmap.contains(70_000));
+        assertEquals(2, bitmap.cardinality());
+    }
+
+    @Test
+    public void testDenseContainer() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        LongStream.range(0, 10_000).forEach(bitmap::add);
+
+        assertEquals(10_000, bitmap.cardinality());
+        assertTrue(bitmap.contains(9_999));
+        // one bitmap container, not 10000 chars
+        assertTrue(bitmap.sizeInBytes() < 10_000 * 2);
+
+        LongStream.range(0, 9_000).forEach(bitmap::remove);
+        assertEquals(1_000, bitmap.cardinality());
+        assertArrayEquals(LongStream.range(9_000, 10_000).toArray(), bitmap.toArray());
+    }
+
+    @Test
+    public void testAnd() {
+        CompressedBitmap evens = new CompressedBitmap();
+        CompressedBitmap threes = new CompressedBitmap();
+        LongStream.range(0, 20_000).filter(id -> id % 2 == 0).forEach(evens::add);
+        LongStream.range(0, 20_000).filter(id -> id % 3 == 0).forEach(threes::add);
+        threes.add(1L << 33);
+
+        CompressedBitmap both = evens.and(threes);
+
+        assertArrayEquals(LongStream.range(0, 20_000).filter(id -> id % 6 == 0).toArray(), both.toArray());
+        assertEquals(0, evens.and(new CompressedBitmap()).cardinality());
+    }
+
+    @Test
+    public void testNegativeId() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+        assertFalse(bitmap.contains(-1));
+        assertTrue(bitmap.isEmpty());
+        assertEquals(0, bitmap.toArray().length);
+    }
+}
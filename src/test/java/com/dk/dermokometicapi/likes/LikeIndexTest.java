@@ -0,0 +1,83 @@
+package com.dk.dermokometicapi.likes;
+
+import com.dk.dermokometicapi.models.dto.LikeIndexStatsDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LikeIndexTest {
+
+    private LikeIndex createIndex() {
+        LikeIndex likeIndex = new LikeIndex(true);
+        likeIndex.load(LikeTarget.ARTICLE, 1L, 7L);
+        likeIndex.load(LikeTarget.ARTICLE, 1L, 8L);
+        likeIndex.load(LikeTarget.ARTICLE, 2L, 8L);
+        likeIndex.load(LikeTarget.QUESTION, 1L, 9L);
+        likeIndex.markReady();
+        return likeIndex;
+    }
+
+    @Test
+    public void testContainsAndCount() {
+        LikeIndex likeIndex = createIndex();
+
+        assertTrue(likeIndex.contains(LikeTarget.ARTICLE, 1L, 7L));
+        assertFalse(likeIndex.contains(LikeTarget.QUESTION, 1L, 7L));
+        assertFalse(likeIndex.contains(LikeTarget.ARTICLE, 3L, 7L));
+        assertEquals(2, likeIndex.count(LikeTarget.ARTICLE, 1L));
+        assertEquals(0, likeIndex.count(LikeTarget.COMMENT, 1L));
+    }
+
+    @Test
+    public void testAddRemove() {
+        LikeIndex likeIndex = createIndex();
+
+        likeIndex.add(LikeTarget.ARTICLE, 2L, 7L);
+        likeIndex.remove(LikeTarget.ARTICLE, 1L, 8L);
+
+        assertTrue(likeIndex.contains(LikeTarget.ARTICLE, 2L, 7L));
+        assertFalse(likeIndex.contains(LikeTarget.ARTICLE, 1L, 8L));
+        assertEquals(1, likeIndex.count(LikeTarget.ARTICLE, 1L));
+
+        likeIndex.removeTarget(LikeTarget.ARTICLE, 2L);
+        assertEquals(0, likeIndex.count(LikeTarget.ARTICLE, 2L));
+    }
+
+    @Test
+    public void testWritesDuringWarmUpAreQueued() {
+        LikeIndex likeIndex = new LikeIndex(true);
+        likeIndex.add(LikeTarget.ANSWER, 1L, 7L);
+        likeIndex.remove(LikeTarget.ANSWER, 1L, 8L);
+        likeIndex.load(LikeTarget.ANSWER, 1L, 8L);
+
+        assertFalse(likeIndex.isReady());
+        assertFalse(likeIndex.contains(LikeTarget.ANSWER, 1L, 7L));
+
+        likeIndex.markReady();
+
+        assertTrue(likeIndex.contains(LikeTarget.ANSWER, 1L, 7L));
+        assertFalse(likeIndex.contains(LikeTarget.ANSWER, 1L, 8L));
+    }
+
+    @Test
+    public void testLikedByBoth() {
+        LikeIndex likeIndex = createIndex();
+
+        assertEquals(List.of(8L), likeIndex.likedByBoth(LikeTarget.ARTICLE, 1L, 2L));
+        assertEquals(List.of(), likeIndex.likedByBoth(LikeTarget.ARTICLE, 1L, 3L));
+    }
+
+    @Test
+    public void testGetStats() {
+        List<LikeIndexStatsDTO> stats = createIndex().getStats();
+
+        assertEquals(4, stats.size());
+        assertEquals("article", stats.get(0).getType());
+        assertEquals(2, stats.get(0).getTargets());
+        assertEquals(3, stats.get(0).getLikes());
+        assertTrue(stats.get(0).getBytes() > 0);
+        assertEquals(0, stats.get(1).getLikes());
+    }
+}
@@ -0,0 +1,178 @@
+package com.dk.dermokometicapi.likes;
+
+import com.dk.dermokometicapi.cache.ArticleCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class LikeWriteBufferTest {
+
+    @TempDir
+    Path dir;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ArticleCache articleCache = mock(ArticleCache.class);
+    private final LikeIndex likeIndex = mock(LikeIndex.class);
+
+    @BeforeEach
+    public void setUp() {
+        when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(new SimpleTransactionStatus());
+    }
+
+    private LikeWriteBuffer createBuffer(boolean enabled) {
+        return new LikeWriteBuffer(enabled, 500, 1000, dir.resolve("likes.journal").toString(),
+                jdbcTemplate, transactionManager, articleCache, likeIndex);
+    }
+
+    private static List<Object[]> rows(Object[]... expected) {
+        return argThat(actual -> actual.size() == expected.length
+                && Arrays.deepEquals(actual.toArray(), expected));
+    }
+
+    @Test
+    public void testFlush_LastWriteWins() {
+        LikeWriteBuffer buffer = createBuffer(true);
+        buffer.like(LikeTarget.ARTICLE, 1L, 7L);
+        buffer.unlike(LikeTarget.ARTICLE, 1L, 7L);
+        buffer.like(LikeTarget.ARTICLE, 1L, 7L);
+        buffer.like(LikeTarget.COMMENT, 2L, 7L);
+        buffer.unlike(LikeTarget.QUESTION, 3L, 7L);
+
+        assertEquals(3, buffer.size());
+        assertEquals(3, buffer.flush());
+
+        verify(jdbcTemplate).batchUpdate(eq(LikeTarget.ARTICLE.insertSql()), rows(new Object[]{1L, 7L}));
+        verify(jdbcTemplate).batchUpdate(eq(LikeTarget.COMMENT.insertSql()), rows(new Object[]{2L, 7L}));
+        verify(jdbcTemplate).batchUpdate(eq(LikeTarget.QUESTION.deleteSql()), rows(new Object[]{3L, 7L}));
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE articles SET like_count"), rows(new Object[]{1L}));
+        verify(articleCache).evict(1L);
+        verify(likeIndex).add(LikeTarget.ARTICLE, 1L, 7L);
+        verify(likeIndex).remove(LikeTarget.QUESTION, 3L, 7L);
+        verify(transactionManager).commit(any());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testPending() {
+        LikeWriteBuffer buffer = createBuffer(true);
+        buffer.like(LikeTarget.ANSWER, 4L, 7L);
+
+        assertEquals(Optional.of(true), buffer.pending(LikeTarget.ANSWER, 4L, 7L));
+        assertEquals(Optional.empty(), buffer.pending(LikeTarget.ANSWER, 4L, 8L));
+
+        buffer.flush();
+        assertEquals(Optional.empty(), buffer.pending(LikeTarget.ANSWER, 4L, 7L));
+    }
+
+    @Test
+    public void testFlush_Empty() {
+        LikeWriteBuffer buffer = createBuffer(true);
+
+        assertEquals(0, buffer.flush());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void testFlush_FailureKeepsBatch() {
+        LikeWriteBuffer buffer = createBuffer(true);
+        buffer.like(LikeTarget.ARTICLE, 1L, 7L);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThrows(QueryTimeoutException.class, buffer::flush);
+
+        assertEquals(1, buffer.size());
+        assertEquals(Optional.of(true), buffer.pending(LikeTarget.ARTICLE, 1L, 7L));
+        assertTrue(Files.exists(dir.resolve("likes.journal.pending")));
+    }
+
+    @Test
+    public void testConcurrentRecords_AllReachTheJournal() throws Exception {
+        LikeWriteBuffer buffer = createBuffer(true);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (long user = 0; user < 8; user++) {
+                long userId = user;
+                done.add(callers.submit(() -> {
+                    for (long article = 0; article < 200; article++) {
+                        buffer.like(LikeTarget.ARTICLE, article, userId);
+                    }
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        // every like is on disk by the time its call returns, whichever call wrote it
+        assertEquals(1600, Files.readAllLines(dir.resolve("likes.journal")).size());
+        assertEquals(1600, createBuffer(true).size());
+    }
+
+    @Test
+    public void testRestart_ReplaysJournal() {
+        LikeWriteBuffer buffer = createBuffer(true);
+        buffer.like(LikeTarget.ARTICLE, 1L, 7L);
+        buffer.like(LikeTarget.COMMENT, 2L, 7L);
+        buffer.unlike(LikeTarget.COMMENT, 2L, 7L);
+
+        LikeWriteBuffer restarted = createBuffer(true);
+
+        assertEquals(2, restarted.size());
+        assertEquals(Optional.of(true), restarted.pending(LikeTarget.ARTICLE, 1L, 7L));
+        assertEquals(Optional.of(false), restarted.pending(LikeTarget.COMMENT, 2L, 7L));
+    }
+
+    @Test
+    public void testRestart_SkipsTruncatedLine() throws Exception {
+        Files.writeString(dir.resolve("likes.journal.pending"), "A,1,7,1\nQ,3,7,0\n");
+        Files.writeString(dir.resolve("likes.journal"), "C,2,7,1\nN,4,");
+
+        LikeWriteBuffer buffer = createBuffer(true);
+
+        assertEquals(3, buffer.size());
+        assertEquals(Optional.of(false), buffer.pending(LikeTarget.QUESTION, 3L, 7L));
+        assertEquals(Optional.empty(), buffer.pending(LikeTarget.ANSWER, 4L, 7L));
+
+        assertEquals(3, buffer.flush());
+        assertFalse(Files.exists(dir.resolve("likes.journal.pending")));
+        assertFalse(Files.exists(dir.resolve("likes.journal")));
+    }
+
+    @Test
+    public void testDisabled_IgnoresJournal() throws Exception {
+        Files.writeString(dir.resolve("likes.journal"), "A,1,7,1\n");
+
+        LikeWriteBuffer buffer = createBuffer(false);
+
+        assertFalse(buffer.isEnabled());
+        assertEquals(0, buffer.size());
+    }
+}
@@ -0,0 +1,105 @@
+package com.dk.dermokometicapi.live;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LiveStreamHubTest {
+
+    // queued drains never run, so every event stays in the subscriber's buffer
+    private final Executor stalled = runnable -> {
+    };
+
+    @Test
+    public void testSubscribeCountsPerKind() {
+        LiveStreamHub hub = new LiveStreamHub(8, 10, 60_000, 15_000, 10_000, Runnable::run);
+
+        assertFalse(hub.hasSubscribers(LiveTopic.Kind.ARTICLE));
+        assertNotNull(hub.subscribe(LiveTopic.article(1L)));
+        hub.subscribe(LiveTopic.article(2L));
+
+        assertEquals(2, hub.subscriberCount());
+        assertTrue(hub.hasSubscribers(LiveTopic.Kind.ARTICLE));
+        assertFalse(hub.hasSubscribers(LiveTopic.Kind.QUESTION));
+    }
+
+    @Test
+    public void testTooManySubscribers() {
+        LiveStreamHub hub = new LiveStreamHub(8, 1, 60_000, 15_000, 10_000, Runnable::run);
+        hub.subscribe(LiveTopic.question(1L));
+
+        assertThrows(ResponseStatusException.class, () -> hub.subscribe(LiveTopic.question(2L)));
+        assertEquals(1, hub.subscriberCount());
+    }
+
+    @Test
+    public void testSlowSubscriberIsDisconnected() {
+        LiveStreamHub hub = new LiveStreamHub(2, 10, 60_000, 15_000, 10_000, stalled);
+        hub.subscribe(LiveTopic.article(1L));
+        hub.subscribe(LiveTopic.article(2L));
+
+        // the opening heartbeat plus one event fill the buffer, the next one overflows it
+        hub.publish(LiveTopic.article(1L), LiveEvent.HEARTBEAT);
+        assertEquals(2, hub.subscriberCount());
+        hub.publish(LiveTopic.article(1L), LiveEvent.HEARTBEAT);
+
+        assertEquals(1, hub.subscriberCount());
+        assertTrue(hub.hasSubscribers(LiveTopic.Kind.ARTICLE));
+        // nobody left on the topic, so nothing is queued
+        assertDoesNotThrow(() -> hub.publish(LiveTopic.article(1L), LiveEvent.HEARTBEAT));
+    }
+
+    @Test
+    public void testStalledWriteDoesNotHoldTheSender() throws InterruptedException {
+        CountDownLatch stalledWrite = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(1);
+        ExecutorService sender = Executors.newSingleThreadExecutor();
+        // the first client never reads, so its write blocks the only sender until it is interrupted
+        LiveStreamHub hub = new LiveStreamHub(8, 10, 60_000, 60_000, 50, sender) {
+            private boolean first = true;
+
+            @Override
+            SseEmitter createEmitter() {
+                boolean blocking = first;
+                first = false;
+                return new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        if (!blocking) {
+                            delivered.countDown();
+                            return;
+                        }
+                        stalledWrite.countDown();
+                        try {
+                            new CountDownLatch(1).await();
+                        } catch (InterruptedException e) {
+                            throw new InterruptedIOException();
+                        }
+                    }
+                };
+            }
+        };
+        hub.start();
+        try {
+            hub.subscribe(LiveTopic.article(1L));
+            assertTrue(stalledWrite.await(5, TimeUnit.SECONDS));
+            hub.subscribe(LiveTopic.article(2L));
+
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+            assertEquals(1, hub.subscriberCount());
+        } finally {
+            hub.stop();
+            sender.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.dk.dermokometicapi.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuestionSimilarityIndexTest {
+
+    private QuestionSimilarityIndex createIndex() {
+        QuestionSimilarityIndex similarityIndex = new QuestionSimilarityIndex(0.5, 0.9);
+        similarityIndex.index(1L, "Acne", "How do I get rid of acne scars?", "I have had acne scars on my cheeks for years, what treatment works?");
+        similarityIndex.index(2L, "Sun", "Best sunscreen for oily skin", "Which sunscreen does not clog pores on oily skin?");
+        similarityIndex.index(3L, "Acne", "How can I get rid of my acne scars?", "Acne scars on my cheeks for years now, what treatment actually works?");
+        return similarityIndex;
+    }
+
+    @Test
+    public void testFindSimilar_RewordedQuestion() {
+        QuestionSimilarityIndex similarityIndex = createIndex();
+
+        List<SimilarQuestion> similar = similarityIndex.findSimilar("How do I get rid of my acne scars",
+                "I have had acne scars on my cheeks for years, what treatment works?", null, 5);
+
+        assertEquals(List.of(1L, 3L), similar.stream().map(SimilarQuestion::getId).toList());
+        assertTrue(similar.get(0).getSimilarity() > similar.get(1).getSimilarity());
+        assertFalse(similarityIndex.isDuplicate(similar.get(1)));
+    }
+
+    @Test
+    public void testFindSimilar_SameTextIsDuplicate() {
+        QuestionSimilarityIndex similarityIndex = createIndex();
+
+        List<SimilarQuestion> similar = similarityIndex.findSimilar("BEST sunscreen for oily skin!!",
+                "Which sunscreen does not clog pores on oily skin", null, 5);
+
+        assertEquals(2L, similar.get(0).getId());
+        assertEquals(1.0, similar.get(0).getSimilarity());
+        assertTrue(similarityIndex.isDuplicate(similar.get(0)));
+    }
+
+    @Test
+    public void testFindSimilar_ExcludesItselfAndLimits() {
+        QuestionSimilarityIndex similarityIndex = createIndex();
+
+        List<SimilarQuestion> similar = similarityIndex.findSimilar("How do I get rid of acne scars?",
+                "I have had acne scars on my cheeks for years, what treatment works?", 1L, 1);
+
+        assertEquals(List.of(3L), similar.stream().map(SimilarQuestion::getId).toList());
+        assertTrue(similarityIndex.findSimilar("Eczema on hands in winter", "Cracked skin", null, 5).isEmpty());
+        assertTrue(similarityIndex.findSimilar("?!", null, null, 5).isEmpty());
+    }
+
+    @Test
+    public void testReindexAndRemove() {
+        QuestionSimilarityIndex similarityIndex = createIndex();
+
+        similarityIndex.index(3L, "Sun", "Sunscreen under makeup", "Does sunscreen still work under foundation?");
+        similarityIndex.remove(2L);
+
+        assertEquals(2, similarityIndex.size());
+        assertTrue(similarityIndex.findSimilar("Best sunscreen for oily skin", "Which sunscreen does not clog pores on oily skin?", null, 5).isEmpty());
+        assertEquals(List.of(1L), similarityIndex.findSimilar("How do I get rid of acne scars?",
+                "I have had acne scars on my cheeks for years, what treatment works?", null, 5).stream().map(SimilarQuestion::getId).toList());
+    }
+
+    @Test
+    public void testSignatureEstimatesJaccard() {
+        int[] first = QuestionSimilarityIndex.signature("retinol and vitamin c in the morning", null);
+        int[] second = QuestionSimilarityIndex.signature("Retinol and vitamin C in the morning?", "");
+        int[] other = QuestionSimilarityIndex.signature("sunscreen reapplication at the beach", null);
+
+        assertEquals(1.0, QuestionSimilarityIndex.similarity(first, second));
+        assertTrue(QuestionSimilarityIndex.similarity(first, other) < 0.3);
+    }
+}
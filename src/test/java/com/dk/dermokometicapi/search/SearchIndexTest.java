@@ -0,0 +1,70 @@
+package com.dk.dermokometicapi.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchIndexTest {
+
+    private SearchIndex createIndex() {
+        SearchIndex searchIndex = new SearchIndex();
+        searchIndex.indexArticle(1L, "Acne", "Retinol basics", "How to start with retinol", "Retinol is a vitamin A derivative used against acne.");
+        searchIndex.indexArticle(2L, "Sun", "Sunscreen guide", "Choosing a sunscreen", "Apply sunscreen every morning, even after retinol at night.");
+        searchIndex.indexQuestion(3L, "Acne", "Can I use retinol in summer?", "I burn easily and wonder about retinol.");
+        return searchIndex;
+    }
+
+    @Test
+    public void testSearch_RanksTitleMatchesFirst() {
+        SearchIndex searchIndex = createIndex();
+
+        List<SearchHit> hits = searchIndex.search("retinol", List.of(), List.of());
+
+        assertEquals(3, hits.size());
+        assertEquals(1L, hits.get(0).getId());
+        assertEquals(2L, hits.get(2).getId());
+        assertTrue(hits.get(0).getScore() > hits.get(2).getScore());
+    }
+
+    @Test
+    public void testSearch_FiltersByKindAndType() {
+        SearchIndex searchIndex = createIndex();
+
+        List<SearchHit> questions = searchIndex.search("retinol", List.of(SearchIndex.Kind.QUESTION), List.of());
+        List<SearchHit> sun = searchIndex.search("retinol", List.of(), List.of("Sun"));
+
+        assertEquals(1, questions.size());
+        assertEquals(SearchIndex.Kind.QUESTION, questions.get(0).getKind());
+        assertEquals(1, sun.size());
+        assertEquals(2L, sun.get(0).getId());
+    }
+
+    @Test
+    public void testSearch_IgnoresCaseAndAccents() {
+        SearchIndex searchIndex = new SearchIndex();
+        searchIndex.indexQuestion(1L, "Skin", "Protecci\u00f3n solar", "\u00bfQu\u00e9 factor usar?");
+
+        assertEquals(1, searchIndex.search("PROTECCION", List.of(), List.of()).size());
+    }
+
+    @Test
+    public void testReindexAndRemove() {
+        SearchIndex searchIndex = createIndex();
+
+        searchIndex.indexArticle(2L, "Sun", "Sunscreen guide", "Choosing a sunscreen", "Apply it every morning.");
+        assertEquals(2, searchIndex.search("retinol", List.of(), List.of()).size());
+
+        searchIndex.remove(SearchIndex.Kind.ARTICLE, 1L);
+        assertEquals(2, searchIndex.size());
+        assertTrue(searchIndex.search("vitamin", List.of(), List.of()).isEmpty());
+    }
+
+    @Test
+    public void testSearch_NoTerms() {
+        SearchIndex searchIndex = createIndex();
+
+        assertTrue(searchIndex.search(" - ", List.of(), List.of()).isEmpty());
+    }
+}
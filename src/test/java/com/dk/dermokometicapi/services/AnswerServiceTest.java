@@ -3,39 +3,46 @@ package com.dk.dermokometicapi.services;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.dk.dermokometicapi.cache.AnswerPageCache;
 import com.dk.dermokometicapi.exceptions.BadRequestException;
 import com.dk.dermokometicapi.exceptions.ResourceNotFoundException;
-import com.dk.dermokometicapi.mappers.AnswerLikeMapper;
+import com.dk.dermokometicapi.likes.Engagement;
+import com.dk.dermokometicapi.likes.LikeTarget;
+import com.dk.dermokometicapi.live.LiveStreamHub;
+import com.dk.dermokometicapi.live.LiveTopic;
 import com.dk.dermokometicapi.mappers.AnswerMapper;
 import com.dk.dermokometicapi.models.dto.*;
 import com.dk.dermokometicapi.models.entities.Answer;
-import com.dk.dermokometicapi.models.entities.AnswerLike;
 import com.dk.dermokometicapi.models.entities.Question;
 import com.dk.dermokometicapi.models.entities.User;
-import com.dk.dermokometicapi.repositories.AnswerLikeRepository;
+import com.dk.dermokometicapi.models.projections.IdCountProjection;
 import com.dk.dermokometicapi.repositories.AnswerRepository;
 import com.dk.dermokometicapi.repositories.QuestionRepository;
 import com.dk.dermokometicapi.repositories.UserRepository;
+import com.dk.dermokometicapi.threads.ThreadPath;
+import com.dk.dermokometicapi.utils.KeysetCursor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 
 @ExtendWith(MockitoExtension.class)
 public class AnswerServiceTest {
-    @Mock
-    private AnswerLikeRepository answerLikeRepository;
-
     @Mock
     private AnswerRepository answerRepository;
 
@@ -49,7 +56,14 @@ public class AnswerServiceTest {
     private QuestionRepository questionRepository;
 
     @Mock
-    private AnswerLikeMapper answerLikeMapper;
+    private EngagementService engagementService;
+
+    @Mock
+    private LiveStreamHub liveStreamHub;
+
+    // disabled, every page goes to the repositories
+    @Spy
+    private AnswerPageCache answerPageCache = new AnswerPageCache(false, 0, 0);
 
     @InjectMocks
     public AnswerService answerService;
@@ -67,7 +81,7 @@ public class AnswerServiceTest {
         answerResponseDTO.setId(answer.getId());
         answerResponseDTO.setLikes(likes);
 
-        when(answerLikeRepository.countByAnswer(answer)).thenReturn(likes);
+        when(engagementService.count(LikeTarget.ANSWER, answer.getId())).thenReturn(likes);
         when(answerRepository.countByParentAnswer(answer)).thenReturn(answersCount);
         when(answerMapper.convertToDTO(answer, likes, answersCount)).thenReturn(answerResponseDTO);
 
@@ -80,7 +94,7 @@ public class AnswerServiceTest {
         assertEquals(answerResponseDTO.getLikes(), result.getLikes());
 
         // Verify interactions
-        verify(answerLikeRepository, times(1)).countByAnswer(answer);
+        verify(engagementService, times(1)).count(LikeTarget.ANSWER, answer.getId());
         verify(answerRepository, times(1)).countByParentAnswer(answer);
         verify(answerMapper, times(1)).convertToDTO(answer, likes, answersCount);
     }
@@ -105,9 +119,9 @@ public class AnswerServiceTest {
         when(answerRepository.findAll()).thenReturn(answers);
         when(answerMapper.convertToDTO(answer1, 0L, 0L)).thenReturn(dto1);
         when(answerMapper.convertToDTO(answer2, 0L, 0L)).thenReturn(dto2);
-        when(answerLikeRepository.countByAnswer(answer1)).thenReturn(0L);
+        when(engagementService.count(LikeTarget.ANSWER, answer1.getId())).thenReturn(0L);
         when(answerRepository.countByParentAnswer(answer1)).thenReturn(0L);
-        when(answerLikeRepository.countByAnswer(answer2)).thenReturn(0L);
+        when(engagementService.count(LikeTarget.ANSWER, answer2.getId())).thenReturn(0L);
         when(answerRepository.countByParentAnswer(answer2)).thenReturn(0L);
 
         // Act
@@ -121,9 +135,9 @@ public class AnswerServiceTest {
 
         // Verify interactions
         verify(answerRepository, times(1)).findAll();
-        verify(answerLikeRepository, times(1)).countByAnswer(answer1);
+        verify(engagementService, times(1)).count(LikeTarget.ANSWER, answer1.getId());
         verify(answerRepository, times(1)).countByParentAnswer(answer1);
-        verify(answerLikeRepository, times(1)).countByAnswer(answer2);
+        verify(engagementService, times(1)).count(LikeTarget.ANSWER, answer2.getId());
         verify(answerRepository, times(1)).countByParentAnswer(answer2);
         verify(answerMapper, times(1)).convertToDTO(answer1, 0L, 0L);
         verify(answerMapper, times(1)).convertToDTO(answer2, 0L, 0L);
@@ -143,7 +157,7 @@ public class AnswerServiceTest {
         dto.setId(answer.getId());
 
         when(answerRepository.findById(answerId)).thenReturn(Optional.of(answer));
-        when(answerLikeRepository.countByAnswer(answer)).thenReturn(likes);
+        when(engagementService.count(LikeTarget.ANSWER, answer.getId())).thenReturn(likes);
         when(answerRepository.countByParentAnswer(answer)).thenReturn(answersCount);
         when(answerMapper.convertToDTO(answer, likes, answersCount)).thenReturn(dto);
 
@@ -156,7 +170,7 @@ public class AnswerServiceTest {
 
         // Verify interactions
         verify(answerRepository, times(1)).findById(answerId);
-        verify(answerLikeRepository, times(1)).countByAnswer(answer);
+        verify(engagementService, times(1)).count(LikeTarget.ANSWER, answer.getId());
         verify(answerRepository, times(1)).countByParentAnswer(answer);
         verify(answerMapper, times(1)).convertToDTO(answer, likes, answersCount);
     }
@@ -174,7 +188,7 @@ public class AnswerServiceTest {
 
         // Verify interactions
         verify(answerRepository, times(1)).findById(answerId);
-        verify(answerLikeRepository, never()).countByAnswer(any());
+        verify(engagementService, never()).count(any(), any());
         verify(answerRepository, never()).countByParentAnswer(any());
         verify(answerMapper, never()).convertToDTO(any(), anyLong(), anyLong());
     }
@@ -208,7 +222,7 @@ public class AnswerServiceTest {
         when(answerRepository.findById(parentAnswerId)).thenReturn(Optional.of(parentAnswer));
         when(answerMapper.convertToEntity(answerRequestDTO, user, question, parentAnswer)).thenReturn(answer);
         when(answerRepository.save(answer)).thenReturn(answer);
-        when(answerService.convertToDTO(answer)).thenReturn(answerResponseDTO);
+        when(answerMapper.convertToDTO(answer, 0L, 0L)).thenReturn(answerResponseDTO);
 
         // Act
         AnswerResponseDTO result = answerService.addAnswer(answerRequestDTO);
@@ -223,6 +237,10 @@ public class AnswerServiceTest {
         verify(answerRepository, times(1)).findById(parentAnswerId);
         verify(answerMapper, times(1)).convertToEntity(answerRequestDTO, user, question, parentAnswer);
         verify(answerRepository, times(1)).save(answer);
+        verify(questionRepository, times(1)).addToAnswerCount(questionId, 1);
+        // a new answer has no likes or replies yet, nothing is counted
+        verify(engagementService, never()).count(any(), any());
+        verify(answerRepository, never()).countByParentAnswer(any());
     }
 
     @Test
@@ -242,14 +260,16 @@ public class AnswerServiceTest {
         question.setId(questionId);
 
 
+        // the id the database generates on save
         Answer answer = new Answer();
+        answer.setId(7L);
         AnswerResponseDTO answerResponseDTO = new AnswerResponseDTO();
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(questionRepository.findById(questionId)).thenReturn(Optional.of(question));
         when(answerMapper.convertToEntity(answerRequestDTO, user, question, null)).thenReturn(answer);
         when(answerRepository.save(answer)).thenReturn(answer);
-        when(answerService.convertToDTO(answer)).thenReturn(answerResponseDTO);
+        when(answerMapper.convertToDTO(answer, 0L, 0L)).thenReturn(answerResponseDTO);
 
         // Act
         AnswerResponseDTO result = answerService.addAnswer(answerRequestDTO);
@@ -257,6 +277,8 @@ public class AnswerServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(answerResponseDTO, result);
+        assertEquals(ThreadPath.child(null, 7L), answer.getPath());
+        assertEquals(0, answer.getDepth());
 
         // Verify interactions
         verify(userRepository, times(1)).findById(userId);
@@ -395,6 +417,69 @@ public class AnswerServiceTest {
         verify(answerRepository, times(1)).findLikedByQuestionId(questionId, pageable);
     }
 
+    private IdCountProjection idCount(long id, long total) {
+        return new IdCountProjection() {
+            public Long getId() { return id; }
+            public Long getTotal() { return total; }
+        };
+    }
+
+    @Test
+    public void testStreamByQuestionId() {
+        // Arrange
+        SseEmitter emitter = new SseEmitter();
+        when(questionRepository.existsById(1L)).thenReturn(true);
+        when(liveStreamHub.subscribe(LiveTopic.question(1L))).thenReturn(emitter);
+
+        // Act & Assert
+        assertSame(emitter, answerService.streamByQuestionId(1L));
+    }
+
+    @Test
+    public void testStreamByQuestionId_QuestionNotFound() {
+        // Arrange
+        when(questionRepository.existsById(1L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> answerService.streamByQuestionId(1L));
+        verify(liveStreamHub, never()).subscribe(any());
+    }
+
+    @Test
+    public void testGetAnswersByQuestionId_batchedCounts() {
+        // Arrange
+        Long questionId = 1L;
+        ListRequestDTO listRequestDTO = new ListRequestDTO();
+        listRequestDTO.setPageSize(2);
+        listRequestDTO.setPageNum(0);
+        listRequestDTO.setOrderBy("responses");
+
+        Answer answer1 = new Answer();
+        answer1.setId(1L);
+        Answer answer2 = new Answer();
+        answer2.setId(2L);
+        Pageable pageable = Pageable.ofSize(2).withPage(0);
+
+        AnswerResponseDTO dto1 = new AnswerResponseDTO();
+        AnswerResponseDTO dto2 = new AnswerResponseDTO();
+
+        when(answerRepository.findAnsweredByQuestionId(questionId, pageable)).thenReturn(new PageImpl<>(Arrays.asList(answer1, answer2), pageable, 2));
+        when(engagementService.counts(LikeTarget.ANSWER, List.of(1L, 2L))).thenReturn(Map.of(2L, 4L));
+        when(answerRepository.countRepliesByParentIds(List.of(1L, 2L))).thenReturn(List.of(idCount(1L, 7L)));
+        when(answerMapper.convertToDTO(answer1, 0L, 7L)).thenReturn(dto1);
+        when(answerMapper.convertToDTO(answer2, 4L, 0L)).thenReturn(dto2);
+
+        // Act
+        Page<AnswerResponseDTO> result = answerService.getAnswersByQuestionId(questionId, listRequestDTO);
+
+        // Assert
+        assertEquals(List.of(dto1, dto2), result.getContent());
+
+        // Verify interactions
+        verify(answerRepository, never()).countByParentAnswer(any());
+        verify(engagementService, never()).count(any(), any());
+    }
+
     @Test
     public void testGetAnswersByQuestionId_responses() {
         // Arrange
@@ -631,22 +716,54 @@ public class AnswerServiceTest {
         Long answerId = 1L;
         Answer answer = new Answer();
         answer.setId(answerId);
+        Question question = new Question();
+        question.setId(2L);
+        answer.setQuestion(question);
 
-        when(answerRepository.existsById(answerId)).thenReturn(true);
+        when(answerRepository.findById(answerId)).thenReturn(Optional.of(answer));
 
         // Act
         answerService.deleteAnswer(answerId);
 
         // Verify interactions
-        verify(answerRepository, times(1)).existsById(answerId);
+        verify(answerRepository, times(1)).findById(answerId);
+        verify(engagementService, times(1)).removeTargets(LikeTarget.ANSWER, List.of(answerId));
         verify(answerRepository, times(1)).deleteById(answerId);
+        verify(questionRepository, times(1)).addToAnswerCount(2L, -1);
+    }
+
+    @Test
+    public void testDeleteAnswer_WithReplies() {
+        // Arrange
+        Long answerId = 1L;
+        Answer answer = new Answer();
+        answer.setId(answerId);
+        Question question = new Question();
+        question.setId(2L);
+        answer.setQuestion(question);
+        answer.setPath(ThreadPath.child(null, answerId));
+        String upperBound = ThreadPath.upperBound(answer.getPath());
+
+        when(answerRepository.findById(answerId)).thenReturn(Optional.of(answer));
+        when(answerRepository.findSubtreeIds(answer.getPath(), upperBound)).thenReturn(List.of(1L, 2L));
+        when(answerRepository.deleteSubtree(answer.getPath(), upperBound)).thenReturn(2);
+
+        // Act
+        answerService.deleteAnswer(answerId);
+
+        // Verify interactions
+        verify(engagementService, times(1)).removeTargets(LikeTarget.ANSWER, List.of(1L, 2L));
+        verify(answerRepository, times(1)).detachSubtree(answer.getPath(), upperBound);
+        verify(answerRepository, times(1)).deleteSubtree(answer.getPath(), upperBound);
+        verify(answerRepository, never()).deleteById(anyLong());
+        verify(questionRepository, times(1)).addToAnswerCount(2L, -2);
     }
 
     @Test
     public void testDeleteAnswer_AnswerNotFound() {
         // Arrange
         Long answerId = 1L;
-        when(answerRepository.existsById(answerId)).thenReturn(false);
+        when(answerRepository.findById(answerId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> {
@@ -654,7 +771,7 @@ public class AnswerServiceTest {
         });
 
         // Verify interactions
-        verify(answerRepository, times(1)).existsById(answerId);
+        verify(answerRepository, times(1)).findById(answerId);
         verify(answerRepository, never()).deleteById(anyLong());
     }
 
@@ -663,46 +780,25 @@ public class AnswerServiceTest {
         // Arrange
         Long answerId = 1L;
         Long userId = 1L;
+        LocalDate today = LocalDate.now();
 
         AnswerLikeRequestDTO answerLikeRequestDTO = new AnswerLikeRequestDTO();
         answerLikeRequestDTO.setAnswerId(answerId);
         answerLikeRequestDTO.setUserId(userId);
 
-        Answer answer = new Answer();
-        answer.setId(answerId);
-
-        User user = new User();
-        user.setId(userId);
-
-        AnswerLike answerLike = new AnswerLike();
-        answerLike.setAnswer(answer);
-        answerLike.setUser(user);
-        answerLike.setLikeDate(LocalDate.now());
-
-        AnswerLikeResponseDTO answerLikeResponseDTO = new AnswerLikeResponseDTO();
-        answerLikeResponseDTO.setId(1L);
-        answerLikeResponseDTO.setAnswerId(answerId);
-        answerLikeResponseDTO.setUserId(userId);
-
-        when(answerRepository.findById(answerId)).thenReturn(Optional.of(answer));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(answerLikeRepository.existsByAnswerAndUser(answer, user)).thenReturn(false);
-        when(answerLikeRepository.save(answerLike)).thenReturn(answerLike);
-        when(answerLikeMapper.convertToDTO(answerLike)).thenReturn(answerLikeResponseDTO);
+        when(engagementService.like(LikeTarget.ANSWER, answerId, userId))
+                .thenReturn(new Engagement(1L, LikeTarget.ANSWER, answerId, userId, today, false));
 
         // Act
         AnswerLikeResponseDTO result = answerService.likeAnswer(answerLikeRequestDTO);
 
         // Assert
         assertNotNull(result);
-        assertEquals(answerLikeResponseDTO, result);
+        assertEquals(new AnswerLikeResponseDTO(1L, answerId, userId, today.toString(), false), result);
+        assertFalse(result.isAlreadyLiked());
 
         // Verify interactions
-        verify(answerRepository, times(1)).findById(answerId);
-        verify(userRepository, times(1)).findById(userId);
-        verify(answerLikeRepository, times(1)).existsByAnswerAndUser(answer, user);
-        verify(answerLikeRepository, times(1)).save(answerLike);
-        verify(answerLikeMapper, times(1)).convertToDTO(answerLike);
+        verify(engagementService, times(1)).like(LikeTarget.ANSWER, answerId, userId);
     }
 
     @Test
@@ -714,20 +810,18 @@ public class AnswerServiceTest {
         answerLikeRequestDTO.setAnswerId(answerId);
         answerLikeRequestDTO.setUserId(userId);
 
-        when(answerRepository.findById(answerId)).thenReturn(Optional.empty());
+        when(engagementService.like(LikeTarget.ANSWER, answerId, userId))
+                .thenThrow(new ResourceNotFoundException("Answer not found with id: " + answerId));
 
         // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> {
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
             answerService.likeAnswer(answerLikeRequestDTO);
         });
-
-        // Verify interactions
-
-        verify(answerRepository, times(1)).findById(answerId);
+        assertEquals("Answer not found with id: " + answerId, exception.getMessage());
     }
 
     @Test
-    public void testLikeAnswer_UserNotFound() {
+    public void testLikeAnswer_UserAlreadyLiked() {
         // Arrange
         Long answerId = 1L;
         Long userId = 2L;
@@ -735,50 +829,31 @@ public class AnswerServiceTest {
         answerLikeRequestDTO.setAnswerId(answerId);
         answerLikeRequestDTO.setUserId(userId);
 
-        Answer answer = new Answer();
-        answer.setId(answerId);
-
-        when(answerRepository.findById(answerId)).thenReturn(Optional.of(answer));
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(engagementService.like(LikeTarget.ANSWER, answerId, userId))
+                .thenReturn(new Engagement(5L, LikeTarget.ANSWER, answerId, userId, LocalDate.now(), true));
 
-        // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> {
-            answerService.likeAnswer(answerLikeRequestDTO);
-        });
+        // Act
+        AnswerLikeResponseDTO result = answerService.likeAnswer(answerLikeRequestDTO);
 
-        // Verify interactions
-        verify(answerRepository, times(1)).findById(answerId);
-        verify(userRepository, times(1)).findById(userId);
+        // Assert
+        assertEquals(5L, result.getId());
+        assertTrue(result.isAlreadyLiked());
     }
 
     @Test
-    public void testLikeAnswer_UserAlreadyLiked() {
+    public void testGetLikedIds() {
         // Arrange
-        Long answerId = 1L;
-        Long userId = 2L;
-        AnswerLikeRequestDTO answerLikeRequestDTO = new AnswerLikeRequestDTO();
-        answerLikeRequestDTO.setAnswerId(answerId);
-        answerLikeRequestDTO.setUserId(userId);
-
-        Answer answer = new Answer();
-        answer.setId(answerId);
-
-        User user = new User();
-        user.setId(userId);
+        LikedByMeRequestDTO likedByMeRequestDTO = new LikedByMeRequestDTO();
+        likedByMeRequestDTO.setUserId(1L);
+        likedByMeRequestDTO.setIds(List.of(3L, 2L, 3L, 1L));
 
-        when(answerRepository.findById(answerId)).thenReturn(Optional.of(answer));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(answerLikeRepository.existsByAnswerAndUser(answer, user)).thenReturn(true);
+        when(engagementService.likedIds(LikeTarget.ANSWER, 1L, likedByMeRequestDTO.getIds())).thenReturn(Set.of(1L, 3L));
 
-        // Act & Assert
-        assertThrows(BadRequestException.class, () -> {
-            answerService.likeAnswer(answerLikeRequestDTO);
-        });
+        // Act
+        List<Long> result = answerService.getLikedIds(likedByMeRequestDTO);
 
-        // Verify interactions
-        verify(answerRepository, times(1)).findById(answerId);
-        verify(userRepository, times(1)).findById(userId);
-        verify(answerLikeRepository, times(1)).existsByAnswerAndUser(answer, user);
+        // Assert
+        assertEquals(List.of(3L, 1L), result);
     }
 
     @Test
@@ -791,48 +866,15 @@ public class AnswerServiceTest {
         answerLikeRequestDTO.setAnswerId(answerId);
         answerLikeRequestDTO.setUserId(userId);
 
-        Answer answer = new Answer();
-        answer.setId(answerId);
-
-        User user = new User();
-        user.setId(userId);
-
-        when(answerRepository.findById(answerId)).thenReturn(Optional.of(answer));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(answerLikeRepository.existsByAnswerAndUser(answer, user)).thenReturn(true);
-
         // Act
         answerService.unlikeAnswer(answerLikeRequestDTO);
 
         // Verify interactions
-        verify(answerRepository, times(1)).findById(answerId);
-        verify(userRepository, times(1)).findById(userId);
-        verify(answerLikeRepository, times(1)).existsByAnswerAndUser(answer, user);
-        verify(answerLikeRepository, times(1)).deleteByAnswerAndUser(answer, user);
-    }
-
-    @Test
-    public void testUnlikeAnswer_AnswerNotFound() {
-        // Arrange
-        Long answerId = 1L;
-        Long userId = 2L;
-        AnswerLikeRequestDTO answerLikeRequestDTO = new AnswerLikeRequestDTO();
-        answerLikeRequestDTO.setAnswerId(answerId);
-        answerLikeRequestDTO.setUserId(userId);
-
-        when(answerRepository.findById(answerId)).thenReturn(Optional.empty());
-
-        // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> {
-            answerService.unlikeAnswer(answerLikeRequestDTO);
-        });
-
-        // Verify interactions
-        verify(answerRepository, times(1)).findById(answerId);
+        verify(engagementService, times(1)).unlike(LikeTarget.ANSWER, answerId, userId);
     }
 
     @Test
-    public void testUnlikeAnswer_UserNotFound() {
+    public void testUnlikeAnswer_UserLikeNotFound(){
         // Arrange
         Long answerId = 1L;
         Long userId = 2L;
@@ -840,53 +882,40 @@ public class AnswerServiceTest {
         answerLikeRequestDTO.setAnswerId(answerId);
         answerLikeRequestDTO.setUserId(userId);
 
-        Answer answer = new Answer();
-        answer.setId(answerId);
-
-        when(answerRepository.findById(answerId)).thenReturn(Optional.of(answer));
-        when(userRepository.findById(userId)).thenReturn((Optional.empty()));
+        doThrow(new BadRequestException("User did not like this answer"))
+                .when(engagementService).unlike(LikeTarget.ANSWER, answerId, userId);
 
         // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> {
+        assertThrows(BadRequestException.class, () -> {
             answerService.unlikeAnswer(answerLikeRequestDTO);
         });
-
-        // Verify interactions
-
-        verify(answerRepository, times(1)).findById(answerId);
-        verify(userRepository, times(1)).findById(userId);
     }
 
     @Test
-    public void testUnlikeAnswer_UserLikeNotFound(){
+    public void testGetAnswersByQuestionIdCursor() {
         // Arrange
-        Long answerId = 1L;
-        Long userId = 2L;
-        AnswerLikeRequestDTO answerLikeRequestDTO = new AnswerLikeRequestDTO();
-        answerLikeRequestDTO.setAnswerId(answerId);
-        answerLikeRequestDTO.setUserId(userId);
+        Long questionId = 1L;
+        Instant createdAt = Instant.now();
+        ListRequestDTO listRequestDTO = new ListRequestDTO();
+        listRequestDTO.setOrderBy("recent");
+        listRequestDTO.setPageSize(2);
+        listRequestDTO.setCursor(new KeysetCursor(createdAt, 5L).encode());
 
         Answer answer = new Answer();
-        answer.setId(answerId);
-
-        User user = new User();
-        user.setId(userId);
+        answer.setId(4L);
+        answer.setCreatedAt(createdAt);
 
-        when(answerRepository.findById(answerId)).thenReturn(Optional.of(answer));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(answerLikeRepository.existsByAnswerAndUser(answer, user)).thenReturn(false);
+        AnswerResponseDTO dto = new AnswerResponseDTO();
+        dto.setId(4L);
 
-        // Act & Assert
-        assertThrows(BadRequestException.class, () -> {
-            answerService.unlikeAnswer(answerLikeRequestDTO);
-        });
+        when(answerRepository.findRecentByQuestionIdAfter(questionId, createdAt, 5L, Pageable.ofSize(3))).thenReturn(List.of(answer));
+        when(answerMapper.convertToDTO(answer, 0L, 0L)).thenReturn(dto);
 
-        // Verify interactions
+        // Act
+        CursorPageResponseDTO<AnswerResponseDTO> result = answerService.getAnswersByQuestionIdCursor(questionId, listRequestDTO);
 
-        verify(answerRepository, times(1)).findById(answerId);
-        verify(userRepository, times(1)).findById(userId);
-        verify(answerLikeRepository, times(1)).existsByAnswerAndUser(answer, user);
+        // Assert
+        assertEquals(List.of(dto), result.getContent());
+        assertNull(result.getNextCursor());
     }
-
-
 }
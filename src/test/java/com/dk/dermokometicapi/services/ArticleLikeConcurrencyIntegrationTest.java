@@ -0,0 +1,118 @@
+package com.dk.dermokometicapi.services;
+
+import com.dk.dermokometicapi.likes.LikeStore;
+import com.dk.dermokometicapi.likes.LikeTarget;
+import com.dk.dermokometicapi.models.dto.ArticleLikeRequestDTO;
+import com.dk.dermokometicapi.models.dto.ArticleLikeResponseDTO;
+import com.dk.dermokometicapi.models.entities.Article;
+import com.dk.dermokometicapi.models.entities.ArticleDetail;
+import com.dk.dermokometicapi.models.entities.User;
+import com.dk.dermokometicapi.repositories.ArticleDetailRepository;
+import com.dk.dermokometicapi.repositories.ArticleRepository;
+import com.dk.dermokometicapi.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Not transactional: every like has to commit on its own so the threads really race on the unique constraint
+@SpringBootTest
+@ActiveProfiles("test")
+public class ArticleLikeConcurrencyIntegrationTest {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ArticleDetailRepository articleDetailRepository;
+
+    @Autowired
+    private LikeStore likeStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Article article;
+    private ArticleDetail articleDetail;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        articleDetail = new ArticleDetail();
+        articleDetail.setContent("Concurrent content");
+        articleDetail = articleDetailRepository.save(articleDetail);
+
+        article = new Article();
+        article.setTitle("Concurrent likes");
+        article.setDescription("Description");
+        article.setMainImg("Img");
+        article.setType("Type");
+        article.setPublicationDate(LocalDate.now());
+        article.setLastUpdateDate(LocalDate.now());
+        article.setArticleDetail(articleDetail);
+        article = articleRepository.save(article);
+
+        user = new User();
+        user.setUsername("Concurrent user");
+        user.setEmail("concurrent@test.com");
+        user.setPassword("Password");
+        user.setProfilePic("Pic");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        likeStore.deleteAll(LikeTarget.ARTICLE, article.getId());
+        articleRepository.deleteById(article.getId());
+        articleDetailRepository.deleteById(articleDetail.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    public void testCreateLike_ConcurrentRequestsWriteOnce() throws Exception {
+        ArticleLikeRequestDTO requestDTO = new ArticleLikeRequestDTO();
+        requestDTO.setArticleId(article.getId());
+        requestDTO.setUserId(user.getId());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ArticleLikeResponseDTO>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return articleService.createLike(requestDTO);
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            for (Future<ArticleLikeResponseDTO> result : results) {
+                if (!result.get(30, TimeUnit.SECONDS).isAlreadyLiked()) created++;
+            }
+
+            assertEquals(1, created);
+            assertEquals(1L, likeStore.count(LikeTarget.ARTICLE, article.getId()));
+            assertEquals(1L, articleRepository.findById(article.getId()).orElseThrow().getLikeCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
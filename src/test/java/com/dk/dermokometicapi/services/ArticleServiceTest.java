@@ -1,13 +1,25 @@
 package com.dk.dermokometicapi.services;
 
 
+import com.dk.dermokometicapi.cache.ArticleCache;
+import com.dk.dermokometicapi.cache.CategoryDictionary;
+import com.dk.dermokometicapi.feeds.FeedQuery;
+import com.dk.dermokometicapi.feeds.FeedRow;
+import com.dk.dermokometicapi.feeds.FeedStore;
+import com.dk.dermokometicapi.images.ImageStore;
+import com.dk.dermokometicapi.images.ImageVariants;
+import com.dk.dermokometicapi.likes.Engagement;
+import com.dk.dermokometicapi.likes.LikeTarget;
+import com.dk.dermokometicapi.search.SearchIndex;
 import com.dk.dermokometicapi.mappers.*;
 import com.dk.dermokometicapi.models.dto.*;
 import com.dk.dermokometicapi.models.entities.*;
 import com.dk.dermokometicapi.repositories.*;
 import com.dk.dermokometicapi.exceptions.*;
+import com.dk.dermokometicapi.utils.KeysetCursor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -15,11 +27,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -36,26 +52,56 @@ public class ArticleServiceTest {
     private WriterService writerService;
 
     @Mock
-    private ArticleLikeRepository articleLikeRepository;
+    private ArticleDetailRepository articleDetailRepository;
 
     @Mock
-    private UserService userService;
+    private CommentRepository commentRepository;
 
     @Mock
-    private ArticleLikeMapper articleLikeMapper;
+    private ArticleCache articleCache;
 
     @Mock
-    private ArticleDetailRepository articleDetailRepository;
+    private SearchIndex searchIndex;
 
     @Mock
-    private CommentRepository commentRepository;
+    private CategoryDictionary categoryDictionary;
+
+    @Mock
+    private EngagementService engagementService;
+
+    @Mock
+    private FeedStore feedStore;
+
+    @Mock
+    private ImageStore imageStore;
 
     @Mock
-    private CommentLikeRepository commentLikeRepository;
+    private ImageVariants imageVariants;
 
     @InjectMocks
     private ArticleService articleService;
 
+    private ArticleSummaryResponseDTO createSummaryDTO(Long id, String title) {
+        return new ArticleSummaryResponseDTO(id, title, null, "type 1", null,
+                LocalDate.now().toString(), LocalDate.now().toString(), 0L, 0L);
+    }
+
+    private FeedRow<ArticleSummaryResponseDTO> createFeedRow(Long id) {
+        return new FeedRow<>(createSummaryDTO(id, "Title" + id), new KeysetCursor(Instant.EPOCH.plusSeconds(id), id));
+    }
+
+    private FeedQuery capturePageQuery() {
+        ArgumentCaptor<FeedQuery> query = ArgumentCaptor.forClass(FeedQuery.class);
+        verify(feedStore).findPage(query.capture(), any(), any());
+        return query.getValue();
+    }
+
+    private FeedQuery captureSliceQuery() {
+        ArgumentCaptor<FeedQuery> query = ArgumentCaptor.forClass(FeedQuery.class);
+        verify(feedStore).findSlice(query.capture(), eq(3), any());
+        return query.getValue();
+    }
+
     @Test
     public void testGetAllArticles(){
         // Arrange
@@ -116,13 +162,12 @@ public class ArticleServiceTest {
         dto2.setLikes(likes2);
         dto2.setComments(comments2);
 
-        when(articleRepository.getAll()).thenReturn(articles);
-
+        article1.setLikeCount(likes1);
+        article1.setCommentCount(comments1);
+        article2.setLikeCount(likes2);
+        article2.setCommentCount(comments2);
 
-        when(articleLikeRepository.countByArticle(article1)).thenReturn(likes1);
-        when(articleLikeRepository.countByArticle(article2)).thenReturn(likes2);
-        when(commentRepository.countByArticle(article1)).thenReturn(comments1);
-        when(commentRepository.countByArticle(article2)).thenReturn(comments2);
+        when(articleRepository.getAll()).thenReturn(articles);
 
         when(articleMapper.convertToSummaryDTO(article1, likes1, comments1)).thenReturn(dto1);
         when(articleMapper.convertToSummaryDTO(article2, likes2, comments2)).thenReturn(dto2);
@@ -151,9 +196,15 @@ public class ArticleServiceTest {
         article.setArticleDetail(articleDetail);
 
         when(articleRepository.findById(articleId)).thenReturn(Optional.of(article));
+        when(commentRepository.findIdsByArticle(article)).thenReturn(List.of(3L, 4L));
 
         // Act
         articleService.deleteById(articleId);
+
+        // Assert
+        verify(engagementService).removeTargets(LikeTarget.COMMENT, List.of(3L, 4L));
+        verify(engagementService).removeTarget(LikeTarget.ARTICLE, articleId);
+        verify(searchIndex).remove(SearchIndex.Kind.ARTICLE, articleId);
     }
 
     @Test
@@ -243,9 +294,10 @@ public class ArticleServiceTest {
         articleSummaryResponseDTO.setLikes(likes);
         articleSummaryResponseDTO.setComments(comments);
 
+        article.setLikeCount(likes);
+        article.setCommentCount(comments);
+
         when(articleRepository.findByTitle(title)).thenReturn(Optional.of(article));
-        when(articleLikeRepository.countByArticle(article)).thenReturn(likes);
-        when(commentRepository.countByArticle(article)).thenReturn(comments);
 
         when(articleMapper.convertToSummaryDTO(article, likes, comments)).thenReturn(articleSummaryResponseDTO);
 
@@ -269,143 +321,125 @@ public class ArticleServiceTest {
     }
 
     @Test
-    public void testGetFilteredList_likesTyped() {
+    public void testGetFilteredList_likedByMe() {
         // Arrange
-        List<String> types = new ArrayList<>();
-        List<Article> articles = new ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            Article article = new Article();
-            article.setId((long) i);
-            article.setTitle("Title" + i);
-            article.setType("type 1");
-            article.setPublicationDate(LocalDate.now());
-            article.setLastUpdateDate(LocalDate.now());
-            articles.add(article);
+        List<ArticleSummaryResponseDTO> articles = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            articles.add(createSummaryDTO((long) i, "Title" + i));
         }
 
-        Pageable pageable = Pageable.ofSize(5).withPage(0);
-        Page<Article> page = new PageImpl<>(articles, pageable, articles.size());
-
-        when(articleRepository.findLikedArticleByType(types, pageable)).thenReturn(page);
-        when(articleLikeRepository.countByArticle(any(Article.class))).thenReturn(0L);
-        when(commentRepository.countByArticle(any(Article.class))).thenReturn(0L);
-        when(articleMapper.convertToSummaryDTO(any(Article.class), eq(0L), eq(0L))).thenAnswer(invocation -> {
-            Article question = invocation.getArgument(0);
-            Long likes = 0L;
-            Long answers = 0L;
-            return new ArticleSummaryResponseDTO(question.getId(), question.getTitle(), question.getDescription(), question.getType(), question.getMainImg(), question.getPublicationDate().toString(), question.getLastUpdateDate().toString(), likes, answers);
-        });
+        Pageable pageable = Pageable.ofSize(3).withPage(0);
+        when(feedStore.<ArticleSummaryResponseDTO>findPage(any(), eq(pageable), any())).thenReturn(new PageImpl<>(articles, pageable, articles.size()));
+        when(engagementService.likedIds(LikeTarget.ARTICLE, 7L, List.of(0L, 1L, 2L))).thenReturn(Set.of(1L));
 
         FilterRequestDTO filterRequestDTO = new FilterRequestDTO();
-        filterRequestDTO.setOrderBy("likes");
-        filterRequestDTO.setPageSize(5);
+        filterRequestDTO.setPageSize(3);
         filterRequestDTO.setPageNum(0);
-        filterRequestDTO.setCategories(types);
+        filterRequestDTO.setUserId(7L);
 
         // Act
         Page<ArticleSummaryResponseDTO> result = articleService.getFilteredList(filterRequestDTO);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(5, result.getContent().size());
-        for (int i = 0; i < 5; i++) {
-            ArticleSummaryResponseDTO dto = result.getContent().get(i);
-            assertEquals(i, dto.getId());
-            assertEquals("Title" + i, dto.getTitle());
-        }
+        assertEquals(List.of(false, true, false), result.getContent().stream().map(ArticleSummaryResponseDTO::getLikedByMe).toList());
+        verify(engagementService, times(1)).likedIds(eq(LikeTarget.ARTICLE), anyLong(), anyList());
     }
 
     @Test
-    public void testGetFilteredList_commentsTyped() {
+    public void testGetLikedIds() {
         // Arrange
-        List<String> types = List.of("type 1");
-        List<Article> articles = new ArrayList<>();
+        LikedByMeRequestDTO requestDTO = new LikedByMeRequestDTO(7L, List.of(3L, 1L, 2L, 3L));
+        when(engagementService.likedIds(LikeTarget.ARTICLE, 7L, requestDTO.getIds())).thenReturn(Set.of(1L, 3L));
+
+        // Act
+        List<Long> result = articleService.getLikedIds(requestDTO);
+
+        // Assert
+        assertEquals(List.of(3L, 1L), result);
+    }
+
+    @Test
+    public void testGetFilteredList_likes() {
+        // Arrange
+        List<ArticleSummaryResponseDTO> articles = new ArrayList<>();
         for (int i = 0; i < 5; i++) {
-            Article article = new Article();
-            article.setId((long) i);
-            article.setTitle("Title" + i);
-            article.setType("type 1");
-            article.setPublicationDate(LocalDate.now());
-            article.setLastUpdateDate(LocalDate.now());
-            articles.add(article);
+            articles.add(createSummaryDTO((long) i, "Title" + i));
         }
 
         Pageable pageable = Pageable.ofSize(5).withPage(0);
-        Page<Article> page = new PageImpl<>(articles, pageable, articles.size());
-
-        when(articleRepository.findCommentedArticleByType(types, pageable)).thenReturn(page);
-        when(articleLikeRepository.countByArticle(any(Article.class))).thenReturn(0L);
-        when(commentRepository.countByArticle(any(Article.class))).thenReturn(0L);
-        when(articleMapper.convertToSummaryDTO(any(Article.class), eq(0L), eq(0L))).thenAnswer(invocation -> {
-            Article question = invocation.getArgument(0);
-            Long likes = 0L;
-            Long answers = 0L;
-            return new ArticleSummaryResponseDTO(question.getId(), question.getTitle(), question.getDescription(), question.getType(), question.getMainImg(), question.getPublicationDate().toString(), question.getLastUpdateDate().toString(), likes, answers);
-        });
+        when(feedStore.<ArticleSummaryResponseDTO>findPage(any(), eq(pageable), any())).thenReturn(new PageImpl<>(articles, pageable, articles.size()));
 
         FilterRequestDTO filterRequestDTO = new FilterRequestDTO();
-        filterRequestDTO.setOrderBy("comments");
+        filterRequestDTO.setOrderBy("likes");
         filterRequestDTO.setPageSize(5);
         filterRequestDTO.setPageNum(0);
-        filterRequestDTO.setCategories(types);
 
         // Act
         Page<ArticleSummaryResponseDTO> result = articleService.getFilteredList(filterRequestDTO);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(5, result.getContent().size());
-        for (int i = 0; i < 5; i++) {
-            ArticleSummaryResponseDTO dto = result.getContent().get(i);
-            assertEquals(i, dto.getId());
-            assertEquals("Title" + i, dto.getTitle());
-        }
+        assertEquals(articles, result.getContent());
+        FeedQuery query = capturePageQuery();
+        assertTrue(query.pageSql().endsWith("ORDER BY a.like_count DESC, a.id DESC LIMIT :limit OFFSET :offset"));
+        assertTrue(query.parameters().isEmpty());
     }
 
     @Test
-    public void testGetFilteredList_recentTyped() {
+    public void testGetFilteredList_commentsTyped() {
         // Arrange
         List<String> types = List.of("type 1");
-        List<Article> articles = new ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            Article article = new Article();
-            article.setId((long) i);
-            article.setTitle("Title" + i);
-            article.setType("type 1");
-            article.setPublicationDate(LocalDate.now());
-            article.setLastUpdateDate(LocalDate.now());
-            articles.add(article);
-        }
+        Pageable pageable = Pageable.ofSize(5).withPage(1);
+        when(feedStore.<ArticleSummaryResponseDTO>findPage(any(), eq(pageable), any())).thenReturn(Page.empty(pageable));
 
+        FilterRequestDTO filterRequestDTO = new FilterRequestDTO();
+        filterRequestDTO.setOrderBy("comments");
+        filterRequestDTO.setPageSize(5);
+        filterRequestDTO.setPageNum(1);
+        filterRequestDTO.setCategories(types);
+
+        // Act
+        articleService.getFilteredList(filterRequestDTO);
+
+        // Assert
+        FeedQuery query = capturePageQuery();
+        assertTrue(query.pageSql().contains("WHERE a.type IN (:types) ORDER BY a.comment_count DESC"));
+        assertEquals(types, query.parameters().get("types"));
+    }
+
+    @Test
+    public void testGetFilteredList_authorAndDates() {
+        // Arrange
         Pageable pageable = Pageable.ofSize(5).withPage(0);
-        Page<Article> page = new PageImpl<>(articles, pageable, articles.size());
-
-        when(articleRepository.findRecentArticleByType(types, pageable)).thenReturn(page);
-        when(articleLikeRepository.countByArticle(any(Article.class))).thenReturn(0L);
-        when(commentRepository.countByArticle(any(Article.class))).thenReturn(0L);
-        when(articleMapper.convertToSummaryDTO(any(Article.class), eq(0L), eq(0L))).thenAnswer(invocation -> {
-            Article question = invocation.getArgument(0);
-            Long likes = 0L;
-            Long answers = 0L;
-            return new ArticleSummaryResponseDTO(question.getId(), question.getTitle(), question.getDescription(), question.getType(), question.getMainImg(), question.getPublicationDate().toString(), question.getLastUpdateDate().toString(), likes, answers);
-        });
+        when(feedStore.<ArticleSummaryResponseDTO>findPage(any(), eq(pageable), any())).thenReturn(Page.empty(pageable));
 
         FilterRequestDTO filterRequestDTO = new FilterRequestDTO();
         filterRequestDTO.setPageSize(5);
-        filterRequestDTO.setPageNum(0);
-        filterRequestDTO.setCategories(types);
+        filterRequestDTO.setAuthorId(4L);
+        filterRequestDTO.setPublishedFrom(LocalDate.of(2024, 1, 1));
+        filterRequestDTO.setPublishedTo(LocalDate.of(2024, 6, 30));
 
         // Act
-        Page<ArticleSummaryResponseDTO> result = articleService.getFilteredList(filterRequestDTO);
+        articleService.getFilteredList(filterRequestDTO);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(5, result.getContent().size());
-        for (int i = 0; i < 5; i++) {
-            ArticleSummaryResponseDTO dto = result.getContent().get(i);
-            assertEquals(i, dto.getId());
-            assertEquals("Title" + i, dto.getTitle());
-        }
+        FeedQuery query = capturePageQuery();
+        assertTrue(query.pageSql().contains("ORDER BY a.created_at DESC, a.id DESC"));
+        assertEquals(4L, query.parameters().get("authorId"));
+        assertEquals(LocalDate.of(2024, 1, 1), query.parameters().get("publishedFrom"));
+        assertEquals(LocalDate.of(2024, 6, 30), query.parameters().get("publishedTo"));
+    }
+
+    @Test
+    public void testGetFilteredList_invalidDateRange() {
+        // Arrange
+        FilterRequestDTO filterRequestDTO = new FilterRequestDTO();
+        filterRequestDTO.setPageSize(5);
+        filterRequestDTO.setPublishedFrom(LocalDate.of(2024, 6, 30));
+        filterRequestDTO.setPublishedTo(LocalDate.of(2024, 1, 1));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> articleService.getFilteredList(filterRequestDTO));
+        verifyNoInteractions(feedStore);
     }
 
     @Test
@@ -422,6 +456,8 @@ public class ArticleServiceTest {
 
         long likes = 1;
         long comments = 2;
+        article.setLikeCount(likes);
+        article.setCommentCount(comments);
 
 
         ArticleResponseDTO articleResponseDTO = new ArticleResponseDTO();
@@ -430,10 +466,8 @@ public class ArticleServiceTest {
         articleResponseDTO.setComments(comments);
         articleResponseDTO.setWriterIds(writerIds);
 
-        when(articleRepository.findById(id)).thenReturn(Optional.of(article));
+        when(articleRepository.findWithDetailById(id)).thenReturn(Optional.of(article));
         when(articleMapper.convertToDTO(article, article.getArticleDetail(), likes, comments, writerIds)).thenReturn(articleResponseDTO);
-        when(articleLikeRepository.countByArticle(article)).thenReturn(likes);
-        when(commentRepository.countByArticle(article)).thenReturn(comments);
         // Act
         ArticleResponseDTO result = articleService.getFullArticleById(id);
 
@@ -441,13 +475,30 @@ public class ArticleServiceTest {
         assertNotNull(result);
         assertEquals(result, articleResponseDTO);
         assertEquals(id, result.getId());
+        verify(articleCache).put(articleResponseDTO, 0L);
+    }
+
+    @Test
+    public void testGetFullArticleById_Cached() {
+        // Arrange
+        Long id = 1L;
+        ArticleResponseDTO articleResponseDTO = new ArticleResponseDTO();
+        articleResponseDTO.setId(id);
+        when(articleCache.getById(id)).thenReturn(Optional.of(articleResponseDTO));
+
+        // Act
+        ArticleResponseDTO result = articleService.getFullArticleById(id);
+
+        // Assert
+        assertEquals(articleResponseDTO, result);
+        verify(articleRepository, never()).findWithDetailById(id);
     }
 
     @Test
     public void testGetFullArticleById_NotFound() {
         // Arrange
         Long id = 1L;
-        when(articleRepository.findById(id)).thenReturn(Optional.empty());
+        when(articleRepository.findWithDetailById(id)).thenReturn(Optional.empty());
 
         // Assert and Act
         String expectedMessage = "Article not found with id: " + id;
@@ -455,6 +506,26 @@ public class ArticleServiceTest {
         assertEquals(expectedMessage, exception.getMessage());
     }
 
+    @Test
+    public void testGetVersion() {
+        // Arrange
+        ArticleResponseDTO article = new ArticleResponseDTO();
+        article.setId(1L);
+        article.setLikes(1L);
+        article.setComments(0L);
+        article.setContentVersion(0L);
+        String first = articleService.getVersion(article).getEtag();
+
+        // Act & Assert
+        assertEquals(first, articleService.getVersion(article).getEtag());
+        article.setLikes(2L);
+        String liked = articleService.getVersion(article).getEtag();
+        assertNotEquals(first, liked);
+        article.setContentVersion(1L);
+        assertNotEquals(liked, articleService.getVersion(article).getEtag());
+        verifyNoInteractions(articleRepository);
+    }
+
     @Test
     public void testCreateArticle() {
         // Arrange
@@ -488,8 +559,6 @@ public class ArticleServiceTest {
         when(writerService.getEntities(articleRequestDTO.getWriterIds())).thenReturn(writers);
         when(articleMapper.convertToEntity(articleRequestDTO, writers)).thenReturn(article);
         when(articleMapper.convertToDetailEntity(articleRequestDTO)).thenReturn(articleDetail);
-        when(articleLikeRepository.countByArticle(article)).thenReturn(0L);
-        when(commentRepository.countByArticle(article)).thenReturn(0L);
         when(articleMapper.convertToDTO(article, article.getArticleDetail(), 0L, 0L, articleRequestDTO.getWriterIds())).thenReturn(articleResponseDTO);
 
         // Act
@@ -500,6 +569,8 @@ public class ArticleServiceTest {
         assertEquals(article.getId(), result.getId());
         assertEquals(articleRequestDTO.getTitle(), result.getTitle());
         assertEquals(articleRequestDTO.getContent(), result.getContent());
+        verify(searchIndex).indexArticle(article.getId(), article.getType(), article.getTitle(), article.getDescription(), "content");
+        verify(categoryDictionary).addArticle(article.getType());
     }
 
     @Test
@@ -517,124 +588,102 @@ public class ArticleServiceTest {
 
     @Test
     public void testCreateLike() {
-
         // Arrange
-        Article article = new Article();
-        article.setId(1L);
+        LocalDate today = LocalDate.now();
+        ArticleLikeRequestDTO requestDTO = new ArticleLikeRequestDTO();
+        requestDTO.setArticleId(1L);
+        requestDTO.setUserId(2L);
 
-        User user = new User();
-        user.setId(1L);
+        when(engagementService.like(LikeTarget.ARTICLE, 1L, 2L))
+                .thenReturn(new Engagement(3L, LikeTarget.ARTICLE, 1L, 2L, today, false));
 
+        // Act
+        ArticleLikeResponseDTO responseDTO = articleService.createLike(requestDTO);
+
+        // Assert
+        assertEquals(new ArticleLikeResponseDTO(3L, 1L, 2L, today.toString(), false), responseDTO);
+    }
+
+    @Test
+    public void testCreateLike_UserAlreadyLiked() {
+        // Arrange
         ArticleLikeRequestDTO requestDTO = new ArticleLikeRequestDTO();
         requestDTO.setArticleId(1L);
         requestDTO.setUserId(1L);
 
-        when(articleRepository.findById(1L)).thenReturn(Optional.of(article));
-        when(userService.getEntityById(1L)).thenReturn(user);
-        when(articleLikeRepository.existsByArticleAndUser(article, user)).thenReturn(false);
-
-        ArticleLike newLike = new ArticleLike();
-        newLike.setArticle(article);
-        newLike.setUser(user);
-        newLike.setLikeDate(LocalDate.now());
-
-        when(articleLikeRepository.save(any(ArticleLike.class))).thenReturn(newLike);
-        when(articleLikeMapper.convertToResponseDTO(newLike)).thenReturn(new ArticleLikeResponseDTO());
+        when(engagementService.like(LikeTarget.ARTICLE, 1L, 1L))
+                .thenReturn(new Engagement(5L, LikeTarget.ARTICLE, 1L, 1L, LocalDate.now(), true));
 
         // Act
         ArticleLikeResponseDTO responseDTO = articleService.createLike(requestDTO);
 
         // Assert
-        assertNotNull(responseDTO);
+        assertEquals(5L, responseDTO.getId());
+        assertTrue(responseDTO.isAlreadyLiked());
     }
 
     @Test
-    public void testCreateLike_ArticleNotFound() {
+    public void testCreateLike_WriteBehind() {
         // Arrange
-        Article article = new Article();
-        article.setId(1L);
-
-        User user = new User();
-        user.setId(1L);
-
         ArticleLikeRequestDTO requestDTO = new ArticleLikeRequestDTO();
         requestDTO.setArticleId(1L);
         requestDTO.setUserId(1L);
 
-        when(articleRepository.findById(1L)).thenReturn(Optional.empty());
+        // buffered likes have no row yet, so no id
+        when(engagementService.like(LikeTarget.ARTICLE, 1L, 1L))
+                .thenReturn(new Engagement(null, LikeTarget.ARTICLE, 1L, 1L, LocalDate.now(), false));
 
-        // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> articleService.createLike(requestDTO));
+        // Act
+        ArticleLikeResponseDTO responseDTO = articleService.createLike(requestDTO);
+
+        // Assert
+        assertNull(responseDTO.getId());
+        assertEquals(1L, responseDTO.getArticleId());
+        assertFalse(responseDTO.isAlreadyLiked());
     }
 
     @Test
-    public void testCreateLike_UserAlreadyLiked() {
+    public void testCreateLike_ArticleNotFound() {
         // Arrange
-        Article article = new Article();
-        article.setId(1L);
-
-        User user = new User();
-        user.setId(1L);
-
         ArticleLikeRequestDTO requestDTO = new ArticleLikeRequestDTO();
         requestDTO.setArticleId(1L);
         requestDTO.setUserId(1L);
 
-        when(articleRepository.findById(1L)).thenReturn(Optional.of(article));
-        when(userService.getEntityById(1L)).thenReturn(user);
-        when(articleLikeRepository.existsByArticleAndUser(article, user)).thenReturn(true);
+        when(engagementService.like(LikeTarget.ARTICLE, 1L, 1L))
+                .thenThrow(new ResourceNotFoundException("Article not found with id: 1"));
 
         // Act & Assert
-        assertThrows(BadRequestException.class, () -> articleService.createLike(requestDTO));
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> articleService.createLike(requestDTO));
+        assertEquals("Article not found with id: 1", exception.getMessage());
     }
 
     @Test
     public void testDeleteLike() {
-        // Arrange
-        Article article = new Article();
-        article.setId(1L);
-
-        User user = new User();
-        user.setId(1L);
-
-        when(articleRepository.findById(1L)).thenReturn(Optional.of(article));
-        when(userService.getEntityById(1L)).thenReturn(user);
-        when(articleLikeRepository.existsByArticleAndUser(article, user)).thenReturn(true);
-
         // Act
-        assertDoesNotThrow(() -> articleService.deleteLike(article.getId(), user.getId()));
+        assertDoesNotThrow(() -> articleService.deleteLike(1L, 1L));
+
+        // Assert
+        verify(engagementService).unlike(LikeTarget.ARTICLE, 1L, 1L);
     }
 
     @Test
-    public void testDeleteLike_ArticleNotFound() {
+    public void testDeleteLike_UserDidNotLike() {
         // Arrange
-        Article article = new Article();
-        article.setId(1L);
-
-        User user = new User();
-        user.setId(1L);
-
-        when(articleRepository.findById(1L)).thenReturn(Optional.empty());
+        doThrow(new BadRequestException("User did not like this article"))
+                .when(engagementService).unlike(LikeTarget.ARTICLE, 1L, 1L);
 
-        // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> articleService.deleteLike(article.getId(), user.getId()));
+        // Act and Assert
+        assertThrows(BadRequestException.class, () -> articleService.deleteLike(1L, 1L));
     }
 
     @Test
-    public void testDeleteLike_UserDidNotLike() {
+    public void testGetLike() {
         // Arrange
-        Article article = new Article();
-        article.setId(1L);
-
-        User user = new User();
-        user.setId(1L);
+        when(engagementService.exists(LikeTarget.ARTICLE, 1L, 2L)).thenReturn(true);
 
-        when(articleRepository.findById(1L)).thenReturn(Optional.of(article));
-        when(userService.getEntityById(1L)).thenReturn(user);
-        when(articleLikeRepository.existsByArticleAndUser(article, user)).thenReturn(false);
-
-        // Act and Assert
-        assertThrows(BadRequestException.class, () -> articleService.deleteLike(article.getId(), user.getId()));
+        // Act & Assert
+        assertTrue(articleService.getLike(1L, 2L));
+        verify(articleRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -675,7 +724,7 @@ public class ArticleServiceTest {
 
         articleDetail.setContent(articleRequestDTO.getContent());
 
-        ArticleResponseDTO articleResponseDTO = new ArticleResponseDTO(1L, article.getTitle(), article.getDescription(), article.getType(), article.getMainImg(), LocalDate.now().toString(), LocalDate.now().toString(), 0L, 0L, writersIds, articleRequestDTO.getContent());
+        ArticleResponseDTO articleResponseDTO = new ArticleResponseDTO(1L, article.getTitle(), article.getDescription(), article.getType(), article.getMainImg(), LocalDate.now().toString(), LocalDate.now().toString(), 0L, 0L, writersIds, articleRequestDTO.getContent(), 0L);
         when(articleMapper.convertToDTO(article, articleDetail, 0L, 0L, writersIds)).thenReturn(articleResponseDTO);
 
         // Act
@@ -688,6 +737,7 @@ public class ArticleServiceTest {
         assertEquals(articleResponseDTO.getType(), result.getType());
         assertEquals(articleResponseDTO.getMainImg(), result.getMainImg());
         assertEquals(articleResponseDTO.getContent(), result.getContent());
+        verify(articleRepository).bumpContentVersion(articleId);
     }
 
     @Test
@@ -722,6 +772,44 @@ public class ArticleServiceTest {
         assertEquals(expectedMessage, exception.getMessage());
     }
 
+    @Test
+    public void testUpdateMainImg() {
+        // Arrange
+        byte[] image = {1, 2, 3};
+        Article article = new Article();
+        article.setId(1L);
+        article.setMainImg("https://example.com/main.png");
+        article.setWriters(List.of());
+        ArticleDetail articleDetail = new ArticleDetail();
+        articleDetail.setId(1L);
+        article.setArticleDetail(articleDetail);
+        when(articleRepository.findById(1L)).thenReturn(Optional.of(article));
+        when(articleDetailRepository.findById(1L)).thenReturn(Optional.of(articleDetail));
+        when(imageStore.store(image)).thenReturn("key.png");
+        ArticleResponseDTO articleResponseDTO = new ArticleResponseDTO();
+        when(articleMapper.convertToDTO(article, articleDetail, 0L, 0L, List.of())).thenReturn(articleResponseDTO);
+
+        // Act
+        ArticleResponseDTO result = articleService.updateMainImg(1L, image);
+
+        // Assert
+        assertSame(articleResponseDTO, result);
+        assertEquals("key.png", article.getMainImage());
+        assertNull(article.getMainImg());
+        verify(articleRepository).save(article);
+        verify(articleRepository).bumpContentVersion(1L);
+        verify(articleCache).evict(1L);
+        verify(imageVariants).prepare("key.png");
+    }
+
+    @Test
+    public void testUpdateMainImg_ArticleNotFound() {
+        when(articleRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> articleService.updateMainImg(1L, new byte[]{1}));
+        verifyNoInteractions(imageStore, imageVariants);
+    }
+
     @Test
     public void testGetFullArticleByTitle(){
         // Arrange
@@ -747,10 +835,10 @@ public class ArticleServiceTest {
 
         Long likes = 5L;
         Long comments = 10L;
+        article.setLikeCount(likes);
+        article.setCommentCount(comments);
 
-        when(articleRepository.findByTitle(title)).thenReturn(Optional.of(article));
-        when(articleLikeRepository.countByArticle(article)).thenReturn(likes);
-        when(commentRepository.countByArticle(article)).thenReturn(comments);
+        when(articleRepository.findWithDetailByTitle(title)).thenReturn(Optional.of(article));
         when(articleMapper.convertToDTO(article, articleDetail, likes, comments, ids)).thenReturn(articleResponseDTO);
 
         // Act
@@ -767,7 +855,7 @@ public class ArticleServiceTest {
         // Arrange
         String title = "title";
 
-        when(articleRepository.findByTitle(title)).thenReturn(Optional.empty());
+        when(articleRepository.findWithDetailByTitle(title)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> articleService.getFullArticleByTitle(title));
@@ -777,7 +865,7 @@ public class ArticleServiceTest {
     public void testGetTypes(){
         // Arrange
         List<String> types = Arrays.asList("type1", "type2", "type3");
-        when(articleRepository.findDistinctTypes()).thenReturn(types);
+        when(categoryDictionary.getArticleTypes()).thenReturn(types);
 
         // Act
         List<String> result = articleService.getTypes();
@@ -787,4 +875,71 @@ public class ArticleServiceTest {
         assertEquals(types, result);
     }
 
+    @Test
+    public void testGetCursorList_firstPage() {
+        // Arrange
+        List<String> types = List.of("type 1");
+        List<FeedRow<ArticleSummaryResponseDTO>> rows = List.of(createFeedRow(3L), createFeedRow(2L), createFeedRow(1L));
+        when(feedStore.<ArticleSummaryResponseDTO>findSlice(any(), eq(3), any())).thenReturn(rows);
+
+        FilterRequestDTO filterRequestDTO = new FilterRequestDTO();
+        filterRequestDTO.setPageSize(2);
+        filterRequestDTO.setCategories(types);
+
+        // Act
+        CursorPageResponseDTO<ArticleSummaryResponseDTO> result = articleService.getCursorList(filterRequestDTO);
+
+        // Assert
+        assertEquals(2, result.getSize());
+        assertEquals(3L, result.getContent().get(0).getId());
+        assertEquals(2L, result.getContent().get(1).getId());
+        KeysetCursor next = KeysetCursor.decode(result.getNextCursor());
+        assertEquals(2L, next.getId());
+        assertEquals(Instant.EPOCH.plusSeconds(2), next.getCreatedAt());
+        assertEquals(Map.of("types", types), captureSliceQuery().parameters());
+    }
+
+    @Test
+    public void testGetCursorList_lastPage() {
+        // Arrange
+        Instant createdAt = Instant.now();
+        when(feedStore.<ArticleSummaryResponseDTO>findSlice(any(), eq(3), any())).thenReturn(List.of(createFeedRow(1L)));
+
+        FilterRequestDTO filterRequestDTO = new FilterRequestDTO();
+        filterRequestDTO.setPageSize(2);
+        filterRequestDTO.setCursor(new KeysetCursor(createdAt, 2L).encode());
+
+        // Act
+        CursorPageResponseDTO<ArticleSummaryResponseDTO> result = articleService.getCursorList(filterRequestDTO);
+
+        // Assert
+        assertEquals(1, result.getSize());
+        assertNull(result.getNextCursor());
+        Map<String, Object> parameters = captureSliceQuery().parameters();
+        assertEquals(2L, parameters.get("afterId"));
+        assertEquals(createdAt.atOffset(ZoneOffset.UTC), parameters.get("afterCreatedAt"));
+    }
+
+    @Test
+    public void testGetCursorList_invalidCursor() {
+        // Arrange
+        FilterRequestDTO filterRequestDTO = new FilterRequestDTO();
+        filterRequestDTO.setPageSize(2);
+        filterRequestDTO.setCategories(List.of("type 1"));
+        filterRequestDTO.setCursor("not a cursor");
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> articleService.getCursorList(filterRequestDTO));
+    }
+
+    @Test
+    public void testGetCursorList_unsupportedOrder() {
+        // Arrange
+        FilterRequestDTO filterRequestDTO = new FilterRequestDTO();
+        filterRequestDTO.setPageSize(2);
+        filterRequestDTO.setOrderBy("likes");
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> articleService.getCursorList(filterRequestDTO));
+    }
 }
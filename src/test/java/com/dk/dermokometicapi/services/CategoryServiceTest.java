@@ -0,0 +1,61 @@
+package com.dk.dermokometicapi.services;
+
+import com.dk.dermokometicapi.cache.CategoryDictionary;
+import com.dk.dermokometicapi.models.dto.CategoryResponseDTO;
+import com.dk.dermokometicapi.models.projections.TypeCountProjection;
+import com.dk.dermokometicapi.repositories.ArticleRepository;
+import com.dk.dermokometicapi.repositories.QuestionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CategoryServiceTest {
+
+    @Mock
+    private CategoryDictionary categoryDictionary;
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    @InjectMocks
+    private CategoryService categoryService;
+
+    @Test
+    public void testGetCategories() {
+        // Arrange
+        List<CategoryResponseDTO> categories = List.of(new CategoryResponseDTO("Acne", 1, 2));
+        when(categoryDictionary.getCategories()).thenReturn(categories);
+
+        // Act
+        List<CategoryResponseDTO> result = categoryService.getCategories();
+
+        // Assert
+        assertEquals(categories, result);
+    }
+
+    @Test
+    public void testLoadCategories() {
+        // Arrange
+        List<TypeCountProjection> articleTypes = List.of(mock(TypeCountProjection.class));
+        List<TypeCountProjection> questionTypes = List.of(mock(TypeCountProjection.class));
+        when(articleRepository.findTypeCounts()).thenReturn(articleTypes);
+        when(questionRepository.findTypeCounts()).thenReturn(questionTypes);
+
+        // Act
+        categoryService.loadCategories();
+
+        // Assert
+        verify(categoryDictionary).load(articleTypes, questionTypes);
+    }
+}
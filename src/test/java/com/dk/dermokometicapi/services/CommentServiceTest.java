@@ -5,28 +5,45 @@ import com.dk.dermokometicapi.models.entities.Article;
 import com.dk.dermokometicapi.models.entities.Comment;
 import com.dk.dermokometicapi.models.entities.CommentLike;
 import com.dk.dermokometicapi.models.entities.User;
+import com.dk.dermokometicapi.models.projections.CommentThreadProjection;
+import com.dk.dermokometicapi.models.projections.IdCountProjection;
 import com.dk.dermokometicapi.exceptions.BadRequestException;
 import com.dk.dermokometicapi.exceptions.ResourceNotFoundException;
-import com.dk.dermokometicapi.mappers.CommentLikeMapper;
+import com.dk.dermokometicapi.cache.ArticleCache;
+import com.dk.dermokometicapi.cache.CommentPageCache;
+import com.dk.dermokometicapi.likes.Engagement;
+import com.dk.dermokometicapi.likes.LikeTarget;
+import com.dk.dermokometicapi.live.LiveStreamHub;
+import com.dk.dermokometicapi.live.LiveTopic;
 import com.dk.dermokometicapi.mappers.CommentMapper;
 import com.dk.dermokometicapi.repositories.ArticleRepository;
 import com.dk.dermokometicapi.repositories.CommentLikeRepository;
 import com.dk.dermokometicapi.repositories.CommentRepository;
 import com.dk.dermokometicapi.repositories.UserRepository;
+import com.dk.dermokometicapi.threads.ThreadPath;
+import com.dk.dermokometicapi.utils.KeysetCursor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -49,7 +66,17 @@ public class CommentServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private CommentLikeMapper commentLikeMapper;
+    private ArticleCache articleCache;
+
+    @Mock
+    private EngagementService engagementService;
+
+    @Mock
+    private LiveStreamHub liveStreamHub;
+
+    // disabled, every page goes to the repositories
+    @Spy
+    private CommentPageCache commentPageCache = new CommentPageCache(false, 0, 0);
 
     @InjectMocks
     private CommentService commentService;
@@ -70,7 +97,7 @@ public class CommentServiceTest {
         commentResponseDTO.setParentCommentId(commentParent);
         commentResponseDTO.setLikeNumber(likes);
 
-        when(commentLikeRepository.countByComment(comment)).thenReturn(likes);
+        when(engagementService.count(LikeTarget.COMMENT, id)).thenReturn(likes);
         when(commentRepository.countByParentComment(comment)).thenReturn(commentParent);
         when(commentMapper.convertToDTO(comment, likes, commentParent)).thenReturn(commentResponseDTO);
 
@@ -82,7 +109,7 @@ public class CommentServiceTest {
         assertEquals(commentResponseDTO, result);
 
         //verify
-        verify(commentLikeRepository).countByComment(comment);
+        verify(engagementService).count(LikeTarget.COMMENT, id);
         verify(commentRepository).countByParentComment(comment);
         verify(commentMapper).convertToDTO(comment, likes, commentParent);
     }
@@ -137,7 +164,7 @@ public class CommentServiceTest {
         commentResponseDTO.setLikeNumber(likes);
 
         when(commentRepository.findById(id)).thenReturn(Optional.of(comment));
-        when(commentLikeRepository.countByComment(comment)).thenReturn(likes);
+        when(engagementService.count(LikeTarget.COMMENT, id)).thenReturn(likes);
         when(commentRepository.countByParentComment(comment)).thenReturn(commentParent);
         when(commentMapper.convertToDTO(comment, likes, commentParent)).thenReturn(commentResponseDTO);
 
@@ -147,7 +174,7 @@ public class CommentServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(commentResponseDTO, result);
-        verify(commentLikeRepository).countByComment(comment);
+        verify(engagementService).count(LikeTarget.COMMENT, id);
         verify(commentRepository).countByParentComment(comment);
         verify(commentMapper).convertToDTO(comment, likes, commentParent);
     }
@@ -204,6 +231,7 @@ public class CommentServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(commentResponseDTO, result);
+        verify(articleRepository).addToCommentCount(articleId, 1);
     }
 
     @Test
@@ -343,6 +371,66 @@ public class CommentServiceTest {
         verify(commentMapper).convertToDTO(comment2, 0L, 0L);
     }
 
+    private IdCountProjection idCount(long id, long total) {
+        return new IdCountProjection() {
+            public Long getId() { return id; }
+            public Long getTotal() { return total; }
+        };
+    }
+
+    @Test
+    public void testStreamByArticleId() {
+        // Arrange
+        SseEmitter emitter = new SseEmitter();
+        when(articleRepository.existsById(1L)).thenReturn(true);
+        when(liveStreamHub.subscribe(LiveTopic.article(1L))).thenReturn(emitter);
+
+        // Act & Assert
+        assertSame(emitter, commentService.streamByArticleId(1L));
+    }
+
+    @Test
+    public void testStreamByArticleId_NotFound() {
+        // Arrange
+        when(articleRepository.existsById(1L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> commentService.streamByArticleId(1L));
+        verify(liveStreamHub, never()).subscribe(any());
+    }
+
+    @Test
+    public void testGetCommentsByArticleId_BatchedCounts() {
+        // Arrange
+        ListRequestDTO listRequestDTO = new ListRequestDTO();
+        listRequestDTO.setPageSize(2);
+        listRequestDTO.setPageNum(0);
+        listRequestDTO.setOrderBy("recent");
+
+        Comment comment1 = new Comment();
+        comment1.setId(1L);
+        Comment comment2 = new Comment();
+        comment2.setId(2L);
+        Pageable pageable = Pageable.ofSize(2).withPage(0);
+
+        CommentResponseDTO commentResponseDTO1 = new CommentResponseDTO();
+        CommentResponseDTO commentResponseDTO2 = new CommentResponseDTO();
+
+        when(commentRepository.findRecentCommentsByArticle_id(1L, pageable)).thenReturn(new PageImpl<>(List.of(comment1, comment2), pageable, 2));
+        when(engagementService.counts(LikeTarget.COMMENT, List.of(1L, 2L))).thenReturn(Map.of(1L, 5L));
+        when(commentRepository.countRepliesByParentIds(List.of(1L, 2L))).thenReturn(List.of(idCount(2L, 3L)));
+        when(commentMapper.convertToDTO(comment1, 5L, 0L)).thenReturn(commentResponseDTO1);
+        when(commentMapper.convertToDTO(comment2, 0L, 3L)).thenReturn(commentResponseDTO2);
+
+        // Act
+        Page<CommentResponseDTO> result = commentService.getCommentsByArticleId(1L, listRequestDTO);
+
+        // Assert
+        assertEquals(List.of(commentResponseDTO1, commentResponseDTO2), result.getContent());
+        verify(commentRepository, never()).countByParentComment(any());
+        verify(engagementService, never()).count(any(), any());
+    }
+
     @Test
     public void testGetCommentsByArticleId_Comments() {
         // Arrange
@@ -558,12 +646,102 @@ public class CommentServiceTest {
         verify(commentMapper).convertToDTO(comment2, 0L, 0L);
     }
 
+    private CommentThreadProjection threadRow(Long id, Long parentId) {
+        return new CommentThreadProjection() {
+            public Long getId() { return id; }
+            public String getContent() { return "Content " + id; }
+            public String getPublicationDate() { return LocalDate.now().toString(); }
+            public Long getParentCommentId() { return parentId; }
+            public Long getArticleId() { return 1L; }
+            public Long getUserId() { return 1L; }
+        };
+    }
+
+    private CommentThreadResponseDTO threadNode(CommentThreadProjection row, Long likeNumber, Long responseNumber) {
+        CommentThreadResponseDTO dto = new CommentThreadResponseDTO();
+        dto.setId(row.getId());
+        dto.setParentCommentId(row.getParentCommentId());
+        dto.setLikeNumber(likeNumber);
+        dto.setResponseNumber(responseNumber);
+        return dto;
+    }
+
+    @Test
+    public void testGetThreadByArticleId() {
+        // Arrange
+        List<CommentThreadProjection> rows = List.of(threadRow(2L, null), threadRow(1L, null), threadRow(4L, 1L),
+                threadRow(3L, 1L), threadRow(5L, 4L));
+        when(commentRepository.findThreadByArticle_id(1L, 3, 10)).thenReturn(rows);
+        when(commentMapper.convertToThreadDTO(any(CommentThreadProjection.class), anyLong(), anyLong())).thenAnswer(invocation ->
+                threadNode(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+
+        // Act
+        List<CommentThreadResponseDTO> result = commentService.getThreadByArticleId(1L, 3, 10);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), result.stream().map(CommentThreadResponseDTO::getId).toList());
+        assertTrue(result.get(0).getReplies().isEmpty());
+        List<CommentThreadResponseDTO> replies = result.get(1).getReplies();
+        assertEquals(List.of(4L, 3L), replies.stream().map(CommentThreadResponseDTO::getId).toList());
+        assertEquals(5L, replies.get(0).getReplies().get(0).getId());
+    }
+
+    @Test
+    public void testGetThreadByArticleId_BatchedCounts() {
+        // Arrange
+        List<CommentThreadProjection> rows = List.of(threadRow(1L, null), threadRow(2L, 1L));
+        when(commentRepository.findThreadByArticle_id(1L, 2, 1)).thenReturn(rows);
+        when(engagementService.counts(LikeTarget.COMMENT, List.of(1L, 2L))).thenReturn(Map.of(1L, 5L));
+        // the reply count is every reply of a comment, not only the ones within the breadth
+        when(commentRepository.countRepliesByParentIds(List.of(1L, 2L))).thenReturn(List.of(idCount(1L, 3L)));
+        when(commentMapper.convertToThreadDTO(any(CommentThreadProjection.class), anyLong(), anyLong())).thenAnswer(invocation ->
+                threadNode(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+
+        // Act
+        List<CommentThreadResponseDTO> result = commentService.getThreadByArticleId(1L, 2, 1);
+
+        // Assert
+        assertEquals(5L, result.get(0).getLikeNumber());
+        assertEquals(3L, result.get(0).getResponseNumber());
+        CommentThreadResponseDTO reply = result.get(0).getReplies().get(0);
+        assertEquals(0L, reply.getLikeNumber());
+        assertEquals(0L, reply.getResponseNumber());
+        verify(commentRepository, never()).countByParentComment(any());
+        verify(engagementService, never()).count(any(), any());
+    }
+
+    @Test
+    public void testGetThreadByParentId() {
+        // Arrange
+        when(commentRepository.findThreadByParentComment_id(1L, 2, 5)).thenReturn(List.of(threadRow(3L, 1L), threadRow(4L, 3L)));
+        when(commentMapper.convertToThreadDTO(any(CommentThreadProjection.class), anyLong(), anyLong())).thenAnswer(invocation ->
+                threadNode(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+
+        // Act
+        List<CommentThreadResponseDTO> result = commentService.getThreadByParentId(1L, 2, 5);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(3L, result.get(0).getId());
+        assertEquals(4L, result.get(0).getReplies().get(0).getId());
+    }
+
+    @Test
+    public void testGetThreadByArticleId_DepthTooLarge() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> commentService.getThreadByArticleId(1L, CommentThreadResponseDTO.MAX_DEPTH + 1, 10));
+        verify(commentRepository, never()).findThreadByArticle_id(anyLong(), anyInt(), anyInt());
+    }
+
     @Test
     public void testDeleteComment(){
         // Arrange
         Long id = 1L;
+        Article article = new Article();
+        article.setId(2L);
         Comment comment = new Comment();
         comment.setId(id);
+        comment.setArticle(article);
 
         when(commentRepository.findById(id)).thenReturn(Optional.of(comment));
 
@@ -573,6 +751,35 @@ public class CommentServiceTest {
         //verify
         verify(commentRepository).findById(id);
         verify(commentRepository).deleteById(id);
+        verify(engagementService).removeTargets(LikeTarget.COMMENT, List.of(id));
+        verify(articleRepository).addToCommentCount(2L, -1);
+    }
+
+    @Test
+    public void testDeleteComment_WithReplies(){
+        // Arrange
+        Long id = 1L;
+        Article article = new Article();
+        article.setId(2L);
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setArticle(article);
+        comment.setPath(ThreadPath.child(null, id));
+        String upperBound = ThreadPath.upperBound(comment.getPath());
+
+        when(commentRepository.findById(id)).thenReturn(Optional.of(comment));
+        when(commentRepository.findSubtreeIds(comment.getPath(), upperBound)).thenReturn(List.of(1L, 3L, 4L));
+        when(commentRepository.deleteSubtree(comment.getPath(), upperBound)).thenReturn(3);
+
+        // Act
+        commentService.deleteComment(id);
+
+        //verify
+        verify(engagementService).removeTargets(LikeTarget.COMMENT, List.of(1L, 3L, 4L));
+        verify(commentRepository).detachSubtree(comment.getPath(), upperBound);
+        verify(commentRepository, never()).deleteById(anyLong());
+        verify(articleRepository).addToCommentCount(2L, -3);
+        verify(articleCache).adjustCounts(2L, 0, -3);
     }
 
     @Test
@@ -592,139 +799,79 @@ public class CommentServiceTest {
     @Test
     public void testAddLike() {
         // Arrange
+        Long commentId = 1L;
         Long userId = 1L;
 
-        User user = new User();
-        user.setId(userId);
-
-        Comment comment = new Comment();
-        comment.setId(1L);
-        comment.setUser(user);
-
         CommentLikeRequestDTO commentLikeRequestDTO = new CommentLikeRequestDTO();
-        commentLikeRequestDTO.setCommentId(comment.getId());
-        commentLikeRequestDTO.setUserId(user.getId());
-
-        CommentLike commentLike = new CommentLike();
-        commentLike.setComment(comment);
-        commentLike.setUser(user);
-        commentLike.setPublicationDate(LocalDate.now());
-
-        CommentLikeResponseDTO commentLikeResponseDTO = new CommentLikeResponseDTO();
-        commentLikeResponseDTO.setCommentId(comment.getId());
-        commentLikeResponseDTO.setUserId(user.getId());
+        commentLikeRequestDTO.setCommentId(commentId);
+        commentLikeRequestDTO.setUserId(userId);
 
-        when(commentRepository.findById(userId)).thenReturn(Optional.of(comment));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(commentLikeRepository.existsByCommentAndUser(comment, user)).thenReturn(false);
-        when(commentLikeRepository.save(commentLike)).thenReturn(commentLike);
-        when(commentLikeMapper.convertToDTO(commentLike)).thenReturn(commentLikeResponseDTO);
+        LocalDate today = LocalDate.now();
+        when(engagementService.like(LikeTarget.COMMENT, commentId, userId))
+                .thenReturn(new Engagement(5L, LikeTarget.COMMENT, commentId, userId, today, false));
 
         // Act
         CommentLikeResponseDTO result = commentService.addLike(commentLikeRequestDTO);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(commentLikeResponseDTO, result);
-        //verify
-        verify(commentRepository).findById(userId);
-        verify(userRepository).findById(userId);
-        verify(commentLikeRepository).existsByCommentAndUser(comment, user);
-        verify(commentLikeRepository).save(commentLike);
+        assertEquals(new CommentLikeResponseDTO(5L, commentId, userId, today.toString(), false), result);
     }
 
     @Test
     public void testAddLike_CommentAndUserAlreadyExists() {
         // Arrange
+        Long commentId = 1L;
         Long userId = 1L;
 
-        User user = new User();
-        user.setId(userId);
-
-        Comment comment = new Comment();
-        comment.setId(1L);
-        comment.setUser(user);
-
         CommentLikeRequestDTO commentLikeRequestDTO = new CommentLikeRequestDTO();
-        commentLikeRequestDTO.setCommentId(comment.getId());
-        commentLikeRequestDTO.setUserId(user.getId());
-
+        commentLikeRequestDTO.setCommentId(commentId);
+        commentLikeRequestDTO.setUserId(userId);
 
-        CommentLikeResponseDTO commentLikeResponseDTO = new CommentLikeResponseDTO();
-        commentLikeResponseDTO.setCommentId(comment.getId());
-        commentLikeResponseDTO.setUserId(user.getId());
-
-        when(commentRepository.findById(userId)).thenReturn(Optional.of(comment));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(commentLikeRepository.existsByCommentAndUser(comment, user)).thenReturn(true);
+        when(engagementService.like(LikeTarget.COMMENT, commentId, userId))
+                .thenReturn(new Engagement(5L, LikeTarget.COMMENT, commentId, userId, LocalDate.now(), true));
 
         // Act
-        assertThrows(BadRequestException.class,()-> commentService.addLike(commentLikeRequestDTO));
+        CommentLikeResponseDTO result = commentService.addLike(commentLikeRequestDTO);
 
-        //verify
-        verify(commentRepository).findById(userId);
-        verify(userRepository).findById(userId);
-        verify(commentLikeRepository).existsByCommentAndUser(comment, user);
+        // Assert
+        assertTrue(result.isAlreadyLiked());
     }
 
     @Test
-    public void testAddLike_UserNotFound() {
+    public void testAddLike_IdNotFound() {
         // Arrange
+        Long commentId = 1L;
         Long userId = 1L;
 
-        User user = new User();
-        user.setId(userId);
-
-        Comment comment = new Comment();
-        comment.setId(1L);
-        comment.setUser(user);
-
         CommentLikeRequestDTO commentLikeRequestDTO = new CommentLikeRequestDTO();
-        commentLikeRequestDTO.setCommentId(comment.getId());
-        commentLikeRequestDTO.setUserId(user.getId());
+        commentLikeRequestDTO.setCommentId(commentId);
+        commentLikeRequestDTO.setUserId(userId);
 
-        when(commentRepository.findById(userId)).thenReturn(Optional.of(comment));
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(engagementService.like(LikeTarget.COMMENT, commentId, userId))
+                .thenThrow(new ResourceNotFoundException("Comment not found with id: " + commentId));
 
         // Act
-        assertThrows(ResourceNotFoundException.class,()-> commentService.addLike(commentLikeRequestDTO));
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,()-> commentService.addLike(commentLikeRequestDTO));
 
-        //verify
-        verify(commentRepository).findById(userId);
-        verify(userRepository).findById(userId);
+        // Assert
+        assertEquals("Comment not found with id: " + commentId, exception.getMessage());
     }
 
     @Test
-    public void testAddLike_IdNotFound() {
+    public void testDeleteLike(){
         // Arrange
-        Long userId = 1L;
-
-        User user = new User();
-        user.setId(userId);
+        Long id = 1L;
 
         Comment comment = new Comment();
-        comment.setId(1L);
-        comment.setUser(user);
-
-        CommentLikeRequestDTO commentLikeRequestDTO = new CommentLikeRequestDTO();
-        commentLikeRequestDTO.setCommentId(comment.getId());
-        commentLikeRequestDTO.setUserId(user.getId());
-
-        when(commentRepository.findById(userId)).thenReturn(Optional.empty());
+        comment.setId(2L);
 
-        // Act
-        assertThrows(ResourceNotFoundException.class,()-> commentService.addLike(commentLikeRequestDTO));
-
-        //verify
-        verify(commentRepository).findById(userId);
-    }
+        User user = new User();
+        user.setId(3L);
 
-    @Test
-    public void testDeleteLike(){
-        // Arrange
-        Long id = 1L;
         CommentLike commentlike = new CommentLike();
         commentlike.setId(id);
+        commentlike.setComment(comment);
+        commentlike.setUser(user);
 
         when(commentLikeRepository.findById(id)).thenReturn(Optional.of(commentlike));
         // Act
@@ -732,15 +879,13 @@ public class CommentServiceTest {
 
         //verify
         verify(commentLikeRepository).findById(id);
-        verify(commentLikeRepository).deleteById(id);
+        verify(engagementService).unlike(LikeTarget.COMMENT, 2L, 3L);
     }
 
     @Test
     public void testDeleteLike_NotFound(){
         // Arrange
         Long id = 1L;
-        CommentLike commentlike = new CommentLike();
-        commentlike.setId(id);
 
         when(commentLikeRepository.findById(id)).thenReturn(Optional.empty());
         // Act
@@ -753,61 +898,43 @@ public class CommentServiceTest {
     @Test
     public void testDeleteLikeArguments(){
         // Arrange
-        Long id = 1L;
-
-        Comment comment = new Comment();
-        comment.setId(1L);
-
-        User user = new User();
-        user.setId(1L);
-
-        CommentLike commentlike = new CommentLike();
-        commentlike.setId(id);
-        commentlike.setUser(user);
-        commentlike.setComment(comment);
-
         CommentLikeRequestDTO commentLikeRequestDTO = new CommentLikeRequestDTO();
-        commentLikeRequestDTO.setCommentId(commentlike.getComment().getId());
-        commentLikeRequestDTO.setUserId(commentlike.getUser().getId());
-
-        when(commentLikeRepository.findByComment_IdAndUser_Id(commentLikeRequestDTO.getCommentId(),commentLikeRequestDTO.getUserId())).thenReturn(Optional.of(commentlike));
+        commentLikeRequestDTO.setCommentId(1L);
+        commentLikeRequestDTO.setUserId(2L);
 
         // Act
         assertDoesNotThrow(()->commentService.deleteLike(commentLikeRequestDTO));
 
         //verify
-        verify(commentLikeRepository).findByComment_IdAndUser_Id(commentLikeRequestDTO.getCommentId(),commentLikeRequestDTO.getUserId());
-        verify(commentLikeRepository).delete(commentlike);
+        verify(engagementService).unlike(LikeTarget.COMMENT, 1L, 2L);
     }
 
     @Test
-    public void testDeleteLikeArguments_CommentLikeNotFound(){
+    public void testGetCommentsByArticleIdCursor() {
         // Arrange
-        Long id = 1L;
-
-        Comment comment = new Comment();
-        comment.setId(1L);
-
-        User user = new User();
-        user.setId(1L);
+        Long articleId = 1L;
+        ListRequestDTO listRequestDTO = new ListRequestDTO();
+        listRequestDTO.setOrderBy("recent");
+        listRequestDTO.setPageSize(1);
 
-        CommentLike commentlike = new CommentLike();
-        commentlike.setId(id);
-        commentlike.setUser(user);
-        commentlike.setComment(comment);
+        Comment comment1 = new Comment();
+        comment1.setId(2L);
+        comment1.setCreatedAt(Instant.now());
+        Comment comment2 = new Comment();
+        comment2.setId(1L);
+        comment2.setCreatedAt(Instant.now());
 
-        CommentLikeRequestDTO commentLikeRequestDTO = new CommentLikeRequestDTO();
-        commentLikeRequestDTO.setCommentId(commentlike.getComment().getId());
-        commentLikeRequestDTO.setUserId(commentlike.getUser().getId());
+        CommentResponseDTO dto1 = new CommentResponseDTO();
+        dto1.setId(2L);
 
-        when(commentLikeRepository.findByComment_IdAndUser_Id(commentLikeRequestDTO.getCommentId(),commentLikeRequestDTO.getUserId())).thenReturn(Optional.empty());
+        when(commentRepository.findRecentCommentsByArticle_idFirst(articleId, Pageable.ofSize(2))).thenReturn(List.of(comment1, comment2));
+        when(commentMapper.convertToDTO(comment1, 0L, 0L)).thenReturn(dto1);
 
         // Act
-        assertThrows(ResourceNotFoundException.class,()->commentService.deleteLike(commentLikeRequestDTO));
+        CursorPageResponseDTO<CommentResponseDTO> result = commentService.getCommentsByArticleIdCursor(articleId, listRequestDTO);
 
-        //verify
-        verify(commentLikeRepository).findByComment_IdAndUser_Id(commentLikeRequestDTO.getCommentId(),commentLikeRequestDTO.getUserId());
+        // Assert
+        assertEquals(List.of(dto1), result.getContent());
+        assertEquals(2L, KeysetCursor.decode(result.getNextCursor()).getId());
     }
-
-
 }
@@ -0,0 +1,415 @@
+package com.dk.dermokometicapi.services;
+
+import com.dk.dermokometicapi.cache.AnswerPageCache;
+import com.dk.dermokometicapi.cache.ArticleCache;
+import com.dk.dermokometicapi.cache.CommentPageCache;
+import com.dk.dermokometicapi.exceptions.BadRequestException;
+import com.dk.dermokometicapi.exceptions.ResourceNotFoundException;
+import com.dk.dermokometicapi.likes.Engagement;
+import com.dk.dermokometicapi.likes.LikeIndex;
+import com.dk.dermokometicapi.likes.LikeStore;
+import com.dk.dermokometicapi.likes.LikeTarget;
+import com.dk.dermokometicapi.likes.LikeWriteBuffer;
+import com.dk.dermokometicapi.live.LiveEvent;
+import com.dk.dermokometicapi.live.LiveStreamHub;
+import com.dk.dermokometicapi.live.LiveTopic;
+import com.dk.dermokometicapi.models.dto.LikeDeltaDTO;
+import com.dk.dermokometicapi.repositories.ArticleRepository;
+import com.dk.dermokometicapi.repositories.QuestionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EngagementServiceTest {
+    @Mock
+    private LikeStore likeStore;
+
+    @Mock
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @Mock
+    private LikeIndex likeIndex;
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    @Mock
+    private ArticleCache articleCache;
+
+    @Mock
+    private CommentPageCache commentPageCache;
+
+    @Mock
+    private AnswerPageCache answerPageCache;
+
+    @Mock
+    private LiveStreamHub liveStreamHub;
+
+    @InjectMocks
+    private EngagementService engagementService;
+
+    @Test
+    public void testLike_Article() {
+        // Arrange
+        Engagement stored = new Engagement(3L, LikeTarget.ARTICLE, 1L, 2L, LocalDate.now(), false);
+        when(likeStore.insert(LikeTarget.ARTICLE, 1L, 2L)).thenReturn(Optional.of(stored));
+
+        // Act
+        Engagement result = engagementService.like(LikeTarget.ARTICLE, 1L, 2L);
+
+        // Assert
+        assertEquals(stored, result);
+        verify(likeStore, never()).find(any(), any(), any());
+        verify(articleRepository).addToLikeCount(1L, 1);
+        verify(articleCache).adjustCounts(1L, 1, 0);
+        verify(likeIndex).add(LikeTarget.ARTICLE, 1L, 2L);
+    }
+
+    @Test
+    public void testLike_AnswerHasNoCounter() {
+        // Arrange
+        when(likeStore.insert(LikeTarget.ANSWER, 1L, 2L))
+                .thenReturn(Optional.of(new Engagement(3L, LikeTarget.ANSWER, 1L, 2L, LocalDate.now(), false)));
+
+        // Act
+        engagementService.like(LikeTarget.ANSWER, 1L, 2L);
+
+        // Assert
+        verify(likeIndex).add(LikeTarget.ANSWER, 1L, 2L);
+        verify(answerPageCache).liked(1L, 1);
+        verifyNoInteractions(articleRepository, articleCache, questionRepository);
+    }
+
+    @Test
+    public void testLike_Question() {
+        // Arrange
+        when(likeStore.insert(LikeTarget.QUESTION, 1L, 2L))
+                .thenReturn(Optional.of(new Engagement(3L, LikeTarget.QUESTION, 1L, 2L, LocalDate.now(), false)));
+
+        // Act
+        engagementService.like(LikeTarget.QUESTION, 1L, 2L);
+
+        // Assert
+        verify(questionRepository).addToLikeCount(1L, 1);
+        verifyNoInteractions(articleRepository);
+    }
+
+    @Test
+    public void testLike_CommentPublishedToArticleStream() {
+        // Arrange
+        when(likeStore.insert(LikeTarget.COMMENT, 1L, 2L))
+                .thenReturn(Optional.of(new Engagement(3L, LikeTarget.COMMENT, 1L, 2L, LocalDate.now(), false)));
+        when(liveStreamHub.hasSubscribers(LiveTopic.Kind.ARTICLE)).thenReturn(true);
+        when(likeStore.findParentId(LikeTarget.COMMENT, 1L)).thenReturn(Optional.of(5L));
+
+        // Act
+        engagementService.like(LikeTarget.COMMENT, 1L, 2L);
+
+        // Assert
+        verify(liveStreamHub).publish(LiveTopic.article(5L), LiveEvent.like(new LikeDeltaDTO("comment", 1L, 1L)));
+    }
+
+    @Test
+    public void testUnlike_NoLookupWithoutSubscribers() {
+        // Arrange
+        when(likeStore.delete(LikeTarget.ANSWER, 1L, 2L)).thenReturn(true);
+
+        // Act
+        engagementService.unlike(LikeTarget.ANSWER, 1L, 2L);
+
+        // Assert
+        verify(answerPageCache).liked(1L, -1);
+        verify(likeStore, never()).findParentId(any(), any());
+        verify(liveStreamHub, never()).publish(any(), any());
+    }
+
+    @Test
+    public void testLike_AlreadyLiked() {
+        // Arrange
+        when(likeStore.insert(LikeTarget.COMMENT, 1L, 2L)).thenReturn(Optional.empty());
+        when(likeStore.find(LikeTarget.COMMENT, 1L, 2L))
+                .thenReturn(Optional.of(new Engagement(3L, LikeTarget.COMMENT, 1L, 2L, LocalDate.now(), false)));
+
+        // Act
+        Engagement result = engagementService.like(LikeTarget.COMMENT, 1L, 2L);
+
+        // Assert
+        assertTrue(result.alreadyLiked());
+        assertEquals(3L, result.id());
+        verify(likeIndex, never()).add(any(), any(), any());
+    }
+
+    @Test
+    public void testLike_TargetNotFound() {
+        // Arrange
+        when(likeStore.insert(LikeTarget.QUESTION, 1L, 2L)).thenReturn(Optional.empty());
+        when(likeStore.find(LikeTarget.QUESTION, 1L, 2L)).thenReturn(Optional.empty());
+        when(likeStore.targetExists(LikeTarget.QUESTION, 1L)).thenReturn(false);
+
+        // Act & Assert
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> engagementService.like(LikeTarget.QUESTION, 1L, 2L));
+        assertEquals("Question not found with id: 1", exception.getMessage());
+    }
+
+    @Test
+    public void testLike_UserNotFound() {
+        // Arrange
+        when(likeStore.insert(LikeTarget.ARTICLE, 1L, 2L)).thenReturn(Optional.empty());
+        when(likeStore.find(LikeTarget.ARTICLE, 1L, 2L)).thenReturn(Optional.empty());
+        when(likeStore.targetExists(LikeTarget.ARTICLE, 1L)).thenReturn(true);
+        when(likeStore.userExists(2L)).thenReturn(false);
+
+        // Act & Assert
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> engagementService.like(LikeTarget.ARTICLE, 1L, 2L));
+        assertEquals("User not found with id: 2", exception.getMessage());
+        verify(articleRepository, never()).addToLikeCount(anyLong(), anyLong());
+    }
+
+    @Test
+    public void testLike_WriteBehind() {
+        // Arrange
+        when(likeWriteBuffer.isEnabled()).thenReturn(true);
+        when(likeStore.targetExists(LikeTarget.ARTICLE, 1L)).thenReturn(true);
+        when(likeStore.userExists(2L)).thenReturn(true);
+
+        // Act
+        Engagement result = engagementService.like(LikeTarget.ARTICLE, 1L, 2L);
+
+        // Assert
+        assertNull(result.id());
+        assertFalse(result.alreadyLiked());
+        verify(likeWriteBuffer).like(LikeTarget.ARTICLE, 1L, 2L);
+        verify(likeStore, never()).insert(any(), any(), any());
+        verify(articleRepository, never()).addToLikeCount(anyLong(), anyLong());
+    }
+
+    @Test
+    public void testLike_WriteBehindAlreadyLikedInTheIndex() {
+        // Arrange
+        when(likeWriteBuffer.isEnabled()).thenReturn(true);
+        when(likeStore.targetExists(LikeTarget.ARTICLE, 1L)).thenReturn(true);
+        when(likeStore.userExists(2L)).thenReturn(true);
+        when(likeWriteBuffer.pending(LikeTarget.ARTICLE, 1L, 2L)).thenReturn(Optional.empty());
+        when(likeIndex.isReady()).thenReturn(true);
+        when(likeIndex.contains(LikeTarget.ARTICLE, 1L, 2L)).thenReturn(true);
+
+        // Act
+        Engagement result = engagementService.like(LikeTarget.ARTICLE, 1L, 2L);
+
+        // Assert
+        assertTrue(result.alreadyLiked());
+        verify(likeStore, never()).exists(any(), any(), any());
+    }
+
+    @Test
+    public void testLike_WriteBehindAfterABufferedUnlike() {
+        // Arrange
+        when(likeWriteBuffer.isEnabled()).thenReturn(true);
+        when(likeStore.targetExists(LikeTarget.COMMENT, 1L)).thenReturn(true);
+        when(likeStore.userExists(2L)).thenReturn(true);
+        when(likeWriteBuffer.pending(LikeTarget.COMMENT, 1L, 2L)).thenReturn(Optional.of(false));
+
+        // Act
+        Engagement result = engagementService.like(LikeTarget.COMMENT, 1L, 2L);
+
+        // Assert
+        assertFalse(result.alreadyLiked());
+        verify(likeWriteBuffer).like(LikeTarget.COMMENT, 1L, 2L);
+        verifyNoInteractions(likeIndex);
+    }
+
+    @Test
+    public void testLike_WriteBehindTargetNotFound() {
+        // Arrange
+        when(likeWriteBuffer.isEnabled()).thenReturn(true);
+        when(likeStore.targetExists(LikeTarget.ARTICLE, 1L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> engagementService.like(LikeTarget.ARTICLE, 1L, 2L));
+        verify(likeWriteBuffer, never()).like(any(), any(), any());
+    }
+
+    @Test
+    public void testUnlike() {
+        // Arrange
+        when(likeStore.delete(LikeTarget.ARTICLE, 1L, 2L)).thenReturn(true);
+
+        // Act
+        engagementService.unlike(LikeTarget.ARTICLE, 1L, 2L);
+
+        // Assert
+        verify(articleRepository).addToLikeCount(1L, -1);
+        verify(articleCache).adjustCounts(1L, -1, 0);
+        verify(likeIndex).remove(LikeTarget.ARTICLE, 1L, 2L);
+    }
+
+    @Test
+    public void testUnlike_NotLiked() {
+        // Arrange
+        when(likeStore.delete(LikeTarget.ANSWER, 1L, 2L)).thenReturn(false);
+        when(likeStore.targetExists(LikeTarget.ANSWER, 1L)).thenReturn(true);
+        when(likeStore.userExists(2L)).thenReturn(true);
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> engagementService.unlike(LikeTarget.ANSWER, 1L, 2L));
+        assertEquals("User did not like this answer", exception.getMessage());
+        verify(likeIndex, never()).remove(any(), any(), any());
+    }
+
+    @Test
+    public void testUnlike_WriteBehind() {
+        // Arrange
+        when(likeWriteBuffer.isEnabled()).thenReturn(true);
+        when(likeStore.targetExists(LikeTarget.COMMENT, 1L)).thenReturn(true);
+        when(likeStore.userExists(2L)).thenReturn(true);
+
+        // Act
+        engagementService.unlike(LikeTarget.COMMENT, 1L, 2L);
+
+        // Assert
+        verify(likeWriteBuffer).unlike(LikeTarget.COMMENT, 1L, 2L);
+        verify(likeStore, never()).delete(any(), any(), any());
+    }
+
+    @Test
+    public void testExists_FromLikeIndex() {
+        // Arrange
+        when(likeIndex.isReady()).thenReturn(true);
+        when(likeIndex.contains(LikeTarget.ARTICLE, 1L, 2L)).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(engagementService.exists(LikeTarget.ARTICLE, 1L, 2L));
+        verify(likeStore, never()).exists(any(), any(), any());
+    }
+
+    @Test
+    public void testExists_PendingBeforeLikeIndex() {
+        // Arrange
+        when(likeWriteBuffer.pending(LikeTarget.ARTICLE, 1L, 2L)).thenReturn(Optional.of(false));
+
+        // Act & Assert
+        assertFalse(engagementService.exists(LikeTarget.ARTICLE, 1L, 2L));
+        verify(likeIndex, never()).contains(any(), any(), any());
+    }
+
+    @Test
+    public void testExists_FromStore() {
+        // Arrange
+        when(likeStore.targetExists(LikeTarget.QUESTION, 1L)).thenReturn(true);
+        when(likeStore.userExists(2L)).thenReturn(true);
+        when(likeStore.exists(LikeTarget.QUESTION, 1L, 2L)).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(engagementService.exists(LikeTarget.QUESTION, 1L, 2L));
+    }
+
+    @Test
+    public void testCount() {
+        // Arrange
+        when(likeStore.count(LikeTarget.COMMENT, 1L)).thenReturn(4L);
+
+        // Act & Assert
+        assertEquals(4L, engagementService.count(LikeTarget.COMMENT, 1L));
+        verify(likeIndex, never()).count(any(), any());
+    }
+
+    @Test
+    public void testCounts_FromStore() {
+        // Arrange
+        when(likeStore.countAll(LikeTarget.ANSWER, List.of(1L, 2L))).thenReturn(Map.of(2L, 3L));
+
+        // Act & Assert
+        assertEquals(Map.of(2L, 3L), engagementService.counts(LikeTarget.ANSWER, List.of(1L, 2L)));
+    }
+
+    @Test
+    public void testCounts_FromLikeIndex() {
+        // Arrange
+        when(likeIndex.isReady()).thenReturn(true);
+        when(likeIndex.count(LikeTarget.COMMENT, 1L)).thenReturn(2L);
+
+        // Act & Assert
+        assertEquals(Map.of(1L, 2L, 2L, 0L), engagementService.counts(LikeTarget.COMMENT, List.of(1L, 2L)));
+        verify(likeStore, never()).countAll(any(), any());
+    }
+
+    @Test
+    public void testLikedIds_FromLikeIndex() {
+        // Arrange
+        List<Long> ids = List.of(3L, 1L, 2L);
+        when(likeIndex.isReady()).thenReturn(true);
+        when(likeIndex.contains(eq(LikeTarget.ANSWER), anyLong(), eq(7L))).thenAnswer(invocation -> invocation.getArgument(1, Long.class) != 2L);
+
+        // Act
+        Set<Long> result = engagementService.likedIds(LikeTarget.ANSWER, 7L, ids);
+
+        // Assert
+        assertEquals(Set.of(1L, 3L), result);
+        verify(likeStore, never()).findLikedIds(any(), any(), any());
+        verify(likeWriteBuffer).applyPending(LikeTarget.ANSWER, 7L, ids, result);
+    }
+
+    @Test
+    public void testLikedIds_FromStore() {
+        // Arrange
+        List<Long> ids = List.of(3L, 1L, 2L);
+        when(likeStore.findLikedIds(LikeTarget.ARTICLE, 7L, ids)).thenReturn(List.of(1L));
+
+        // Act
+        Set<Long> result = engagementService.likedIds(LikeTarget.ARTICLE, 7L, ids);
+
+        // Assert
+        assertEquals(Set.of(1L), result);
+        verify(likeWriteBuffer).applyPending(LikeTarget.ARTICLE, 7L, ids, result);
+    }
+
+    @Test
+    public void testLikedIds_Empty() {
+        // Act & Assert
+        assertTrue(engagementService.likedIds(LikeTarget.ARTICLE, 7L, List.of()).isEmpty());
+        verifyNoInteractions(likeStore, likeIndex);
+    }
+
+    @Test
+    public void testRemoveTarget() {
+        // Act
+        engagementService.removeTarget(LikeTarget.QUESTION, 1L);
+
+        // Assert
+        verify(likeStore).deleteAll(LikeTarget.QUESTION, 1L);
+        verify(likeIndex).removeTarget(LikeTarget.QUESTION, 1L);
+    }
+
+    @Test
+    public void testRemoveTargets() {
+        // Act
+        engagementService.removeTargets(LikeTarget.COMMENT, List.of(1L, 2L));
+
+        // Assert
+        verify(likeStore).deleteAll(LikeTarget.COMMENT, List.of(1L, 2L));
+        verify(likeIndex).removeTarget(LikeTarget.COMMENT, 1L);
+        verify(likeIndex).removeTarget(LikeTarget.COMMENT, 2L);
+    }
+
+    @Test
+    public void testGetUsersWhoLikedBoth_UnknownType() {
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> engagementService.getUsersWhoLikedBoth("post", 1L, 2L));
+        assertEquals("Unknown like type: post", exception.getMessage());
+    }
+}
@@ -0,0 +1,126 @@
+package com.dk.dermokometicapi.services;
+
+import com.dk.dermokometicapi.likes.LikeIndex;
+import com.dk.dermokometicapi.likes.LikeTarget;
+import com.dk.dermokometicapi.models.dto.ArticleLikeRequestDTO;
+import com.dk.dermokometicapi.models.dto.CommentLikeRequestDTO;
+import com.dk.dermokometicapi.models.dto.CommentRequestDTO;
+import com.dk.dermokometicapi.models.entities.Article;
+import com.dk.dermokometicapi.models.entities.ArticleDetail;
+import com.dk.dermokometicapi.models.entities.User;
+import com.dk.dermokometicapi.repositories.ArticleDetailRepository;
+import com.dk.dermokometicapi.repositories.ArticleRepository;
+import com.dk.dermokometicapi.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not transactional: the like index only applies changes after commit. Its own database, since this context
+// recreates the schema and the other contexts keep running on theirs
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "dk.likes.index.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:likeindex;DB_CLOSE_DELAY=-1;MODE=PostgreSQL"
+})
+public class LikeIndexIntegrationTest {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private EngagementService engagementService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ArticleDetailRepository articleDetailRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LikeIndex likeIndex;
+
+    private Article article;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        ArticleDetail articleDetail = new ArticleDetail();
+        articleDetail.setContent("Content");
+        articleDetail = articleDetailRepository.save(articleDetail);
+
+        article = new Article();
+        article.setTitle("Indexed likes");
+        article.setDescription("Description");
+        article.setMainImg("Img");
+        article.setType("Type");
+        article.setPublicationDate(LocalDate.now());
+        article.setLastUpdateDate(LocalDate.now());
+        article.setArticleDetail(articleDetail);
+        article = articleRepository.save(article);
+
+        user = new User();
+        user.setUsername("Indexed user");
+        user.setEmail("indexed@test.com");
+        user.setPassword("Password");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (articleRepository.existsById(article.getId())) articleService.deleteById(article.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    public void testDeleteArticle_DropsItsCommentsFromTheLikeIndex() {
+        Long commentId = commentService.addComment(new CommentRequestDTO("Content", null, article.getId(), user.getId())).getId();
+        commentService.addLike(new CommentLikeRequestDTO(commentId, user.getId()));
+        articleService.createLike(new ArticleLikeRequestDTO(article.getId(), user.getId()));
+        assertTrue(likeIndex.isReady());
+        assertTrue(likeIndex.contains(LikeTarget.COMMENT, commentId, user.getId()));
+        assertTrue(likeIndex.contains(LikeTarget.ARTICLE, article.getId(), user.getId()));
+
+        articleService.deleteById(article.getId());
+
+        assertFalse(likeIndex.contains(LikeTarget.COMMENT, commentId, user.getId()));
+        assertFalse(likeIndex.contains(LikeTarget.ARTICLE, article.getId(), user.getId()));
+    }
+
+    @Test
+    public void testReads_AnsweredFromTheLikeIndex() {
+        Long commentId = commentService.addComment(new CommentRequestDTO("Content", null, article.getId(), user.getId())).getId();
+        commentService.addLike(new CommentLikeRequestDTO(commentId, user.getId()));
+        articleService.createLike(new ArticleLikeRequestDTO(article.getId(), user.getId()));
+        assertTrue(likeIndex.isReady());
+
+        assertTrue(articleService.getLike(article.getId(), user.getId()));
+        assertEquals(1L, engagementService.count(LikeTarget.COMMENT, commentId));
+        assertEquals(Set.of(commentId), engagementService.likedIds(LikeTarget.COMMENT, user.getId(), List.of(commentId, commentId + 1)));
+        assertEquals(List.of(user.getId()), engagementService.getUsersWhoLikedBoth("comment", commentId, commentId));
+        // the database would answer 404 for an article that does not exist, the index reads it as not liked
+        assertFalse(articleService.getLike(article.getId() + 1000, user.getId()));
+
+        articleService.deleteLike(article.getId(), user.getId());
+        assertFalse(articleService.getLike(article.getId(), user.getId()));
+        assertEquals(0L, engagementService.count(LikeTarget.ARTICLE, article.getId()));
+    }
+}
@@ -1,13 +1,24 @@
 package com.dk.dermokometicapi.services;
 
+import com.dk.dermokometicapi.cache.CategoryDictionary;
+import com.dk.dermokometicapi.feeds.FeedQuery;
+import com.dk.dermokometicapi.feeds.FeedRow;
+import com.dk.dermokometicapi.feeds.FeedStore;
 import com.dk.dermokometicapi.models.dto.*;
 import com.dk.dermokometicapi.models.entities.*;
 import com.dk.dermokometicapi.exceptions.*;
 import com.dk.dermokometicapi.mappers.*;
 import com.dk.dermokometicapi.repositories.*;
 import org.hamcrest.Matcher;
+import com.dk.dermokometicapi.likes.Engagement;
+import com.dk.dermokometicapi.likes.LikeTarget;
+import com.dk.dermokometicapi.search.QuestionSimilarityIndex;
+import com.dk.dermokometicapi.search.SearchIndex;
+import com.dk.dermokometicapi.search.SimilarQuestion;
+import com.dk.dermokometicapi.utils.KeysetCursor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -15,6 +26,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
 
@@ -29,22 +41,28 @@ public class QuestionServiceTest {
     private QuestionMapper questionMapper;
 
     @Mock
-    private QuestionLikeMapper questionLikeMapper;
+    private QuestionRepository questionRepository;
+
+    @InjectMocks
+    private QuestionService questionService;
 
     @Mock
-    private QuestionRepository questionRepository;
+    private UserService userService;
 
     @Mock
-    private QuestionLikeRepository questionLikeRepository;
+    private SearchIndex searchIndex;
 
     @Mock
-    private UserRepository userRepository;
+    private CategoryDictionary categoryDictionary;
 
-    @InjectMocks
-    private QuestionService questionService;
+    @Mock
+    private EngagementService engagementService;
 
     @Mock
-    private UserService userService;
+    private FeedStore feedStore;
+
+    @Mock
+    private QuestionSimilarityIndex similarityIndex;
 
     @Test
     public void testCreateQuestion() {
@@ -92,7 +110,73 @@ public class QuestionServiceTest {
         verify(questionMapper, times(1)).convertToEntity(questionRequestDTO);
         verify(questionMapper, times(1)).convertToDTO(question, 0L, 0L);
         verify(questionRepository, times(1)).save(question);
+        verify(searchIndex, times(1)).indexQuestion(question.getId(), question.getType(), question.getTitle(), question.getContent());
+        verify(similarityIndex, times(1)).index(question.getId(), question.getType(), question.getTitle(), question.getContent());
+
+    }
+
+    @Test
+    public void testCreateQuestion_ListsSimilarQuestions() {
+        // Arrange
+        QuestionRequestDTO questionRequestDTO = new QuestionRequestDTO(
+                "How do I fade acne scars?", "Acne scars on my cheeks", "Acne", 1L);
+        Question question = new Question();
+        question.setId(3L);
+        SimilarQuestion similar = new SimilarQuestion(2L, "Acne", "How to fade acne scars", 0.7);
+
+        when(similarityIndex.findSimilar(questionRequestDTO.getTitle(), questionRequestDTO.getContent(), null, 5)).thenReturn(List.of(similar));
+        when(similarityIndex.isDuplicate(similar)).thenReturn(false);
+        when(questionMapper.convertToEntity(questionRequestDTO)).thenReturn(question);
+        when(questionMapper.convertToDTO(question, 0L, 0L)).thenReturn(new QuestionResponseDTO());
+
+        // Act
+        QuestionResponseDTO result = questionService.createQuestion(questionRequestDTO);
+
+        // Assert
+        assertEquals(List.of(new SimilarQuestionDTO(2L, "How to fade acne scars", "Acne", 0.7)), result.getSimilarQuestions());
+    }
+
+    @Test
+    public void testCreateQuestion_NearDuplicate() {
+        // Arrange
+        QuestionRequestDTO questionRequestDTO = new QuestionRequestDTO(
+                "How do I fade acne scars?", "Acne scars on my cheeks", "Acne", 1L);
+        SimilarQuestion duplicate = new SimilarQuestion(2L, "Acne", "How do I fade acne scars", 0.95);
 
+        when(similarityIndex.findSimilar(questionRequestDTO.getTitle(), questionRequestDTO.getContent(), null, 5)).thenReturn(List.of(duplicate));
+        when(similarityIndex.isDuplicate(duplicate)).thenReturn(true);
+
+        // Act & Assert
+        Exception exception = assertThrows(BadRequestException.class, () -> questionService.createQuestion(questionRequestDTO));
+
+        assertEquals("Question is a near duplicate of question with id: 2", exception.getMessage());
+        verify(questionRepository, never()).save(any(Question.class));
+        verify(similarityIndex, never()).index(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    public void testGetSimilarQuestions() {
+        // Arrange
+        Question question = new Question();
+        question.setId(1L);
+        question.setTitle("Title");
+        question.setContent("Content");
+
+        when(questionRepository.findById(1L)).thenReturn(Optional.of(question));
+        when(similarityIndex.findSimilar("Title", "Content", 1L, 3)).thenReturn(List.of(new SimilarQuestion(2L, "Acne", "Title?", 0.8)));
+
+        // Act
+        List<SimilarQuestionDTO> result = questionService.getSimilarQuestions(1L, 3);
+
+        // Assert
+        assertEquals(List.of(new SimilarQuestionDTO(2L, "Title?", "Acne", 0.8)), result);
+    }
+
+    @Test
+    public void testGetSimilarQuestions_InvalidLimit() {
+        assertThrows(BadRequestException.class, () -> questionService.getSimilarQuestions(1L, 0));
+        assertThrows(BadRequestException.class, () -> questionService.getSimilarQuestions(1L, 21));
+        verifyNoInteractions(questionRepository, similarityIndex);
     }
 
     @Test
@@ -162,10 +246,10 @@ public class QuestionServiceTest {
         dto2.setAnswers(answers2);
 
         when(questionRepository.findAll()).thenReturn(questionList);
-        when(questionLikeRepository.countByQuestion(question1)).thenReturn(likes1);
-        when(questionLikeRepository.countByQuestion(question2)).thenReturn(likes2);
-        when(questionRepository.countAnswersByQuestion(question1)).thenReturn(answers1);
-        when(questionRepository.countAnswersByQuestion(question2)).thenReturn(answers2);
+        question1.setLikeCount(likes1);
+        question1.setAnswerCount(answers1);
+        question2.setLikeCount(likes2);
+        question2.setAnswerCount(answers2);
 
         when(questionMapper.convertToDTO(question1, likes1, answers1)).thenReturn(dto1);
         when(questionMapper.convertToDTO(question2, likes2, answers2)).thenReturn(dto2);
@@ -203,8 +287,8 @@ public class QuestionServiceTest {
         questionResponseDTO.setAnswers(answers);
 
         when(questionRepository.findById(questionId)).thenReturn(Optional.of(question));
-        when(questionLikeRepository.countByQuestion(question)).thenReturn(likes);
-        when(questionRepository.countAnswersByQuestion(question)).thenReturn(answers);
+        question.setLikeCount(likes);
+        question.setAnswerCount(answers);
         when(questionMapper.convertToDTO(question, likes, answers)).thenReturn(questionResponseDTO);
 
         // Act
@@ -212,6 +296,7 @@ public class QuestionServiceTest {
 
         // Assert
         assertNotNull(result);
+        verifyNoInteractions(engagementService);
         assertEquals(questionResponseDTO.getId(), result.getId());
         assertEquals(questionResponseDTO.getTitle(), result.getTitle());
         assertEquals(questionResponseDTO.getContent(), result.getContent());
@@ -233,8 +318,6 @@ public class QuestionServiceTest {
 
         // Verify
         verify(questionRepository, times(1)).findById(questionId);
-        verify(questionRepository, never()).findQuestionLikesById(anyLong());
-        verify(questionRepository, never()).findQuestionAnswersById(anyLong());
         verify(questionMapper, never()).convertToDTO(any(), anyLong(), anyLong());
     }
 
@@ -262,8 +345,8 @@ public class QuestionServiceTest {
         questionResponseDTO.setAnswers(answers);
 
         when(questionRepository.findByTitle(title)).thenReturn(Optional.of(question));
-        when(questionLikeRepository.countByQuestion(any(Question.class))).thenReturn(likes);
-        when(questionRepository.countAnswersByQuestion(any(Question.class))).thenReturn(answers);
+        question.setLikeCount(likes);
+        question.setAnswerCount(answers);
         when(questionMapper.convertToDTO(question, likes, answers)).thenReturn(questionResponseDTO);
 
         // Act
@@ -292,24 +375,35 @@ public class QuestionServiceTest {
 
         // Verify
         verify(questionRepository, times(1)).findByTitle(title);
-        verify(questionRepository, never()).findQuestionLikesById(anyLong());
-        verify(questionRepository, never()).findQuestionAnswersById(anyLong());
         verify(questionMapper, never()).convertToDTO(any(), anyLong(), anyLong());
     }
 
+    @Test
+    public void testRecountCounters() {
+        // Act
+        questionService.recountCounters();
+
+        // Verify
+        verify(questionRepository, times(1)).recountCounters();
+    }
+
     @Test
     public void testDeleteQuestionById() {
         // Arrange
         Long questionId = 1L;
 
-        when(questionRepository.existsById(questionId)).thenReturn(true);
+        when(questionRepository.findTypeById(questionId)).thenReturn(Optional.of("Type"));
 
         // Act
         questionService.deleteQuestionById(questionId);
 
         // Assert
-        verify(questionRepository, times(1)).existsById(questionId);
+        verify(questionRepository, times(1)).findTypeById(questionId);
+        verify(engagementService, times(1)).removeTarget(LikeTarget.QUESTION, questionId);
         verify(questionRepository, times(1)).deleteById(questionId);
+        verify(searchIndex, times(1)).remove(SearchIndex.Kind.QUESTION, questionId);
+        verify(similarityIndex, times(1)).remove(questionId);
+        verify(categoryDictionary, times(1)).removeQuestion("Type");
     }
 
     @Test
@@ -317,7 +411,7 @@ public class QuestionServiceTest {
         // Arrange
         Long questionId = 1L;
 
-        when(questionRepository.existsById(questionId)).thenReturn(false);
+        when(questionRepository.findTypeById(questionId)).thenReturn(Optional.empty());
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> questionService.deleteQuestionById(questionId));
@@ -325,7 +419,7 @@ public class QuestionServiceTest {
         assertEquals("Question with id: " + questionId + " not found", exception.getMessage());
 
         // Verify
-        verify(questionRepository, times(1)).existsById(questionId);
+        verify(questionRepository, times(1)).findTypeById(questionId);
         verify(questionRepository, never()).deleteById(questionId);
     }
 
@@ -334,43 +428,22 @@ public class QuestionServiceTest {
         // Arrange
         Long questionId = 1L;
         Long userId = 1L;
+        LocalDate today = LocalDate.now();
 
         QuestionLikeRequestDTO requestDTO = new QuestionLikeRequestDTO();
         requestDTO.setQuestionId(questionId);
         requestDTO.setUserId(userId);
 
-        Question question = new Question();
-        question.setId(questionId);
-
-        User user = new User();
-        user.setId(userId);
-
-        QuestionLike newLike = new QuestionLike();
-        newLike.setQuestion(question);
-        newLike.setUser(user);
-        newLike.setLikeDate(LocalDate.now());
-
-        QuestionLikeResponseDTO responseDTO = new QuestionLikeResponseDTO();
-        responseDTO.setQuestionId(questionId);
-        responseDTO.setUserId(userId);
-
-        when(questionRepository.findById(questionId)).thenReturn(Optional.of(question));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(questionLikeRepository.existsByQuestionAndUser(question, user)).thenReturn(false);
-        when(questionLikeRepository.save(any(QuestionLike.class))).thenReturn(newLike);
-        when(questionLikeMapper.convertToResponseDTO(newLike)).thenReturn(responseDTO);
+        when(engagementService.like(LikeTarget.QUESTION, questionId, userId))
+                .thenReturn(new Engagement(1L, LikeTarget.QUESTION, questionId, userId, today, false));
 
         // Act
         QuestionLikeResponseDTO result = questionService.createLike(requestDTO);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(responseDTO, result);
-        verify(questionRepository, times(1)).findById(questionId);
-        verify(userRepository, times(1)).findById(userId);
-        verify(questionLikeRepository, times(1)).existsByQuestionAndUser(question, user);
-        verify(questionLikeRepository, times(1)).save(any(QuestionLike.class));
-        verify(questionLikeMapper, times(1)).convertToResponseDTO(newLike);
+        assertEquals(new QuestionLikeResponseDTO(1L, questionId, userId, today.toString(), false), result);
+        assertFalse(result.isAlreadyLiked());
+        verify(engagementService, times(1)).like(LikeTarget.QUESTION, questionId, userId);
     }
 
     @Test
@@ -383,19 +456,15 @@ public class QuestionServiceTest {
         requestDTO.setQuestionId(questionId);
         requestDTO.setUserId(userId);
 
-        when(questionRepository.findById(questionId)).thenReturn(Optional.empty());
+        when(engagementService.like(LikeTarget.QUESTION, questionId, userId))
+                .thenThrow(new ResourceNotFoundException("Question not found with id: " + questionId));
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> questionService.createLike(requestDTO));
 
         assertEquals("Question not found with id: " + questionId, exception.getMessage());
-        verify(questionRepository, times(1)).findById(questionId);
-        verify(userRepository, never()).findById(userId);
-        verify(questionLikeRepository, never()).existsByQuestionAndUser(any(Question.class), any(User.class));
-        verify(questionLikeRepository, never()).save(any(QuestionLike.class));
     }
 
-
     @Test
     public void testCreateLike_UserAlreadyLiked() {
         // Arrange
@@ -406,81 +475,35 @@ public class QuestionServiceTest {
         requestDTO.setQuestionId(questionId);
         requestDTO.setUserId(userId);
 
-        Question question = new Question();
-        question.setId(questionId);
-
-        User user = new User();
-        user.setId(userId);
-
-        when(questionRepository.findById(questionId)).thenReturn(Optional.of(question));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(questionLikeRepository.existsByQuestionAndUser(question, user)).thenReturn(true);
-
-        // Act & Assert
-        BadRequestException exception = assertThrows(BadRequestException.class, () -> questionService.createLike(requestDTO));
-
-        assertEquals("User already liked this question", exception.getMessage());
-        verify(questionRepository, times(1)).findById(questionId);
-        verify(userRepository, times(1)).findById(userId);
-        verify(questionLikeRepository, times(1)).existsByQuestionAndUser(question, user);
-        verify(questionLikeRepository, never()).save(any(QuestionLike.class));
-    }
-
-    @Test
-    public void testDeleteLike() {
-        // Arrange
-        Long questionId = 1L;
-        Long userId = 1L;
-
-        QuestionLikeRequestDTO requestDTO = new QuestionLikeRequestDTO();
-        requestDTO.setQuestionId(questionId);
-        requestDTO.setUserId(userId);
-
-        Question question = new Question();
-        question.setId(questionId);
-
-        User user = new User();
-        user.setId(userId);
-
-        when(questionRepository.findById(questionId)).thenReturn(Optional.of(question));
-        when(userService.getEntityById(userId)).thenReturn(user);
-        when(questionLikeRepository.existsByQuestionAndUser(question, user)).thenReturn(true);
+        when(engagementService.like(LikeTarget.QUESTION, questionId, userId))
+                .thenReturn(new Engagement(5L, LikeTarget.QUESTION, questionId, userId, LocalDate.now(), true));
 
         // Act
-        questionService.deleteLike(requestDTO);
+        QuestionLikeResponseDTO result = questionService.createLike(requestDTO);
 
         // Assert
-        verify(questionRepository, times(1)).findById(questionId);
-        verify(userService, times(1)).getEntityById(userId);
-        verify(questionLikeRepository, times(1)).existsByQuestionAndUser(question, user);
-        verify(questionLikeRepository, times(1)).deleteByQuestionAndUser(question, user);
+        assertEquals(5L, result.getId());
+        assertTrue(result.isAlreadyLiked());
     }
 
     @Test
-    public void testDeleteLike_QuestionNotFound() {
+    public void testGetLikedIds() {
         // Arrange
-        Long questionId = 1L;
-        Long userId = 1L;
+        LikedByMeRequestDTO likedByMeRequestDTO = new LikedByMeRequestDTO();
+        likedByMeRequestDTO.setUserId(1L);
+        likedByMeRequestDTO.setIds(List.of(4L, 7L, 4L));
 
-        QuestionLikeRequestDTO requestDTO = new QuestionLikeRequestDTO();
-        requestDTO.setQuestionId(questionId);
-        requestDTO.setUserId(userId);
+        when(engagementService.likedIds(LikeTarget.QUESTION, 1L, likedByMeRequestDTO.getIds())).thenReturn(Set.of(4L));
 
-        when(questionRepository.findById(questionId)).thenReturn(Optional.empty());
-
-        // Act & Assert
-        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> questionService.deleteLike(requestDTO));
+        // Act
+        List<Long> result = questionService.getLikedIds(likedByMeRequestDTO);
 
-        assertEquals("Article not found with id: " + questionId, exception.getMessage());
-        verify(questionRepository, times(1)).findById(questionId);
-        verify(userService, never()).getEntityById(userId);
-        verify(questionLikeRepository, never()).existsByQuestionAndUser(any(Question.class), any(User.class));
-        verify(questionLikeRepository, never()).deleteByQuestionAndUser(any(Question.class), any(User.class));
+        // Assert
+        assertEquals(List.of(4L), result);
     }
 
-
     @Test
-    public void testDeleteLike_UserNotFound() {
+    public void testDeleteLike() {
         // Arrange
         Long questionId = 1L;
         Long userId = 1L;
@@ -489,20 +512,11 @@ public class QuestionServiceTest {
         requestDTO.setQuestionId(questionId);
         requestDTO.setUserId(userId);
 
-        Question question = new Question();
-        question.setId(questionId);
-
-        when(questionRepository.findById(questionId)).thenReturn(Optional.of(question));
-        when(userService.getEntityById(userId)).thenThrow(new ResourceNotFoundException("User not found with id: " + userId));
-
-        // Act & Assert
-        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> questionService.deleteLike(requestDTO));
+        // Act
+        questionService.deleteLike(requestDTO);
 
-        assertEquals("User not found with id: " + userId, exception.getMessage());
-        verify(questionRepository, times(1)).findById(questionId);
-        verify(userService, times(1)).getEntityById(userId);
-        verify(questionLikeRepository, never()).existsByQuestionAndUser(any(Question.class), any(User.class));
-        verify(questionLikeRepository, never()).deleteByQuestionAndUser(any(Question.class), any(User.class));
+        // Verify
+        verify(engagementService, times(1)).unlike(LikeTarget.QUESTION, questionId, userId);
     }
 
     @Test
@@ -515,329 +529,140 @@ public class QuestionServiceTest {
         requestDTO.setQuestionId(questionId);
         requestDTO.setUserId(userId);
 
-        Question question = new Question();
-        question.setId(questionId);
-
-        User user = new User();
-        user.setId(userId);
-
-        when(questionRepository.findById(questionId)).thenReturn(Optional.of(question));
-        when(userService.getEntityById(userId)).thenReturn(user);
-        when(questionLikeRepository.existsByQuestionAndUser(question, user)).thenReturn(false);
+        doThrow(new BadRequestException("User did not like this question"))
+                .when(engagementService).unlike(LikeTarget.QUESTION, questionId, userId);
 
         // Act & Assert
         BadRequestException exception = assertThrows(BadRequestException.class, () -> questionService.deleteLike(requestDTO));
 
-        assertEquals("User did not like this article", exception.getMessage());
-        verify(questionRepository, times(1)).findById(questionId);
-        verify(userService, times(1)).getEntityById(userId);
-        verify(questionLikeRepository, times(1)).existsByQuestionAndUser(question, user);
-        verify(questionLikeRepository, never()).deleteByQuestionAndUser(any(Question.class), any(User.class));
+        assertEquals("User did not like this question", exception.getMessage());
     }
 
-    @Test
-    public void testGetFilteredList_likes(){
-        // Arrange
-        List<String> types = new ArrayList<>();
-        List<Question> questions = new ArrayList<>();
+    private List<QuestionResponseDTO> createDTOs() {
+        List<QuestionResponseDTO> questions = new ArrayList<>();
         for (int i = 0; i < 5; i++) {
-            Question question = new Question();
-            question.setId((long) i);
-            question.setTitle("Title" + i);
-            question.setContent("Content" + i);
-            question.setType("type 1");
-            question.setPublicationDate(LocalDate.now());
-            questions.add(question);
+            questions.add(new QuestionResponseDTO((long) i, "Title" + i, "Content" + i, LocalDate.now().toString(), "type 1", 1L, 0L, 0L));
         }
+        return questions;
+    }
 
+    // runs the filtered feed over five stored questions and returns the query it was composed into
+    private FeedQuery getFilteredList(String orderBy, List<String> types) {
+        List<QuestionResponseDTO> questions = createDTOs();
         Pageable pageable = Pageable.ofSize(5).withPage(0);
-        Page<Question> page = new PageImpl<>(questions, pageable, questions.size());
-
-        when(questionRepository.findLikedQuestions(pageable)).thenReturn(page);
-        when(questionLikeRepository.countByQuestion(any(Question.class))).thenReturn(0L);
-        when(questionRepository.countAnswersByQuestion(any(Question.class))).thenReturn(0L);
-        when(questionMapper.convertToDTO(any(Question.class), anyLong(), anyLong())).thenAnswer(invocation -> {
-            Question question = invocation.getArgument(0);
-            Long likes = 0L;
-            Long answers = 0L;
-            return new QuestionResponseDTO(question.getId(), question.getTitle(), question.getContent(), question.getPublicationDate().toString(), question.getType(), question.getId(), likes, answers);
-        });
+        when(feedStore.<QuestionResponseDTO>findPage(any(), eq(pageable), any())).thenReturn(new PageImpl<>(questions, pageable, questions.size()));
 
         FilterRequestDTO filterRequestDTO = new FilterRequestDTO();
-        filterRequestDTO.setOrderBy("likes");
+        filterRequestDTO.setOrderBy(orderBy);
         filterRequestDTO.setPageSize(5);
         filterRequestDTO.setPageNum(0);
         filterRequestDTO.setCategories(types);
 
-        // Act
         Page<QuestionResponseDTO> result = questionService.getFilteredList(filterRequestDTO);
 
-        // Assert
-        assertNotNull(result);
-        assertEquals(5, result.getContent().size());
-        for (int i = 0; i < 5; i++) {
-            QuestionResponseDTO dto = result.getContent().get(i);
-            assertEquals(i, dto.getId());
-            assertEquals("Title" + i, dto.getTitle());
-            assertEquals("Content" + i, dto.getContent());
-        }
+        assertEquals(questions, result.getContent());
+        ArgumentCaptor<FeedQuery> query = ArgumentCaptor.forClass(FeedQuery.class);
+        verify(feedStore, times(1)).findPage(query.capture(), eq(pageable), any());
+        return query.getValue();
+    }
 
-        // Verify
-        verify(questionRepository, times(1)).findLikedQuestions(pageable);
-        verify(questionLikeRepository, times(5)).countByQuestion(any(Question.class));
-        verify(questionRepository, times(5)).countAnswersByQuestion(any(Question.class));
-        verify(questionMapper, times(5)).convertToDTO(any(Question.class), anyLong(), anyLong());
+    @Test
+    public void testGetFilteredList_likes(){
+        FeedQuery query = getFilteredList("likes", new ArrayList<>());
 
+        assertTrue(query.pageSql().contains("FROM questions q ORDER BY q.like_count DESC, q.id DESC"));
+        assertTrue(query.parameters().isEmpty());
     }
 
     @Test
     public void testGetFilteredList_answers(){
-        // Arrange
-        List<String> types = new ArrayList<>();
-        List<Question> questions = new ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            Question question = new Question();
-            question.setId((long) i);
-            question.setTitle("Title" + i);
-            question.setContent("Content" + i);
-            question.setType("type 1");
-            question.setPublicationDate(LocalDate.now());
-            questions.add(question);
-        }
+        FeedQuery query = getFilteredList("answers", new ArrayList<>());
 
-        Pageable pageable = Pageable.ofSize(5).withPage(0);
-        Page<Question> page = new PageImpl<>(questions, pageable, questions.size());
-
-        when(questionRepository.findAnsweredQuestions(pageable)).thenReturn(page);
-        when(questionLikeRepository.countByQuestion(any(Question.class))).thenReturn(0L);
-        when(questionRepository.countAnswersByQuestion(any(Question.class))).thenReturn(0L);
-        when(questionMapper.convertToDTO(any(Question.class), anyLong(), anyLong())).thenAnswer(invocation -> {
-            Question question = invocation.getArgument(0);
-            Long likes = 0L;
-            Long answers = 0L;
-            return new QuestionResponseDTO(question.getId(), question.getTitle(), question.getContent(), question.getPublicationDate().toString(), question.getType(), question.getId(), likes, answers);
-        });
+        assertTrue(query.pageSql().contains("FROM questions q ORDER BY q.answer_count DESC, q.id DESC"));
+    }
 
-        FilterRequestDTO filterRequestDTO = new FilterRequestDTO();
-        filterRequestDTO.setOrderBy("answers");
-        filterRequestDTO.setPageSize(5);
-        filterRequestDTO.setPageNum(0);
-        filterRequestDTO.setCategories(types);
+    @Test
+    public void testGetFilteredList_recent(){
+        FeedQuery query = getFilteredList(null, new ArrayList<>());
 
-        // Act
-        Page<QuestionResponseDTO> result = questionService.getFilteredList(filterRequestDTO);
+        assertTrue(query.pageSql().contains("FROM questions q ORDER BY q.created_at DESC, q.id DESC"));
+    }
 
-        // Assert
-        assertNotNull(result);
-        assertEquals(5, result.getContent().size());
-        for (int i = 0; i < 5; i++) {
-            QuestionResponseDTO dto = result.getContent().get(i);
-            assertEquals(i, dto.getId());
-            assertEquals("Title" + i, dto.getTitle());
-            assertEquals("Content" + i, dto.getContent());
-        }
+    @Test
+    public void testGetFilteredList_likesTyped(){
+        FeedQuery query = getFilteredList("likes", List.of("type 1"));
 
-        // Verify
-        verify(questionRepository, times(1)).findAnsweredQuestions(pageable);
-        verify(questionLikeRepository, times(5)).countByQuestion(any(Question.class));
-        verify(questionRepository, times(5)).countAnswersByQuestion(any(Question.class));
-        verify(questionMapper, times(5)).convertToDTO(any(Question.class), anyLong(), anyLong());
+        assertTrue(query.pageSql().contains("WHERE q.type IN (:types) ORDER BY q.like_count DESC"));
+        assertEquals(Map.of("types", List.of("type 1")), query.parameters());
     }
 
     @Test
-    public void testGetFilteredList_recent(){
-        // Arrange
-        List<String> types = new ArrayList<>();
-        List<Question> questions = new ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            Question question = new Question();
-            question.setId((long) i);
-            question.setTitle("Title" + i);
-            question.setContent("Content" + i);
-            question.setType("type 1");
-            question.setPublicationDate(LocalDate.now());
-            questions.add(question);
-        }
-
-        Pageable pageable = Pageable.ofSize(5).withPage(0);
-        Page<Question> page = new PageImpl<>(questions, pageable, questions.size());
-
-        when(questionRepository.findRecentQuestions(pageable)).thenReturn(page);
-        when(questionLikeRepository.countByQuestion(any(Question.class))).thenReturn(0L);
-        when(questionRepository.countAnswersByQuestion(any(Question.class))).thenReturn(0L);
-        when(questionMapper.convertToDTO(any(Question.class), anyLong(), anyLong())).thenAnswer(invocation -> {
-            Question question = invocation.getArgument(0);
-            Long likes = 0L;
-            Long answers = 0L;
-            return new QuestionResponseDTO(question.getId(), question.getTitle(), question.getContent(), question.getPublicationDate().toString(), question.getType(), question.getId(), likes, answers);
-        });
+    public void testGetFilteredList_answersTyped(){
+        FeedQuery query = getFilteredList("answers", List.of("type 1"));
 
-        FilterRequestDTO filterRequestDTO = new FilterRequestDTO();
-        filterRequestDTO.setPageSize(5);
-        filterRequestDTO.setPageNum(0);
-        filterRequestDTO.setCategories(types);
+        assertTrue(query.pageSql().contains("WHERE q.type IN (:types) ORDER BY q.answer_count DESC"));
+    }
 
-        // Act
-        Page<QuestionResponseDTO> result = questionService.getFilteredList(filterRequestDTO);
+    @Test
+    public void testGetFilteredList_recentTyped(){
+        FeedQuery query = getFilteredList("comments", List.of("type 1"));
 
-        // Assert
-        assertNotNull(result);
-        assertEquals(5, result.getContent().size());
-        List<QuestionResponseDTO> content = result.getContent();
-        for (int i = 0; i < 5; i++) {
-            QuestionResponseDTO dto = content.get(i);
-            assertEquals(i, dto.getId());
-            assertEquals("Title" + i, dto.getTitle());
-            assertEquals("Content" + i, dto.getContent());
-        }
+        // questions have no comments, the ordering falls back to recent
+        assertTrue(query.pageSql().contains("WHERE q.type IN (:types) ORDER BY q.created_at DESC"));
     }
 
     @Test
-    public void testGetFilteredList_likesTyped(){
+    public void testGetFilteredList_byAsker(){
         // Arrange
-        List<String> types = new ArrayList<>();
-        types.add("type 1");
-        List<Question> questions = new ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            Question question = new Question();
-            question.setId((long) i);
-            question.setTitle("Title" + i);
-            question.setContent("Content" + i);
-            question.setType("type 1");
-            question.setPublicationDate(LocalDate.now());
-            questions.add(question);
-        }
-
         Pageable pageable = Pageable.ofSize(5).withPage(0);
-        Page<Question> page = new PageImpl<>(questions, pageable, questions.size());
-
-        when(questionRepository.findLikedQuestionByType(types, pageable)).thenReturn(page);
-        when(questionLikeRepository.countByQuestion(any(Question.class))).thenReturn(0L);
-        when(questionRepository.countAnswersByQuestion(any(Question.class))).thenReturn(0L);
-        when(questionMapper.convertToDTO(any(Question.class), anyLong(), anyLong())).thenAnswer(invocation -> {
-            Question question = invocation.getArgument(0);
-            Long likes = 0L;
-            Long answers = 0L;
-            return new QuestionResponseDTO(question.getId(), question.getTitle(), question.getContent(), question.getPublicationDate().toString(), question.getType(), question.getId(), likes, answers);
-        });
+        when(feedStore.<QuestionResponseDTO>findPage(any(), eq(pageable), any())).thenReturn(Page.empty(pageable));
 
         FilterRequestDTO filterRequestDTO = new FilterRequestDTO();
         filterRequestDTO.setPageSize(5);
-        filterRequestDTO.setPageNum(0);
-        filterRequestDTO.setCategories(types);
-        filterRequestDTO.setOrderBy("likes");
+        filterRequestDTO.setAuthorId(3L);
 
         // Act
-        Page<QuestionResponseDTO> result = questionService.getFilteredList(filterRequestDTO);
+        questionService.getFilteredList(filterRequestDTO);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(5, result.getContent().size());
-        List<QuestionResponseDTO> content = result.getContent();
-        for (int i = 0; i < 5; i++) {
-            QuestionResponseDTO dto = content.get(i);
-            assertEquals(i, dto.getId());
-            assertEquals("Title" + i, dto.getTitle());
-            assertEquals("Content" + i, dto.getContent());
-        }
+        ArgumentCaptor<FeedQuery> query = ArgumentCaptor.forClass(FeedQuery.class);
+        verify(feedStore).findPage(query.capture(), eq(pageable), any());
+        assertTrue(query.getValue().countSql().endsWith("WHERE q.user_id = :authorId"));
+        assertEquals(Map.of("authorId", 3L), query.getValue().parameters());
     }
 
     @Test
-    public void testGetFilteredList_answersTyped(){
+    public void testGetCursorList() {
         // Arrange
-        List<String> types = new ArrayList<>();
-        types.add("type 1");
-        List<Question> questions = new ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            Question question = new Question();
-            question.setId((long) i);
-            question.setTitle("Title" + i);
-            question.setContent("Content" + i);
-            question.setType("type 1");
-            question.setPublicationDate(LocalDate.now());
-            questions.add(question);
-        }
+        FilterRequestDTO filterRequestDTO = new FilterRequestDTO();
+        filterRequestDTO.setPageSize(1);
 
-        Pageable pageable = Pageable.ofSize(5).withPage(0);
-        Page<Question> page = new PageImpl<>(questions, pageable, questions.size());
-
-        when(questionRepository.findAnsweredQuestionByType(types, pageable)).thenReturn(page);
-        when(questionLikeRepository.countByQuestion(any(Question.class))).thenReturn(0L);
-        when(questionRepository.countAnswersByQuestion(any(Question.class))).thenReturn(0L);
-        when(questionMapper.convertToDTO(any(Question.class), anyLong(), anyLong())).thenAnswer(invocation -> {
-            Question question = invocation.getArgument(0);
-            Long likes = 0L;
-            Long answers = 0L;
-            return new QuestionResponseDTO(question.getId(), question.getTitle(), question.getContent(), question.getPublicationDate().toString(), question.getType(), question.getId(), likes, answers);
-        });
+        Instant createdAt = Instant.now();
+        QuestionResponseDTO dto1 = new QuestionResponseDTO();
+        dto1.setId(2L);
+        QuestionResponseDTO dto2 = new QuestionResponseDTO();
+        dto2.setId(1L);
 
-        FilterRequestDTO filterRequestDTO = new FilterRequestDTO();
-        filterRequestDTO.setPageSize(5);
-        filterRequestDTO.setPageNum(0);
-        filterRequestDTO.setCategories(types);
-        filterRequestDTO.setOrderBy("answers");
+        when(feedStore.<QuestionResponseDTO>findSlice(any(), eq(2), any())).thenReturn(List.of(
+                new FeedRow<>(dto1, new KeysetCursor(createdAt, 2L)), new FeedRow<>(dto2, new KeysetCursor(createdAt, 1L))));
 
         // Act
-        Page<QuestionResponseDTO> result = questionService.getFilteredList(filterRequestDTO);
+        CursorPageResponseDTO<QuestionResponseDTO> result = questionService.getCursorList(filterRequestDTO);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(5, result.getContent().size());
-        List<QuestionResponseDTO> content = result.getContent();
-        for (int i = 0; i < 5; i++) {
-            QuestionResponseDTO dto = content.get(i);
-            assertEquals(i, dto.getId());
-            assertEquals("Title" + i, dto.getTitle());
-            assertEquals("Content" + i, dto.getContent());
-        }
+        assertEquals(List.of(dto1), result.getContent());
+        assertEquals(2L, KeysetCursor.decode(result.getNextCursor()).getId());
     }
 
     @Test
-    public void testGetFilteredList_recentTyped(){
+    public void testGetCursorList_unsupportedOrder() {
         // Arrange
-        List<String> types = new ArrayList<>();
-        types.add("type 1");
-        List<Question> questions = new ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            Question question = new Question();
-            question.setId((long) i);
-            question.setTitle("Title" + i);
-            question.setContent("Content" + i);
-            question.setType("type 1");
-            question.setPublicationDate(LocalDate.now());
-            questions.add(question);
-        }
-
-        Pageable pageable = Pageable.ofSize(5).withPage(0);
-        Page<Question> page = new PageImpl<>(questions, pageable, questions.size());
-
-        when(questionRepository.findRecentQuestionByType(types, pageable)).thenReturn(page);
-        when(questionLikeRepository.countByQuestion(any(Question.class))).thenReturn(0L);
-        when(questionRepository.countAnswersByQuestion(any(Question.class))).thenReturn(0L);
-        when(questionMapper.convertToDTO(any(Question.class), anyLong(), anyLong())).thenAnswer(invocation -> {
-            Question question = invocation.getArgument(0);
-            Long likes = 0L;
-            Long answers = 0L;
-            return new QuestionResponseDTO(question.getId(), question.getTitle(), question.getContent(), question.getPublicationDate().toString(), question.getType(), question.getId(), likes, answers);
-        });
-
         FilterRequestDTO filterRequestDTO = new FilterRequestDTO();
-        filterRequestDTO.setPageSize(5);
-        filterRequestDTO.setPageNum(0);
-        filterRequestDTO.setCategories(types);
-
-        // Act
-        Page<QuestionResponseDTO> result = questionService.getFilteredList(filterRequestDTO);
+        filterRequestDTO.setPageSize(1);
+        filterRequestDTO.setOrderBy("answers");
 
-        // Assert
-        assertNotNull(result);
-        assertEquals(5, result.getContent().size());
-        List<QuestionResponseDTO> content = result.getContent();
-        for (int i = 0; i < 5; i++) {
-            QuestionResponseDTO dto = content.get(i);
-            assertEquals(i, dto.getId());
-            assertEquals("Title" + i, dto.getTitle());
-            assertEquals("Content" + i, dto.getContent());
-        }
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> questionService.getCursorList(filterRequestDTO));
+        verifyNoInteractions(feedStore);
     }
 }
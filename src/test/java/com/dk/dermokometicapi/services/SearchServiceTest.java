@@ -0,0 +1,139 @@
+package com.dk.dermokometicapi.services;
+
+import com.dk.dermokometicapi.exceptions.BadRequestException;
+import com.dk.dermokometicapi.models.dto.SearchRequestDTO;
+import com.dk.dermokometicapi.models.dto.SearchResultDTO;
+import com.dk.dermokometicapi.models.entities.Article;
+import com.dk.dermokometicapi.models.entities.ArticleDetail;
+import com.dk.dermokometicapi.models.entities.Question;
+import com.dk.dermokometicapi.repositories.ArticleRepository;
+import com.dk.dermokometicapi.repositories.QuestionRepository;
+import com.dk.dermokometicapi.search.QuestionSimilarityIndex;
+import com.dk.dermokometicapi.search.SearchHit;
+import com.dk.dermokometicapi.search.SearchIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SearchServiceTest {
+
+    @Mock
+    private SearchIndex searchIndex;
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    @Mock
+    private QuestionSimilarityIndex similarityIndex;
+
+    @InjectMocks
+    private SearchService searchService;
+
+    private SearchRequestDTO createSearchRequestDTO(String query, int pageSize, int pageNum) {
+        SearchRequestDTO searchRequestDTO = new SearchRequestDTO();
+        searchRequestDTO.setQuery(query);
+        searchRequestDTO.setPageSize(pageSize);
+        searchRequestDTO.setPageNum(pageNum);
+        return searchRequestDTO;
+    }
+
+    @Test
+    public void testSearch() {
+        // Arrange
+        SearchRequestDTO searchRequestDTO = createSearchRequestDTO("retinol", 2, 1);
+        searchRequestDTO.setKinds(List.of("article", "Question"));
+        searchRequestDTO.setCategories(List.of("Acne"));
+
+        List<SearchHit> hits = new ArrayList<>();
+        for (long i = 1; i <= 5; i++) {
+            hits.add(new SearchHit(SearchIndex.Kind.ARTICLE, i, "Acne", "Title" + i, "Description" + i, 10 - i));
+        }
+        when(searchIndex.search("retinol", List.of(SearchIndex.Kind.ARTICLE, SearchIndex.Kind.QUESTION), List.of("Acne"))).thenReturn(hits);
+
+        // Act
+        Page<SearchResultDTO> result = searchService.search(searchRequestDTO);
+
+        // Assert
+        assertEquals(5, result.getTotalElements());
+        assertEquals(2, result.getContent().size());
+        assertEquals(3L, result.getContent().get(0).getId());
+        assertEquals("article", result.getContent().get(0).getKind());
+        assertEquals("Title4", result.getContent().get(1).getTitle());
+    }
+
+    @Test
+    public void testSearch_PageOutOfRange() {
+        // Arrange
+        SearchRequestDTO searchRequestDTO = createSearchRequestDTO("retinol", 10, 3);
+        when(searchIndex.search("retinol", List.of(), List.of())).thenReturn(List.of(
+                new SearchHit(SearchIndex.Kind.QUESTION, 1L, "Acne", "Title", "Content", 1)));
+
+        // Act
+        Page<SearchResultDTO> result = searchService.search(searchRequestDTO);
+
+        // Assert
+        assertTrue(result.getContent().isEmpty());
+        assertEquals(1, result.getTotalElements());
+    }
+
+    @Test
+    public void testSearch_BlankQuery() {
+        SearchRequestDTO searchRequestDTO = createSearchRequestDTO(" ", 10, 0);
+
+        assertThrows(BadRequestException.class, () -> searchService.search(searchRequestDTO));
+    }
+
+    @Test
+    public void testSearch_UnknownKind() {
+        SearchRequestDTO searchRequestDTO = createSearchRequestDTO("retinol", 10, 0);
+        searchRequestDTO.setKinds(List.of("writer"));
+
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> searchService.search(searchRequestDTO));
+        assertEquals("Unknown search kind: writer", exception.getMessage());
+    }
+
+    @Test
+    public void testRebuildIndex() {
+        // Arrange
+        ArticleDetail articleDetail = new ArticleDetail();
+        articleDetail.setContent("Content");
+        Article article = new Article();
+        article.setId(1L);
+        article.setTitle("Title");
+        article.setDescription("Description");
+        article.setType("Type");
+        article.setArticleDetail(articleDetail);
+
+        Question question = new Question();
+        question.setId(2L);
+        question.setTitle("Question");
+        question.setContent("Question content");
+        question.setType("Type");
+
+        when(articleRepository.findAllWithDetail()).thenReturn(List.of(article));
+        when(questionRepository.findAll()).thenReturn(List.of(question));
+
+        // Act
+        searchService.rebuildIndex();
+
+        // Assert
+        verify(searchIndex).clear();
+        verify(searchIndex).indexArticle(1L, "Type", "Title", "Description", "Content");
+        verify(searchIndex).indexQuestion(2L, "Type", "Question", "Question content");
+        verify(similarityIndex).clear();
+        verify(similarityIndex).index(2L, "Type", "Question", "Question content");
+    }
+}
@@ -1,5 +1,7 @@
 package com.dk.dermokometicapi.services;
 
+import com.dk.dermokometicapi.images.ImageStore;
+import com.dk.dermokometicapi.images.ImageVariants;
 import com.dk.dermokometicapi.models.dto.UserRequestDTO;
 import com.dk.dermokometicapi.models.dto.UserResponseDTO;
 import com.dk.dermokometicapi.models.dto.UserUpdateDTO;
@@ -32,6 +34,12 @@ public class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private ImageStore imageStore;
+
+    @Mock
+    private ImageVariants imageVariants;
+
     @InjectMocks
     private UserService userService;
 
@@ -402,6 +410,38 @@ public class UserServiceTest {
 
 
 
+    @Test
+    public void testUpdateProfilePic() {
+        // Arrange
+        byte[] image = {1, 2, 3};
+        User user = new User();
+        user.setUsername("username");
+        user.setProfilePic("data:image/png;base64,AAAA");
+        UserResponseDTO userResponseDTO = new UserResponseDTO();
+
+        when(userRepository.findByUsername("username")).thenReturn(Optional.of(user));
+        when(imageStore.store(image)).thenReturn("key.png");
+        when(userMapper.convertToDTO(user)).thenReturn(userResponseDTO);
+
+        // Act
+        UserResponseDTO result = userService.updateProfilePic("username", image);
+
+        // Assert
+        assertSame(userResponseDTO, result);
+        assertEquals("key.png", user.getProfileImage());
+        assertNull(user.getProfilePic());
+        verify(userRepository).save(user);
+        verify(imageVariants).prepare("key.png");
+    }
+
+    @Test
+    public void testUpdateProfilePic_UserNotFound() {
+        when(userRepository.findByUsername("username")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.updateProfilePic("username", new byte[]{1}));
+        verifyNoInteractions(imageStore);
+    }
+
      @Test
     public void testPatchUser_UserNotFound() {
         String username = "username";
@@ -1,5 +1,8 @@
 package com.dk.dermokometicapi.services;
 
+import com.dk.dermokometicapi.exceptions.ResourceNotFoundException;
+import com.dk.dermokometicapi.images.ImageStore;
+import com.dk.dermokometicapi.images.ImageVariants;
 import com.dk.dermokometicapi.models.dto.WriterResponseDTO;
 import com.dk.dermokometicapi.models.entities.Writer;
 import com.dk.dermokometicapi.mappers.WriterMapper;
@@ -12,9 +15,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class WriterServiceTest {
@@ -25,6 +29,12 @@ public class WriterServiceTest {
     @Mock
     private WriterMapper writerMapper;
 
+    @Mock
+    private ImageStore imageStore;
+
+    @Mock
+    private ImageVariants imageVariants;
+
     @InjectMocks
     private WriterService writerService;
 
@@ -126,4 +136,32 @@ public class WriterServiceTest {
         assertEquals(2L, result.get(1).getId());
         assertEquals(3L, result.get(2).getId());
     }
+
+    @Test
+    public void testUpdateProfilePic() {
+        // Arrange
+        byte[] image = {1, 2, 3};
+        Writer writer = new Writer(); writer.setId(1L);
+        WriterResponseDTO writerResponseDTO = new WriterResponseDTO(); writerResponseDTO.setId(1L);
+        when(writerRepository.findById(1L)).thenReturn(Optional.of(writer));
+        when(imageStore.store(image)).thenReturn("key.png");
+        when(writerMapper.convertToDTO(writer)).thenReturn(writerResponseDTO);
+
+        // Act
+        WriterResponseDTO result = writerService.updateProfilePic(1L, image);
+
+        // Assert
+        assertEquals(1L, result.getId());
+        assertEquals("key.png", writer.getProfileImage());
+        verify(writerRepository).save(writer);
+        verify(imageVariants).prepare("key.png");
+    }
+
+    @Test
+    public void testUpdateProfilePic_WriterNotFound() {
+        when(writerRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> writerService.updateProfilePic(1L, new byte[]{1}));
+        verifyNoInteractions(imageStore);
+    }
 }
@@ -0,0 +1,40 @@
+package com.dk.dermokometicapi.threads;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThreadPathTest {
+
+    @Test
+    public void testChildAndDepth() {
+        String root = ThreadPath.child(null, 1);
+        String reply = ThreadPath.child(root, 36);
+
+        assertEquals("0000000000001", root);
+        assertEquals("00000000000010000000000010", reply);
+        assertEquals(0, ThreadPath.depth(root));
+        assertEquals(1, ThreadPath.depth(reply));
+        assertEquals(ThreadPath.SEGMENT_LENGTH, ThreadPath.child(null, Long.MAX_VALUE).length());
+    }
+
+    @Test
+    public void testUpperBoundCoversSubtreeOnly() {
+        String root = ThreadPath.child(null, 35);
+        String upperBound = ThreadPath.upperBound(root);
+
+        String deepReply = ThreadPath.child(ThreadPath.child(root, Long.MAX_VALUE), 7);
+        String sibling = ThreadPath.child(null, 36);
+        String siblingReply = ThreadPath.child(sibling, 1);
+
+        assertEquals(sibling, upperBound);
+        assertTrue(deepReply.compareTo(root) >= 0 && deepReply.compareTo(upperBound) < 0);
+        assertFalse(siblingReply.compareTo(upperBound) < 0);
+        assertTrue(ThreadPath.child(null, 34).compareTo(root) < 0);
+    }
+
+    @Test
+    public void testNegativeId() {
+        assertThrows(IllegalArgumentException.class, () -> ThreadPath.child(null, -1));
+    }
+}
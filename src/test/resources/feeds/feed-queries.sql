@@ -0,0 +1,480 @@
+-- ARTICLE RECENT
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a ORDER BY a.created_at DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a;
+
+-- ARTICLE RECENT types
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types);
+
+-- ARTICLE RECENT published-from
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date >= :publishedFrom ORDER BY a.created_at DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date >= :publishedFrom;
+
+-- ARTICLE RECENT types published-from
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom ORDER BY a.created_at DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom;
+
+-- ARTICLE RECENT published-to
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date <= :publishedTo ORDER BY a.created_at DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date <= :publishedTo;
+
+-- ARTICLE RECENT types published-to
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date <= :publishedTo ORDER BY a.created_at DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date <= :publishedTo;
+
+-- ARTICLE RECENT published-from published-to
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo ORDER BY a.created_at DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo;
+
+-- ARTICLE RECENT types published-from published-to
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo ORDER BY a.created_at DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo;
+
+-- ARTICLE RECENT author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE RECENT types author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE RECENT published-from author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date >= :publishedFrom AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date >= :publishedFrom AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE RECENT types published-from author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE RECENT published-to author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE RECENT types published-to author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE RECENT published-from published-to author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE RECENT types published-from published-to author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE RECENT cursor
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE (a.created_at < :afterCreatedAt OR (a.created_at = :afterCreatedAt AND a.id < :afterId)) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit;
+
+-- ARTICLE RECENT types cursor
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND (a.created_at < :afterCreatedAt OR (a.created_at = :afterCreatedAt AND a.id < :afterId)) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit;
+
+-- ARTICLE RECENT published-from cursor
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date >= :publishedFrom AND (a.created_at < :afterCreatedAt OR (a.created_at = :afterCreatedAt AND a.id < :afterId)) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit;
+
+-- ARTICLE RECENT types published-from cursor
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND (a.created_at < :afterCreatedAt OR (a.created_at = :afterCreatedAt AND a.id < :afterId)) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit;
+
+-- ARTICLE RECENT published-to cursor
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date <= :publishedTo AND (a.created_at < :afterCreatedAt OR (a.created_at = :afterCreatedAt AND a.id < :afterId)) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit;
+
+-- ARTICLE RECENT types published-to cursor
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date <= :publishedTo AND (a.created_at < :afterCreatedAt OR (a.created_at = :afterCreatedAt AND a.id < :afterId)) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit;
+
+-- ARTICLE RECENT published-from published-to cursor
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo AND (a.created_at < :afterCreatedAt OR (a.created_at = :afterCreatedAt AND a.id < :afterId)) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit;
+
+-- ARTICLE RECENT types published-from published-to cursor
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo AND (a.created_at < :afterCreatedAt OR (a.created_at = :afterCreatedAt AND a.id < :afterId)) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit;
+
+-- ARTICLE RECENT author cursor
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) AND (a.created_at < :afterCreatedAt OR (a.created_at = :afterCreatedAt AND a.id < :afterId)) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit;
+
+-- ARTICLE RECENT types author cursor
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) AND (a.created_at < :afterCreatedAt OR (a.created_at = :afterCreatedAt AND a.id < :afterId)) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit;
+
+-- ARTICLE RECENT published-from author cursor
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date >= :publishedFrom AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) AND (a.created_at < :afterCreatedAt OR (a.created_at = :afterCreatedAt AND a.id < :afterId)) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit;
+
+-- ARTICLE RECENT types published-from author cursor
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) AND (a.created_at < :afterCreatedAt OR (a.created_at = :afterCreatedAt AND a.id < :afterId)) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit;
+
+-- ARTICLE RECENT published-to author cursor
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) AND (a.created_at < :afterCreatedAt OR (a.created_at = :afterCreatedAt AND a.id < :afterId)) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit;
+
+-- ARTICLE RECENT types published-to author cursor
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) AND (a.created_at < :afterCreatedAt OR (a.created_at = :afterCreatedAt AND a.id < :afterId)) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit;
+
+-- ARTICLE RECENT published-from published-to author cursor
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) AND (a.created_at < :afterCreatedAt OR (a.created_at = :afterCreatedAt AND a.id < :afterId)) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit;
+
+-- ARTICLE RECENT types published-from published-to author cursor
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) AND (a.created_at < :afterCreatedAt OR (a.created_at = :afterCreatedAt AND a.id < :afterId)) ORDER BY a.created_at DESC, a.id DESC LIMIT :limit;
+
+-- ARTICLE LIKES
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a ORDER BY a.like_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a;
+
+-- ARTICLE LIKES types
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) ORDER BY a.like_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types);
+
+-- ARTICLE LIKES published-from
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date >= :publishedFrom ORDER BY a.like_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date >= :publishedFrom;
+
+-- ARTICLE LIKES types published-from
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom ORDER BY a.like_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom;
+
+-- ARTICLE LIKES published-to
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date <= :publishedTo ORDER BY a.like_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date <= :publishedTo;
+
+-- ARTICLE LIKES types published-to
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date <= :publishedTo ORDER BY a.like_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date <= :publishedTo;
+
+-- ARTICLE LIKES published-from published-to
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo ORDER BY a.like_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo;
+
+-- ARTICLE LIKES types published-from published-to
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo ORDER BY a.like_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo;
+
+-- ARTICLE LIKES author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.like_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE LIKES types author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.like_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE LIKES published-from author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date >= :publishedFrom AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.like_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date >= :publishedFrom AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE LIKES types published-from author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.like_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE LIKES published-to author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.like_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE LIKES types published-to author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.like_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE LIKES published-from published-to author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.like_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE LIKES types published-from published-to author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.like_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE COMMENTS
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a ORDER BY a.comment_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a;
+
+-- ARTICLE COMMENTS types
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) ORDER BY a.comment_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types);
+
+-- ARTICLE COMMENTS published-from
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date >= :publishedFrom ORDER BY a.comment_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date >= :publishedFrom;
+
+-- ARTICLE COMMENTS types published-from
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom ORDER BY a.comment_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom;
+
+-- ARTICLE COMMENTS published-to
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date <= :publishedTo ORDER BY a.comment_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date <= :publishedTo;
+
+-- ARTICLE COMMENTS types published-to
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date <= :publishedTo ORDER BY a.comment_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date <= :publishedTo;
+
+-- ARTICLE COMMENTS published-from published-to
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo ORDER BY a.comment_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo;
+
+-- ARTICLE COMMENTS types published-from published-to
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo ORDER BY a.comment_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo;
+
+-- ARTICLE COMMENTS author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.comment_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE COMMENTS types author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.comment_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE COMMENTS published-from author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date >= :publishedFrom AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.comment_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date >= :publishedFrom AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE COMMENTS types published-from author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.comment_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE COMMENTS published-to author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.comment_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE COMMENTS types published-to author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.comment_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE COMMENTS published-from published-to author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.comment_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- ARTICLE COMMENTS types published-from published-to author
+SELECT a.id, a.title, a.description, a.type, a.main_img, a.main_image, a.publication_date, a.last_update_date, a.created_at, a.like_count, a.comment_count FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId) ORDER BY a.comment_count DESC, a.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM articles a WHERE a.type IN (:types) AND a.publication_date >= :publishedFrom AND a.publication_date <= :publishedTo AND EXISTS (SELECT 1 FROM article_writers aw WHERE aw.article_id = a.id AND aw.writer_id = :authorId);
+
+-- QUESTION RECENT
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q ORDER BY q.created_at DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q;
+
+-- QUESTION RECENT types
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) ORDER BY q.created_at DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types);
+
+-- QUESTION RECENT published-from
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date >= :publishedFrom ORDER BY q.created_at DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date >= :publishedFrom;
+
+-- QUESTION RECENT types published-from
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom ORDER BY q.created_at DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom;
+
+-- QUESTION RECENT published-to
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date <= :publishedTo ORDER BY q.created_at DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date <= :publishedTo;
+
+-- QUESTION RECENT types published-to
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date <= :publishedTo ORDER BY q.created_at DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date <= :publishedTo;
+
+-- QUESTION RECENT published-from published-to
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo ORDER BY q.created_at DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo;
+
+-- QUESTION RECENT types published-from published-to
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo ORDER BY q.created_at DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo;
+
+-- QUESTION RECENT author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.user_id = :authorId ORDER BY q.created_at DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.user_id = :authorId;
+
+-- QUESTION RECENT types author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.user_id = :authorId ORDER BY q.created_at DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.user_id = :authorId;
+
+-- QUESTION RECENT published-from author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date >= :publishedFrom AND q.user_id = :authorId ORDER BY q.created_at DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date >= :publishedFrom AND q.user_id = :authorId;
+
+-- QUESTION RECENT types published-from author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.user_id = :authorId ORDER BY q.created_at DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.user_id = :authorId;
+
+-- QUESTION RECENT published-to author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date <= :publishedTo AND q.user_id = :authorId ORDER BY q.created_at DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date <= :publishedTo AND q.user_id = :authorId;
+
+-- QUESTION RECENT types published-to author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date <= :publishedTo AND q.user_id = :authorId ORDER BY q.created_at DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date <= :publishedTo AND q.user_id = :authorId;
+
+-- QUESTION RECENT published-from published-to author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo AND q.user_id = :authorId ORDER BY q.created_at DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo AND q.user_id = :authorId;
+
+-- QUESTION RECENT types published-from published-to author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo AND q.user_id = :authorId ORDER BY q.created_at DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo AND q.user_id = :authorId;
+
+-- QUESTION RECENT cursor
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE (q.created_at < :afterCreatedAt OR (q.created_at = :afterCreatedAt AND q.id < :afterId)) ORDER BY q.created_at DESC, q.id DESC LIMIT :limit;
+
+-- QUESTION RECENT types cursor
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND (q.created_at < :afterCreatedAt OR (q.created_at = :afterCreatedAt AND q.id < :afterId)) ORDER BY q.created_at DESC, q.id DESC LIMIT :limit;
+
+-- QUESTION RECENT published-from cursor
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date >= :publishedFrom AND (q.created_at < :afterCreatedAt OR (q.created_at = :afterCreatedAt AND q.id < :afterId)) ORDER BY q.created_at DESC, q.id DESC LIMIT :limit;
+
+-- QUESTION RECENT types published-from cursor
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND (q.created_at < :afterCreatedAt OR (q.created_at = :afterCreatedAt AND q.id < :afterId)) ORDER BY q.created_at DESC, q.id DESC LIMIT :limit;
+
+-- QUESTION RECENT published-to cursor
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date <= :publishedTo AND (q.created_at < :afterCreatedAt OR (q.created_at = :afterCreatedAt AND q.id < :afterId)) ORDER BY q.created_at DESC, q.id DESC LIMIT :limit;
+
+-- QUESTION RECENT types published-to cursor
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date <= :publishedTo AND (q.created_at < :afterCreatedAt OR (q.created_at = :afterCreatedAt AND q.id < :afterId)) ORDER BY q.created_at DESC, q.id DESC LIMIT :limit;
+
+-- QUESTION RECENT published-from published-to cursor
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo AND (q.created_at < :afterCreatedAt OR (q.created_at = :afterCreatedAt AND q.id < :afterId)) ORDER BY q.created_at DESC, q.id DESC LIMIT :limit;
+
+-- QUESTION RECENT types published-from published-to cursor
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo AND (q.created_at < :afterCreatedAt OR (q.created_at = :afterCreatedAt AND q.id < :afterId)) ORDER BY q.created_at DESC, q.id DESC LIMIT :limit;
+
+-- QUESTION RECENT author cursor
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.user_id = :authorId AND (q.created_at < :afterCreatedAt OR (q.created_at = :afterCreatedAt AND q.id < :afterId)) ORDER BY q.created_at DESC, q.id DESC LIMIT :limit;
+
+-- QUESTION RECENT types author cursor
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.user_id = :authorId AND (q.created_at < :afterCreatedAt OR (q.created_at = :afterCreatedAt AND q.id < :afterId)) ORDER BY q.created_at DESC, q.id DESC LIMIT :limit;
+
+-- QUESTION RECENT published-from author cursor
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date >= :publishedFrom AND q.user_id = :authorId AND (q.created_at < :afterCreatedAt OR (q.created_at = :afterCreatedAt AND q.id < :afterId)) ORDER BY q.created_at DESC, q.id DESC LIMIT :limit;
+
+-- QUESTION RECENT types published-from author cursor
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.user_id = :authorId AND (q.created_at < :afterCreatedAt OR (q.created_at = :afterCreatedAt AND q.id < :afterId)) ORDER BY q.created_at DESC, q.id DESC LIMIT :limit;
+
+-- QUESTION RECENT published-to author cursor
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date <= :publishedTo AND q.user_id = :authorId AND (q.created_at < :afterCreatedAt OR (q.created_at = :afterCreatedAt AND q.id < :afterId)) ORDER BY q.created_at DESC, q.id DESC LIMIT :limit;
+
+-- QUESTION RECENT types published-to author cursor
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date <= :publishedTo AND q.user_id = :authorId AND (q.created_at < :afterCreatedAt OR (q.created_at = :afterCreatedAt AND q.id < :afterId)) ORDER BY q.created_at DESC, q.id DESC LIMIT :limit;
+
+-- QUESTION RECENT published-from published-to author cursor
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo AND q.user_id = :authorId AND (q.created_at < :afterCreatedAt OR (q.created_at = :afterCreatedAt AND q.id < :afterId)) ORDER BY q.created_at DESC, q.id DESC LIMIT :limit;
+
+-- QUESTION RECENT types published-from published-to author cursor
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo AND q.user_id = :authorId AND (q.created_at < :afterCreatedAt OR (q.created_at = :afterCreatedAt AND q.id < :afterId)) ORDER BY q.created_at DESC, q.id DESC LIMIT :limit;
+
+-- QUESTION LIKES
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q ORDER BY q.like_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q;
+
+-- QUESTION LIKES types
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) ORDER BY q.like_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types);
+
+-- QUESTION LIKES published-from
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date >= :publishedFrom ORDER BY q.like_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date >= :publishedFrom;
+
+-- QUESTION LIKES types published-from
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom ORDER BY q.like_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom;
+
+-- QUESTION LIKES published-to
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date <= :publishedTo ORDER BY q.like_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date <= :publishedTo;
+
+-- QUESTION LIKES types published-to
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date <= :publishedTo ORDER BY q.like_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date <= :publishedTo;
+
+-- QUESTION LIKES published-from published-to
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo ORDER BY q.like_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo;
+
+-- QUESTION LIKES types published-from published-to
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo ORDER BY q.like_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo;
+
+-- QUESTION LIKES author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.user_id = :authorId ORDER BY q.like_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.user_id = :authorId;
+
+-- QUESTION LIKES types author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.user_id = :authorId ORDER BY q.like_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.user_id = :authorId;
+
+-- QUESTION LIKES published-from author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date >= :publishedFrom AND q.user_id = :authorId ORDER BY q.like_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date >= :publishedFrom AND q.user_id = :authorId;
+
+-- QUESTION LIKES types published-from author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.user_id = :authorId ORDER BY q.like_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.user_id = :authorId;
+
+-- QUESTION LIKES published-to author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date <= :publishedTo AND q.user_id = :authorId ORDER BY q.like_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date <= :publishedTo AND q.user_id = :authorId;
+
+-- QUESTION LIKES types published-to author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date <= :publishedTo AND q.user_id = :authorId ORDER BY q.like_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date <= :publishedTo AND q.user_id = :authorId;
+
+-- QUESTION LIKES published-from published-to author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo AND q.user_id = :authorId ORDER BY q.like_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo AND q.user_id = :authorId;
+
+-- QUESTION LIKES types published-from published-to author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo AND q.user_id = :authorId ORDER BY q.like_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo AND q.user_id = :authorId;
+
+-- QUESTION ANSWERS
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q ORDER BY q.answer_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q;
+
+-- QUESTION ANSWERS types
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) ORDER BY q.answer_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types);
+
+-- QUESTION ANSWERS published-from
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date >= :publishedFrom ORDER BY q.answer_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date >= :publishedFrom;
+
+-- QUESTION ANSWERS types published-from
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom ORDER BY q.answer_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom;
+
+-- QUESTION ANSWERS published-to
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date <= :publishedTo ORDER BY q.answer_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date <= :publishedTo;
+
+-- QUESTION ANSWERS types published-to
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date <= :publishedTo ORDER BY q.answer_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date <= :publishedTo;
+
+-- QUESTION ANSWERS published-from published-to
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo ORDER BY q.answer_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo;
+
+-- QUESTION ANSWERS types published-from published-to
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo ORDER BY q.answer_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo;
+
+-- QUESTION ANSWERS author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.user_id = :authorId ORDER BY q.answer_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.user_id = :authorId;
+
+-- QUESTION ANSWERS types author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.user_id = :authorId ORDER BY q.answer_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.user_id = :authorId;
+
+-- QUESTION ANSWERS published-from author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date >= :publishedFrom AND q.user_id = :authorId ORDER BY q.answer_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date >= :publishedFrom AND q.user_id = :authorId;
+
+-- QUESTION ANSWERS types published-from author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.user_id = :authorId ORDER BY q.answer_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.user_id = :authorId;
+
+-- QUESTION ANSWERS published-to author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date <= :publishedTo AND q.user_id = :authorId ORDER BY q.answer_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date <= :publishedTo AND q.user_id = :authorId;
+
+-- QUESTION ANSWERS types published-to author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date <= :publishedTo AND q.user_id = :authorId ORDER BY q.answer_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date <= :publishedTo AND q.user_id = :authorId;
+
+-- QUESTION ANSWERS published-from published-to author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo AND q.user_id = :authorId ORDER BY q.answer_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo AND q.user_id = :authorId;
+
+-- QUESTION ANSWERS types published-from published-to author
+SELECT q.id, q.title, q.content, q.type, q.publication_date, q.created_at, q.user_id, q.like_count, q.answer_count FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo AND q.user_id = :authorId ORDER BY q.answer_count DESC, q.id DESC LIMIT :limit OFFSET :offset;
+SELECT COUNT(*) FROM questions q WHERE q.type IN (:types) AND q.publication_date >= :publishedFrom AND q.publication_date <= :publishedTo AND q.user_id = :authorId;
+